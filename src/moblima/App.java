@@ -5,6 +5,8 @@ import moblima.boundaries.Menu;
 import moblima.boundaries.StaffMenu;
 import moblima.utils.Constants;
 import moblima.utils.Helper;
+import moblima.utils.datasource.DataContext;
+import moblima.utils.datasource.Datasource;
 import moblima.utils.datasource.HolidayDatasource;
 import moblima.utils.datasource.MovieDatasource;
 
@@ -47,6 +49,9 @@ public class App {
   public static void main(String[] args) {
     instance = App.getInstance();
 
+    // Read all data files concurrently, ahead of the handlers
+    DataContext.getInstance().preload();
+
     // Default - Customer
     instance.currentMenu = CustomerMenu.getInstance();
 
@@ -65,6 +70,10 @@ public class App {
       if (args[0].equals("--generate")) generate();
     }
 
+    // Loading is read-only, any write here is a regression
+    Helper.logger("App.main", "Startup I/O: " + Datasource.getReadCount() + " read(s), " + Datasource.getWriteCount() + " write(s)");
+    Helper.logger("App.main", "Load timings (ms): " + DataContext.getInstance().getLoadTimings());
+
     // Show menu
     Helper.figPrint("MOBLIMA");
     instance.currentMenu.showMenu();
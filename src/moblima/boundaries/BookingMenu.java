@@ -5,8 +5,10 @@ import moblima.entities.Booking;
 import moblima.entities.Cinema;
 import moblima.entities.Movie;
 import moblima.entities.Movie.ShowStatus;
+import moblima.entities.SeatMap;
 import moblima.entities.Showtime;
 import moblima.utils.Helper;
+import moblima.utils.services.booking.SeatFinder;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -71,7 +73,7 @@ public class BookingMenu extends Menu {
         Showtime showtime = showtimes.get(i);
         int showtimeIdx = i;
         menuMap.put((i + 1) + ". " + showtime.toString(), () -> {
-          handler.setSelectedShowtimeIdx(showtimeIdx);
+          handler.setSelectedShowtimeIdx(session, showtimeIdx);
           handler.printShowtimeDetails(showtimeIdx);
         });
       }
@@ -97,7 +99,7 @@ public class BookingMenu extends Menu {
         Booking booking = bookings.get(i);
         int bookingIdx = i;
         menuMap.put((i + 1) + ". " + booking.getTransactionId(), () -> {
-          handler.setSelectedBookingIdx(bookingIdx);
+          handler.setSelectedBookingIdx(session, bookingIdx);
           handler.printBooking(booking.getTransactionId());
         });
       }
@@ -121,7 +123,7 @@ public class BookingMenu extends Menu {
       for (int i = 0; i < cinemas.size(); i++) {
         Cinema cinema = cinemas.get(i);
         menuMap.put((i + 1) + ". " + cinema.getClassType(), () -> {
-          handler.setSelectedCinemaId(cinema.getId());
+          handler.setSelectedCinemaId(session, cinema.getId());
           System.out.println(cinema);
         });
       }
@@ -252,7 +254,7 @@ public class BookingMenu extends Menu {
     Showtime showtime = showtimes.get(selectedIdx);
     int showtimeIdx = handler.getShowtimeIdx(showtime.getId());
     // Store selection idx
-    handler.setSelectedShowtimeIdx(showtimeIdx);
+    handler.setSelectedShowtimeIdx(session, showtimeIdx);
 
     return showtimeIdx;
   }
@@ -294,7 +296,7 @@ public class BookingMenu extends Menu {
     Showtime showtime = showtimes.get(selectedIdx);
     int showtimeIdx = handler.getShowtimeIdx(showtime.getId());
     // Store selection idx
-    handler.setSelectedShowtimeIdx(showtimeIdx);
+    handler.setSelectedShowtimeIdx(session, showtimeIdx);
 
     return showtimeIdx;
   }
@@ -328,42 +330,89 @@ public class BookingMenu extends Menu {
 //+ selectSeat(showtimeIdx:int):List<int[]>
   public List<int[]> selectSeat(int showtimeIdx) {
     List<String> confirmationOptions = new ArrayList<String>() {{
+      add("Select best available seats");
       add("Continue selecting more seats");
       add("Confirm booking");
       add("Discard selection");
       add("Return to previous menu");
     }};
 
-    boolean[][] showtimeSeats = handler.getShowtime(showtimeIdx).getSeats();
+    SeatMap showtimeSeats = handler.getShowtime(showtimeIdx).getSeats();
     List<int[]> selectedSeats = new ArrayList<int[]>();
 
     int confirmationSelection = 0;
     while (confirmationSelection != confirmationOptions.size()) {
 
-      // Seat selection
       switch (confirmationSelection) {
+        // Best available seats, side by side where possible
         case 0 -> {
+          showtimeSeats = handler.getShowtime(showtimeIdx).getSeats();
+          int availableCount = showtimeSeats.getAvailableCount();
+          if (availableCount < 1) {
+            colorPrint("No seats available", Preset.WARNING);
+            confirmationSelection = confirmationOptions.size() - 1;
+            continue;
+          }
+
+          List<Integer> countRange = IntStream.rangeClosed(1, availableCount).boxed().toList();
+          System.out.println("Enter the no. of seats: ");
+          int seatCount = this.getListSelectionIdx(countRange, false) + 1;
+
+          // Best seats replace the current selection
+          handler.releaseSeatHolds(session);
+          selectedSeats = new ArrayList<int[]>();
+
+          // Retry if another session takes the seats between finding and holding them
+          List<int[]> bestSeats = null;
+          for (int attempt = 0; attempt < 3 && bestSeats == null; attempt++) {
+            if (attempt > 0) showtimeSeats = handler.getShowtime(showtimeIdx).getSeats();
+            bestSeats = SeatFinder.findBest(showtimeSeats, seatCount);
+            if (bestSeats != null && handler.holdSeats(session, showtimeIdx, bestSeats) == null) bestSeats = null;
+          }
+          if (bestSeats == null) {
+            colorPrint("Not enough seats available. Try fewer", Preset.WARNING);
+            continue;
+          }
+
+          selectedSeats.addAll(bestSeats);
+          showtimeSeats = handler.getShowtime(showtimeIdx).getSeats();
+          handler.printSeats(showtimeSeats, new ArrayList<int[]>(selectedSeats));
+        }
+
+
+        // Seat selection
+        case 1 -> {
           int[] selectedSeat = this.seatSelection(showtimeIdx);
 
+          // VALIDATION: Check if seat exists in the hall
+          if (!showtimeSeats.isValid(selectedSeat)) {
+            colorPrint("Seat does not exist. Try another", Preset.WARNING);
+            continue;
+          }
+
           // VALIDATION: Check if seat was previously selected
-          if (!showtimeSeats[selectedSeat[0]][selectedSeat[1]]) {
+          if (selectedSeats.stream().anyMatch(s -> Arrays.equals(s, selectedSeat))) {
             colorPrint("Seat is already selected. Try another", Preset.WARNING);
             continue;
           }
 
-          selectedSeats.add(selectedSeat);
+          // Hold seat until booked, VALIDATION: Check if seat is booked or held by another session
+          if (handler.holdSeats(session, showtimeIdx, Collections.singletonList(selectedSeat)) == null) {
+            colorPrint("Seat is unavailable. Try another", Preset.WARNING);
+            continue;
+          }
 
-          // Sudo seat assignment
-          handler.assignSeat(showtimeSeats, selectedSeat, true);
+          selectedSeats.add(selectedSeat);
+          showtimeSeats = handler.getShowtime(showtimeIdx).getSeats();
           handler.printSeats(showtimeSeats, new ArrayList<int[]>(selectedSeats));
         }
 
 
         // Selection Confirmation
-        case 1 -> {
+        case 2 -> {
           if(selectedSeats.size() < 1) {
             colorPrint("No seats selected", Preset.WARNING);
-            confirmationSelection = 0;
+            confirmationSelection = 1;
             continue;
           }
           // Finalize the seat selection
@@ -375,8 +424,7 @@ public class BookingMenu extends Menu {
 
         // Discard Selection, Return without saving
         default -> {
-          handler.bulkAssignSeat(showtimeIdx, selectedSeats, false);
-          showtimeSeats = handler.getShowtime(showtimeIdx).getSeats();
+          handler.releaseSeatHolds(session);
           selectedSeats = new ArrayList<int[]>();
 
           // Return to previous menu
@@ -404,13 +452,13 @@ public class BookingMenu extends Menu {
    */
 //+ seatSelection(showtimeIdx:int):int[]
   public int[] seatSelection(int showtimeIdx) {
-    boolean[][] seats = handler.getShowtime(showtimeIdx).getSeats();
+    SeatMap seats = handler.getShowtime(showtimeIdx).getSeats();
     handler.printSeats(seats, new ArrayList<>());
 
     int[] seatCode = new int[2];
 
-    List<Integer> rowRange = IntStream.rangeClosed(0, seats.length - 1).boxed().toList();
-    List<Integer> colRange = IntStream.rangeClosed(0, seats[0].length - 1).boxed().toList();
+    List<Integer> rowRange = IntStream.rangeClosed(0, seats.getRowCount() - 1).boxed().toList();
+    List<Integer> colRange = IntStream.rangeClosed(0, seats.getColCount() - 1).boxed().toList();
 
     //BUG:
     System.out.println("Enter the seat row: ");
@@ -532,6 +580,7 @@ public class BookingMenu extends Menu {
     if (showtime == null) return status;
 
     int showtimeIdx = handler.getShowtimeIdx(showtimeId);
+    handler.setSelectedShowtimeIdx(session, showtimeIdx);
     handler.printShowtimeDetails(showtimeIdx);
 
     List<String> proceedOptions = new ArrayList<String>() {
@@ -556,9 +605,9 @@ public class BookingMenu extends Menu {
       if (proceedSelection >= proceedOptions.size() - 3) {
         // Save changes
         if (proceedSelection == proceedOptions.size() - 2) {
-          handler.updateShowtime(showtime.getCinemaId(), showtime.getMovieId(), showtime.getType(), showtime.getDatetime(), showtime.getSeats());
-          status = true;
-          colorPrint("Showtime updated", Preset.SUCCESS);
+          status = handler.updateShowtime(session, showtime.getCinemaId(), showtime.getMovieId(), showtime.getType(), showtime.getDatetime());
+          if (status) colorPrint("Showtime updated", Preset.SUCCESS);
+          else colorPrint("Unable to update showtime", Preset.ERROR);
         }
         // Remove movie
         else if (proceedSelection == proceedOptions.size() - 3) {
@@ -590,8 +639,8 @@ public class BookingMenu extends Menu {
 
         int cinemaId = this.setCinemaId(prevStatus);
 
-        if (handler.checkClashingShowtime(cinemaId, showtime.getDatetime())) {
-          colorPrint("/ NO CHANGE - Cinema already has a showing at the given datetime", Preset.WARNING);
+        if (handler.checkClashingShowtime(cinemaId, showtime.getMovieId(), showtime.getDatetime(), showtime.getId())) {
+          colorPrint("/ NO CHANGE - Cinema already has a showing over the given datetime", Preset.WARNING);
           continue;
         }
         showtime.setCinemaId(cinemaId);
@@ -613,6 +662,12 @@ public class BookingMenu extends Menu {
           continue;
         }
 
+        // VALIDATION: Check if the (longer) movie would overrun the next showing
+        if (handler.checkClashingShowtime(showtime.getCinemaId(), movieId, showtime.getDatetime(), showtime.getId())) {
+          colorPrint("/ NO CHANGE - Movie would overrun another showing of the cinema", Preset.WARNING);
+          continue;
+        }
+
         showtime.setMovieId(movieId);
         int curStatus = showtime.getMovieId();
         this.printChanges("Movie ID: ", (prevStatus == curStatus), Integer.toString(prevStatus), Integer.toString(curStatus));
@@ -625,8 +680,8 @@ public class BookingMenu extends Menu {
 
         //TODO: Extract as separate function
         LocalDateTime showDatetime = this.setDateTime("Set to (dd-MM-yyyy hh:mm[AM/PM]):", false);
-        if (handler.checkClashingShowtime(showtime.getCinemaId(), showDatetime)) {
-          colorPrint("/ NOT CHANGE Cinema already has a showing at the given datetime", Preset.WARNING);
+        if (handler.checkClashingShowtime(showtime.getCinemaId(), showtime.getMovieId(), showDatetime, showtime.getId())) {
+          colorPrint("/ NOT CHANGE Cinema already has a showing over the given datetime", Preset.WARNING);
         } else {
           showtime.setDatetime(showDatetime);
           this.printChanges("Datetime: ", (prevStatus.isEqual(showDatetime)), prevStatus.format(dateTimeFormatter), showDatetime.format(dateTimeFormatter));
@@ -665,6 +720,7 @@ public class BookingMenu extends Menu {
     boolean status = false;
 
     Cinema cinema = handler.getCinema(cinemaId);
+    handler.setSelectedCinemaId(session, cinemaId);
     List<Showtime> cinemaShowtimes = handler.getCinemaShowtimes(cinemaId);
     cinema.setShowtimes(cinemaShowtimes);
     Helper.logger("BookingMenu.editCinema", "Cinema: " + cinema);
@@ -697,7 +753,7 @@ public class BookingMenu extends Menu {
       if (proceedSelection >= proceedOptions.size() - 3) {
         // Save changes
         if (proceedSelection == proceedOptions.size() - 2) {
-          handler.updateCinema(cinema.getClassType(), cinema.getShowtimes(), cinema.getCineplexCode());
+          handler.updateCinema(session, cinema.getClassType(), cinema.getShowtimes(), cinema.getCineplexCode());
           colorPrint("Cinema updated", Preset.SUCCESS);
         }
         // Remove movie
@@ -4,16 +4,21 @@ import moblima.control.controllers.CustomerController;
 import moblima.control.handlers.CustomerHandler;
 import moblima.entities.Booking;
 import moblima.entities.Customer;
+import moblima.entities.SeatHold;
 import moblima.entities.Showtime;
+import moblima.entities.WaitlistEntry;
 import moblima.utils.Helper;
 import moblima.utils.Helper.Preset;
 import moblima.utils.services.email.EmailService;
 import org.apache.commons.validator.routines.EmailValidator;
 
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static moblima.utils.Helper.colorPrint;
 
@@ -24,6 +29,10 @@ public class CustomerMenu extends Menu {
   private static CustomerHandler handler;
   private static CustomerController controller;
   private static CustomerMenu instance;
+  /**
+   * Max no. of seats per waitlist entry
+   */
+  private static final int MAX_WAITLIST_SEATS = 10;
 
   private CustomerMenu() {
     super();
@@ -67,6 +76,8 @@ public class CustomerMenu extends Menu {
     LinkedHashMap<String, Runnable> addMenuMap = new LinkedHashMap<String, Runnable>() {{
       put("Book and purchase ticket", () -> makeBooking());
       put("View booking history", () -> viewBookings());
+      put("Join waitlist of a sold out showtime", () -> joinWaitlist());
+      put("View waitlist offers", () -> viewWaitlistOffers());
     }};
 
     if (controller.settingsHandler().checkIfIsAuthenticated()) {
@@ -338,6 +349,82 @@ public class CustomerMenu extends Menu {
     return bookingIdx;
   }
 
+  /**
+   * Join waitlist of a sold out showtime.
+   *
+   * @return the waitlist position, -1 if not joined
+   */
+//+ joinWaitlist():int
+  public int joinWaitlist() {
+    // Get customer idx via login/register
+    int customerIdx = this.getCurrentCustomer();
+    if (customerIdx < 0) return -1;
+    Customer customer = handler.getCustomer(customerIdx);
+    if (customer == null) return -1;
+
+    // Redirect to controller for interactivity
+    int showtimeIdx = controller.selectSoldOutShowtimeIdx();
+    Helper.logger("CustomerMenu.joinWaitlist", "showtimeIdx: " + showtimeIdx);
+    if (showtimeIdx < 0) return -1;
+
+    List<Integer> countRange = IntStream.rangeClosed(1, MAX_WAITLIST_SEATS).boxed().toList();
+    System.out.println("Enter the no. of seats: ");
+    int seatCount = this.getListSelectionIdx(countRange, false) + 1;
+
+    WaitlistEntry entry = controller.bookingHandler().joinWaitlist(customer.getId(), showtimeIdx, seatCount);
+    if (entry == null) {
+      colorPrint("Already on the waitlist of this showtime", Preset.WARNING);
+      return -1;
+    }
+
+    int position = controller.bookingHandler().getWaitlistPosition(customer.getId(), entry.getShowtimeId());
+    if (position == 0) colorPrint("Seats are available, view waitlist offers to book them", Preset.SUCCESS);
+    else colorPrint("Joined the waitlist at position " + position + ". Seats will be offered once available", Preset.SUCCESS);
+    return position;
+  }
+
+  /**
+   * View waitlist offers, booking the seats of the selected offer.
+   *
+   * @return the booking idx
+   */
+//+ viewWaitlistOffers():int
+  public int viewWaitlistOffers() {
+    int bookingIdx = -1;
+
+    // Get customer idx via login/register
+    int customerIdx = this.getCurrentCustomer();
+    if (customerIdx < 0) return bookingIdx;
+    Customer customer = handler.getCustomer(customerIdx);
+    if (customer == null) return bookingIdx;
+
+    List<SeatHold> offers = controller.bookingHandler().getWaitlistOffers(customer.getId());
+    if (offers.size() < 1) {
+      colorPrint("No waitlist offers at present", Preset.WARNING);
+      return bookingIdx;
+    }
+
+    // Initialize options with a return at the end
+    List<String> offerOptions = offers.stream()
+        .map(o -> controller.bookingHandler().getShowtime(o.getShowtimeId()) + " | Seats: " + o.getSeats().size() + " | Until: " + o.getExpiresAt().format(DateTimeFormatter.ofPattern("hh:mma")))
+        .collect(Collectors.toList());
+    offerOptions.add("Return to previous menu");
+
+    System.out.println("Select offer to book: ");
+    this.displayMenuList(offerOptions);
+    int offerSelection = getListSelectionIdx(offerOptions, false);
+    if (offerSelection == offerOptions.size() - 1) return bookingIdx;
+
+    // Redirect to controller for interactivity
+    bookingIdx = controller.claimWaitlistOffer(customer, offers.get(offerSelection));
+    Helper.logger("CustomerMenu.viewWaitlistOffers", "BookingIdx: " + bookingIdx);
+    if (bookingIdx < 0) return bookingIdx;
+
+    Booking booking = controller.bookingHandler().getBooking(bookingIdx);
+    if (booking != null) colorPrint("Successfully booked. Reference: " + booking.getTransactionId(), Preset.SUCCESS);
+    return bookingIdx;
+  }
+
   /**
    * View bookings.
    */
@@ -1,7 +1,9 @@
 package moblima.boundaries;
 
+import moblima.control.SessionContext;
 import moblima.utils.Helper;
 import moblima.utils.Helper.Preset;
+import moblima.utils.Money;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,11 +22,25 @@ public abstract class Menu {
    * The constant scanner.
    */
   protected static Scanner scanner = new Scanner(System.in);
+  /**
+   * The session of this terminal, shared by every menu.
+   */
+  protected static SessionContext session = new SessionContext();
   /**
    * The Menu map.
    */
   protected LinkedHashMap<String, Runnable> menuMap = new LinkedHashMap<String, Runnable>();
 
+  /**
+   * Gets session.
+   *
+   * @return the session
+   */
+//+ getSession():SessionContext
+  public static SessionContext getSession() {
+    return session;
+  }
+
   /**
    * Display menu list.
    */
@@ -213,6 +229,34 @@ public abstract class Menu {
     return val;
   }
 
+  /**
+   * Sets price, entered in dollars (e.g. <code>8.50</code>).
+   *
+   * @param promptMsg the prompt msg
+   * @return the price (cents)
+   */
+  public long setPrice(String promptMsg) {
+    Long val = null;
+    while (val == null) {
+      System.out.print(promptMsg);
+      scanner = new Scanner(System.in).useDelimiter("\n");
+
+      try {
+        String input = scanner.next().trim();
+        if (input.isEmpty() || input.isBlank()) throw new InputMismatchException("Input cannot be blank");
+
+        val = Money.parse(input);
+      } catch (NumberFormatException | ArithmeticException e) {
+        colorPrint("Invalid price - input must be an amount in dollars, e.g. 8.50", Preset.ERROR);
+        val = null;
+      } catch (Exception e) {
+        colorPrint(e.getMessage(), Preset.ERROR);
+        val = null;
+      }
+    }
+    return val;
+  }
+
   /**
    * Sets string.
    *
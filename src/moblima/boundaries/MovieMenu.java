@@ -127,12 +127,12 @@ public class MovieMenu extends Menu {
       Movie movie = movies.get(i);
       int movieIdx = handler.getMovieIdx(movie.getId());
       menuMap.put((i + 1) + ". " + movie.getTitle(), () -> {
-        handler.setSelectedMovieIdx(movieIdx);
+        handler.setSelectedMovieIdx(session, movieIdx);
         handler.printMovieDetails(movieIdx, false);
 
         if (showReviews) {
           if (addMovieRunnable != null) addMovieRunnable.run();
-          else this.selectReviewOptions(handler.getSelectedMovie().getId(), "", "");
+          else this.selectReviewOptions(handler.getSelectedMovie(session).getId(), "", "");
         }
       });
     }
@@ -208,8 +208,8 @@ public class MovieMenu extends Menu {
             continue;
           }
 
-          handler.setSelectedReviewIdx(reviewIdx);
-          System.out.println(handler.getSelectedReview());
+          handler.setSelectedReviewIdx(session, reviewIdx);
+          System.out.println(handler.getSelectedReview(session));
           status = this.selectUpdatableAction(reviewId);
           break;
         }
@@ -302,7 +302,7 @@ public class MovieMenu extends Menu {
     reviewIdx = handler.getReviewIdx(review.getId());
     if (reviewIdx < 0) return reviewIdx;
 
-    handler.setSelectedReviewIdx(reviewIdx);
+    handler.setSelectedReviewIdx(session, reviewIdx);
     Helper.logger("MovieMenu.selectReviewIdx", "Selected Review Idx: " + reviewIdx);
 
     return reviewIdx;
@@ -339,7 +339,7 @@ public class MovieMenu extends Menu {
 
     Movie movie = movies.get(selectedIdx);
     int movieIdx = handler.getMovieIdx(movie.getId());
-    handler.setSelectedMovieIdx(movieIdx);
+    handler.setSelectedMovieIdx(session, movieIdx);
     Helper.logger("MovieMenu.selectMovieIdx", "Selected Movie Idx: " + handler.getMovie(movieIdx).getId());
 
     // Revert to menu with review
@@ -382,7 +382,7 @@ public class MovieMenu extends Menu {
         // Save changes
         if (proceedSelection == proceedOptions.size() - 2) {
           Helper.logger("MovieMenu.selectUpdatableAction", "Saved Review: \n" + review);
-          status = handler.updateReview(review.getRating(), review.getReview());
+          status = handler.updateReview(session, review.getRating(), review.getReview());
           colorPrint("Review updated", Preset.SUCCESS);
         }
         // Remove movie
@@ -543,6 +543,7 @@ public class MovieMenu extends Menu {
 
     Movie movie = handler.getMovie(movieIdx);
     if (movie == null) return status;
+    handler.setSelectedMovieIdx(session, movieIdx);
 
     List<String> proceedOptions = new ArrayList<String>() {
       {
@@ -567,7 +568,7 @@ public class MovieMenu extends Menu {
       if (proceedSelection >= proceedOptions.size() - 3) {
         // Save changes
         if (proceedSelection == proceedOptions.size() - 2) {
-          handler.updateMovie(movie.getTitle(), movie.getSynopsis(), movie.getDirector(), movie.getCastList(), movie.getRuntime(), movie.getReleaseDate(), movie.isBlockbuster(), movie.getShowStatus(), movie.getContentRating(), movie.getOverallRating());
+          handler.updateMovie(session, movie.getTitle(), movie.getSynopsis(), movie.getDirector(), movie.getCastList(), movie.getRuntime(), movie.getReleaseDate(), movie.isBlockbuster(), movie.getShowStatus(), movie.getContentRating(), movie.getOverallRating());
           status = true;
         }
         // Remove movie
@@ -5,6 +5,7 @@ import moblima.entities.Booking;
 import moblima.entities.Cinema;
 import moblima.entities.Settings;
 import moblima.entities.Showtime;
+import moblima.utils.Money;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -88,44 +89,44 @@ public class SettingsMenu extends Menu {
 
   // CD: -editAdultTicketPrice()
   private void editAdultTicketPrice() {
-    double prevStatus = settings.getAdultTicket();
-    colorPrint("Adult ticket price: " + prevStatus, Preset.CURRENT);
+    long prevStatus = settings.getAdultTicket();
+    colorPrint("Adult ticket price: " + Money.toPlainString(prevStatus), Preset.CURRENT);
 
-    double price = this.setDouble("Set to: ");
+    long price = this.setPrice("Set to: ");
     settings.setAdultTicket(price);
 
-    double curStatus = settings.getAdultTicket();
-    this.printChanges("Adult ticket price: ", (prevStatus == curStatus), Double.toString(prevStatus), Double.toString(curStatus));
+    long curStatus = settings.getAdultTicket();
+    this.printChanges("Adult ticket price: ", (prevStatus == curStatus), Money.toPlainString(prevStatus), Money.toPlainString(curStatus));
   }
 
   // CD: -editBlockbusterSurcharge()
   private void editBlockbusterSurcharge() {
-    double prevStatus = settings.getBlockbusterSurcharge();
-    colorPrint("Blockbuster surcharge: " + prevStatus, Preset.CURRENT);
+    long prevStatus = settings.getBlockbusterSurcharge();
+    colorPrint("Blockbuster surcharge: " + Money.toPlainString(prevStatus), Preset.CURRENT);
 
-    double price = this.setDouble("Set to: ");
+    long price = this.setPrice("Set to: ");
     settings.setBlockbusterSurcharge(price);
 
-    double curStatus = settings.getBlockbusterSurcharge();
-    this.printChanges("Blockbuster surcharge: ", (prevStatus == curStatus), Double.toString(prevStatus), Double.toString(curStatus));
+    long curStatus = settings.getBlockbusterSurcharge();
+    this.printChanges("Blockbuster surcharge: ", (prevStatus == curStatus), Money.toPlainString(prevStatus), Money.toPlainString(curStatus));
   }
 
   private EnumMap editSurcharges(EnumMap surcharges) {
     // Loop through surcharges
     for (var surchargeSet : surcharges.entrySet()) {
-      Map.Entry<Enum, Double> surcharge = (Map.Entry) surchargeSet;
+      Map.Entry<Enum, Long> surcharge = (Map.Entry) surchargeSet;
 
       Enum key = surcharge.getKey();
-      Double val = surcharge.getValue();
+      Long val = surcharge.getValue();
 
-      double prevStatus = val;
-      colorPrint(key + " surcharge: " + prevStatus, Preset.CURRENT);
+      long prevStatus = val;
+      colorPrint(key + " surcharge: " + Money.toPlainString(prevStatus), Preset.CURRENT);
 
-      double price = this.setDouble("Set to: ");
+      long price = this.setPrice("Set to: ");
       surcharge.setValue(price);
 
-      double curStatus = surcharge.getValue();
-      this.printChanges(key + " surcharge: ", (prevStatus == curStatus), Double.toString(prevStatus), Double.toString(curStatus));
+      long curStatus = surcharge.getValue();
+      this.printChanges(key + " surcharge: ", (prevStatus == curStatus), Money.toPlainString(prevStatus), Money.toPlainString(curStatus));
     }
 
     return surcharges;
@@ -135,7 +136,7 @@ public class SettingsMenu extends Menu {
    * Edit show surcharges.
    */
   public void editShowSurcharges() {
-    EnumMap<Showtime.ShowType, Double> showSurcharges = settings.getShowSurcharges();
+    EnumMap<Showtime.ShowType, Long> showSurcharges = settings.getShowSurcharges();
     showSurcharges = this.editSurcharges(showSurcharges);
     settings.setShowSurcharges(showSurcharges);
   }
@@ -144,7 +145,7 @@ public class SettingsMenu extends Menu {
    * Edit ticket surcharges.
    */
   public void editTicketSurcharges() {
-    EnumMap<Booking.TicketType, Double> ticketSurcharges = settings.getTicketSurcharges();
+    EnumMap<Booking.TicketType, Long> ticketSurcharges = settings.getTicketSurcharges();
     ticketSurcharges = this.editSurcharges(ticketSurcharges);
     settings.setTicketSurcharges(ticketSurcharges);
   }
@@ -153,7 +154,7 @@ public class SettingsMenu extends Menu {
    * Edit cinema surcharges.
    */
   public void editCinemaSurcharges() {
-    EnumMap<Cinema.ClassType, Double> cinemaSurcharges = settings.getCinemaSurcharges();
+    EnumMap<Cinema.ClassType, Long> cinemaSurcharges = settings.getCinemaSurcharges();
     cinemaSurcharges = this.editSurcharges(cinemaSurcharges);
     settings.setCinemaSurcharges(cinemaSurcharges);
   }
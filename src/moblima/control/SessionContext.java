@@ -0,0 +1,151 @@
+package moblima.control;
+
+import java.util.UUID;
+
+/**
+ * The type Session context.<br/>
+ * <p>
+ * Selections made by a single user session, carried explicitly into the handlers so that many sessions can share one
+ * set of handlers without overwriting each other's selections. Selections are kept by id rather than by position, as
+ * the shared lists shift whenever another session removes an entity. The session id also owns the seat holds of the
+ * session.
+ */
+public class SessionContext {
+  private final String id;
+  private int selectedMovieId = -1;
+  private String selectedReviewId = null;
+  private int selectedCinemaId = -1;
+  private String selectedShowtimeId = null;
+  private String selectedBookingId = null;
+
+  /**
+   * Instantiates a new Session context.
+   */
+  public SessionContext() {
+    this(UUID.randomUUID().toString());
+  }
+
+  /**
+   * Instantiates a new Session context.
+   *
+   * @param id the id
+   */
+  public SessionContext(String id) {
+    this.id = id;
+  }
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets selected movie id.
+   *
+   * @return the selected movie id, -1 if none
+   */
+  public int getSelectedMovieId() {
+    return selectedMovieId;
+  }
+
+  /**
+   * Sets selected movie id.
+   *
+   * @param selectedMovieId the selected movie id
+   */
+  public void setSelectedMovieId(int selectedMovieId) {
+    this.selectedMovieId = selectedMovieId;
+  }
+
+  /**
+   * Gets selected review id.
+   *
+   * @return the selected review id, null if none
+   */
+  public String getSelectedReviewId() {
+    return selectedReviewId;
+  }
+
+  /**
+   * Sets selected review id.
+   *
+   * @param selectedReviewId the selected review id
+   */
+  public void setSelectedReviewId(String selectedReviewId) {
+    this.selectedReviewId = selectedReviewId;
+  }
+
+  /**
+   * Gets selected cinema id.
+   *
+   * @return the selected cinema id, -1 if none
+   */
+  public int getSelectedCinemaId() {
+    return selectedCinemaId;
+  }
+
+  /**
+   * Sets selected cinema id.
+   *
+   * @param selectedCinemaId the selected cinema id
+   */
+  public void setSelectedCinemaId(int selectedCinemaId) {
+    this.selectedCinemaId = selectedCinemaId;
+  }
+
+  /**
+   * Gets selected showtime id.
+   *
+   * @return the selected showtime id, null if none
+   */
+  public String getSelectedShowtimeId() {
+    return selectedShowtimeId;
+  }
+
+  /**
+   * Sets selected showtime id.
+   *
+   * @param selectedShowtimeId the selected showtime id
+   */
+  public void setSelectedShowtimeId(String selectedShowtimeId) {
+    this.selectedShowtimeId = selectedShowtimeId;
+  }
+
+  /**
+   * Gets selected booking transaction id.
+   *
+   * @return the selected booking transaction id, null if none
+   */
+  public String getSelectedBookingId() {
+    return selectedBookingId;
+  }
+
+  /**
+   * Sets selected booking transaction id.
+   *
+   * @param selectedBookingId the selected booking transaction id
+   */
+  public void setSelectedBookingId(String selectedBookingId) {
+    this.selectedBookingId = selectedBookingId;
+  }
+
+  /**
+   * Clears every selection.
+   */
+  public void reset() {
+    this.selectedMovieId = -1;
+    this.selectedReviewId = null;
+    this.selectedCinemaId = -1;
+    this.selectedShowtimeId = null;
+    this.selectedBookingId = null;
+  }
+
+  @Override
+  public String toString() {
+    return "Session " + this.id;
+  }
+}
@@ -5,13 +5,12 @@ import moblima.utils.Helper.Preset;
 import moblima.utils.services.email.EmailService;
 
 import java.util.Arrays;
-import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static moblima.utils.Helper.colorPrint;
+import static moblima.utils.Helper.formatPrice;
 import static moblima.utils.Helper.logger;
 
 /**
@@ -61,7 +60,7 @@ public class CustomerController extends MovieBookingController {
             Account currentAccount = settingsHandler().getCurrentAccount();
             String reviewerId = currentAccount.getId();
             String reviewerName = currentAccount.getName();
-            movieMenu.selectReviewOptions(reviewHandler().getSelectedMovie().getId(), reviewerName, reviewerId);
+            movieMenu.selectReviewOptions(reviewHandler().getSelectedMovie(session()).getId(), reviewerName, reviewerId);
           });
         }
 
@@ -70,7 +69,7 @@ public class CustomerController extends MovieBookingController {
     }};
 
     // Fetch ranked types
-    Settings settings = settingsHandler().getCurrentSettings();
+    Settings settings = settingsHandler().getSettingsSnapshot();
     settings.getRankedTypes().entrySet().stream()
         .filter(t -> !t.getValue())
         .forEach(t -> menuMap.remove(t.getKey().toString()));
@@ -119,6 +118,19 @@ public class CustomerController extends MovieBookingController {
    */
 //+ makeBooking(customerId:String, showtime:Showtime):int
   public int makeBooking(Customer customer, Showtime showtime) {
+    return this.makeBooking(customer, showtime, null);
+  }
+
+  /**
+   * Make booking int.
+   *
+   * @param customer  the customer
+   * @param showtime  the showtime
+   * @param heldSeats the seats already held by the session, null to select seats
+   * @return the int
+   */
+//+ makeBooking(customerId:String, showtime:Showtime, heldSeats:List<int[]>):int
+  public int makeBooking(Customer customer, Showtime showtime, List<int[]> heldSeats) {
     int bookingIdx = -1;
     int showtimeIdx = this.bookingHandler().getShowtimeIdx(showtime.getId());
     if (showtimeIdx < 0) return bookingIdx;
@@ -139,35 +151,31 @@ public class CustomerController extends MovieBookingController {
     Cinema cinema = this.bookingHandler().getCinema(showtime.getCinemaId());
     if (cinema == null) return bookingIdx;
 
-    // Select seats
-    List<int[]> seats = bookingMenu.selectSeat(showtimeIdx);
+    // Select seats, unless already held
+    List<int[]> seats = (heldSeats != null) ? heldSeats : bookingMenu.selectSeat(showtimeIdx);
     logger("CustomerMenu.makeBooking", "No. of seats: " + seats.size());
     logger("CustomerMenu.makeBooking", "Selected seats: " + Arrays.deepToString(seats.toArray()));
     if (seats.size() < 1) return bookingIdx;
 
-    // Select TicketType (only if not PEAK)
-    EnumMap<Booking.TicketType, Double> ticketSurcharges = this.settingsHandler().getCurrentSettings().getTicketSurcharges();
-    Booking.TicketType ticketType = settingsHandler().verifyTicketType(showtime.getDatetime(), Booking.TicketType.NON_PEAK);
-
-    List<Booking.TicketType> peakTickets = Arrays.asList(Booking.TicketType.PEAK, Booking.TicketType.SUPER_PEAK);
-    if (!peakTickets.contains(ticketType)) {
-      List<String> ticketOptions = Stream.of(Booking.TicketType.values()).filter(t -> !peakTickets.contains(t)).map(t -> {
-        double estimatedCost = this.settingsHandler().computeTotalCost(movie.isBlockbuster(), showtime.getType(), cinema.getClassType(), t, showtime.getDatetime(), seats.size());
-
-        return t + " - " + estimatedCost;
-      }).collect(Collectors.toList());
+    // Select TicketType (only if not PEAK), priced in one quote
+    Quote quote = this.settingsHandler().quote(showtime, movie.isBlockbuster(), cinema.getClassType());
+    List<Booking.TicketType> ticketTypes = quote.getTicketTypes();
+    Booking.TicketType ticketType = ticketTypes.get(ticketTypes.size() - 1);
+    if (ticketTypes.size() > 1) {
+      List<String> ticketOptions = ticketTypes.stream().map(t -> t + " - " + formatPrice(quote.getTotalPrice(t, seats.size()))).collect(Collectors.toList());
 
       ticketType = bookingMenu.selectTicket(ticketOptions);
     }
     System.out.println("Ticket type: " + ticketType.toString());
 
     // Compute total cost by multiplying num. of seats selected
-    double totalCost = this.settingsHandler().computeTotalCost(movie.isBlockbuster(), showtime.getType(), cinema.getClassType(), ticketType, showtime.getDatetime(), seats.size());
+    long totalCost = quote.getTotalPrice(ticketType, seats.size());
     logger("CustomerMenu.makeBooking", "Ticket type: " + ticketType + " - " + totalCost);
 
 
     // Make booking
-    bookingIdx = bookingHandler().addBooking(customer.getId(), showtime.getCinemaId(), showtime.getMovieId(), showtime.getId(), seats, totalCost, ticketType);
+    bookingIdx = bookingHandler().addBooking(this.session(), customer.getId(), showtime.getCinemaId(), showtime.getMovieId(), showtime.getId(), seats, totalCost, ticketType);
+    if (bookingIdx < 0) return bookingIdx;
     Booking booking = bookingHandler().getBooking(bookingIdx);
     String bookingDetails = bookingHandler().printBooking(booking.getTransactionId());
 
@@ -176,4 +184,51 @@ public class CustomerController extends MovieBookingController {
     return bookingIdx;
   }
 
+  /**
+   * Select sold out showtime idx int.
+   *
+   * @return the showtime idx
+   */
+//+ selectSoldOutShowtimeIdx():int
+  public int selectSoldOutShowtimeIdx() {
+    // Select movie
+    System.out.println("Select movie: ");
+    int movieIdx = movieMenu.selectMovieIdx();
+    if (movieIdx < 0) return -1;
+    Movie selectedMovie = this.reviewHandler().getSelectedMovie(this.session());
+
+    // Select showtimes of selected movie, leaving out those with seats left
+    List<Showtime> soldOutShowtimes = this.bookingHandler().getShowtimes(selectedMovie.getId()).stream().filter(s -> s.getSeatCount(true) < 1).collect(Collectors.toList());
+    if (soldOutShowtimes.size() < 1) {
+      colorPrint("No showtimes of this movie are sold out. Book and purchase ticket instead.", Preset.WARNING);
+      return -1;
+    }
+
+    System.out.println("Select showtime slot: ");
+    return bookingMenu.selectShowtimeIdx(soldOutShowtimes);
+  }
+
+  /**
+   * Claims seats offered from a waitlist, and books them.
+   *
+   * @param customer the customer
+   * @param offer    the seats offered
+   * @return the booking idx
+   */
+//+ claimWaitlistOffer(customer:Customer, offer:SeatHold):int
+  public int claimWaitlistOffer(Customer customer, SeatHold offer) {
+    SeatHold hold = this.bookingHandler().claimWaitlistOffer(this.session(), customer.getId(), offer.getShowtimeId());
+    if (hold == null) {
+      colorPrint("Offer has expired, seats were passed on to the next customer.", Preset.WARNING);
+      return -1;
+    }
+
+    Showtime showtime = this.bookingHandler().getShowtime(hold.getShowtimeId());
+    if (showtime == null) return -1;
+    this.bookingHandler().printSeats(showtime.getSeats(), hold.getSeats());
+
+    int bookingIdx = this.makeBooking(customer, showtime, hold.getSeats());
+    if (bookingIdx < 0) this.bookingHandler().releaseSeatHolds(this.session());
+    return bookingIdx;
+  }
 }
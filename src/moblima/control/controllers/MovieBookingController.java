@@ -1,8 +1,10 @@
 package moblima.control.controllers;
 
 import moblima.boundaries.BookingMenu;
+import moblima.boundaries.Menu;
 import moblima.boundaries.MovieMenu;
 import moblima.boundaries.SettingsMenu;
+import moblima.control.SessionContext;
 import moblima.control.handlers.BookingHandler;
 import moblima.control.handlers.ReviewHandler;
 import moblima.control.handlers.SettingsHandler;
@@ -11,6 +13,7 @@ import moblima.entities.Cinema;
 import moblima.entities.Movie;
 import moblima.entities.Showtime;
 import moblima.utils.Helper;
+import moblima.utils.services.booking.SeatAvailability;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -45,6 +48,15 @@ public abstract class MovieBookingController {
     settingsMenu = SettingsMenu.getInstance();
   }
 
+  /**
+   * Gets the session of this terminal.
+   *
+   * @return the session
+   */
+  public SessionContext session() {
+    return Menu.getSession();
+  }
+
   /**
    * Review handler review handler.
    *
@@ -85,7 +97,7 @@ public abstract class MovieBookingController {
     System.out.println("Select movie: ");
     int movieIdx = movieMenu.selectMovieIdx();
     if (movieIdx < 0) return showtimeIdx;
-    Movie selectedMovie = this.reviewHandler().getSelectedMovie();
+    Movie selectedMovie = this.reviewHandler().getSelectedMovie(this.session());
     Helper.logger("MovieBookingController.viewShowtimeAvailability", "Movie: " + selectedMovie);
 
     /// Check if movie's show status is COMING_SOON = no showtimes allowed
@@ -94,10 +106,17 @@ public abstract class MovieBookingController {
       return showtimeIdx;
     }
 
-    // Select showtimes for selected movie
-    System.out.println("Select showtime slot: ");
+    // Check if every showtime of the movie is sold out
     int movieId = selectedMovie.getId();
-    List<Showtime> movieShowtimes = bookingHandler().getShowtimes(movieId);
+    SeatAvailability.Counts movieCounts = SeatAvailability.getInstance().getMovieCounts(movieId);
+    if (movieCounts.getShowtimeCount() > 0 && movieCounts.isSoldOut()) {
+      colorPrint("All showtimes of this movie are sold out.", Preset.WARNING);
+      return showtimeIdx;
+    }
+
+    // Select showtimes for selected movie, leaving out sold out showtimes
+    System.out.println("Select showtime slot: ");
+    List<Showtime> movieShowtimes = bookingHandler().getShowtimes(movieId).stream().filter(s -> s.getSeatCount(true) > 0).collect(Collectors.toList());
     showtimeIdx = bookingMenu.selectShowtimeIdx(movieShowtimes);
     Helper.logger("MovieBookingController.viewShowtimeAvailability", "showtimeIdx: " + showtimeIdx);
     if (showtimeIdx < 0) return showtimeIdx;
@@ -118,7 +137,7 @@ public abstract class MovieBookingController {
     System.out.println("Select movie: ");
     int movieIdx = movieMenu.selectMovieIdx();
     if (movieIdx < 0) return;
-    Movie selectedMovie = this.reviewHandler().getSelectedMovie();
+    Movie selectedMovie = this.reviewHandler().getSelectedMovie(this.session());
 
     // Select showtimes
     System.out.println("Select showtime slot: ");
@@ -1,22 +1,24 @@
 package moblima.control.handlers;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 import moblima.boundaries.MovieMenu;
+import moblima.control.SessionContext;
 import moblima.entities.Booking;
 import moblima.entities.Booking.TicketType;
+import moblima.entities.SeatMap;
 import moblima.entities.Showtime;
 import moblima.utils.Helper;
 import moblima.utils.Helper.Preset;
+import moblima.utils.datasource.BookingJournal;
+import moblima.utils.datasource.DataContext;
 import moblima.utils.datasource.Datasource;
-import org.apache.commons.lang3.EnumUtils;
+import moblima.utils.datasource.IndexedList;
+import moblima.utils.deserializers.BookingCodec;
+import moblima.utils.services.booking.BookingEngine;
 
-import java.lang.reflect.Type;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static moblima.utils.Helper.colorPrint;
@@ -30,13 +32,17 @@ public class BookingHandler extends CinemaHandler {
    */
   protected static final ReviewHandler reviewHandler = MovieMenu.getHandler();
   /**
-   * The Bookings.
+   * The timestamp format of transaction ids.
    */
-  protected List<Booking> bookings;
+  private static final DateTimeFormatter TRANSACTION_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+  /**
+   * The Booking journal.
+   */
+  protected final BookingJournal journal = DataContext.getInstance().getJournal();
   /**
-   * The Selected booking idx.
+   * The Bookings.
    */
-  protected int selectedBookingIdx = -1;
+  protected List<Booking> bookings;
 
   /**
    * Instantiates a new Booking handler.
@@ -44,7 +50,7 @@ public class BookingHandler extends CinemaHandler {
   public BookingHandler() {
     super();
 
-    bookings = this.getBookings();
+    this.bookings = DataContext.getInstance().get(DataContext.BOOKINGS, this::loadBookings);
 
     Helper.logger("BookingHandler", "Cinema:\n" + this.cinemas);
     Helper.logger("BookingHandler", "Showtimes:\n" + this.showtimes);
@@ -54,11 +60,13 @@ public class BookingHandler extends CinemaHandler {
   /**
    * Sets selected booking idx.
    *
-   * @param selectedBookingIdx the selected booking idx
+   * @param session    the session
+   * @param bookingIdx the booking idx
    */
-//+
-  public void setSelectedBookingIdx(int selectedBookingIdx) {
-    this.selectedBookingIdx = selectedBookingIdx;
+//+ setSelectedBookingIdx(session:SessionContext, bookingIdx:int):void
+  public void setSelectedBookingIdx(SessionContext session, int bookingIdx) {
+    // Selected by id, positions shift once another session removes a booking
+    session.setSelectedBookingId((bookingIdx < 0 || bookingIdx >= this.bookings.size()) ? null : this.bookings.get(bookingIdx).getTransactionId());
   }
 
   /**
@@ -69,7 +77,6 @@ public class BookingHandler extends CinemaHandler {
    */
 //+ getBooking(bookingldx : int): Booking
   public Booking getBooking(int bookingIdx) {
-    this.selectedBookingIdx = bookingIdx;
     return (bookingIdx < 0 || this.bookings.size() < 1) ? null : new Booking(this.bookings.get(bookingIdx));
   }
 
@@ -81,16 +88,10 @@ public class BookingHandler extends CinemaHandler {
    */
 //+getBooking(transactionld : String) : Booking
   public Booking getBooking(String transactionId) {
-    Booking booking = null;
-    if (this.bookings.size() < 1) return booking;
+    if (this.bookings.size() < 1) return null;
 
-    for (Booking b : this.bookings) {
-      if (b.getTransactionId().equals(transactionId)) {
-        booking = new Booking(b);
-        break;
-      }
-    }
-    return booking;
+    int bookingIdx = IndexedList.indexOf(this.bookings, DataContext.BOOKING_ID, transactionId);
+    return bookingIdx < 0 ? null : new Booking(this.bookings.get(bookingIdx));
   }
 
   /**
@@ -100,8 +101,16 @@ public class BookingHandler extends CinemaHandler {
    */
 //+getBookings() : List<Booking>
   public List<Booking> getBookings() {
-    cinemas = this.getCinemas();
-    showtimes = this.getShowtimes();
+    return this.bookings;
+  }
+
+  /**
+   * Load bookings from the snapshot and journal, reflecting booked seats on showtimes.
+   *
+   * @return the bookings
+   */
+//# loadBookings() : List<Booking>
+  protected List<Booking> loadBookings() {
     List<Booking> bookings = new ArrayList<Booking>();
 
     if (this.showtimes.size() < 1 || this.cinemas.size() < 1) {
@@ -115,40 +124,19 @@ public class BookingHandler extends CinemaHandler {
       this.bookings = bookings;
       return bookings;
     }
-    JsonArray bookingList = Datasource.readArrayFromCsv(fileName);
+    List<Booking> bookingList = Datasource.readFromCsv(fileName, new BookingCodec());
 
     if (bookingList == null) {
       Helper.logger("BookingHandler.getBookings", "No serialized data available");
-      return bookings;
-    }
+    } else bookings.addAll(bookingList);
 
-    for (JsonElement booking : bookingList) {
-      JsonObject b = booking.getAsJsonObject();
-
-      String transactionId = b.get("transactionId").getAsString();
-      String customerId = b.get("customerId").getAsString();
-      int cinemaId = b.get("cinemaId").getAsInt();
-      int movieId = b.get("movieId").getAsInt();
-      String showtimeId = b.get("showtimeId").getAsString();
-      double totalPrice = b.get("totalPrice").getAsDouble();
-
-      /// Seats
-      String seatsArr = b.get("seats").getAsString();
-      Type seatsType = new TypeToken<List<int[]>>() {
-      }.getType();
-      List<int[]> seats = Datasource.getGson().fromJson(seatsArr, seatsType);
-
-      String type = b.get("type").getAsString();
-      boolean isValidType = EnumUtils.isValidEnum(TicketType.class, type);
-      if (!isValidType) continue;
-      TicketType ticketType = TicketType.valueOf(type);
-
-      /// Initialize and append Account object
-      bookings.add(new Booking(transactionId, customerId, cinemaId, movieId, showtimeId, seats, totalPrice, ticketType));
-
-      // Update showtimes
-      int showtimeIdx = this.getShowtimeIdx(showtimeId);
-      this.bulkAssignSeat(showtimeIdx, seats, true);
+    // Replay journal tail written since the last snapshot, leaving out bookings the snapshot already has
+    bookings.addAll(this.journal.replay(bookings));
+
+    // Reflect booked seats on showtimes (in-memory only, already persisted with the booking)
+    for (Booking booking : bookings) {
+      int showtimeIdx = this.getShowtimeIdx(booking.getShowtimeId());
+      this.applySeats(showtimeIdx, booking.getSeats(), true);
     }
 
     this.bookings = bookings;
@@ -164,50 +152,73 @@ public class BookingHandler extends CinemaHandler {
    */
 //+ getBookings (customerld : String) : List<Booking>
   public List<Booking> getBookings(String customerId) {
-    List<Booking> bookings = new ArrayList<Booking>();
-    if (this.bookings.size() < 1) return bookings;
-
-    for (Booking b : this.bookings) {
-      if (b.getCustomerId().equals(customerId)) bookings.add(b);
-    }
-    return bookings;
+    // Grouped into a fresh list, read-only so callers do not mistake it for the bookings themselves
+    return Collections.unmodifiableList(IndexedList.group(this.bookings, DataContext.BOOKINGS_BY_CUSTOMER, customerId));
   }
 
   /**
    * Add booking int.
    *
+   * @param session    the session holding the seats
    * @param customerId the customer id
    * @param cinemaId   the cinema id
    * @param movieId    the movie id
    * @param showtimeId the showtime id
    * @param seats      the seats
-   * @param totalPrice the total price
+   * @param totalPrice the total price (cents)
    * @param type       the type
-   * @return the int
+   * @return the int, -1 if any seat was taken before booking
    */
-//+addBooking(customerId:String, cinemaId:int, movieId:int, showtimeId:String, seats:List<int[]>, totalPrice:double, type:TicketType) : int
-  public int addBooking(String customerId, int cinemaId, int movieId, String showtimeId, List<int[]> seats, double totalPrice, TicketType type) {
-    List<Booking> bookings = new ArrayList<Booking>();
-    if (this.bookings != null) bookings = this.bookings;
+//+addBooking(session:SessionContext, customerId:String, cinemaId:int, movieId:int, showtimeId:String, seats:List<int[]>, totalPrice:long, type:TicketType) : int
+  public int addBooking(SessionContext session, String customerId, int cinemaId, int movieId, String showtimeId, List<int[]> seats, long totalPrice, TicketType type) {
+    if (this.bookings == null) this.bookings = new ArrayList<Booking>();
+    List<Booking> bookings = this.bookings;
 
-    Showtime showtime = this.getShowtime(showtimeId);
+    SeatMap showtimeSeats = this.getShowtimeSeats(this.getShowtimeIdx(showtimeId));
 
-    // The TID is of the format XXXYYYYMMDDhhmm (Y : year, M : month, D : day, h : hour, m : minutes, XXX : cinema code in letters)
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddhhmm");
-    String timestamp = (LocalDateTime.now()).format(formatter);
-    String cineplexCode = this.getShowtimeCinema(showtimeId).getCineplexCode().toUpperCase();
-    String transactionId = cineplexCode + timestamp;
+    int[] bookingIdx = {-1};
 
-    bookings.add(new Booking(transactionId, customerId, cinemaId, movieId, showtimeId, seats, totalPrice, type));
-    this.bookings = bookings;
+    // Convert held seats into booked seats, claiming afresh any whose hold has lapsed
+    BookingEngine.Result result = BookingEngine.getInstance().book(session.getId(), showtimeId, showtimeSeats, seats, () -> {
+      String cineplexCode = this.getShowtimeCinema(showtimeId).getCineplexCode().toUpperCase();
+
+      // Bookings of every showtime share the list and journal
+      synchronized (bookings) {
+        Booking booking = new Booking(nextTransactionId(bookings, cineplexCode), customerId, cinemaId, movieId, showtimeId, seats, totalPrice, type);
+        bookings.add(booking);
+        bookingIdx[0] = bookings.size() - 1;
+
+        // Append booking to journal, compacting into the snapshot periodically
+        boolean isAppended = this.journal.append(booking);
+        if (!isAppended || this.journal.isCompactionDue()) this.journal.compact(bookings);
+      }
+      return true;
+    });
+
+    if (result == BookingEngine.Result.SEATS_TAKEN) colorPrint("Selected seats are no longer available", Preset.WARNING);
+    if (result != BookingEngine.Result.BOOKED) return -1;
 
     // Finalize the seat selection
-    this.bulkAssignSeat(selectedShowtimeIdx, seats, true);
+    this.saveShowtimes();
 
-    // Serialize bookings
-    this.saveBookings();
+    return bookingIdx[0];
+  }
 
-    return this.bookings.size() - 1;
+  /**
+   * Generates a transaction id not yet taken by any booking, to be called holding the monitor of the bookings.<br/>
+   * The TID is of the format XXXYYYYMMDDHHmmNN (Y : year, M : month, D : day, H : hour of day, m : minutes, N :
+   * sequence within the minute, XXX : cinema code in letters)
+   *
+   * @param bookings     the bookings
+   * @param cineplexCode the cineplex code
+   * @return the transaction id
+   */
+  private static String nextTransactionId(List<Booking> bookings, String cineplexCode) {
+    String prefix = cineplexCode + LocalDateTime.now().format(TRANSACTION_TIMESTAMP);
+    for (int sequence = 1; ; sequence++) {
+      String transactionId = prefix + String.format("%02d", sequence);
+      if (IndexedList.indexOf(bookings, DataContext.BOOKING_ID, transactionId) < 0) return transactionId;
+    }
   }
 
   /**
@@ -218,16 +229,9 @@ public class BookingHandler extends CinemaHandler {
    */
 //+ checkIfShowtimeHasBooking(showtimeId:String):boolean
   public boolean checkIfShowtimeHasBooking(String showtimeId) {
-    boolean hasBooking = false;
     if (showtimeId == null || this.bookings.isEmpty()) return false;
 
-    for (Booking booking : this.bookings) {
-      if (booking.getShowtimeId().equals(showtimeId)) {
-        hasBooking = true;
-        break;
-      }
-    }
-    return hasBooking;
+    return !IndexedList.group(this.bookings, DataContext.BOOKINGS_BY_SHOWTIME, showtimeId).isEmpty();
   }
 
   /**
@@ -281,14 +285,4 @@ public class BookingHandler extends CinemaHandler {
     return header + "\n" + booking + "\n" + showtimeDetails + "\n" + movieDetails;
   }
 
-  /**
-   * Save bookings boolean.
-   *
-   * @return the boolean
-   */
-//#
-  protected boolean saveBookings() {
-    return Datasource.serializeData(this.bookings, "bookings.csv");
-  }
-
 }
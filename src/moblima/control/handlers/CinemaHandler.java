@@ -1,32 +1,36 @@
 package moblima.control.handlers;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
+import moblima.control.SessionContext;
 import moblima.entities.Cinema;
 import moblima.entities.Cinema.ClassType;
+import moblima.entities.HallLayout;
 import moblima.entities.Movie;
+import moblima.entities.SeatMap;
 import moblima.entities.Showtime;
 import moblima.entities.Showtime.ShowType;
 import moblima.utils.Helper;
 import moblima.utils.Helper.Preset;
+import moblima.utils.datasource.DataContext;
 import moblima.utils.datasource.Datasource;
-import org.apache.commons.lang3.EnumUtils;
+import moblima.utils.datasource.IndexedList;
+import moblima.utils.datasource.ShowtimeSnapshot;
+import moblima.utils.deserializers.CinemaCodec;
+import moblima.utils.services.booking.SeatAvailability;
+import moblima.utils.services.booking.ShowtimeSchedule;
 import org.apache.commons.lang3.RandomStringUtils;
 
-import java.lang.reflect.Type;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static moblima.utils.Helper.colorPrint;
 import static moblima.utils.Helper.formatAsTable;
-import static moblima.utils.deserializers.LocalDateTimeDeserializer.dateTimeFormatter;
 
 /**
  * The type Cinema handler.
@@ -37,32 +41,37 @@ public class CinemaHandler extends ShowtimeHandler {
    */
   protected List<Cinema> cinemas;
   /**
-   * The Cineplex codes.
+   * The Movies, shared with every movie handler, to look up runtimes by.
    */
-  protected List<String> cineplexCodes;
+  private List<Movie> movies;
   /**
-   * The Selected cinema idx.
+   * The Cineplex codes.
    */
-  protected int selectedCinemaIdx = -1;
+  protected List<String> cineplexCodes;
 
   /**
    * Instantiates a new Cinema handler.
    */
   public CinemaHandler() {
     super();
+    DataContext context = DataContext.getInstance();
     this.cineplexCodes = this.getCineplexCodes();
-    this.cinemas = this.getCinemas();
-    this.showtimes = this.getShowtimes();
+    this.cinemas = context.get(DataContext.CINEMAS, this::loadCinemas);
+    this.showtimes = context.get(DataContext.SHOWTIMES, this::loadShowtimes);
+
+    // Cineplex codes are derived from the (possibly shared) cinemas
+    for (Cinema cinema : this.cinemas) this.addCineplexCode(cinema.getCineplexCode());
   }
 
   /**
    * Sets selected cinema id.
    *
+   * @param session  the session
    * @param cinemaId the cinema id
    */
-// + setSelectedCinemaId(cinemaId:int) :void
-  public void setSelectedCinemaId(int cinemaId) {
-    this.selectedCinemaIdx = cinemaId;
+// + setSelectedCinemaId(session:SessionContext, cinemaId:int) :void
+  public void setSelectedCinemaId(SessionContext session, int cinemaId) {
+    session.setSelectedCinemaId(cinemaId);
   }
 
   /**
@@ -74,7 +83,6 @@ public class CinemaHandler extends ShowtimeHandler {
 //+ getCinema(cinemaId : int) : Cinema
   public Cinema getCinema(int cinemaId) {
     int cinemaIdx = this.getCinemaIdx(cinemaId);
-    this.selectedCinemaIdx = cinemaIdx;
 
 //    Helper.logger("CinemaHandler.getCinema", "Cinema: " + this.cinemas.get(cinemaId));
 //    Helper.logger("CinemaHandler.getCinema", "Cloned Cinema: " + new Cinema(this.cinemas.get(cinemaId)));
@@ -130,8 +138,7 @@ public class CinemaHandler extends ShowtimeHandler {
     if (this.cinemas.size() < 1 || min < 1) return showtimes;
 
     SecureRandom random = new SecureRandom();
-    MovieHandler movieHandler = new MovieHandler();
-    List<Movie> movies = movieHandler.getMovies();
+    List<Movie> movies = this.getMovies();
     Helper.logger("CinemaHandler.generateShowtimes", "Movies: \n" + movies);
     for (Movie movie : movies) {
       for (int s = 0; s < min; s++) {
@@ -160,6 +167,16 @@ public class CinemaHandler extends ShowtimeHandler {
    */
 //+getCinemas() : List<Cinema>
   public List<Cinema> getCinemas() {
+    return this.cinemas;
+  }
+
+  /**
+   * Load cinemas from serialized datasource.
+   *
+   * @return the cinemas
+   */
+//#loadCinemas() : List<Cinema>
+  protected List<Cinema> loadCinemas() {
     List<Cinema> cinemas = new ArrayList<Cinema>();
 
     Helper.logger("CinemaHandler.getCinemas", "Cinemas: \n" + cinemas);
@@ -173,7 +190,7 @@ public class CinemaHandler extends ShowtimeHandler {
       return cinemas;
     }
 
-    JsonArray cinemaList = Datasource.readArrayFromCsv(fileName);
+    List<Cinema> cinemaList = Datasource.readFromCsv(fileName, new CinemaCodec());
     if (cinemaList == null) {
       Helper.logger("CinemaHandler.getCinemas", "No serialized data available, generating data instead");
       cinemas = this.generateCinemas(3);
@@ -181,26 +198,12 @@ public class CinemaHandler extends ShowtimeHandler {
       return cinemas;
     }
 
-    for (JsonElement cinema : cinemaList) {
-      JsonObject c = cinema.getAsJsonObject();
-
-      int id = c.get("id").getAsInt();
-      String cineplexCode = c.get("cineplexCode").getAsString();
-
-      /// ClassType
-      String classTypeStr = c.get("classType").getAsString();
-      ClassType classType = Datasource.getGson().fromJson(classTypeStr, ClassType.class);
-
-      /// Showtimes (empty by default)
-      List<Showtime> showtimes = new ArrayList<Showtime>();
-      cinemas.add(new Cinema(id, classType, showtimes, cineplexCode));
-      this.addCineplexCode(cineplexCode);
+    for (Cinema cinema : cinemaList) {
+      cinemas.add(cinema);
+      this.addCineplexCode(cinema.getCineplexCode());
     }
 
     this.cinemas = cinemas;
-    if (this.showtimes != null && this.showtimes.size() > 0) {
-      this.showtimes = this.getShowtimes();
-    }
 
     return cinemas;
   }
@@ -209,20 +212,36 @@ public class CinemaHandler extends ShowtimeHandler {
   /**
    * Update cinema boolean.
    *
+   * @param session      the session
    * @param classType    the class type
    * @param showtimes    the showtimes
    * @param cineplexCode the cineplex code
    * @return the boolean
    */
-//+updateCinema( classType : ClassType, showtimes : List<Showtime>):boolean
-  public boolean updateCinema(ClassType classType, List<Showtime> showtimes, String cineplexCode) {
+//+updateCinema(session : SessionContext, classType : ClassType, showtimes : List<Showtime>):boolean
+  public boolean updateCinema(SessionContext session, ClassType classType, List<Showtime> showtimes, String cineplexCode) {
+    return this.updateCinema(this.getCinemaIdx(session.getSelectedCinemaId()), classType, showtimes, cineplexCode);
+  }
+
+  /**
+   * Update cinema boolean.
+   *
+   * @param cinemaIdx    the cinema idx
+   * @param classType    the class type
+   * @param showtimes    the showtimes
+   * @param cineplexCode the cineplex code
+   * @return the boolean
+   */
+//#updateCinema(cinemaIdx : int, classType : ClassType, showtimes : List<Showtime>):boolean
+  protected boolean updateCinema(int cinemaIdx, ClassType classType, List<Showtime> showtimes, String cineplexCode) {
     boolean status = false;
-    if (this.cinemas.size() < 1 || this.selectedCinemaIdx < 0) return status;
+    if (this.cinemas.size() < 1 || cinemaIdx < 0 || cinemaIdx >= this.cinemas.size()) return status;
 
-    Cinema cinema = this.getCinema(this.selectedCinemaIdx);
-    if (cinema == null) return status;
+    Cinema cinema = this.cinemas.get(cinemaIdx);
 
-    this.cinemas.set(this.selectedCinemaIdx, new Cinema(selectedCinemaIdx, classType, showtimes, cineplexCode));
+    Cinema updatedCinema = new Cinema(cinema.getId(), classType, showtimes, cineplexCode, cinema.getLayout());
+    this.cinemas.set(cinemaIdx, updatedCinema);
+    for (Showtime showtime : this.getCinemaShowtimes(cinema.getId())) SeatAvailability.getInstance().track(showtime, updatedCinema);
 
     status = true;
 
@@ -279,10 +298,7 @@ public class CinemaHandler extends ShowtimeHandler {
 
 
     // Remove cinema
-    List<Cinema> cinemas = this.getCinemas().stream()
-        .filter(c -> c.getId() != cinemaId)
-        .collect(Collectors.toList());
-    this.cinemas = cinemas;
+    this.cinemas.removeIf(c -> c.getId() == cinemaId);
 
     //Serialize data
     this.saveCinemas();
@@ -305,16 +321,34 @@ public class CinemaHandler extends ShowtimeHandler {
 
     // Replace all showtimes of cinemaID
     List<Showtime> cinemaShowtimes = this.getCinemaShowtimes(cinemaId);
+    Cinema cinema = this.getCinema(cinemaId);
+    if (cinema == null) return status;
+
+    // VALIDATION: Showtimes added must not overlap (showtimes clashing before are left as is)
+    Set<String> addedShowtimeIds = showtimes.stream().map(Showtime::getId).collect(Collectors.toSet());
+    for (Showtime showtime : cinemaShowtimes) addedShowtimeIds.remove(showtime.getId());
+    for (Map.Entry<String, List<String>> clash : this.validateShowtimes(showtimes).entrySet()) {
+      if (addedShowtimeIds.contains(clash.getKey()) || clash.getValue().stream().anyMatch(addedShowtimeIds::contains)) {
+        Helper.logger("CinemaHandler.addShowtimes", "Clashed: " + clash.getKey() + " with " + clash.getValue() + " at Cinema ID: " + cinemaId);
+        return status;
+      }
+    }
     this.showtimes.removeAll(cinemaShowtimes);
 
     // Update cinema
-    Cinema cinema = this.getCinema(cinemaId);
-    if (cinema == null) return status;
     cinema.setShowtimes(showtimes);
     this.cinemas.set(cinemaId, cinema);
 
-    // Update showtimes
+    // Update showtimes, and the availability rollups they count towards
     this.showtimes.addAll(showtimes);
+    for (Showtime showtime : cinemaShowtimes) {
+      SeatAvailability.getInstance().untrack(showtime.getId());
+      ShowtimeSchedule.getInstance().untrack(showtime.getId());
+    }
+    for (Showtime showtime : showtimes) {
+      SeatAvailability.getInstance().track(showtime, cinema);
+      ShowtimeSchedule.getInstance().track(showtime, this.getMovieRuntime(showtime.getMovieId()));
+    }
     Helper.logger("CinemaHandler.cinema", this.getCinema(cinemaId).toString());
 
     status = true;
@@ -333,6 +367,16 @@ public class CinemaHandler extends ShowtimeHandler {
    */
 //+ getShowtimes() : List<Showtime>
   public List<Showtime> getShowtimes() {
+    return this.showtimes;
+  }
+
+  /**
+   * Load showtimes from serialized datasource, linking them to existing cinemas.
+   *
+   * @return the showtimes
+   */
+//# loadShowtimes() : List<Showtime>
+  protected List<Showtime> loadShowtimes() {
     List<Showtime> showtimes = new ArrayList<Showtime>();
     if (this.cinemas == null || this.cinemas.size() < 0) {
       colorPrint("No cinemas available to host showtimes", Preset.WARNING);
@@ -345,50 +389,26 @@ public class CinemaHandler extends ShowtimeHandler {
       Helper.logger("CinemaHandler.getShowtimes", "Null and void filename provided, no data retrieved.");
       return showtimes;
     }
-    JsonArray showtimeList = Datasource.readArrayFromCsv(fileName);
+    List<Showtime> showtimeList = ShowtimeSnapshot.readShowtimes();
 
     if (showtimeList == null) {
       Helper.logger("CinemaHandler.getShowtimes", "No serialized data available, generating data instead");
       this.generateShowtimes(this.cinemas.size());
       return this.showtimes;
     }
-
-    for (JsonElement showtime : showtimeList) {
-      JsonObject s = showtime.getAsJsonObject();
-
-      String id = s.get("id").getAsString();
-      int cinemaId = s.get("cinemaId").getAsInt();
-      int movieId = s.get("movieId").getAsInt();
-      String datetimeStr = s.get("datetime").getAsString();
-      LocalDateTime dateTime = LocalDateTime.parse(datetimeStr, dateTimeFormatter);
-
-      /// ShowType
-      String showType = s.get("type").getAsString();
-      boolean isValidStatus = EnumUtils.isValidEnum(ShowType.class, showType);
-      if (!isValidStatus) continue;
-//      ShowType type = Arrays.stream(ShowType.values()).find
-      ShowType type = ShowType.valueOf(showType);
-
-      /// Seats
-      String seatsArr = s.get("seats").getAsString();
-      Type seatsType = new TypeToken<boolean[][]>() {
-      }.getType();
-      boolean[][] seats = Datasource.getGson().fromJson(seatsArr, seatsType);
-
-      Showtime cinemaShowtime = new Showtime(id, cinemaId, movieId, dateTime, type, seats);
-      showtimes.add(cinemaShowtime);
-    }
+    showtimes.addAll(showtimeList);
 
     this.showtimes = showtimes;
 
-    // Serialize data
-    this.saveShowtimes();
-
-    // Append showtimes to existing cinemas
+    // Link showtimes to existing cinemas, laid over the cinema hall (in-memory only, nothing changed on disk)
     for (Cinema cinema : this.cinemas) {
       List<Showtime> cinemaShowtimes = this.getCinemaShowtimes(cinema.getId());
-      this.addShowtimes(cinema.getId(), cinemaShowtimes);
-      Helper.logger("CinemaHandler.getShowtimes", "Cinema: " + this.getCinema(cinema.getId()));
+      for (Showtime showtime : cinemaShowtimes) {
+        showtime.setSeats(showtime.getSeats().overlay(cinema.getLayout()));
+        SeatAvailability.getInstance().track(showtime, cinema);
+        ShowtimeSchedule.getInstance().track(showtime, this.getMovieRuntime(showtime.getMovieId()));
+      }
+      cinema.setShowtimes(cinemaShowtimes);
     }
 
     return showtimes;
@@ -411,6 +431,8 @@ public class CinemaHandler extends ShowtimeHandler {
     rows.add(Arrays.asList("Cinema ID:", Integer.toString(showtime.getCinemaId())));
     rows.add(Arrays.asList("Show Type:", showtime.getType().toString()));
     rows.add(Arrays.asList("Booked Seats:", showtime.getSeatCount(false) + "/" + showtime.getSeatCount()));
+    int availableCount = showtime.getSeatCount(true);
+    rows.add(Arrays.asList("Seats Left:", (availableCount > 0) ? Integer.toString(availableCount) : "SOLD OUT"));
 
     return formatAsTable(rows);
   }
@@ -425,10 +447,10 @@ public class CinemaHandler extends ShowtimeHandler {
   public Cinema getShowtimeCinema(String showtimeId) {
     Cinema cinema = null;
 
-    Showtime showtime = this.getShowtime(showtimeId);
-    if (showtime == null) return cinema;
+    int showtimeIdx = this.getShowtimeIdx(showtimeId);
+    if (showtimeIdx < 0) return cinema;
 
-    return this.getCinema(showtime.getCinemaId());
+    return this.getCinema(this.showtimes.get(showtimeIdx).getCinemaId());
   }
 
   /**
@@ -446,14 +468,8 @@ public class CinemaHandler extends ShowtimeHandler {
       return showtimes;
     }
 
-    for (Showtime showtime : this.showtimes) {
-      if (showtime.getCinemaId() == cinemaId) showtimes.add(showtime);
-    }
-
-    // Sort datetime ASC
-    showtimes = showtimes.stream().sorted((a, b) -> a.getDatetime().compareTo(b.getDatetime())).collect(Collectors.toList());
-
-    return showtimes;
+    // Sorted by datetime ASC
+    return IndexedList.group(this.showtimes, DataContext.SHOWTIMES_BY_CINEMA, cinemaId);
   }
 
   /**
@@ -471,47 +487,70 @@ public class CinemaHandler extends ShowtimeHandler {
     if (showtimes.size() < 0) {
       colorPrint("No cinemas available to host showtimes", Preset.WARNING);
       return -1;
-    } else if (this.checkClashingShowtime(cinemaId, datetime)) {
-      colorPrint("Cinema already has a showing at the given datetime", Preset.WARNING);
+    } else if (this.checkClashingShowtime(cinemaId, movieId, datetime, null)) {
+      colorPrint("Cinema already has a showing over the given datetime", Preset.WARNING);
       return -1;
     }
 
-    // Initializes new showtime
-    Showtime showtime = new Showtime(UUID.randomUUID().toString(), cinemaId, movieId, datetime, type);
+    // Initializes new showtime, over the cinema hall
+    int cinemaIdx = this.getCinemaIdx(cinemaId);
+    HallLayout layout = (cinemaIdx < 0) ? HallLayout.DEFAULT : this.cinemas.get(cinemaIdx).getLayout();
+    Showtime showtime = new Showtime(UUID.randomUUID().toString(), cinemaId, movieId, datetime, type, new SeatMap(layout));
     showtimes.add(showtime);
 
     // Append showtime to existing
     boolean isAdded = this.addShowtimes(cinemaId, showtimes);
     if (!isAdded) return -1;
 
-    // Serialize bookings
-    this.saveShowtimes();
-
     return this.showtimes.size() - 1;
   }
 
   /**
-   * Check clashing showtime boolean.
+   * Check clashing showtime boolean. Showtimes clash if either starts before the other has finished and the hall
+   * has been cleaned.
    *
-   * @param cinemaId the cinema id
-   * @param datetime the datetime
+   * @param cinemaId          the cinema id
+   * @param movieId           the movie id
+   * @param datetime          the datetime
+   * @param excludeShowtimeId the showtime id to leave out, e.g. the showtime being edited, null if none
    * @return the boolean
    */
-//+ checkClashingShowtime(cinemaId:int, dateTime:LocalDateTime):boolean
-  public boolean checkClashingShowtime(int cinemaId, LocalDateTime datetime) {
-    boolean hasClash = false;
+//+ checkClashingShowtime(cinemaId:int, movieId:int, dateTime:LocalDateTime, excludeShowtimeId:String):boolean
+  public boolean checkClashingShowtime(int cinemaId, int movieId, LocalDateTime datetime, String excludeShowtimeId) {
+    List<String> clashingShowtimeIds = ShowtimeSchedule.getInstance().getClashes(cinemaId, datetime, this.getMovieRuntime(movieId), excludeShowtimeId);
+    if (clashingShowtimeIds.size() < 1) return false;
 
-    List<Showtime> cinemaShowtimes = this.getCinemaShowtimes(cinemaId);
-    if (cinemaShowtimes.size() < 1) return hasClash;
+    Helper.logger("CinemaHandler.checkClashingShowtime", "Clashed: " + clashingShowtimeIds + " at Cinema ID: " + cinemaId);
+    return true;
+  }
 
-    for (Showtime showtime : cinemaShowtimes) {
-      if (showtime.getDatetime().isEqual(datetime)) {
-        Helper.logger("CinemaHandler.checkClashingShowtime", "Clashed: " + showtime.getDatetime() + " at Cinema ID: " + cinemaId);
-        hasClash = true;
-        break;
-      }
-    }
-    return hasClash;
+  /**
+   * Validate showtimes as a whole schedule.
+   *
+   * @param showtimes the showtimes
+   * @return the showtime ids clashing with an earlier showtime of the same cinema, each to the earlier ids
+   */
+//+ validateShowtimes(showtimes:List<Showtime>):Map<String, List<String>>
+  public Map<String, List<String>> validateShowtimes(List<Showtime> showtimes) {
+    return ShowtimeSchedule.getInstance().validate(showtimes, this::getMovieRuntime);
+  }
+
+  /**
+   * Gets movie runtime.
+   *
+   * @param movieId the movie id
+   * @return the runtime (min), 0 if movie does not exist
+   */
+//# getMovieRuntime(movieId:int):int
+  protected int getMovieRuntime(int movieId) {
+    List<Movie> movies = this.getMovies();
+    int movieIdx = IndexedList.indexOf(movies, DataContext.MOVIE_ID, movieId);
+    return (movieIdx < 0) ? 0 : movies.get(movieIdx).getRuntime();
+  }
+
+  private List<Movie> getMovies() {
+    if (this.movies == null) this.movies = new MovieHandler().getMovies();
+    return this.movies;
   }
 
   /**
@@ -590,22 +629,15 @@ public class CinemaHandler extends ShowtimeHandler {
    * @return the int
    */
   public int getCinemaIdx(int cinemaId) {
-    int cinemaIdx = -1;
     if (cinemaId < 0 || this.cinemas.size() < 1) return -1;
 
-    for (int i = 0; i < this.cinemas.size(); i++) {
-      Cinema cinema = this.cinemas.get(i);
-      if (cinema.getId() == cinemaId) {
-        cinemaIdx = i;
-      }
-    }
-
-    return cinemaIdx;
+    return IndexedList.indexOf(this.cinemas, DataContext.CINEMA_ID, cinemaId);
   }
 
   /**
    * Update showtime boolean.
    *
+   * @param session  the session
    * @param cinemaId the cinema id
    * @param movieId  the movie id
    * @param showType the show type
@@ -613,17 +645,30 @@ public class CinemaHandler extends ShowtimeHandler {
    * @param seats    the seats
    * @return the boolean
    */
-//+ updateShowtime(cinemaId:int, movieId:int, datetime:LocalDateTime, seats:boolean[][]):boolean
-  public boolean updateShowtime(int cinemaId, int movieId, Showtime.ShowType showType, LocalDateTime datetime, boolean[][] seats) {
+//+ updateShowtime(session:SessionContext, cinemaId:int, movieId:int, datetime:LocalDateTime):boolean
+  public boolean updateShowtime(SessionContext session, int cinemaId, int movieId, Showtime.ShowType showType, LocalDateTime datetime) {
     boolean status = false;
-    if (this.showtimes.size() < 1 || this.selectedShowtimeIdx < 0) return status;
+    int showtimeIdx = this.getShowtimeIdx(session.getSelectedShowtimeId());
+    if (this.showtimes.size() < 1 || showtimeIdx < 0) return status;
 
-    Showtime showtime = this.showtimes.get(this.selectedShowtimeIdx);
+    Showtime showtime = this.showtimes.get(showtimeIdx);
     if (showtime == null) return status;
 
     String showtimeId = showtime.getId();
     int prevCinemaId = showtime.getCinemaId();
 
+    // VALIDATION: Check if showtime would overlap another of the (new) cinema
+    if (this.checkClashingShowtime(cinemaId, movieId, datetime, showtimeId)) return status;
+
+    // VALIDATION: Check if seats are held, holds and waitlist offers are bound to the seats of the current hall
+    int cinemaIdx = this.getCinemaIdx(cinemaId);
+    SeatMap seats = showtime.getSeats();
+    HallLayout layout = (cinemaIdx < 0) ? seats.getLayout() : this.cinemas.get(cinemaIdx).getLayout();
+    if (layout != seats.getLayout() && seats.getHeldCount() > 0) {
+      colorPrint("Unable to change the hall of a showtime while seats are held", Preset.WARNING);
+      return status;
+    }
+
     // Check if Cinema ID has changed
     if (cinemaId != prevCinemaId) {
       // Remove showtime from specified Cinema by ID
@@ -632,8 +677,7 @@ public class CinemaHandler extends ShowtimeHandler {
       List<Showtime> updatedCinemaShowtimes = prevCinemaShowtimes.stream().filter(s -> !s.getId().equals(showtimeId)).collect(Collectors.toList());
 
       if (prevCinemaShowtimes.size() - updatedCinemaShowtimes.size() == 1) {
-        this.selectedCinemaIdx = prevCinemaId;
-        this.updateCinema(prevCinema.getClassType(), updatedCinemaShowtimes, prevCinema.getCineplexCode());
+        this.updateCinema(this.getCinemaIdx(prevCinemaId), prevCinema.getClassType(), updatedCinemaShowtimes, prevCinema.getCineplexCode());
 
         Helper.logger("CinemaHandler.updateShowtime", "Cinema ID changed from " + prevCinemaId + " to " + cinemaId);
         Helper.logger("CinemaHandler.updateShowtime", "Showtime Removed " + showtime);
@@ -645,9 +689,12 @@ public class CinemaHandler extends ShowtimeHandler {
     showtime.setMovieId(movieId);
     showtime.setType(showType);
     showtime.setDatetime(datetime);
-    showtime.setSeats(seats);
-    this.showtimes.set(this.selectedShowtimeIdx, showtime);
-    Helper.logger("CinemaHandler.updateShowtime", "AVAIL SEATS: " + getAvailableSeatCount(this.selectedShowtimeIdx));
+    // Seats follow the hall of the (new) cinema, seat counts are followed on the new seats once tracked again
+    showtime.setSeats(seats.overlay(layout));
+    this.showtimes.set(showtimeIdx, showtime);
+    SeatAvailability.getInstance().track(showtime, (cinemaIdx < 0) ? null : this.cinemas.get(cinemaIdx));
+    ShowtimeSchedule.getInstance().track(showtime, this.getMovieRuntime(movieId));
+    Helper.logger("CinemaHandler.updateShowtime", "AVAIL SEATS: " + getAvailableSeatCount(showtimeIdx));
 
     status = true;
 
@@ -664,6 +711,6 @@ public class CinemaHandler extends ShowtimeHandler {
    */
 //# saveCinemas():boolean
   protected boolean saveCinemas() {
-    return Datasource.serializeData(this.cinemas, "cinemas.csv");
+    return Datasource.scheduleData(this.cinemas, "cinemas.csv", new CinemaCodec());
   }
 }
@@ -1,12 +1,12 @@
 package moblima.control.handlers;
 
-import com.google.gson.JsonArray;
-import com.google.gson.reflect.TypeToken;
 import moblima.entities.Customer;
 import moblima.utils.Helper;
+import moblima.utils.datasource.DataContext;
 import moblima.utils.datasource.Datasource;
+import moblima.utils.datasource.IndexedList;
+import moblima.utils.deserializers.CustomerCodec;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,7 +27,7 @@ public class CustomerHandler {
    * Instantiates a new Customer handler.
    */
   public CustomerHandler() {
-    this.customers = this.getCustomers();
+    this.customers = DataContext.getInstance().get(DataContext.CUSTOMERS, this::loadCustomers);
   }
 
   /**
@@ -68,19 +68,26 @@ public class CustomerHandler {
    */
 // + getCustomers() : List<Customer>
   public List<Customer> getCustomers() {
+    return this.customers;
+  }
+
+  /**
+   * Load customers from serialized datasource.
+   *
+   * @return the customers
+   */
+// # loadCustomers() : List<Customer>
+  protected List<Customer> loadCustomers() {
     List<Customer> customers = new ArrayList<Customer>();
     //Source from serialized datasource
     String fileName = "customers.csv";
-    JsonArray customerList = Datasource.readArrayFromCsv(fileName);
+    List<Customer> customerList = Datasource.readFromCsv(fileName, new CustomerCodec());
     if (customerList == null) {
-      Helper.logger("CustomerHandler.getCustomers", "No serialized data available");
+      Helper.logger("CustomerHandler.loadCustomers", "No serialized data available");
       return customers;
     }
 
-    String strCustomerList = Datasource.getGson().toJson(customerList);
-    Type typeCustomerList = new TypeToken<List<Customer>>() {
-    }.getType();
-    customers = Datasource.getGson().fromJson(strCustomerList, typeCustomerList);
+    customers = customerList;
 
     return customers;
   }
@@ -132,17 +139,9 @@ public class CustomerHandler {
    */
 // + getCustomerIdx(customerId: String) : int
   public int getCustomerIdx(String customerId) {
-    int customerIdx = -1;
-    if (customerId.isEmpty() || this.customers.size() < 1) return customerIdx;
+    if (customerId.isEmpty() || this.customers.size() < 1) return -1;
 
-    for (int i = 0; i < this.customers.size(); i++) {
-      Customer customer = this.customers.get(i);
-      if (customer.getId().equals(customerId)) {
-        customerIdx = i;
-        break;
-      }
-    }
-    return customerIdx;
+    return IndexedList.indexOf(this.customers, DataContext.CUSTOMER_ID, customerId);
   }
 
   /**
@@ -215,6 +214,6 @@ public class CustomerHandler {
    */
 //# saveCustomers():boolean
   protected boolean saveCustomers() {
-    return Datasource.serializeData(this.customers, "customers.csv");
+    return Datasource.scheduleData(this.customers, "customers.csv", new CustomerCodec());
   }
 }
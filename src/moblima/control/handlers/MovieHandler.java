@@ -1,11 +1,15 @@
 package moblima.control.handlers;
 
+import moblima.control.SessionContext;
 import moblima.entities.Movie;
 import moblima.entities.Movie.ContentRating;
 import moblima.entities.Movie.ShowStatus;
 import moblima.utils.Helper;
+import moblima.utils.datasource.DataContext;
 import moblima.utils.datasource.Datasource;
+import moblima.utils.datasource.IndexedList;
 import moblima.utils.datasource.MovieDatasource;
+import moblima.utils.deserializers.MovieCodec;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -19,37 +23,35 @@ public class MovieHandler {
    * The Movies.
    */
   protected List<Movie> movies;
-  /**
-   * The Selected movie idx.
-   */
-  protected int selectedMovieIdx = -1;
 
   /**
    * Instantiates a new Movie handler.
    */
   public MovieHandler() {
-    MovieDatasource dsMovie = new MovieDatasource();
-    this.movies = dsMovie.getMovies();
+    this.movies = DataContext.getInstance().get(DataContext.MOVIES, () -> new MovieDatasource().getMovies());
   }
 
   /**
    * Gets selected movie.
    *
+   * @param session the session
    * @return the selected movie
    */
-//+ getSelectedMovie() : Movie
-  public Movie getSelectedMovie() {
-    return this.getMovie(this.selectedMovieIdx);
+//+ getSelectedMovie(session : SessionContext) : Movie
+  public Movie getSelectedMovie(SessionContext session) {
+    return this.getMovie(this.getMovieIdx(session.getSelectedMovieId()));
   }
 
   /**
    * Sets selected movie idx.
    *
+   * @param session  the session
    * @param movieIdx the movie idx
    */
-// + setSelectedMovieIdx(movieIdx:int) :void
-  public void setSelectedMovieIdx(int movieIdx) {
-    this.selectedMovieIdx = movieIdx;
+// + setSelectedMovieIdx(session:SessionContext, movieIdx:int) :void
+  public void setSelectedMovieIdx(SessionContext session, int movieIdx) {
+    // Selected by id, positions shift once another session removes a movie
+    session.setSelectedMovieId((movieIdx < 0 || movieIdx >= this.movies.size()) ? -1 : this.movies.get(movieIdx).getId());
   }
 
   /**
@@ -74,15 +76,7 @@ public class MovieHandler {
     if (this.movies.size() < 1 || movieId < 0) return -1;
     Helper.logger("MovieHandler.getMovieIdx", "MovieId: " + movieId);
 
-    for (int i = 0; i < this.movies.size(); i++) {
-      Movie movie = this.movies.get(i);
-      if (movie.getId() == movieId) {
-        Helper.logger("MovieHandler.getMovieIdx", "Matched Movie: " + movie.getTitle());
-        return i;
-      }
-    }
-
-    return -1;
+    return IndexedList.indexOf(this.movies, DataContext.MOVIE_ID, movieId);
   }
 
   /**
@@ -96,7 +90,7 @@ public class MovieHandler {
     Movie movie = this.getMovie(this.getMovieIdx(movieId));
     movie.setOverallRating(overallRating);
 
-    return this.updateMovie(movie.getTitle(), movie.getSynopsis(), movie.getDirector(), movie.getCastList(), movie.getRuntime(), movie.getReleaseDate(), movie.isBlockbuster(), movie.getShowStatus(), movie.getContentRating(), movie.getOverallRating());
+    return this.updateMovie(this.getMovieIdx(movieId), movie.getTitle(), movie.getSynopsis(), movie.getDirector(), movie.getCastList(), movie.getRuntime(), movie.getReleaseDate(), movie.isBlockbuster(), movie.getShowStatus(), movie.getContentRating(), movie.getOverallRating());
   }
 
   /**
@@ -157,6 +151,7 @@ public class MovieHandler {
   /**
    * Update movie boolean.
    *
+   * @param session       the session
    * @param title         the title
    * @param synopsis      the synopsis
    * @param director      the director
@@ -169,16 +164,37 @@ public class MovieHandler {
    * @param overallRating the overall rating
    * @return the boolean
    */
-//+ updateMovie(title:String, synopsis:String, director:String, castList:List<String>, runtime:int, releaseDate:LocalDate, isBlockbuster:boolean, showStatus:ShowStatus, contentRating:ContentRating):boolean
-  public boolean updateMovie(String title, String synopsis, String director, List<String> castList, int runtime, LocalDate releaseDate, boolean isBlockbuster, ShowStatus showStatus, ContentRating contentRating, double overallRating) {
+//+ updateMovie(session:SessionContext, title:String, synopsis:String, director:String, castList:List<String>, runtime:int, releaseDate:LocalDate, isBlockbuster:boolean, showStatus:ShowStatus, contentRating:ContentRating):boolean
+  public boolean updateMovie(SessionContext session, String title, String synopsis, String director, List<String> castList, int runtime, LocalDate releaseDate, boolean isBlockbuster, ShowStatus showStatus, ContentRating contentRating, double overallRating) {
+    return this.updateMovie(this.getMovieIdx(session.getSelectedMovieId()), title, synopsis, director, castList, runtime, releaseDate, isBlockbuster, showStatus, contentRating, overallRating);
+  }
+
+  /**
+   * Update movie boolean.
+   *
+   * @param movieIdx      the movie idx
+   * @param title         the title
+   * @param synopsis      the synopsis
+   * @param director      the director
+   * @param castList      the cast list
+   * @param runtime       the runtime
+   * @param releaseDate   the release date
+   * @param isBlockbuster the is blockbuster
+   * @param showStatus    the show status
+   * @param contentRating the content rating
+   * @param overallRating the overall rating
+   * @return the boolean
+   */
+//# updateMovie(movieIdx:int, title:String, synopsis:String, director:String, castList:List<String>, runtime:int, releaseDate:LocalDate, isBlockbuster:boolean, showStatus:ShowStatus, contentRating:ContentRating):boolean
+  protected boolean updateMovie(int movieIdx, String title, String synopsis, String director, List<String> castList, int runtime, LocalDate releaseDate, boolean isBlockbuster, ShowStatus showStatus, ContentRating contentRating, double overallRating) {
     boolean status = false;
-    if (this.movies.size() < 1 || this.selectedMovieIdx < 0) return status;
+    if (this.movies.size() < 1 || movieIdx < 0) return status;
 
-    Movie movie = this.getMovie(this.selectedMovieIdx);
+    Movie movie = this.getMovie(movieIdx);
     // Early return if movie does not exist
     if (movie == null) return status;
 
-    this.movies.set(this.selectedMovieIdx, new Movie(movie.getId(), title, synopsis, director, castList, runtime, releaseDate, isBlockbuster, showStatus, contentRating, overallRating));
+    this.movies.set(movieIdx, new Movie(movie.getId(), title, synopsis, director, castList, runtime, releaseDate, isBlockbuster, showStatus, contentRating, overallRating));
 
     //Serialize data
     this.saveMovies();
@@ -252,7 +268,7 @@ public class MovieHandler {
    */
 //# saveCustomers():boolean
   protected boolean saveMovies() {
-    return Datasource.serializeData(this.movies, "movies.csv");
+    return Datasource.scheduleData(this.movies, "movies.csv", new MovieCodec());
   }
 
 }
@@ -1,10 +1,14 @@
 package moblima.control.handlers;
 
+import moblima.control.SessionContext;
 import moblima.entities.Movie;
 import moblima.entities.Review;
 import moblima.utils.Helper;
+import moblima.utils.datasource.DataContext;
 import moblima.utils.datasource.Datasource;
+import moblima.utils.datasource.IndexedList;
 import moblima.utils.datasource.MovieDatasource;
+import moblima.utils.deserializers.ReviewCodec;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,38 +25,36 @@ public class ReviewHandler extends MovieHandler {
    * The Reviews.
    */
   protected List<Review> reviews;
-  /**
-   * The Selected review idx.
-   */
-  protected int selectedReviewIdx = -1;
 
   /**
    * Instantiates a new Review handler.
    */
   public ReviewHandler() {
     super();
-    MovieDatasource dsMovie = new MovieDatasource();
-    this.reviews = dsMovie.getReviews();
+    this.reviews = DataContext.getInstance().get(DataContext.REVIEWS, () -> new MovieDatasource().getReviews());
   }
 
   /**
    * Gets selected review.
    *
+   * @param session the session
    * @return the selected review
    */
-//+ getSelectedReview() : Review
-  public Review getSelectedReview() {
-    return this.getReview(this.selectedReviewIdx);
+//+ getSelectedReview(session : SessionContext) : Review
+  public Review getSelectedReview(SessionContext session) {
+    return this.getReview(this.getReviewIdx(session.getSelectedReviewId()));
   }
 
   /**
    * Sets selected review idx.
    *
+   * @param session   the session
    * @param reviewIdx the review idx
    */
-// + setSelectedReviewIdx(reviewIdx:int) :void
-  public void setSelectedReviewIdx(int reviewIdx) {
-    this.selectedReviewIdx = reviewIdx;
+// + setSelectedReviewIdx(session:SessionContext, reviewIdx:int) :void
+  public void setSelectedReviewIdx(SessionContext session, int reviewIdx) {
+    // Selected by id, positions shift once another session removes a review
+    session.setSelectedReviewId((reviewIdx < 0 || reviewIdx >= this.reviews.size()) ? null : this.reviews.get(reviewIdx).getId());
   }
 
   /**
@@ -88,18 +90,10 @@ public class ReviewHandler extends MovieHandler {
    */
 // + getReviewIdx(reviewId:String):int
   public int getReviewIdx(String reviewId) {
-    if (this.reviews.size() < 1 || reviewId.isBlank()) return -1;
+    if (this.reviews.size() < 1 || reviewId == null || reviewId.isBlank()) return -1;
     Helper.logger("ReviewHandler.getReviewIdx", "ReviewId: " + reviewId);
 
-    for (int i = 0; i < this.reviews.size(); i++) {
-      Review review = this.reviews.get(i);
-      if (review.getId().equals(reviewId)) {
-        Helper.logger("ReviewHandler.getReviewIdx", "Review: " + review);
-        return i;
-      }
-    }
-
-    return -1;
+    return IndexedList.indexOf(this.reviews, DataContext.REVIEW_ID, reviewId);
   }
 
   /**
@@ -117,20 +111,22 @@ public class ReviewHandler extends MovieHandler {
   /**
    * Update review boolean.
    *
+   * @param session       the session
    * @param rating        the rating
    * @param reviewContent the review content
    * @return the boolean
    */
-//+ updateReview(rating:int, reviewContent:String):boolean
-  public boolean updateReview(int rating, String reviewContent) {
+//+ updateReview(session:SessionContext, rating:int, reviewContent:String):boolean
+  public boolean updateReview(SessionContext session, int rating, String reviewContent) {
     boolean status = false;
-    if (this.reviews.size() < 1 || this.selectedReviewIdx < 0) return status;
+    int reviewIdx = this.getReviewIdx(session.getSelectedReviewId());
+    if (this.reviews.size() < 1 || reviewIdx < 0) return status;
 
-    Review review = this.getReview(this.selectedReviewIdx);
+    Review review = this.getReview(reviewIdx);
     // Early return if review does not exist
     if (review == null) return status;
 
-    this.reviews.set(this.selectedReviewIdx, new Review(review.getId(), review.getMovieId(), reviewContent, rating, review.getAuthorName(), review.getAuthorId()));
+    this.reviews.set(reviewIdx, new Review(review.getId(), review.getMovieId(), reviewContent, rating, review.getAuthorName(), review.getAuthorId()));
 
     // Compute movie's overall rating
     this.updateMovieRating(review.getMovieId(), this.computeMovieRatings(review.getMovieId()));
@@ -178,12 +174,9 @@ public class ReviewHandler extends MovieHandler {
    */
 //+ getMovieReviews(movieId:int) : List<Review>
   public List<Review> getMovieReviews(int movieId) {
-    List<Review> reviews = new ArrayList<Review>();
-    if (this.reviews.size() < 1) return reviews;
+    if (this.reviews.size() < 1) return new ArrayList<Review>();
 
-    for (Review review : this.reviews) {
-      if (review.getMovieId() == movieId) reviews.add(review);
-    }
+    List<Review> reviews = IndexedList.group(this.reviews, DataContext.REVIEWS_BY_MOVIE, movieId);
     Helper.logger("ReviewHandler.getMovieReviews", "Reviews: " + reviews);
     return reviews;
   }
@@ -196,12 +189,9 @@ public class ReviewHandler extends MovieHandler {
    */
 //+ getUserReviews(authorId:String) : List<Review>
   public List<Review> getUserReviews(String authorId) {
-    List<Review> reviews = new ArrayList<Review>();
-    if (this.reviews.size() < 1 || authorId.isBlank()) return reviews;
+    if (this.reviews.size() < 1 || authorId.isBlank()) return new ArrayList<Review>();
 
-    for (Review review : this.reviews) {
-      if (review.getAuthorId().equals(authorId)) reviews.add(review);
-    }
+    List<Review> reviews = IndexedList.group(this.reviews, DataContext.REVIEWS_BY_AUTHOR, authorId);
     Helper.logger("ReviewHandler.getUserReviews", "Reviews: " + reviews);
     return reviews;
   }
@@ -282,7 +272,6 @@ public class ReviewHandler extends MovieHandler {
     Movie movie = getMovie(movieIdx);
     if (movie == null) return "";
 
-    this.selectedMovieIdx = movieIdx;
     String header = "\n/// MOVIE DETAILS ///";
     colorPrint(header, Helper.Preset.HIGHLIGHT);
 
@@ -299,6 +288,6 @@ public class ReviewHandler extends MovieHandler {
    */
 //# saveCustomers():boolean
   protected boolean saveReviews() {
-    return Datasource.serializeData(this.reviews, "reviews.csv");
+    return Datasource.scheduleData(this.reviews, "reviews.csv", new ReviewCodec());
   }
 }
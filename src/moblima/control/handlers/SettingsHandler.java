@@ -1,24 +1,23 @@
 package moblima.control.handlers;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 import moblima.entities.*;
 import moblima.entities.Booking.TicketType;
 import moblima.utils.Helper;
+import moblima.utils.datasource.DataContext;
 import moblima.utils.datasource.Datasource;
 import moblima.utils.datasource.HolidayDatasource;
+import moblima.utils.deserializers.SettingsCodec;
+import moblima.utils.services.pricing.PriceMatrix;
+import moblima.utils.services.pricing.PriceMatrix.DayClass;
+import moblima.utils.services.pricing.QuoteService;
 
-import java.lang.reflect.Type;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static moblima.utils.deserializers.LocalDateDeserializer.dateFormatter;
 
@@ -26,9 +25,12 @@ import static moblima.utils.deserializers.LocalDateDeserializer.dateFormatter;
  * The type Settings handler.
  */
 public class SettingsHandler {
-
   /**
-   * The Current settings.
+   * Prices compiled from the current settings, shared by every handler
+   */
+  private static final AtomicReference<PriceMatrix> priceMatrix = new AtomicReference<PriceMatrix>();
+  /**
+   * The Current settings, as last read from the data context.
    */
   protected Settings currentSettings;
   /**
@@ -40,7 +42,7 @@ public class SettingsHandler {
    * Instantiates a new Settings handler.
    */
   public SettingsHandler() {
-    this.currentSettings = this.getCurrentSettings();
+    this.currentSettings = DataContext.getInstance().getSettings(this::getSettings);
   }
 
   /**
@@ -122,49 +124,57 @@ public class SettingsHandler {
    */
 //+updatePrice(settings : SystemSettings) : void
   public void updateSettings(Settings settings) {
-    // Replace current price
-    this.currentSettings = settings;
-    Helper.logger("SettingsHandler.updateSystemSettings", "Settings: \n" + this.currentSettings);
+    // Replace current price, readers of the previous version are unaffected
+    this.currentSettings = DataContext.getInstance().setSettings(settings);
+    Helper.logger("SettingsHandler.updateSystemSettings", "Settings v" + this.currentSettings.getVersion() + ": \n" + this.currentSettings);
 
     // Serialize data
     this.saveSettings();
   }
 
   /**
-   * Gets current system settings.
+   * Gets current system settings, as a copy to be edited.
    *
    * @return the current system settings
    */
 // + getCurrentPrice():Price
   public Settings getCurrentSettings() {
-//    if (this.currentSettings == null)
-    this.currentSettings = this.getSettings();
-    Helper.logger("SettingsHandler.getCurrentSystemSettings", "Settings: \n" + this.currentSettings);
+    return new Settings(this.getSettingsSnapshot());
+  }
 
-    return new Settings(this.currentSettings);
+  /**
+   * Gets current system settings, as the read-only snapshot shared by every reader.
+   *
+   * @return the settings snapshot
+   */
+//+ getSettingsSnapshot():Settings
+  public Settings getSettingsSnapshot() {
+    this.currentSettings = DataContext.getInstance().getSettings(this::getSettings);
+    return this.currentSettings;
   }
 
   //- getDefaultPricingScheme():Price
   private Settings getDefaultSettings() {
-    double adultTicketPrice = 10;
-    double blockbusterSurcharge = 8;
+    // Prices (cents)
+    long adultTicketPrice = 1000;
+    long blockbusterSurcharge = 800;
 
-    EnumMap<Showtime.ShowType, Double> showSurcharges = new EnumMap<Showtime.ShowType, Double>(Showtime.ShowType.class) {{
-      put(Showtime.ShowType.Digital, 0.0);
-      put(Showtime.ShowType.ThreeDimensional, 5.0);
+    EnumMap<Showtime.ShowType, Long> showSurcharges = new EnumMap<Showtime.ShowType, Long>(Showtime.ShowType.class) {{
+      put(Showtime.ShowType.Digital, 0L);
+      put(Showtime.ShowType.ThreeDimensional, 500L);
     }};
 
-    EnumMap<Booking.TicketType, Double> ticketSurcharges = new EnumMap<Booking.TicketType, Double>(Booking.TicketType.class) {{
-      put(TicketType.STUDENT, -5.0);
-      put(TicketType.SENIOR, -5.0);
-      put(TicketType.PEAK, 5.0);
-      put(TicketType.SUPER_PEAK, 8.0);
-      put(TicketType.NON_PEAK, 0.0);
+    EnumMap<Booking.TicketType, Long> ticketSurcharges = new EnumMap<Booking.TicketType, Long>(Booking.TicketType.class) {{
+      put(TicketType.STUDENT, -500L);
+      put(TicketType.SENIOR, -500L);
+      put(TicketType.PEAK, 500L);
+      put(TicketType.SUPER_PEAK, 800L);
+      put(TicketType.NON_PEAK, 0L);
     }};
 
-    EnumMap<Cinema.ClassType, Double> cinemaSurcharges = new EnumMap<Cinema.ClassType, Double>(Cinema.ClassType.class) {{
-      put(Cinema.ClassType.Normal, 0.0);
-      put(Cinema.ClassType.Premium, 8.0);
+    EnumMap<Cinema.ClassType, Long> cinemaSurcharges = new EnumMap<Cinema.ClassType, Long>(Cinema.ClassType.class) {{
+      put(Cinema.ClassType.Normal, 0L);
+      put(Cinema.ClassType.Premium, 800L);
     }};
 
     EnumMap<Settings.RankedType, Boolean> rankedTypes = new EnumMap<Settings.RankedType, Boolean>(Settings.RankedType.class) {{
@@ -179,6 +189,23 @@ public class SettingsHandler {
     return new Settings(adultTicketPrice, blockbusterSurcharge, showSurcharges, ticketSurcharges, cinemaSurcharges, rankedTypes, publicHolidays);
   }
 
+  /**
+   * Gets price matrix of the current settings, compiled again only once settings change.
+   *
+   * @return the price matrix
+   */
+//+ getPriceMatrix():PriceMatrix
+  public PriceMatrix getPriceMatrix() {
+    Settings settings = this.getSettingsSnapshot();
+    PriceMatrix matrix = priceMatrix.get();
+    if (matrix != null && matrix.getVersion() == settings.getVersion()) return matrix;
+
+    matrix = PriceMatrix.compile(settings);
+    priceMatrix.set(matrix);
+    Helper.logger("SettingsHandler.getPriceMatrix", "Compiled prices of settings v" + matrix.getVersion());
+    return matrix;
+  }
+
   /**
    * Verify ticket type ticket type.
    *
@@ -187,63 +214,52 @@ public class SettingsHandler {
    * @return the ticket type
    */
   public TicketType verifyTicketType(LocalDateTime showDateTime, TicketType ticketType) {
-    // Check if PEAK
-    DayOfWeek day = showDateTime.getDayOfWeek();
-    int hour = showDateTime.getHour();
-
-    List<DayOfWeek> peakDays = Arrays.asList(DayOfWeek.THURSDAY, DayOfWeek.FRIDAY);
-    int endPeakHour = 18;
-    boolean isPeakDay = peakDays.contains(day);
-    boolean isBeforePeakEnd = hour >= endPeakHour;
-
-    if (isPeakDay && isBeforePeakEnd) return ticketType = TicketType.PEAK;
+    // PEAK & SUPER_PEAK days override the ticket type
+    return this.getPriceMatrix().classify(showDateTime).getTicketType(ticketType);
+  }
 
-    List<DayOfWeek> weekendDays = Arrays.asList(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
-    boolean isWeekend = weekendDays.contains(day);
-    boolean isHoliday = this.currentSettings.getHolidays().stream().anyMatch(h -> h.isEqual(showDateTime.toLocalDate()));
-    if (isHoliday || isWeekend) ticketType = TicketType.SUPER_PEAK;
+  /**
+   * Quote every eligible ticket type of a showtime.
+   *
+   * @param showtime      the showtime
+   * @param isBlockbuster the is blockbuster
+   * @param classType     the class type of its cinema
+   * @return the quote
+   */
+//+ quote(showtime:Showtime, isBlockbuster:boolean, classType:ClassType):Quote
+  public Quote quote(Showtime showtime, boolean isBlockbuster, Cinema.ClassType classType) {
+    return QuoteService.getInstance().quote(showtime, isBlockbuster, classType, this.getPriceMatrix());
+  }
 
-    return ticketType;
+  /**
+   * Classify showtimes by day class, e.g. for reporting.
+   *
+   * @param showtimes the showtimes
+   * @return the showtimes, by day class
+   */
+//+ classifyShowtimes(showtimes:List<Showtime>):EnumMap<DayClass, List<Showtime>>
+  public EnumMap<DayClass, List<Showtime>> classifyShowtimes(List<Showtime> showtimes) {
+    return this.getPriceMatrix().getCalendar().classify(showtimes);
   }
 
   /**
-   * Compute ticket price double.
+   * Compute ticket price long.
    *
    * @param isBlockbuster the is blockbuster
    * @param showType      the show type
    * @param classType     the class type
    * @param ticketType    the ticket type
    * @param showDateTime  the show date time
-   * @return the double
+   * @return the price (cents)
    */
-//+ computeTicketPrice(isBlockbuster:boolean, classType:ClassType, ticketType:TicketType):double
-  public double computeTicketPrice(boolean isBlockbuster, Showtime.ShowType showType, Cinema.ClassType classType, Booking.TicketType ticketType, LocalDateTime showDateTime) {
-    Helper.logger("SettingsHandler.computeTicketPrice", "currentPrice:\n" + this.currentSettings.toString());
-    double price = this.currentSettings.getAdultTicket();
-
-    // Blockbuster Surcharges
-    if (isBlockbuster) price += this.currentSettings.getBlockbusterSurcharge();
-
-    // ShowType Surcharges
-    EnumMap<Showtime.ShowType, Double> showSurcharge = this.currentSettings.getShowSurcharges();
-    if (showSurcharge.containsKey(showType)) price += showSurcharge.get(showType);
-
-    // Cinema Surcharges
-    EnumMap<Cinema.ClassType, Double> cinemaSurcharge = this.currentSettings.getCinemaSurcharges();
-    if (cinemaSurcharge.containsKey(classType)) price += cinemaSurcharge.get(classType);
-
-    // Check if PEAK
-    ticketType = verifyTicketType(showDateTime, ticketType);
-
-    // Ticket Surcharges
-    EnumMap<Booking.TicketType, Double> ticketSurcharges = this.currentSettings.getTicketSurcharges();
-    if (ticketSurcharges.containsKey(ticketType)) price += ticketSurcharges.get(ticketType);
-
-    return price;
+//+ computeTicketPrice(isBlockbuster:boolean, classType:ClassType, ticketType:TicketType):long
+  public long computeTicketPrice(boolean isBlockbuster, Showtime.ShowType showType, Cinema.ClassType classType, Booking.TicketType ticketType, LocalDateTime showDateTime) {
+    PriceMatrix matrix = this.getPriceMatrix();
+    return matrix.getPrice(isBlockbuster, showType, classType, ticketType, matrix.classify(showDateTime));
   }
 
   /**
-   * Compute total cost double.
+   * Compute total cost long.
    *
    * @param isBlockbuster the is blockbuster
    * @param showType      the show type
@@ -251,14 +267,14 @@ public class SettingsHandler {
    * @param ticketType    the ticket type
    * @param showDateTime  the show date time
    * @param seatCount     the seat count
-   * @return the double
+   * @return the total cost (cents)
    */
 //+ computeTotalCost(
-  public double computeTotalCost(boolean isBlockbuster, Showtime.ShowType showType, Cinema.ClassType classType, Booking.TicketType ticketType, LocalDateTime showDateTime, int seatCount) {
+  public long computeTotalCost(boolean isBlockbuster, Showtime.ShowType showType, Cinema.ClassType classType, Booking.TicketType ticketType, LocalDateTime showDateTime, int seatCount) {
     // final double GST_PERCENT = 0.07;
 
     if (seatCount <= 0) return 0;
-    double totalCost = this.computeTicketPrice(isBlockbuster, showType, classType, ticketType, showDateTime) * seatCount;
+    long totalCost = this.computeTicketPrice(isBlockbuster, showType, classType, ticketType, showDateTime) * seatCount;
     // totalCost += totalCost * GST_PERCENT;
 
     return totalCost;
@@ -273,61 +289,21 @@ public class SettingsHandler {
   public Settings getSettings() {
     List<Settings> settings = new ArrayList<Settings>();
 
-    // Intialize with default pricing
-    this.currentSettings = this.getDefaultSettings();
-
     //Source from serialized datasource
     String fileName = "settings.csv";
     if (fileName == null || fileName.isEmpty()) {
       Helper.logger("SettingsHandler.getSystemSettingss", "Null and void filename provided, no data retrieved.");
-      return this.currentSettings;
+      return this.currentSettings = this.getDefaultSettings();
     }
 
-    JsonArray settingsList = Datasource.readArrayFromCsv(fileName);
-    if (settingsList == null) {
+    // Intialize with default pricing (and holidays) only if none serialized
+    List<Settings> settingsList = Datasource.readFromCsv(fileName, new SettingsCodec());
+    if (settingsList == null || settingsList.isEmpty()) {
       Helper.logger("SettingsHandler.getSystemSettingss", "No serialized data available");
-      return this.currentSettings;
+      return this.currentSettings = this.getDefaultSettings();
     }
 
-    for (JsonElement setting : settingsList) {
-      JsonObject p = setting.getAsJsonObject();
-
-      double adultTicket = p.get("adultTicket").getAsDouble();
-      double blockbusterSurcharge = p.get("blockbusterSurcharge").getAsDouble();
-
-      // Show Surcharge
-      String strShowSurcharges = p.get("showSurcharges").getAsString();
-      Type typeShowSurcharges = new TypeToken<EnumMap<Showtime.ShowType, Double>>() {
-      }.getType();
-      EnumMap<Showtime.ShowType, Double> showSurcharges = Datasource.getGson().fromJson(strShowSurcharges, typeShowSurcharges);
-
-      // Ticket Surcharge
-      String strTicketSurcharges = p.get("ticketSurcharges").getAsString();
-      Type typeTicketSurcharges = new TypeToken<EnumMap<TicketType, Double>>() {
-      }.getType();
-      EnumMap<Booking.TicketType, Double> ticketSurcharges = Datasource.getGson().fromJson(strTicketSurcharges, typeTicketSurcharges);
-
-      // Cinema Surcharge
-      String strCinemaSurcharges = p.get("cinemaSurcharges").getAsString();
-      Type typeCinemaSurcharges = new TypeToken<EnumMap<Cinema.ClassType, Double>>() {
-      }.getType();
-      EnumMap<Cinema.ClassType, Double> cinemaSurcharges = Datasource.getGson().fromJson(strCinemaSurcharges, typeCinemaSurcharges);
-
-      // Ranked Types
-      String strRankedTypes = p.get("rankedTypes").getAsString();
-      Type typeRankedTypes = new TypeToken<EnumMap<Settings.RankedType, Boolean>>() {
-      }.getType();
-      EnumMap<Settings.RankedType, Boolean> rankedTypes = Datasource.getGson().fromJson(strRankedTypes, typeRankedTypes);
-
-
-      // Public Holidays
-      String strPublicHolidays = p.get("publicHolidays").getAsString();
-      Type typePublicHolidays = new TypeToken<ArrayList<LocalDate>>() {
-      }.getType();
-      ArrayList<LocalDate> publicHolidays = Datasource.getGson().fromJson(strPublicHolidays, typePublicHolidays);
-
-      this.currentSettings = new Settings(adultTicket, blockbusterSurcharge, showSurcharges, ticketSurcharges, cinemaSurcharges, rankedTypes, publicHolidays);
-    }
+    this.currentSettings = settingsList.get(settingsList.size() - 1);
 
     if (settings.size() < 1) return this.currentSettings;
 
@@ -349,7 +325,7 @@ public class SettingsHandler {
     List<Settings> settings = new ArrayList<Settings>();
     settings.add(this.currentSettings);
     HolidayDatasource.saveHolidays(this.currentSettings.getHolidays());
-    return Datasource.serializeData(settings, "settings.csv");
+    return Datasource.scheduleData(settings, "settings.csv", new SettingsCodec());
   }
 
 }
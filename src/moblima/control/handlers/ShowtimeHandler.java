@@ -1,9 +1,23 @@
 package moblima.control.handlers;
 
+import moblima.control.SessionContext;
+import moblima.entities.HallLayout;
+import moblima.entities.SeatAssignment;
+import moblima.entities.SeatHold;
+import moblima.entities.SeatMap;
 import moblima.entities.Showtime;
+import moblima.entities.WaitlistEntry;
 import moblima.utils.Helper;
 import moblima.utils.Helper.Preset;
-import moblima.utils.datasource.Datasource;
+import moblima.utils.datasource.DataContext;
+import moblima.utils.datasource.IndexedList;
+import moblima.utils.datasource.PersistenceScheduler;
+import moblima.utils.datasource.ShowtimeSnapshot;
+import moblima.utils.services.booking.SeatAvailability;
+import moblima.utils.services.booking.ShowtimeSchedule;
+import moblima.utils.services.pricing.QuoteService;
+import moblima.utils.services.booking.WaitlistService;
+import moblima.utils.services.holds.SeatHoldService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,20 +32,22 @@ public class ShowtimeHandler {
   /**
    * The Showtimes.
    */
-  protected List<Showtime> showtimes = new ArrayList<Showtime>();
+  protected List<Showtime> showtimes = new IndexedList<Showtime>();
   /**
-   * The Selected showtime idx.
+   * The Waitlists of sold out showtimes.
    */
-  protected int selectedShowtimeIdx = -1;
+  protected final WaitlistService waitlist = WaitlistService.getInstance();
 
   /**
    * Sets selected showtime idx.
    *
+   * @param session     the session
    * @param showtimeIdx the showtime idx
    */
-// + setSelectedShowtimeIdx(showtimeIdx:int) :void
-  public void setSelectedShowtimeIdx(int showtimeIdx) {
-    this.selectedShowtimeIdx = showtimeIdx;
+// + setSelectedShowtimeIdx(session:SessionContext, showtimeIdx:int) :void
+  public void setSelectedShowtimeIdx(SessionContext session, int showtimeIdx) {
+    // Selected by id, positions shift once another session removes a showtime
+    session.setSelectedShowtimeId((showtimeIdx < 0 || showtimeIdx >= this.showtimes.size()) ? null : this.showtimes.get(showtimeIdx).getId());
   }
 
   /**
@@ -42,18 +58,9 @@ public class ShowtimeHandler {
    */
 //+ getShowtimeIdx (showtimeId:String) : int
   public int getShowtimeIdx(String showtimeId) {
-    int showtimeIdx = -1;
-    if (this.showtimes.size() < 1 || showtimeId.isEmpty()) return showtimeIdx;
-
-    for (int i = 0; i < this.showtimes.size(); i++) {
-      Showtime showtime = this.showtimes.get(i);
-      if (showtime.getId().equals(showtimeId)) {
-        showtimeIdx = i;
-        break;
-      }
-    }
+    if (this.showtimes.size() < 1 || showtimeId == null || showtimeId.isEmpty()) return -1;
 
-    return showtimeIdx;
+    return IndexedList.indexOf(this.showtimes, DataContext.SHOWTIME_ID, showtimeId);
   }
 
 
@@ -76,16 +83,22 @@ public class ShowtimeHandler {
    */
 //+ getShowtime (showtimeId: String) : Showtime
   public Showtime getShowtime(String showtimeId) {
-    Showtime showtime = null;
-    if (this.showtimes.size() < 1) return showtime;
+    if (this.showtimes.size() < 1) return null;
 
-    for (Showtime s : showtimes) {
-      if (s.getId().equals(showtimeId)) {
-        showtime = new Showtime(s);
-        break;
-      }
-    }
-    return showtime;
+    int showtimeIdx = IndexedList.indexOf(this.showtimes, DataContext.SHOWTIME_ID, showtimeId);
+    return showtimeIdx < 0 ? null : new Showtime(this.showtimes.get(showtimeIdx));
+  }
+
+  /**
+   * Gets the live seats of a showtime, which holds and bookings are claimed from. Copies of the showtime only carry a
+   * snapshot of them.
+   *
+   * @param showtimeIdx the showtime idx
+   * @return the seats, null if showtime does not exist
+   */
+//# getShowtimeSeats(showtimeIdx:int):SeatMap
+  protected SeatMap getShowtimeSeats(int showtimeIdx) {
+    return (showtimeIdx < 0 || showtimeIdx >= this.showtimes.size()) ? null : this.showtimes.get(showtimeIdx).getSeats();
   }
 
   /**
@@ -102,10 +115,7 @@ public class ShowtimeHandler {
       return showtimes;
     }
 
-    for (Showtime showtime : this.showtimes) {
-      if (showtime.getMovieId() == movieId) showtimes.add(showtime);
-    }
-    return showtimes;
+    return IndexedList.group(this.showtimes, DataContext.SHOWTIMES_BY_MOVIE, movieId);
   }
 
   /**
@@ -115,15 +125,13 @@ public class ShowtimeHandler {
    * @param seats       the seats
    * @return the boolean
    */
-  public boolean updateShowtimeSeats(int showtimeIdx, boolean[][] seats) {
+  public boolean updateShowtimeSeats(int showtimeIdx, SeatMap seats) {
     boolean status = false;
-    if (this.showtimes.size() < 1 || showtimeIdx < 0) return status;
-
-    Showtime showtime = this.getShowtime(showtimeIdx);
-    if (showtime == null) return status;
+    if (this.showtimes.size() < 1 || showtimeIdx < 0 || showtimeIdx >= this.showtimes.size()) return status;
 
+    Showtime showtime = this.showtimes.get(showtimeIdx);
     showtime.setSeats(seats);
-    this.showtimes.set(showtimeIdx, showtime);
+    SeatAvailability.getInstance().track(showtime);
 
     Helper.logger("ShowtimeHandler.updateShowtime", "AVAIL SEATS: " + getAvailableSeatCount(showtimeIdx));
 
@@ -183,6 +191,10 @@ public class ShowtimeHandler {
     int showtimeIdx = this.getShowtimeIdx(showtimeId);
     if (showtimeIdx < 0) return status;
     this.showtimes.remove(showtimeIdx);
+    SeatAvailability.getInstance().untrack(showtimeId);
+    ShowtimeSchedule.getInstance().untrack(showtimeId);
+    QuoteService.getInstance().forget(showtimeId);
+    this.waitlist.clear(showtimeId);
 
     //Serialize data
     this.saveShowtimes();
@@ -201,7 +213,6 @@ public class ShowtimeHandler {
   public String printShowtimeDetails(int showtimeIdx) {
     Showtime showtime = this.getShowtime(showtimeIdx);
     if (showtime == null) return "";
-    this.selectedShowtimeIdx = showtimeIdx;
 
     String header = "\n/// SHOWTIME DETAILS ///";
     colorPrint(header, Preset.HIGHLIGHT);
@@ -219,8 +230,7 @@ public class ShowtimeHandler {
   public void printSeats(int showtimeIdx) {
     Showtime showtime = this.getShowtime(showtimeIdx);
     if (showtimeIdx < 0 || showtime == null) return;
-    boolean[][] seats = showtime.getSeats();
-    this.printSeats(seats, new ArrayList<int[]>());
+    this.printSeats(showtime.getSeats(), new ArrayList<int[]>());
   }
 
   /**
@@ -229,23 +239,23 @@ public class ShowtimeHandler {
    * @param seats         the seats
    * @param selectedSeats the selected
    */
-// +printSeats(seats:boolean[][]):void
-  public void printSeats(boolean[][] seats, List<int[]> selectedSeats) {
+// +printSeats(seats:SeatMap):void
+  public void printSeats(SeatMap seats, List<int[]> selectedSeats) {
     //TODO: Current selection color
     boolean hasSelected = selectedSeats.size() > 0;
 
-    int GAP_COL = 2;
+    HallLayout layout = seats.getLayout();
     String BUFFER = "=================";
 
     System.out.println(BUFFER + " SCREEN " + BUFFER);
     System.out.println();
     System.out.print("      ");
-    for (int header = 0; header < seats[0].length; header++) {
-      if (header > 0) System.out.print((header == GAP_COL || header == seats[0].length - GAP_COL) ? "  -  " : "  ");
+    for (int header = 0; header < seats.getColCount(); header++) {
+      if (header > 0) System.out.print(layout.isAisle(header) ? "  -  " : "  ");
       System.out.print((header + 1));
     }
     System.out.println();
-    for (int row = 0; row < seats.length; row++) {
+    for (int row = 0; row < seats.getRowCount(); row++) {
       String strRowIdx = (row + 1) + "  - ";
       System.out.print(strRowIdx);
 
@@ -256,11 +266,16 @@ public class ShowtimeHandler {
 //      logger("ShowtimeHandler.printSeats", "Selected seats: " + Arrays.deepToString(selectedSeats.toArray()));
 //      logger("ShowtimeHandler.printSeats", "rowSelectedSeats: " + Arrays.deepToString(rowSelectedSeats.toArray()));
 
-      for (int col = 0; col < seats[row].length; col++) {
-        if (col > 0 && (col == GAP_COL || col == seats[row].length - GAP_COL)) {
+      for (int col = 0; col < seats.getColCount(); col++) {
+        if (col > 0 && layout.isAisle(col)) {
           System.out.print(" - ");
         }
-        boolean isAvailable = (seats[row][col]);
+        // Blocked seats are left blank
+        if (layout.isBlocked(row, col)) {
+          System.out.print("   ");
+          continue;
+        }
+        boolean isAvailable = seats.isAvailable(row, col);
         int currentCol = col;
         boolean isSelected = hasSelected && rowSelectedSeats.size() > 0 && rowSelectedSeats.stream().anyMatch(s -> s[1] == currentCol);
 //        logger("ShowtimeHandler.printSeats", "isSelected: " + isSelected);
@@ -277,21 +292,47 @@ public class ShowtimeHandler {
   }
 
   /**
-   * Bulk assign seat boolean.
+   * Bulk assign seats, all or none. Every seat is validated before any is assigned, and the showtime is persisted
+   * once for all seats. Seats are never overridden: booked or held seats cannot be booked, and only booked seats can
+   * be released.
+   *
+   * @param showtimeIdx            the showtime idx
+   * @param seatCodes              the seat codes
+   * @param availabilityAssignment the availability assignment
+   * @return the seat assignment, reporting every conflicting seat if none were assigned, null if showtime does not
+   * exist
+   */
+//+bulkAssignSeat(showtimeIdx:int, seatCode:List<int[]>, availabilityAssignment:boolean):SeatAssignment
+  public SeatAssignment bulkAssignSeat(int showtimeIdx, List<int[]> seatCodes, boolean availabilityAssignment) {
+    if (showtimeIdx < 0 || showtimeIdx >= this.showtimes.size()) return null;
+
+    Showtime showtime = this.showtimes.get(showtimeIdx);
+    SeatAssignment assignment = showtime.getSeats().tryAssign(seatCodes, !availabilityAssignment);
+    Helper.logger("ShowtimeHandler.bulkAssignSeat", assignment.toString());
+    if (!assignment.isApplied() || seatCodes.size() < 1) return assignment;
+
+    // Released seats go to the waitlist first
+    if (!availabilityAssignment) this.waitlist.offer(showtime.getId(), showtime.getSeats());
+
+    // Serialize data, once for all seats
+    this.saveShowtimes();
+
+    return assignment;
+  }
+
+  /**
+   * Apply seat assignments in-memory, without persisting the showtime.
    *
    * @param showtimeIdx            the showtime idx
    * @param seatCodes              the seat codes
    * @param availabilityAssignment the availability assignment
    * @return the boolean
    */
-//+bulkAssignSeat(showtimeIdx:int, seatCode:List<int[]>):boolean
-  public boolean bulkAssignSeat(int showtimeIdx, List<int[]> seatCodes, boolean availabilityAssignment) {
-    boolean status = false;
-    for (int[] seatCode : seatCodes) {
-      status = assignSeat(showtimeIdx, seatCode, availabilityAssignment);
-      if (!status) break;
-    }
-    return status;
+//# applySeats(showtimeIdx:int, seatCodes:List<int[]>, availabilityAssignment:boolean):boolean
+  protected boolean applySeats(int showtimeIdx, List<int[]> seatCodes, boolean availabilityAssignment) {
+    if (showtimeIdx < 0 || showtimeIdx >= this.showtimes.size()) return false;
+
+    return this.showtimes.get(showtimeIdx).getSeats().bulkAssign(seatCodes, !availabilityAssignment);
   }
 
   /**
@@ -305,38 +346,126 @@ public class ShowtimeHandler {
 //+assignSeat (showtimeldx : int, seatCode : int[2]) : boolean
   public boolean assignSeat(int showtimeIdx, int[] seatCode, boolean availabilityAssignment) {
     boolean status = false;
-    Showtime showtime = this.getShowtime(showtimeIdx);
-    if (showtimeIdx < 0 || showtime == null || seatCode.length != 2) return status;
+    SeatMap seats = this.getShowtimeSeats(showtimeIdx);
+    if (seats == null || !seats.isValid(seatCode)) return status;
 
-    boolean[][] seats = showtime.getSeats();
-    seats = assignSeat(seats, seatCode, availabilityAssignment);
+    this.assignSeat(seats, seatCode, availabilityAssignment);
 
     status = true;
-    showtime.setSeats(seats);
-    this.selectedShowtimeIdx = showtimeIdx;
 
-    this.updateShowtimeSeats(showtimeIdx, seats);
+    // Serialize data
+    this.saveShowtimes();
 
-    Helper.logger("ShowtimeHandler.assignSeat", "Showtime-SEATS: " + this.getAvailableSeatCount(showtimeIdx));
     Helper.logger("ShowtimeHandler.assignSeat", "SEATS: " + this.getAvailableSeatCount(showtimeIdx));
 
     return status;
   }
 
   /**
-   * Assign seat boolean [ ] [ ].
+   * Assign seat.
    *
    * @param seats                  the seats
    * @param seatCode               the seat code
    * @param availabilityAssignment the availability assignment
-   * @return the boolean [ ] [ ]
+   * @return the seats
    */
-//+ assignSeat(seats:boolean[][], seatCode:int[], availabilityAssignment:boolean):boolean[][]
-  public boolean[][] assignSeat(boolean[][] seats, int[] seatCode, boolean availabilityAssignment) {
-    seats[seatCode[0]][seatCode[1]] = !availabilityAssignment;
+//+ assignSeat(seats:SeatMap, seatCode:int[], availabilityAssignment:boolean):SeatMap
+  public SeatMap assignSeat(SeatMap seats, int[] seatCode, boolean availabilityAssignment) {
+    seats.assign(seatCode[0], seatCode[1], !availabilityAssignment);
     return seats;
   }
 
+  /**
+   * Holds seats of a showtime for a session, pending booking. Holds are kept in-memory only, and expire unless booked
+   * first.
+   *
+   * @param session     the session
+   * @param showtimeIdx the showtime idx
+   * @param seatCodes   the seat codes
+   * @return the seat hold, null if any seat is unavailable
+   */
+//+ holdSeats(session:SessionContext, showtimeIdx:int, seatCodes:List<int[]>):SeatHold
+  public SeatHold holdSeats(SessionContext session, int showtimeIdx, List<int[]> seatCodes) {
+    if (showtimeIdx < 0 || showtimeIdx >= this.showtimes.size()) return null;
+
+    Showtime showtime = this.showtimes.get(showtimeIdx);
+    return SeatHoldService.getInstance().hold(session.getId(), showtime.getId(), showtime.getSeats(), seatCodes);
+  }
+
+  /**
+   * Releases every seat hold of a session.
+   *
+   * @param session the session
+   * @return the no. of holds released
+   */
+//+ releaseSeatHolds(session:SessionContext):int
+  public int releaseSeatHolds(SessionContext session) {
+    return SeatHoldService.getInstance().releaseAll(session.getId());
+  }
+
+  /**
+   * Joins the waitlist of a showtime for a no. of seats, which are offered as a hold once available.
+   *
+   * @param customerId  the customer id
+   * @param showtimeIdx the showtime idx
+   * @param seatCount   the seat count
+   * @return the waitlist entry, null if customer is already on the waitlist
+   */
+//+ joinWaitlist(customerId:String, showtimeIdx:int, seatCount:int):WaitlistEntry
+  public WaitlistEntry joinWaitlist(String customerId, int showtimeIdx, int seatCount) {
+    if (showtimeIdx < 0 || showtimeIdx >= this.showtimes.size()) return null;
+
+    return this.waitlist.join(customerId, this.showtimes.get(showtimeIdx), seatCount);
+  }
+
+  /**
+   * Leaves the waitlist of a showtime.
+   *
+   * @param customerId the customer id
+   * @param showtimeId the showtime id
+   * @return the boolean
+   */
+//+ leaveWaitlist(customerId:String, showtimeId:String):boolean
+  public boolean leaveWaitlist(String customerId, String showtimeId) {
+    return this.waitlist.leave(customerId, showtimeId);
+  }
+
+  /**
+   * Gets waitlist position.
+   *
+   * @param customerId the customer id
+   * @param showtimeId the showtime id
+   * @return the waitlist position, 0 if seats were offered, -1 if not on the waitlist
+   */
+//+ getWaitlistPosition(customerId:String, showtimeId:String):int
+  public int getWaitlistPosition(String customerId, String showtimeId) {
+    return this.waitlist.getPosition(customerId, showtimeId);
+  }
+
+  /**
+   * Gets seats offered to a customer from waitlists.
+   *
+   * @param customerId the customer id
+   * @return the seat holds offered
+   */
+//+ getWaitlistOffers(customerId:String):List<SeatHold>
+  public List<SeatHold> getWaitlistOffers(String customerId) {
+    return this.waitlist.getOffers(customerId);
+  }
+
+  /**
+   * Claims seats offered from the waitlist of a showtime, holding them for the session to book.
+   *
+   * @param session    the session
+   * @param customerId the customer id
+   * @param showtimeId the showtime id
+   * @return the seat hold, null if the offer has expired
+   */
+//+ claimWaitlistOffer(session:SessionContext, customerId:String, showtimeId:String):SeatHold
+  public SeatHold claimWaitlistOffer(SessionContext session, String customerId, String showtimeId) {
+    return this.waitlist.claim(customerId, showtimeId, session.getId());
+  }
+
   /**
    * Gets available seat count.
    *
@@ -345,10 +474,10 @@ public class ShowtimeHandler {
    */
 //+ getAvailableSeatCount(showtimeIdx:int) : int
   public int getAvailableSeatCount(int showtimeIdx) {
-    Showtime showtime = this.getShowtime(showtimeIdx);
-    if (showtime == null) return -1;
+    SeatMap seats = this.getShowtimeSeats(showtimeIdx);
+    if (seats == null) return -1;
 
-    return showtime.getSeatCount(true);
+    return seats.getAvailableCount();
   }
 
   /**
@@ -358,6 +487,8 @@ public class ShowtimeHandler {
    */
 //# saveShowtimes():boolean
   protected boolean saveShowtimes() {
-    return Datasource.serializeData(this.showtimes, "showtimes.csv");
+    // CSV and snapshot are written together, from a single snapshot of the showtimes once flushed
+    List<Showtime> showtimes = this.showtimes;
+    return PersistenceScheduler.getInstance().schedule(ShowtimeSnapshot.CSV_FILE, () -> ShowtimeSnapshot.writeAll(PersistenceScheduler.snapshot(showtimes)));
   }
 }
@@ -1,12 +1,12 @@
 package moblima.control.handlers;
 
-import com.google.gson.JsonArray;
-import com.google.gson.reflect.TypeToken;
 import moblima.entities.Staff;
 import moblima.utils.Helper;
+import moblima.utils.datasource.DataContext;
 import moblima.utils.datasource.Datasource;
+import moblima.utils.datasource.IndexedList;
+import moblima.utils.deserializers.StaffCodec;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,7 +27,7 @@ public class StaffHandler {
    * Instantiates a new Staff handler.
    */
   public StaffHandler() {
-    this.staffs = this.getStaffs();
+    this.staffs = DataContext.getInstance().get(DataContext.STAFFS, this::loadStaffs);
   }
 
   /**
@@ -58,17 +58,9 @@ public class StaffHandler {
    */
 // + validateUsernameAvailability(String username) : boolean
   public boolean validateUsernameAvailability(String username) {
-    boolean status = true;
-    if (this.staffs.isEmpty() || username.isEmpty()) return status;
-
-    for (Staff staff : staffs) {
-      if (staff.getUsername().equals(username)) {
-        status = false;
-        break;
-      }
-    }
+    if (this.staffs.isEmpty() || username.isEmpty()) return true;
 
-    return status;
+    return IndexedList.indexOf(this.staffs, DataContext.STAFF_USERNAME, username) < 0;
   }
 
   /**
@@ -78,12 +70,22 @@ public class StaffHandler {
    */
 // + getStaffs() : List<Staff>
   public List<Staff> getStaffs() {
+    return this.staffs;
+  }
+
+  /**
+   * Load staffs from serialized datasource, seeding a default account if none exist.
+   *
+   * @return the staffs
+   */
+// # loadStaffs() : List<Staff>
+  protected List<Staff> loadStaffs() {
     List<Staff> staffs = new ArrayList<Staff>();
     this.staffs = staffs;
 
     //Source from serialized datasource
     String fileName = "staffs.csv";
-    JsonArray staffList = Datasource.readArrayFromCsv(fileName);
+    List<Staff> staffList = Datasource.readFromCsv(fileName, new StaffCodec());
     if (staffList == null) {
       Helper.logger("StaffHandler.getStaffs", "No serialized data available");
       this.addStaff("Staff", "staff", "staff");
@@ -91,10 +93,7 @@ public class StaffHandler {
       return staffs;
     }
 
-    String strStaffList = Datasource.getGson().toJson(staffList);
-    Type typeStaffList = new TypeToken<List<Staff>>() {
-    }.getType();
-    staffs = Datasource.getGson().fromJson(strStaffList, typeStaffList);
+    staffs = staffList;
 
     return staffs;
   }
@@ -122,17 +121,10 @@ public class StaffHandler {
    */
 // + getStaff(username: String) : int
   public Staff getStaff(String username) {
-    Staff staff = null;
-    if (this.validateUsernameAvailability(username) || this.staffs.size() < 1) return staff;
-
-    for (Staff s : staffs) {
-      if (s.getUsername().equals(username)) {
-        staff = s;
-        break;
-      }
-    }
+    if (this.staffs.size() < 1 || username.isEmpty()) return null;
 
-    return staff;
+    int staffIdx = IndexedList.indexOf(this.staffs, DataContext.STAFF_USERNAME, username);
+    return staffIdx < 0 ? null : this.staffs.get(staffIdx);
   }
 
   /**
@@ -143,17 +135,9 @@ public class StaffHandler {
    */
 // + getStaffIdx(staffId: String) : int
   public int getStaffIdx(String staffId) {
-    int staffIdx = -1;
-    if (staffId.isEmpty() || this.staffs.size() < 1) return staffIdx;
-
-    for (int i = 0; i < this.staffs.size(); i++) {
-      Staff staff = this.staffs.get(i);
-      if (staff.getId().equals(staffId)) {
-        staffIdx = i;
-        break;
-      }
-    }
-    return staffIdx;
+    if (staffId.isEmpty() || this.staffs.size() < 1) return -1;
+
+    return IndexedList.indexOf(this.staffs, DataContext.STAFF_ID, staffId);
   }
 
   /**
@@ -186,6 +170,6 @@ public class StaffHandler {
    */
 //# saveStaffs():boolean
   protected boolean saveStaffs() {
-    return Datasource.serializeData(this.staffs, "staffs.csv");
+    return Datasource.scheduleData(this.staffs, "staffs.csv", new StaffCodec());
   }
 }
@@ -1,6 +1,7 @@
 package moblima.entities;
 
-import java.text.DecimalFormat;
+import moblima.utils.Money;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -18,7 +19,10 @@ public class Booking {
   private int movieId;
   private String showtimeId;
   private List<int[]> seats;
-  private double totalPrice;
+  /**
+   * Total price (cents)
+   */
+  private long totalCents;
   private TicketType type;
 
   /**
@@ -30,17 +34,17 @@ public class Booking {
    * @param movieId       the movie id
    * @param showtimeId    the showtime id
    * @param seats         the seats
-   * @param totalPrice    the total price
+   * @param totalPrice    the total price (cents)
    * @param type          the type
    */
-  public Booking(String transactionId, String customerId, int cinemaId, int movieId, String showtimeId, List<int[]> seats, double totalPrice, TicketType type) {
+  public Booking(String transactionId, String customerId, int cinemaId, int movieId, String showtimeId, List<int[]> seats, long totalPrice, TicketType type) {
     this.transactionId = transactionId;
     this.customerId = customerId;
     this.cinemaId = cinemaId;
     this.movieId = movieId;
     this.showtimeId = showtimeId;
     this.seats = seats;
-    this.totalPrice = totalPrice;
+    this.totalCents = totalPrice;
     this.type = type;
   }
 
@@ -50,7 +54,7 @@ public class Booking {
    * @param cloneBooking the clone booking
    */
   public Booking(Booking cloneBooking) {
-    this(cloneBooking.transactionId, cloneBooking.customerId, cloneBooking.cinemaId, cloneBooking.movieId, cloneBooking.showtimeId, cloneBooking.seats, cloneBooking.totalPrice, cloneBooking.type);
+    this(cloneBooking.transactionId, cloneBooking.customerId, cloneBooking.cinemaId, cloneBooking.movieId, cloneBooking.showtimeId, cloneBooking.seats, cloneBooking.totalCents, cloneBooking.type);
   }
 
   /**
@@ -164,19 +168,19 @@ public class Booking {
   /**
    * Gets total price.
    *
-   * @return the total price
+   * @return the total price (cents)
    */
-  public double getTotalPrice() {
-    return totalPrice;
+  public long getTotalPrice() {
+    return totalCents;
   }
 
   /**
    * Sets total price.
    *
-   * @param totalPrice the total price
+   * @param totalPrice the total price (cents)
    */
-  public void setTotalPrice(double totalPrice) {
-    this.totalPrice = totalPrice;
+  public void setTotalPrice(long totalPrice) {
+    this.totalCents = totalPrice;
   }
 
   /**
@@ -199,8 +203,6 @@ public class Booking {
 
   @Override
   public String toString() {
-    DecimalFormat df = new DecimalFormat("0.00");
-
     // Parse seatCodes
     List<String> seatCodes = this.seats.stream().map(s -> ("R" + (s[0] + 1) + "C" + (s[1] + 1))).toList();
 
@@ -208,7 +210,8 @@ public class Booking {
     rows.add(Arrays.asList("Transaction ID:", this.transactionId));
     rows.add(Arrays.asList("Seats:", Arrays.deepToString(seatCodes.toArray())));
     rows.add(Arrays.asList("Type:", this.type.displayName));
-    rows.add(Arrays.asList("Total Price:", "SGD $" + df.format(this.totalPrice)));
+    // Receipts keep their own format, e.g. SGD $8.50
+    rows.add(Arrays.asList("Total Price:", "SGD $" + Money.toPlainString(this.totalCents)));
 
     return formatAsTable(rows);
   }
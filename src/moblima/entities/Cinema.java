@@ -16,6 +16,7 @@ public class Cinema {
   private ClassType classType;
   private List<Showtime> showtimes;
   private String cineplexCode;
+  private HallLayout layout;
 
   /**
    * Instantiates a new Cinema.
@@ -24,12 +25,26 @@ public class Cinema {
    * @param classType    the class type
    * @param showtimes    the showtimes
    * @param cineplexCode the cineplex code
+   * @param layout       the layout
    */
-  public Cinema(int id, ClassType classType, List<Showtime> showtimes, String cineplexCode) {
+  public Cinema(int id, ClassType classType, List<Showtime> showtimes, String cineplexCode, HallLayout layout) {
     this.id = id;
     this.classType = classType;
     this.showtimes = showtimes;
     this.cineplexCode = cineplexCode;
+    this.layout = layout;
+  }
+
+  /**
+   * Instantiates a new Cinema, with the default hall layout.
+   *
+   * @param id           the id
+   * @param classType    the class type
+   * @param showtimes    the showtimes
+   * @param cineplexCode the cineplex code
+   */
+  public Cinema(int id, ClassType classType, List<Showtime> showtimes, String cineplexCode) {
+    this(id, classType, showtimes, cineplexCode, HallLayout.DEFAULT);
   }
 
 
@@ -39,7 +54,7 @@ public class Cinema {
    * @param cloneCinema the clone cinema
    */
   public Cinema(Cinema cloneCinema) {
-    this(cloneCinema.id, cloneCinema.classType, cloneCinema.showtimes, cloneCinema.cineplexCode);
+    this(cloneCinema.id, cloneCinema.classType, cloneCinema.showtimes, cloneCinema.cineplexCode, cloneCinema.layout);
   }
 
   /**
@@ -114,12 +129,31 @@ public class Cinema {
     this.cineplexCode = cineplexCode;
   }
 
+  /**
+   * Gets layout.
+   *
+   * @return the layout
+   */
+  public HallLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Sets layout.
+   *
+   * @param layout the layout
+   */
+  public void setLayout(HallLayout layout) {
+    this.layout = layout;
+  }
+
   @Override
   public String toString() {
     List<List<String>> rows = new ArrayList<List<String>>();
     rows.add(Arrays.asList("ID:", Integer.toString(this.id)));
     rows.add(Arrays.asList("Cineplex Code:", this.cineplexCode));
     rows.add(Arrays.asList("Class Type:", this.classType.toString()));
+    rows.add(Arrays.asList("Seats:", this.layout.getSeatCount() + " (" + this.layout.getRowCount() + " rows)"));
     rows.add(Arrays.asList("Total Showtimes:", Integer.toString(this.showtimes.size())));
 
     return formatAsTable(rows);
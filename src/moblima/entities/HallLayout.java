@@ -0,0 +1,246 @@
+package moblima.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The type Hall layout.<br/>
+ * <p>
+ * Immutable physical layout of a cinema hall: its rows and columns, the aisles between columns, and any blocked
+ * (non-existent) seats. Layouts are interned, so every cinema and showtime of the same shape share a single instance.
+ * Blocked seats are packed one bit each, 64 to a word, indexed by <code>row * cols + col</code>.
+ */
+public class HallLayout {
+  /**
+   * Columns between the hall walls and the aisles
+   */
+  public static final int GAP_COL = 2;
+  /**
+   * Interned layouts, by format
+   */
+  private static final Map<String, HallLayout> layouts = new ConcurrentHashMap<String, HallLayout>();
+  /**
+   * The constant DEFAULT.
+   */
+  public static final HallLayout DEFAULT = of(Showtime.DEFAULT_ROWS, Showtime.DEFAULT_COLS);
+
+  private final int rows;
+  private final int cols;
+  private final int[] aisles;
+  private final long[] blocked;
+  /**
+   * Existing seats, neither blocked nor past the last seat
+   */
+  private final long[] seatWords;
+  private final int seatCount;
+
+  private HallLayout(int rows, int cols, int[] aisles, long[] blocked) {
+    this.rows = rows;
+    this.cols = cols;
+    this.aisles = aisles;
+    this.blocked = blocked;
+
+    this.seatWords = new long[blocked.length];
+    int seatCount = 0;
+    for (int w = 0; w < blocked.length; w++) {
+      int tail = rows * cols - w * 64;
+      long range = (tail >= 64) ? -1L : (1L << tail) - 1;
+      this.seatWords[w] = range & ~blocked[w];
+      seatCount += Long.bitCount(this.seatWords[w]);
+    }
+    this.seatCount = seatCount;
+  }
+
+  /**
+   * Gets a layout with the default aisles, <code>GAP_COL</code> columns in from either wall.
+   *
+   * @param rows the rows
+   * @param cols the cols
+   * @return the hall layout
+   */
+  public static HallLayout of(int rows, int cols) {
+    return of(rows, cols, new int[]{GAP_COL, cols - GAP_COL}, new ArrayList<int[]>());
+  }
+
+  /**
+   * Gets a layout.
+   *
+   * @param rows         the rows
+   * @param cols         the cols
+   * @param aisles       the columns preceded by an aisle
+   * @param blockedSeats the blocked seat codes
+   * @return the hall layout
+   */
+//+ of(rows:int, cols:int, aisles:int[], blockedSeats:List<int[]>):HallLayout
+  public static HallLayout of(int rows, int cols, int[] aisles, List<int[]> blockedSeats) {
+    rows = Math.max(0, rows);
+    cols = Math.max(0, cols);
+
+    TreeSet<Integer> aisleCols = new TreeSet<Integer>();
+    for (int aisle : aisles) if (aisle > 0 && aisle < cols) aisleCols.add(aisle);
+
+    long[] blocked = new long[SeatMap.wordCount(rows, cols)];
+    for (int[] seatCode : blockedSeats) {
+      if (seatCode.length != 2 || seatCode[0] < 0 || seatCode[0] >= rows || seatCode[1] < 0 || seatCode[1] >= cols) continue;
+      int bit = seatCode[0] * cols + seatCode[1];
+      blocked[bit >>> 6] |= 1L << bit;
+    }
+
+    HallLayout layout = new HallLayout(rows, cols, aisleCols.stream().mapToInt(Integer::intValue).toArray(), blocked);
+    return layouts.computeIfAbsent(layout.format(), format -> layout);
+  }
+
+  /**
+   * Parses a layout of the format <code>ROWSxCOLS|AISLE,...|ROW:COL,...</code>
+   *
+   * @param value the value
+   * @return the hall layout, null if value is malformed
+   */
+  public static HallLayout parse(String value) {
+    if (value == null || value.isBlank()) return null;
+    try {
+      String[] parts = value.trim().split("\\|", -1);
+      String[] size = parts[0].split("x");
+      int rows = Integer.parseInt(size[0].trim());
+      int cols = Integer.parseInt(size[1].trim());
+
+      List<Integer> aisles = new ArrayList<Integer>();
+      if (parts.length > 1) for (String aisle : parts[1].split(",")) if (!aisle.isBlank()) aisles.add(Integer.parseInt(aisle.trim()));
+
+      List<int[]> blockedSeats = new ArrayList<int[]>();
+      if (parts.length > 2) {
+        for (String seat : parts[2].split(",")) {
+          if (seat.isBlank()) continue;
+          String[] seatCode = seat.split(":");
+          blockedSeats.add(new int[]{Integer.parseInt(seatCode[0].trim()), Integer.parseInt(seatCode[1].trim())});
+        }
+      }
+
+      return of(rows, cols, aisles.stream().mapToInt(Integer::intValue).toArray(), blockedSeats);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Formats layout as <code>ROWSxCOLS|AISLE,...|ROW:COL,...</code>
+   *
+   * @return the value
+   */
+  public String format() {
+    StringBuilder value = new StringBuilder().append(this.rows).append('x').append(this.cols).append('|');
+    for (int i = 0; i < this.aisles.length; i++) value.append(i > 0 ? "," : "").append(this.aisles[i]);
+    value.append('|');
+
+    boolean isFirst = true;
+    for (int row = 0; row < this.rows; row++) {
+      for (int col = 0; col < this.cols; col++) {
+        if (!this.isBlocked(row, col)) continue;
+        value.append(isFirst ? "" : ",").append(row).append(':').append(col);
+        isFirst = false;
+      }
+    }
+    return value.toString();
+  }
+
+  /**
+   * Gets row count.
+   *
+   * @return the row count
+   */
+  public int getRowCount() {
+    return rows;
+  }
+
+  /**
+   * Gets col count.
+   *
+   * @return the col count
+   */
+  public int getColCount() {
+    return cols;
+  }
+
+  /**
+   * Gets no. of seats, excluding blocked seats.
+   *
+   * @return the seat count
+   */
+  public int getSeatCount() {
+    return seatCount;
+  }
+
+  /**
+   * Gets the columns preceded by an aisle.
+   *
+   * @return the aisles
+   */
+  public int[] getAisles() {
+    return aisles.clone();
+  }
+
+  /**
+   * Check if column is preceded by an aisle.
+   *
+   * @param col the col
+   * @return the boolean
+   */
+  public boolean isAisle(int col) {
+    return Arrays.binarySearch(this.aisles, col) >= 0;
+  }
+
+  /**
+   * Check if seat is blocked.
+   *
+   * @param row the row
+   * @param col the col
+   * @return the boolean
+   */
+  public boolean isBlocked(int row, int col) {
+    int bit = row * this.cols + col;
+    return (this.blocked[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  /**
+   * Check if seat exists, within the hall and not blocked.
+   *
+   * @param row the row
+   * @param col the col
+   * @return the boolean
+   */
+  public boolean isValid(int row, int col) {
+    return row >= 0 && row < this.rows && col >= 0 && col < this.cols && !this.isBlocked(row, col);
+  }
+
+  /**
+   * Gets a word of the existing seat mask, 64 seats to a word.
+   *
+   * @param idx the word idx
+   * @return the word
+   */
+  long getSeatWord(int idx) {
+    return this.seatWords[idx];
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof HallLayout)) return false;
+    HallLayout layout = (HallLayout) obj;
+    return layout.rows == this.rows && layout.cols == this.cols && Arrays.equals(layout.aisles, this.aisles) && Arrays.equals(layout.blocked, this.blocked);
+  }
+
+  @Override
+  public int hashCode() {
+    int prime = 31;
+    return prime * (prime * (prime * this.rows + this.cols) + Arrays.hashCode(this.aisles)) + Arrays.hashCode(this.blocked);
+  }
+
+  @Override
+  public String toString() {
+    return this.format();
+  }
+}
@@ -0,0 +1,123 @@
+package moblima.entities;
+
+import moblima.entities.Booking.TicketType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+
+import static moblima.utils.Helper.formatAsTable;
+import static moblima.utils.Helper.formatPrice;
+
+/**
+ * The type Quote.<br/>
+ * <p>
+ * Price sheet of a showtime under a version of settings, the unit price of every ticket type eligible for it. Totals
+ * for any no. of seats are derived from the unit prices.
+ */
+public class Quote {
+  private final String showtimeId;
+  private final long settingsVersion;
+  /**
+   * Unit prices (cents), by eligible ticket type
+   */
+  private final EnumMap<TicketType, Long> unitPrices;
+  private final List<TicketType> ticketTypes;
+
+  /**
+   * Instantiates a new Quote.
+   *
+   * @param showtimeId      the showtime id
+   * @param settingsVersion the settings version
+   * @param unitPrices      the unit prices (cents), by eligible ticket type
+   */
+  public Quote(String showtimeId, long settingsVersion, EnumMap<TicketType, Long> unitPrices) {
+    this.showtimeId = showtimeId;
+    this.settingsVersion = settingsVersion;
+    this.unitPrices = new EnumMap<TicketType, Long>(unitPrices);
+    this.ticketTypes = Collections.unmodifiableList(new ArrayList<TicketType>(unitPrices.keySet()));
+  }
+
+  /**
+   * Gets showtime id.
+   *
+   * @return the showtime id
+   */
+  public String getShowtimeId() {
+    return showtimeId;
+  }
+
+  /**
+   * Gets settings version.
+   *
+   * @return the settings version
+   */
+  public long getSettingsVersion() {
+    return settingsVersion;
+  }
+
+  /**
+   * Gets eligible ticket types.
+   *
+   * @return the ticket types, in declaration order
+   */
+  public List<TicketType> getTicketTypes() {
+    return ticketTypes;
+  }
+
+  /**
+   * Check if ticket type is eligible boolean.
+   *
+   * @param ticketType the ticket type
+   * @return the boolean
+   */
+  public boolean isEligible(TicketType ticketType) {
+    return this.unitPrices.containsKey(ticketType);
+  }
+
+  /**
+   * Gets unit price.
+   *
+   * @param ticketType the ticket type
+   * @return the unit price (cents), -1 if ticket type is not eligible
+   */
+  public long getUnitPrice(TicketType ticketType) {
+    Long unitPrice = this.unitPrices.get(ticketType);
+    return (unitPrice == null) ? -1 : unitPrice;
+  }
+
+  /**
+   * Gets total price.
+   *
+   * @param ticketType the ticket type
+   * @param seatCount  the seat count
+   * @return the total price (cents), 0 if no seats, -1 if ticket type is not eligible
+   */
+  public long getTotalPrice(TicketType ticketType, int seatCount) {
+    long unitPrice = this.getUnitPrice(ticketType);
+    if (unitPrice < 0) return unitPrice;
+    return (seatCount <= 0) ? 0 : unitPrice * seatCount;
+  }
+
+  /**
+   * Print price sheet string.
+   *
+   * @param seatCount the seat count
+   * @return the string
+   */
+  public String printPriceSheet(int seatCount) {
+    List<List<String>> rows = new ArrayList<List<String>>();
+    rows.add(Arrays.asList("Ticket Type:", "Unit Price:", "Total (" + seatCount + "):"));
+    for (TicketType ticketType : this.ticketTypes) {
+      rows.add(Arrays.asList(ticketType.toString(), formatPrice(this.getUnitPrice(ticketType)), formatPrice(this.getTotalPrice(ticketType, seatCount))));
+    }
+    return formatAsTable(rows);
+  }
+
+  @Override
+  public String toString() {
+    return "Quote: " + this.showtimeId + " | Settings: v" + this.settingsVersion + " | Prices: " + this.unitPrices;
+  }
+}
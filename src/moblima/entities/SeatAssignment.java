@@ -0,0 +1,151 @@
+package moblima.entities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Seat assignment.<br/>
+ * <p>
+ * Outcome of assigning or releasing several seats at once. Seats are assigned all or none, so either every seat was
+ * applied, or none was and each seat which stood in the way is reported with its conflict.
+ */
+public class SeatAssignment {
+  private final List<int[]> seats;
+  private final boolean isAvailable;
+  private final List<SeatConflict> conflicts;
+
+  /**
+   * Instantiates a new Seat assignment.
+   *
+   * @param seats       the seats
+   * @param isAvailable the is available
+   * @param conflicts   the conflicts, empty if seats were applied
+   */
+  public SeatAssignment(List<int[]> seats, boolean isAvailable, List<SeatConflict> conflicts) {
+    this.seats = new ArrayList<int[]>(seats);
+    this.isAvailable = isAvailable;
+    this.conflicts = new ArrayList<SeatConflict>(conflicts);
+  }
+
+  /**
+   * Gets seats.
+   *
+   * @return the seats
+   */
+  public List<int[]> getSeats() {
+    return new ArrayList<int[]>(seats);
+  }
+
+  /**
+   * Check if seats were released, rather than booked.
+   *
+   * @return the boolean
+   */
+  public boolean isAvailable() {
+    return isAvailable;
+  }
+
+  /**
+   * Gets conflicts.
+   *
+   * @return the conflicts
+   */
+  public List<SeatConflict> getConflicts() {
+    return new ArrayList<SeatConflict>(conflicts);
+  }
+
+  /**
+   * Check if every seat was applied.
+   *
+   * @return the boolean
+   */
+  public boolean isApplied() {
+    return conflicts.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    if (this.isApplied()) return (this.isAvailable ? "Released " : "Booked ") + this.seats.size() + " seat(s)";
+
+    StringBuilder report = new StringBuilder("No seats " + (this.isAvailable ? "released" : "booked") + ", conflicts:");
+    for (SeatConflict conflict : this.conflicts) report.append(System.lineSeparator()).append(conflict);
+    return report.toString();
+  }
+
+  /**
+   * The enum Conflict.
+   */
+  public enum Conflict {
+    /**
+     * Seat does not exist.
+     */
+    INVALID("does not exist"),
+    /**
+     * Seat is already booked.
+     */
+    BOOKED("is already booked"),
+    /**
+     * Seat is held by a session pending booking.
+     */
+    HELD("is held by another session"),
+    /**
+     * Seat to release is not booked.
+     */
+    NOT_BOOKED("is not booked");
+
+    private final String description;
+
+    Conflict(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public String toString() {
+      return this.description;
+    }
+  }
+
+  /**
+   * The type Seat conflict.
+   */
+  public static class SeatConflict {
+    private final int[] seatCode;
+    private final Conflict conflict;
+
+    /**
+     * Instantiates a new Seat conflict.
+     *
+     * @param seatCode the seat code
+     * @param conflict the conflict
+     */
+    public SeatConflict(int[] seatCode, Conflict conflict) {
+      this.seatCode = seatCode.clone();
+      this.conflict = conflict;
+    }
+
+    /**
+     * Gets seat code.
+     *
+     * @return the seat code
+     */
+    public int[] getSeatCode() {
+      return seatCode.clone();
+    }
+
+    /**
+     * Gets conflict.
+     *
+     * @return the conflict
+     */
+    public Conflict getConflict() {
+      return conflict;
+    }
+
+    @Override
+    public String toString() {
+      // Rows and columns are numbered from 1, as printed in the seat plan
+      String seat = (this.seatCode.length == 2) ? "Row " + (this.seatCode[0] + 1) + ", Col " + (this.seatCode[1] + 1) : "Seat";
+      return seat + " " + this.conflict;
+    }
+  }
+}
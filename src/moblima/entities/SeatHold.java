@@ -0,0 +1,104 @@
+package moblima.entities;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The type Seat hold.<br/>
+ * <p>
+ * Seats claimed on a showtime for a limited time, pending booking. Holds live in memory only.
+ */
+public class SeatHold {
+  private final String id;
+  private final String ownerId;
+  private final String showtimeId;
+  private final List<int[]> seats;
+  private final long[] mask;
+  private final LocalDateTime expiresAt;
+
+  /**
+   * Instantiates a new Seat hold.
+   *
+   * @param id         the id
+   * @param ownerId    the owner id
+   * @param showtimeId the showtime id
+   * @param seats      the seats
+   * @param mask       the seat mask, 64 seats to a word
+   * @param expiresAt  the expiry
+   */
+  public SeatHold(String id, String ownerId, String showtimeId, List<int[]> seats, long[] mask, LocalDateTime expiresAt) {
+    this.id = id;
+    this.ownerId = ownerId;
+    this.showtimeId = showtimeId;
+    this.seats = new ArrayList<int[]>(seats);
+    this.mask = mask;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets owner id.
+   *
+   * @return the owner id
+   */
+  public String getOwnerId() {
+    return ownerId;
+  }
+
+  /**
+   * Gets showtime id.
+   *
+   * @return the showtime id
+   */
+  public String getShowtimeId() {
+    return showtimeId;
+  }
+
+  /**
+   * Gets seats.
+   *
+   * @return the seats
+   */
+  public List<int[]> getSeats() {
+    return new ArrayList<int[]>(seats);
+  }
+
+  /**
+   * Gets seat mask, 64 seats to a word.
+   *
+   * @return the mask
+   */
+  public long[] getMask() {
+    return mask.clone();
+  }
+
+  /**
+   * Gets expiry.
+   *
+   * @return the expiry
+   */
+  public LocalDateTime getExpiresAt() {
+    return expiresAt;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof SeatHold && ((SeatHold) obj).id.equals(this.id);
+  }
+
+  @Override
+  public int hashCode() {
+    int prime = 31;
+    return prime + Objects.hashCode(this.id);
+  }
+}
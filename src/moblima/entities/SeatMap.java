@@ -0,0 +1,698 @@
+package moblima.entities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The type Seat map.<br/>
+ * <p>
+ * Occupancy overlay of a showtime over its shared {@link HallLayout}. Seats are indexed by
+ * <code>row * cols + col</code> and packed 32 to a lane: the low half of a lane marks occupied seats, the high half
+ * marks which of those are only held. Keeping both halves in one word lets a hold claim seats with a single
+ * compare-and-set per lane, so concurrent sessions can never claim the same seat, without locking the showtime.
+ * Booked and held counts are kept up to date on every lane change, so counting seats is O(1), and can be followed by
+ * a listener to roll them up elsewhere. Blocked seats of the layout are never
+ * occupied.
+ */
+public class SeatMap {
+  private static final int LANE_SEATS = 32;
+  private static final long LOW = 0xFFFFFFFFL;
+
+  private final HallLayout layout;
+  private final int cols;
+  private final AtomicLongArray lanes;
+  private final boolean isImmutable;
+  /**
+   * Seat counts, kept up to date on every lane change, and only written under the monitor of the seat map
+   */
+  private volatile int bookedCount = 0;
+  private volatile int heldCount = 0;
+  private Listener listener = null;
+
+  private SeatMap(HallLayout layout, AtomicLongArray lanes, boolean isImmutable) {
+    this.layout = layout;
+    this.cols = layout.getColCount();
+    this.lanes = lanes;
+    this.isImmutable = isImmutable;
+    this.recount();
+  }
+
+  /**
+   * Instantiates a new Seat map, with all seats available.
+   *
+   * @param layout the layout
+   */
+  public SeatMap(HallLayout layout) {
+    this(layout, new AtomicLongArray(laneCount(layout.getRowCount(), layout.getColCount())), false);
+  }
+
+  /**
+   * Instantiates a new Seat map, with all seats available.
+   *
+   * @param rows the rows
+   * @param cols the cols
+   */
+  public SeatMap(int rows, int cols) {
+    this(HallLayout.of(rows, cols));
+  }
+
+  /**
+   * Instantiates a new Seat map.
+   *
+   * @param cloneSeatMap the clone seat map
+   */
+  public SeatMap(SeatMap cloneSeatMap) {
+    this(cloneSeatMap.layout, cloneSeatMap.copyLanes(), false);
+  }
+
+  /**
+   * Builds a seat map from packed words.
+   *
+   * @param rows  the rows
+   * @param cols  the cols
+   * @param words the words, 64 seats each, a set bit marks a booked seat
+   * @return the seat map
+   */
+  public static SeatMap fromWords(int rows, int cols, long[] words) {
+    SeatMap seatMap = new SeatMap(rows, cols);
+    for (int l = 0; l < seatMap.lanes.length(); l++) {
+      if ((l >>> 1) < words.length) seatMap.lanes.set(l, lane(words, l) & seatMap.validLane(l));
+    }
+    seatMap.recount();
+    return seatMap;
+  }
+
+  /**
+   * Builds a seat map from a seat grid.
+   *
+   * @param seats the seats, true if available
+   * @return the seat map
+   */
+  public static SeatMap fromArray(boolean[][] seats) {
+    int cols = 0;
+    for (boolean[] row : seats) cols = Math.max(cols, row.length);
+
+    SeatMap seatMap = new SeatMap(seats.length, cols);
+    long[] words = new long[wordCount(seats.length, cols)];
+    for (int row = 0; row < seats.length; row++) {
+      for (int col = 0; col < cols; col++) {
+        // Ragged rows are padded with booked seats
+        int bit = row * cols + col;
+        if (col >= seats[row].length || !seats[row][col]) words[bit >>> 6] |= 1L << bit;
+      }
+    }
+    for (int l = 0; l < seatMap.lanes.length(); l++) seatMap.lanes.set(l, lane(words, l) & seatMap.validLane(l));
+    seatMap.recount();
+    return seatMap;
+  }
+
+  /**
+   * Gets no. of words needed to pack a seat grid, 64 seats to a word.
+   *
+   * @param rows the rows
+   * @param cols the cols
+   * @return the word count
+   */
+  static int wordCount(int rows, int cols) {
+    return (rows * cols + 63) >>> 6;
+  }
+
+  private static int laneCount(int rows, int cols) {
+    return (rows * cols + LANE_SEATS - 1) / LANE_SEATS;
+  }
+
+  /**
+   * Gets the 32 seats of a lane out of 64-seat words.
+   */
+  private static long lane(long[] words, int l) {
+    return (words[l >>> 1] >>> ((l & 1) << 5)) & LOW;
+  }
+
+  private long validLane(int l) {
+    return (this.layout.getSeatWord(l >>> 1) >>> ((l & 1) << 5)) & LOW;
+  }
+
+  private AtomicLongArray copyLanes() {
+    AtomicLongArray lanes = new AtomicLongArray(this.lanes.length());
+    for (int l = 0; l < lanes.length(); l++) lanes.set(l, this.lanes.get(l));
+    return lanes;
+  }
+
+  private void checkMutable() {
+    if (this.isImmutable) throw new UnsupportedOperationException("Seat map snapshot is read-only");
+  }
+
+  private static int bookedCount(long lane) {
+    return Long.bitCount(lane & LOW & ~(lane >>> LANE_SEATS));
+  }
+
+  private static int heldCount(long lane) {
+    return Long.bitCount(lane >>> LANE_SEATS);
+  }
+
+  /**
+   * Updates a lane, counting the seats it changed.
+   *
+   * @return the previous lane
+   */
+  private long update(int l, LongUnaryOperator updater) {
+    long prev = this.lanes.getAndUpdate(l, updater);
+    this.count(prev, updater.applyAsLong(prev));
+    return prev;
+  }
+
+  private boolean compareAndSet(int l, long expected, long lane) {
+    if (!this.lanes.compareAndSet(l, expected, lane)) return false;
+    this.count(expected, lane);
+    return true;
+  }
+
+  private void count(long prev, long next) {
+    int bookedDelta = bookedCount(next) - bookedCount(prev);
+    int heldDelta = heldCount(next) - heldCount(prev);
+    if (bookedDelta == 0 && heldDelta == 0) return;
+
+    synchronized (this) {
+      this.bookedCount += bookedDelta;
+      this.heldCount += heldDelta;
+      if (this.listener != null) this.listener.onSeatCountChange(bookedDelta, heldDelta);
+    }
+  }
+
+  private synchronized void recount() {
+    int bookedCount = 0;
+    int heldCount = 0;
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long lane = this.lanes.get(l);
+      bookedCount += bookedCount(lane);
+      heldCount += heldCount(lane);
+    }
+    this.bookedCount = bookedCount;
+    this.heldCount = heldCount;
+  }
+
+  /**
+   * Lays occupancy over another layout, carrying over every booked seat the layout shares. Holds stay bound to the
+   * seat map they were claimed from, and are not carried over.
+   *
+   * @param layout the layout
+   * @return the seat map, this if the layout is unchanged
+   */
+//+ overlay(layout:HallLayout):SeatMap
+  public SeatMap overlay(HallLayout layout) {
+    if (layout == this.layout) return this;
+
+    SeatMap seatMap = new SeatMap(layout);
+    if (layout.getColCount() == this.cols) {
+      int laneCount = Math.min(this.lanes.length(), seatMap.lanes.length());
+      for (int l = 0; l < laneCount; l++) {
+        long lane = this.lanes.get(l);
+        seatMap.lanes.set(l, lane & LOW & ~(lane >>> LANE_SEATS) & seatMap.validLane(l));
+      }
+      seatMap.recount();
+      return seatMap;
+    }
+
+    int rows = Math.min(layout.getRowCount(), this.getRowCount());
+    int cols = Math.min(layout.getColCount(), this.cols);
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        if (this.isBooked(row, col)) seatMap.assign(row, col, false);
+      }
+    }
+    return seatMap;
+  }
+
+  /**
+   * Gets layout.
+   *
+   * @return the layout
+   */
+  public HallLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Gets row count.
+   *
+   * @return the row count
+   */
+  public int getRowCount() {
+    return layout.getRowCount();
+  }
+
+  /**
+   * Gets col count.
+   *
+   * @return the col count
+   */
+  public int getColCount() {
+    return cols;
+  }
+
+  /**
+   * Gets seat count, excluding blocked seats.
+   *
+   * @return the seat count
+   */
+  public int getSeatCount() {
+    return layout.getSeatCount();
+  }
+
+  /**
+   * Gets booked seat count, excluding held seats.
+   *
+   * @return the booked seat count
+   */
+  public int getBookedCount() {
+    return bookedCount;
+  }
+
+  /**
+   * Gets held seat count.
+   *
+   * @return the held seat count
+   */
+  public int getHeldCount() {
+    return heldCount;
+  }
+
+  /**
+   * Gets available seat count, neither booked nor held.
+   *
+   * @return the available seat count
+   */
+  public int getAvailableCount() {
+    return this.getSeatCount() - this.bookedCount - this.heldCount;
+  }
+
+  /**
+   * Gets booked seats packed 64 to a word, a set bit marks a booked seat. Held seats are excluded, so these are the
+   * words to persist.
+   *
+   * @return the words
+   */
+  public long[] getWords() {
+    long[] words = new long[wordCount(this.getRowCount(), this.cols)];
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long lane = this.lanes.get(l);
+      words[l >>> 1] |= (lane & LOW & ~(lane >>> LANE_SEATS)) << ((l & 1) << 5);
+    }
+    return words;
+  }
+
+  /**
+   * Gets available seats packed 64 to a word, a set bit marks a seat which exists and is neither booked nor held.
+   *
+   * @return the words
+   */
+  public long[] getAvailableWords() {
+    long[] words = new long[wordCount(this.getRowCount(), this.cols)];
+    for (int l = 0; l < this.lanes.length(); l++) {
+      words[l >>> 1] |= (~this.lanes.get(l) & this.validLane(l)) << ((l & 1) << 5);
+    }
+    return words;
+  }
+
+  /**
+   * Packs seat codes into a mask of 64-seat words.
+   *
+   * @param seatCodes the seat codes
+   * @return the mask, null if any seat code is invalid
+   */
+//+ mask(seatCodes:List<int[]>):long[]
+  public long[] mask(List<int[]> seatCodes) {
+    long[] mask = new long[wordCount(this.getRowCount(), this.cols)];
+    for (int[] seatCode : seatCodes) {
+      if (!this.isValid(seatCode)) return null;
+      int bit = seatCode[0] * this.cols + seatCode[1];
+      mask[bit >>> 6] |= 1L << bit;
+    }
+    return mask;
+  }
+
+  /**
+   * Check if seat exists, within the hall and not blocked.
+   *
+   * @param row the row
+   * @param col the col
+   * @return the boolean
+   */
+  public boolean isValid(int row, int col) {
+    return this.layout.isValid(row, col);
+  }
+
+  /**
+   * Check if seat code exists.
+   *
+   * @param seatCode the seat code
+   * @return the boolean
+   */
+  public boolean isValid(int[] seatCode) {
+    return seatCode != null && seatCode.length == 2 && this.isValid(seatCode[0], seatCode[1]);
+  }
+
+  /**
+   * Check if seat is available, neither booked nor held.
+   *
+   * @param row the row
+   * @param col the col
+   * @return the boolean, false if seat does not exist
+   */
+  public boolean isAvailable(int row, int col) {
+    return this.isValid(row, col) && !this.isOccupied(row, col);
+  }
+
+  /**
+   * Check if seat is booked.
+   *
+   * @param row the row
+   * @param col the col
+   * @return the boolean
+   */
+  public boolean isBooked(int row, int col) {
+    return this.isValid(row, col) && this.isOccupied(row, col) && !this.isHeld(row, col);
+  }
+
+  /**
+   * Check if seat is held.
+   *
+   * @param row the row
+   * @param col the col
+   * @return the boolean
+   */
+  public boolean isHeld(int row, int col) {
+    if (!this.isValid(row, col)) return false;
+    int seat = row * this.cols + col;
+    return (this.lanes.get(seat >>> 5) & (1L << ((seat & (LANE_SEATS - 1)) + LANE_SEATS))) != 0;
+  }
+
+  private boolean isOccupied(int row, int col) {
+    int seat = row * this.cols + col;
+    return (this.lanes.get(seat >>> 5) & (1L << (seat & (LANE_SEATS - 1)))) != 0;
+  }
+
+  /**
+   * Check if seat map is an immutable snapshot.
+   *
+   * @return the boolean
+   */
+  public boolean isImmutable() {
+    return isImmutable;
+  }
+
+  /**
+   * Assigns a single seat, overriding any hold on it.
+   *
+   * @param row         the row
+   * @param col         the col
+   * @param isAvailable the is available
+   * @return the boolean, false if seat does not exist
+   */
+//+ assign(row:int, col:int, isAvailable:boolean):boolean
+  public boolean assign(int row, int col, boolean isAvailable) {
+    this.checkMutable();
+    if (!this.isValid(row, col)) return false;
+
+    int seat = row * this.cols + col;
+    long occupied = 1L << (seat & (LANE_SEATS - 1));
+    long held = occupied << LANE_SEATS;
+    this.update(seat >>> 5, lane -> isAvailable ? lane & ~(occupied | held) : (lane | occupied) & ~held);
+    return true;
+  }
+
+  /**
+   * Assigns seats in bulk, one mask per lane. Nothing is assigned if any seat code is invalid.
+   *
+   * @param seatCodes   the seat codes
+   * @param isAvailable the is available
+   * @return the boolean
+   */
+//+ bulkAssign(seatCodes:List<int[]>, isAvailable:boolean):boolean
+  public boolean bulkAssign(List<int[]> seatCodes, boolean isAvailable) {
+    this.checkMutable();
+    long[] mask = this.mask(seatCodes);
+    return mask != null && this.bulkAssign(mask, isAvailable);
+  }
+
+  /**
+   * Assigns every seat of a mask, overriding any hold on them.
+   *
+   * @param mask        the mask, 64 seats to a word, a set bit selects a seat
+   * @param isAvailable the is available
+   * @return the boolean, false if mask does not match the seat map
+   */
+//+ bulkAssign(mask:long[], isAvailable:boolean):boolean
+  public boolean bulkAssign(long[] mask, boolean isAvailable) {
+    this.checkMutable();
+    if (mask.length != wordCount(this.getRowCount(), this.cols)) return false;
+
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long occupied = lane(mask, l) & this.validLane(l);
+      if (occupied == 0) continue;
+      long held = occupied << LANE_SEATS;
+      this.update(l, lane -> isAvailable ? lane & ~(occupied | held) : (lane | occupied) & ~held);
+    }
+    return true;
+  }
+
+  /**
+   * Assigns seats all or none. Unlike {@link #bulkAssign(List, boolean)}, seats are never overridden: booking fails
+   * if any seat is already booked or held, releasing fails if any seat is not booked. Nothing is assigned on failure,
+   * even under concurrent holds, as seats are claimed through holds first.
+   *
+   * @param seatCodes   the seat codes
+   * @param isAvailable the is available
+   * @return the seat assignment, reporting every conflicting seat on failure
+   */
+//+ tryAssign(seatCodes:List<int[]>, isAvailable:boolean):SeatAssignment
+  public SeatAssignment tryAssign(List<int[]> seatCodes, boolean isAvailable) {
+    this.checkMutable();
+    long[] mask = this.mask(seatCodes);
+    while (true) {
+      if (mask != null && (isAvailable ? this.tryRelease(mask) : this.tryHold(mask) && this.confirmHold(mask))) {
+        return new SeatAssignment(seatCodes, isAvailable, new ArrayList<SeatAssignment.SeatConflict>());
+      }
+
+      List<SeatAssignment.SeatConflict> conflicts = new ArrayList<SeatAssignment.SeatConflict>();
+      for (int[] seatCode : seatCodes) {
+        SeatAssignment.Conflict conflict = null;
+        if (!this.isValid(seatCode)) conflict = SeatAssignment.Conflict.INVALID;
+        else if (this.isHeld(seatCode[0], seatCode[1])) conflict = SeatAssignment.Conflict.HELD;
+        else if (!isAvailable && this.isBooked(seatCode[0], seatCode[1])) conflict = SeatAssignment.Conflict.BOOKED;
+        else if (isAvailable && !this.isBooked(seatCode[0], seatCode[1])) conflict = SeatAssignment.Conflict.NOT_BOOKED;
+        if (conflict != null) conflicts.add(new SeatAssignment.SeatConflict(seatCode, conflict));
+      }
+      // Retry if the seats in the way were freed since the attempt
+      if (!conflicts.isEmpty()) return new SeatAssignment(seatCodes, isAvailable, conflicts);
+    }
+  }
+
+  /**
+   * Releases every booked seat of a mask, all or none. Booked seats are first marked held, lane by lane, so no other
+   * session can claim them before the whole mask is known to be booked.
+   */
+  private boolean tryRelease(long[] mask) {
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long seats = lane(mask, l);
+      if (seats == 0) continue;
+
+      boolean isClaimed = true;
+      while (isClaimed) {
+        long lane = this.lanes.get(l);
+        if ((lane & seats) != seats || ((lane >>> LANE_SEATS) & seats) != 0) isClaimed = false;
+        else if (this.compareAndSet(l, lane, lane | (seats << LANE_SEATS))) break;
+      }
+
+      if (!isClaimed) {
+        // Revert claimed lanes to booked
+        for (int r = 0; r < l; r++) {
+          long held = lane(mask, r) << LANE_SEATS;
+          if (held != 0) this.update(r, lane -> lane & ~held);
+        }
+        return false;
+      }
+    }
+    this.releaseHold(mask);
+    return true;
+  }
+
+  /**
+   * Assigns every seat, dropping all holds.
+   *
+   * @param isAvailable the is available
+   */
+//+ assignAll(isAvailable:boolean):void
+  public void assignAll(boolean isAvailable) {
+    this.checkMutable();
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long valid = this.validLane(l);
+      this.update(l, lane -> isAvailable ? 0L : valid);
+    }
+  }
+
+  /**
+   * Holds every seat of a mask, all or none. Each lane is claimed with a single compare-and-set, which fails if
+   * any of its seats is already booked or held; lanes claimed before a failing lane are rolled back.
+   *
+   * @param mask the mask, 64 seats to a word
+   * @return the boolean
+   */
+//+ tryHold(mask:long[]):boolean
+  public boolean tryHold(long[] mask) {
+    this.checkMutable();
+    if (mask.length != wordCount(this.getRowCount(), this.cols)) return false;
+
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long seats = lane(mask, l);
+      if (seats == 0) continue;
+
+      boolean isClaimed = (seats & ~this.validLane(l)) == 0;
+      while (isClaimed) {
+        long lane = this.lanes.get(l);
+        if ((lane & seats) != 0) isClaimed = false;
+        else if (this.compareAndSet(l, lane, lane | seats | (seats << LANE_SEATS))) break;
+      }
+
+      if (!isClaimed) {
+        // Lanes claimed so far belong to this hold alone
+        for (int r = 0; r < l; r++) {
+          long claimed = lane(mask, r);
+          if (claimed != 0) this.update(r, lane -> lane & ~(claimed | (claimed << LANE_SEATS)));
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Converts held seats of a mask into booked seats.
+   *
+   * @param mask the mask, 64 seats to a word
+   * @return the boolean, false (and nothing converted) if any seat is not held
+   */
+//+ confirmHold(mask:long[]):boolean
+  public boolean confirmHold(long[] mask) {
+    this.checkMutable();
+    if (mask.length != wordCount(this.getRowCount(), this.cols)) return false;
+
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long seats = lane(mask, l);
+      if (((this.lanes.get(l) >>> LANE_SEATS) & seats) != seats) return false;
+    }
+    for (int l = 0; l < this.lanes.length(); l++) {
+      long held = lane(mask, l) << LANE_SEATS;
+      if (held != 0) this.update(l, lane -> lane & ~held);
+    }
+    return true;
+  }
+
+  /**
+   * Releases held seats of a mask. Seats of the mask which are booked, or not held, are left untouched.
+   *
+   * @param mask the mask, 64 seats to a word
+   * @return the no. of seats released
+   */
+//+ releaseHold(mask:long[]):int
+  public int releaseHold(long[] mask) {
+    this.checkMutable();
+    int releasedCount = 0;
+    for (int l = 0; l < this.lanes.length() && (l >>> 1) < mask.length; l++) {
+      long seats = lane(mask, l);
+      if (seats == 0) continue;
+
+      long prev = this.update(l, lane -> {
+        long held = (lane >>> LANE_SEATS) & seats;
+        return lane & ~(held | (held << LANE_SEATS));
+      });
+      releasedCount += Long.bitCount((prev >>> LANE_SEATS) & seats);
+    }
+    return releasedCount;
+  }
+
+  /**
+   * Attaches a listener of seat count changes, replacing any attached listener. The current counts are reported to
+   * the listener straight away, so it can keep running totals from then on.
+   *
+   * @param listener the listener
+   */
+//+ attach(listener:Listener):void
+  public synchronized void attach(Listener listener) {
+    this.listener = listener;
+    if (listener != null) listener.onSeatCountChange(this.bookedCount, this.heldCount);
+  }
+
+  /**
+   * Detaches a listener, reporting the current counts to it as removed.
+   *
+   * @param listener the listener
+   */
+//+ detach(listener:Listener):void
+  public synchronized void detach(Listener listener) {
+    if (listener == null || this.listener != listener) return;
+    this.listener = null;
+    listener.onSeatCountChange(-this.bookedCount, -this.heldCount);
+  }
+
+  /**
+   * Gets an immutable snapshot of the current seats.
+   *
+   * @return the seat map
+   */
+//+ snapshot():SeatMap
+  public SeatMap snapshot() {
+    return this.isImmutable ? this : new SeatMap(this.layout, this.copyLanes(), true);
+  }
+
+  /**
+   * Gets seat grid.
+   *
+   * @return the seats, true if available
+   */
+//+ toArray():boolean[][]
+  public boolean[][] toArray() {
+    boolean[][] seats = new boolean[this.getRowCount()][this.cols];
+    for (int row = 0; row < this.getRowCount(); row++) {
+      for (int col = 0; col < this.cols; col++) seats[row][col] = this.isAvailable(row, col);
+    }
+    return seats;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof SeatMap)) return false;
+    SeatMap seatMap = (SeatMap) obj;
+    if (!seatMap.layout.equals(this.layout)) return false;
+    for (int l = 0; l < this.lanes.length(); l++) if (seatMap.lanes.get(l) != this.lanes.get(l)) return false;
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int prime = 31;
+    int hashCode = this.layout.hashCode();
+    for (int l = 0; l < this.lanes.length(); l++) hashCode = prime * hashCode + Long.hashCode(this.lanes.get(l));
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return this.getAvailableCount() + "/" + this.getSeatCount() + " available";
+  }
+
+  /**
+   * Listener of seat count changes
+   */
+  public interface Listener {
+    /**
+     * Called on every change of the seat counts, under the monitor of the seat map.
+     *
+     * @param bookedDelta the change in booked seats
+     * @param heldDelta   the change in held seats
+     */
+    void onSeatCountChange(int bookedDelta, int heldDelta);
+  }
+}
@@ -8,6 +8,7 @@ import moblima.utils.deserializers.LocalDateDeserializer;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 
@@ -15,30 +16,41 @@ import static moblima.utils.Helper.formatAsTable;
 import static moblima.utils.Helper.formatPrice;
 
 /**
- * The type Settings.
+ * The type Settings.<br/>
+ * <p>
+ * Settings in effect are published as read-only snapshots, each with a version of its own, so they can be shared by
+ * every reader without copying. Changes are made on a copy, which is published as the next snapshot.
  */
 public class Settings {
 
-  private double adultTicket;
-  private double blockbusterSurcharge;
-  private EnumMap<ShowType, Double> showSurcharges;
-  private EnumMap<TicketType, Double> ticketSurcharges;
-  private EnumMap<ClassType, Double> cinemaSurcharges;
+  /**
+   * Prices and surcharges (cents)
+   */
+  private long adultTicket;
+  private long blockbusterSurcharge;
+  private EnumMap<ShowType, Long> showSurcharges;
+  private EnumMap<TicketType, Long> ticketSurcharges;
+  private EnumMap<ClassType, Long> cinemaSurcharges;
   private EnumMap<RankedType, Boolean> rankedTypes;
   private List<LocalDate> publicHolidays;
+  /**
+   * Version of snapshot, 0 if not published
+   */
+  private long version = 0;
+  private boolean isSnapshot = false;
 
   /**
    * Instantiates a new Settings.
    *
-   * @param adultTicket          the adult ticket
-   * @param blockbusterSurcharge the blockbuster surcharge
-   * @param showSurcharges       the show surcharges
-   * @param ticketSurcharges     the ticket surcharges
-   * @param cinemaSurcharges     the cinema surcharges
+   * @param adultTicket          the adult ticket (cents)
+   * @param blockbusterSurcharge the blockbuster surcharge (cents)
+   * @param showSurcharges       the show surcharges (cents)
+   * @param ticketSurcharges     the ticket surcharges (cents)
+   * @param cinemaSurcharges     the cinema surcharges (cents)
    * @param rankedTypes          the ranked types
    * @param publicHolidays       the public holidays
    */
-  public Settings(double adultTicket, double blockbusterSurcharge, EnumMap<ShowType, Double> showSurcharges, EnumMap<TicketType, Double> ticketSurcharges, EnumMap<ClassType, Double> cinemaSurcharges, EnumMap<RankedType, Boolean> rankedTypes, List<LocalDate> publicHolidays) {
+  public Settings(long adultTicket, long blockbusterSurcharge, EnumMap<ShowType, Long> showSurcharges, EnumMap<TicketType, Long> ticketSurcharges, EnumMap<ClassType, Long> cinemaSurcharges, EnumMap<RankedType, Boolean> rankedTypes, List<LocalDate> publicHolidays) {
     this.adultTicket = adultTicket;
     this.blockbusterSurcharge = blockbusterSurcharge;
     this.showSurcharges = showSurcharges;
@@ -54,60 +66,105 @@ public class Settings {
    * @param settings the settings
    */
   public Settings(Settings settings) {
-    this(settings.adultTicket, settings.blockbusterSurcharge, settings.showSurcharges, settings.ticketSurcharges, settings.cinemaSurcharges, settings.rankedTypes, settings.publicHolidays);
+    this(settings.adultTicket, settings.blockbusterSurcharge, new EnumMap<ShowType, Long>(settings.showSurcharges), new EnumMap<TicketType, Long>(settings.ticketSurcharges), new EnumMap<ClassType, Long>(settings.cinemaSurcharges), new EnumMap<RankedType, Boolean>(settings.rankedTypes), new ArrayList<LocalDate>(settings.publicHolidays));
+  }
+
+  /**
+   * Snapshot settings.
+   *
+   * @param version the version
+   * @return the read-only copy of settings, published as the given version
+   */
+//+ snapshot(version:long):Settings
+  public Settings snapshot(long version) {
+    Settings snapshot = new Settings(this);
+    snapshot.publicHolidays = Collections.unmodifiableList(snapshot.publicHolidays);
+    snapshot.version = version;
+    snapshot.isSnapshot = true;
+    return snapshot;
+  }
+
+  /**
+   * Gets version.
+   *
+   * @return the version, 0 if not published
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Check if is snapshot boolean.
+   *
+   * @return the boolean
+   */
+  public boolean isSnapshot() {
+    return isSnapshot;
+  }
+
+  private void checkIfIsEditable() {
+    if (this.isSnapshot) throw new UnsupportedOperationException("Settings snapshot " + this.version + " is read-only");
+  }
+
+  // Snapshots hand out copies of their surcharges, which are left untouched for other readers
+  private <K extends Enum<K>, V> EnumMap<K, V> readable(EnumMap<K, V> map) {
+    return this.isSnapshot ? new EnumMap<K, V>(map) : map;
   }
 
   /**
    * Gets adult ticket.
    *
-   * @return the adult ticket
+   * @return the adult ticket (cents)
    */
-  public double getAdultTicket() {
+  public long getAdultTicket() {
     return adultTicket;
   }
 
   /**
    * Sets adult ticket.
    *
-   * @param adultTicket the adult ticket
+   * @param adultTicket the adult ticket (cents)
    */
-  public void setAdultTicket(double adultTicket) {
+  public void setAdultTicket(long adultTicket) {
+    this.checkIfIsEditable();
     this.adultTicket = adultTicket;
   }
 
   /**
    * Gets blockbuster surcharge.
    *
-   * @return the blockbuster surcharge
+   * @return the blockbuster surcharge (cents)
    */
-  public double getBlockbusterSurcharge() {
+  public long getBlockbusterSurcharge() {
     return blockbusterSurcharge;
   }
 
   /**
    * Sets blockbuster surcharge.
    *
-   * @param blockbusterSurcharge the blockbuster surcharge
+   * @param blockbusterSurcharge the blockbuster surcharge (cents)
    */
-  public void setBlockbusterSurcharge(double blockbusterSurcharge) {
+  public void setBlockbusterSurcharge(long blockbusterSurcharge) {
+    this.checkIfIsEditable();
     this.blockbusterSurcharge = blockbusterSurcharge;
   }
 
   /**
    * Gets show surcharges.
    *
-   * @return the show surcharges
+   * @return the show surcharges (cents)
    */
-  public EnumMap<Showtime.ShowType, Double> getShowSurcharges() {
-    return showSurcharges;
+  public EnumMap<Showtime.ShowType, Long> getShowSurcharges() {
+    return this.readable(this.showSurcharges);
   }
 
   /**
    * Sets show surcharges.
    *
-   * @param showSurcharges the show surcharges
+   * @param showSurcharges the show surcharges (cents)
    */
-  public void setShowSurcharges(EnumMap<Showtime.ShowType, Double> showSurcharges) {
+  public void setShowSurcharges(EnumMap<Showtime.ShowType, Long> showSurcharges) {
+    this.checkIfIsEditable();
     this.showSurcharges = showSurcharges;
   }
 
@@ -126,42 +183,45 @@ public class Settings {
    * @param publicHolidays the public holidays
    */
   public void setPublicHolidays(List<LocalDate> publicHolidays) {
+    this.checkIfIsEditable();
     this.publicHolidays = publicHolidays;
   }
 
   /**
    * Gets ticket surcharges.
    *
-   * @return the ticket surcharges
+   * @return the ticket surcharges (cents)
    */
-  public EnumMap<Booking.TicketType, Double> getTicketSurcharges() {
-    return ticketSurcharges;
+  public EnumMap<Booking.TicketType, Long> getTicketSurcharges() {
+    return this.readable(this.ticketSurcharges);
   }
 
   /**
    * Sets ticket surcharges.
    *
-   * @param ticketSurcharges the ticket surcharges
+   * @param ticketSurcharges the ticket surcharges (cents)
    */
-  public void setTicketSurcharges(EnumMap<Booking.TicketType, Double> ticketSurcharges) {
+  public void setTicketSurcharges(EnumMap<Booking.TicketType, Long> ticketSurcharges) {
+    this.checkIfIsEditable();
     this.ticketSurcharges = ticketSurcharges;
   }
 
   /**
    * Gets cinema surcharges.
    *
-   * @return the cinema surcharges
+   * @return the cinema surcharges (cents)
    */
-  public EnumMap<Cinema.ClassType, Double> getCinemaSurcharges() {
-    return cinemaSurcharges;
+  public EnumMap<Cinema.ClassType, Long> getCinemaSurcharges() {
+    return this.readable(this.cinemaSurcharges);
   }
 
   /**
    * Sets cinema surcharges.
    *
-   * @param cinemaSurcharges the cinema surcharges
+   * @param cinemaSurcharges the cinema surcharges (cents)
    */
-  public void setCinemaSurcharges(EnumMap<Cinema.ClassType, Double> cinemaSurcharges) {
+  public void setCinemaSurcharges(EnumMap<Cinema.ClassType, Long> cinemaSurcharges) {
+    this.checkIfIsEditable();
     this.cinemaSurcharges = cinemaSurcharges;
   }
 
@@ -171,7 +231,7 @@ public class Settings {
    * @return the ranked lists
    */
   public EnumMap<RankedType, Boolean> getRankedTypes() {
-    return rankedTypes;
+    return this.readable(this.rankedTypes);
   }
 
   /**
@@ -180,6 +240,7 @@ public class Settings {
    * @param rankedTypes the ranked lists
    */
   public void setRankedTypes(EnumMap<RankedType, Boolean> rankedTypes) {
+    this.checkIfIsEditable();
     this.rankedTypes = rankedTypes;
   }
 
@@ -198,6 +259,7 @@ public class Settings {
    * @param publicHolidays the public holidays
    */
   public void setHolidays(List<LocalDate> publicHolidays) {
+    this.checkIfIsEditable();
     this.publicHolidays = publicHolidays;
   }
 
@@ -207,6 +269,7 @@ public class Settings {
    * @param holiday the holiday
    */
   public void addHoliday(LocalDate holiday) {
+    this.checkIfIsEditable();
     this.publicHolidays.add(holiday);
   }
 
@@ -217,6 +280,7 @@ public class Settings {
    * @return the boolean
    */
   public boolean removeHoliday(LocalDate holiday) {
+    this.checkIfIsEditable();
     return this.publicHolidays.remove(holiday);
   }
 
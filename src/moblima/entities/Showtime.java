@@ -14,12 +14,21 @@ import static moblima.utils.Helper.formatAsTable;
  * The type Showtime.
  */
 public class Showtime {
+  /**
+   * Default no. of seat rows
+   */
+  public static final int DEFAULT_ROWS = 5;
+  /**
+   * Default no. of seat columns
+   */
+  public static final int DEFAULT_COLS = 8;
+
   private String id;
   private int cinemaId;
   private int movieId;
   private LocalDateTime datetime;
   private ShowType type;
-  private boolean[][] seats;
+  private SeatMap seats;
 
   /**
    * Instantiates a new Showtime.
@@ -31,7 +40,7 @@ public class Showtime {
    * @param type     the type
    * @param seats    the seats
    */
-  public Showtime(String id, int cinemaId, int movieId, LocalDateTime datetime, ShowType type, boolean[][] seats) {
+  public Showtime(String id, int cinemaId, int movieId, LocalDateTime datetime, ShowType type, SeatMap seats) {
     this.id = id;
     this.cinemaId = cinemaId;
     this.movieId = movieId;
@@ -50,16 +59,16 @@ public class Showtime {
    * @param type     the type
    */
   public Showtime(String id, int cinemaId, int movieId, LocalDateTime datetime, ShowType type) {
-    this(id, cinemaId, movieId, datetime, type, new boolean[][]{{true, true, true, true, true, true, true, true}, {true, true, true, true, true, true, true, true}, {true, true, true, true, true, true, true, true}, {true, true, true, true, true, true, true, true}, {true, true, true, true, true, true, true, true},});
+    this(id, cinemaId, movieId, datetime, type, new SeatMap(DEFAULT_ROWS, DEFAULT_COLS));
   }
 
   /**
-   * Instantiates a new Showtime.
+   * Instantiates a new Showtime, with a snapshot of the seats of the showtime cloned.
    *
    * @param cloneShowtime the clone showtime
    */
   public Showtime(Showtime cloneShowtime) {
-    this(cloneShowtime.id, cloneShowtime.cinemaId, cloneShowtime.movieId, cloneShowtime.datetime, cloneShowtime.type, cloneShowtime.seats);
+    this(cloneShowtime.id, cloneShowtime.cinemaId, cloneShowtime.movieId, cloneShowtime.datetime, cloneShowtime.type, cloneShowtime.seats.snapshot());
   }
 
   /**
@@ -153,11 +162,11 @@ public class Showtime {
   }
 
   /**
-   * Get seats boolean [ ] [ ].
+   * Gets seats.
    *
-   * @return the boolean [ ] [ ]
+   * @return the seats
    */
-  public boolean[][] getSeats() {
+  public SeatMap getSeats() {
     return seats;
   }
 
@@ -166,7 +175,7 @@ public class Showtime {
    *
    * @param seats the seats
    */
-  public void setSeats(boolean[][] seats) {
+  public void setSeats(SeatMap seats) {
     this.seats = seats;
   }
 
@@ -196,16 +205,7 @@ public class Showtime {
    * @return the seat count
    */
   public int getSeatCount(boolean isAvailable) {
-    int availableSeatCount = 0;
-    if (this.seats.length < 1) return availableSeatCount;
-
-    for (boolean[] seat : this.seats) {
-      for (boolean b : seat) {
-        if (b == isAvailable) availableSeatCount++;
-      }
-    }
-
-    return availableSeatCount;
+    return isAvailable ? this.seats.getAvailableCount() : this.seats.getBookedCount();
   }
 
   /**
@@ -214,10 +214,7 @@ public class Showtime {
    * @return the seat count
    */
   public int getSeatCount() {
-    int seatCount = 0;
-    if (this.seats.length < 1) return seatCount;
-    for (boolean[] seat : this.seats) for (int col = 0; col < seat.length; col++) seatCount++;
-    return seatCount;
+    return this.seats.getSeatCount();
   }
 
   @Override
@@ -0,0 +1,100 @@
+package moblima.entities;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * The type Waitlist entry.<br/>
+ * <p>
+ * A customer waiting on a sold out showtime for a no. of seats. Entries are served first come first served.
+ */
+public class WaitlistEntry {
+  private final String id;
+  private final String showtimeId;
+  private final String customerId;
+  private final int seatCount;
+  /**
+   * Time joined (epoch ms)
+   */
+  private final long joinedAt;
+
+  /**
+   * Instantiates a new Waitlist entry.
+   *
+   * @param id         the id
+   * @param showtimeId the showtime id
+   * @param customerId the customer id
+   * @param seatCount  the seat count
+   * @param joinedAt   the time joined (epoch ms)
+   */
+  public WaitlistEntry(String id, String showtimeId, String customerId, int seatCount, long joinedAt) {
+    this.id = id;
+    this.showtimeId = showtimeId;
+    this.customerId = customerId;
+    this.seatCount = seatCount;
+    this.joinedAt = joinedAt;
+  }
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets showtime id.
+   *
+   * @return the showtime id
+   */
+  public String getShowtimeId() {
+    return showtimeId;
+  }
+
+  /**
+   * Gets customer id.
+   *
+   * @return the customer id
+   */
+  public String getCustomerId() {
+    return customerId;
+  }
+
+  /**
+   * Gets seat count.
+   *
+   * @return the seat count
+   */
+  public int getSeatCount() {
+    return seatCount;
+  }
+
+  /**
+   * Gets time joined.
+   *
+   * @return the joined at
+   */
+  public LocalDateTime getJoinedAt() {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(joinedAt), ZoneId.systemDefault());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof WaitlistEntry && ((WaitlistEntry) obj).id.equals(this.id);
+  }
+
+  @Override
+  public int hashCode() {
+    int prime = 31;
+    return prime + Objects.hashCode(this.id);
+  }
+
+  @Override
+  public String toString() {
+    return "Waitlist Entry: " + this.id + " | Showtime: " + this.showtimeId + " | Customer: " + this.customerId + " | Seats: " + this.seatCount;
+  }
+}
@@ -4,7 +4,6 @@ import com.diogonunes.jcolor.Attribute;
 import com.github.lalyos.jfiglet.FigletFont;
 
 import java.security.SecureRandom;
-import java.text.DecimalFormat;
 import java.util.List;
 
 import static com.diogonunes.jcolor.Ansi.colorize;
@@ -18,12 +17,11 @@ public class Helper {
   /**
    * Format price string.
    *
-   * @param price the price
+   * @param price the price (cents)
    * @return the string
    */
-  public static String formatPrice(double price) {
-    DecimalFormat df = new DecimalFormat("0.00");
-    return "SGD " + df.format(price);
+  public static String formatPrice(long price) {
+    return Money.format(price);
   }
 
   /**
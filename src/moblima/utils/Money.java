@@ -0,0 +1,87 @@
+package moblima.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The type Money.<br/>
+ * <p>
+ * Amounts of money are kept as whole cents in a <code>long</code>, so sums of prices are exact. Amounts are only
+ * written as dollars (e.g. <code>8.50</code>) when displayed or persisted. Formatted prices are cached, as the same few
+ * prices are displayed over and over.
+ */
+public class Money {
+  /**
+   * Cents in a dollar
+   */
+  public static final long CENTS_PER_DOLLAR = 100;
+  /**
+   * Prices cached, in cents either way of zero
+   */
+  private static final int CACHE_LIMIT = 20000;
+  private static final String CURRENCY = "SGD ";
+  /**
+   * Formatted prices, by cents offset by the cache limit
+   */
+  private static final String[] formatted = new String[2 * CACHE_LIMIT];
+
+  private Money() {
+  }
+
+  /**
+   * Parses dollars (e.g. <code>8.5</code>) to cents exactly, rounded half up past the cent.
+   *
+   * @param dollars the dollars
+   * @return the cents
+   * @throws NumberFormatException if the dollars are not a number
+   */
+  public static long parse(String dollars) {
+    return new BigDecimal(dollars.trim()).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+  }
+
+  /**
+   * Appends cents as dollars (e.g. <code>-5.00</code>), without allocating.
+   *
+   * @param builder the builder
+   * @param cents   the cents
+   * @return the builder
+   */
+  public static StringBuilder appendTo(StringBuilder builder, long cents) {
+    if (cents < 0) builder.append('-');
+    long dollars = Math.abs(cents / CENTS_PER_DOLLAR);
+    int fraction = (int) Math.abs(cents % CENTS_PER_DOLLAR);
+
+    builder.append(dollars).append('.');
+    if (fraction < 10) builder.append('0');
+    return builder.append(fraction);
+  }
+
+  /**
+   * Formats cents as plain dollars (e.g. <code>8.50</code>), as persisted.
+   *
+   * @param cents the cents
+   * @return the string
+   */
+  public static String toPlainString(long cents) {
+    return appendTo(new StringBuilder(12), cents).toString();
+  }
+
+  /**
+   * Formats cents as a price (e.g. <code>SGD 8.50</code>).
+   *
+   * @param cents the cents
+   * @return the string
+   */
+  public static String format(long cents) {
+    if (cents <= -CACHE_LIMIT || cents >= CACHE_LIMIT) return appendTo(new StringBuilder(CURRENCY), cents).toString();
+
+    // Racing threads at worst format the same price twice
+    int idx = (int) cents + CACHE_LIMIT;
+    String price = formatted[idx];
+    if (price == null) {
+      price = appendTo(new StringBuilder(CURRENCY), cents).toString();
+      formatted[idx] = price;
+    }
+    return price;
+  }
+}
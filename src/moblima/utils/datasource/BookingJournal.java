@@ -0,0 +1,199 @@
+package moblima.utils.datasource;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import moblima.entities.Booking;
+import moblima.utils.Helper;
+import moblima.utils.Money;
+import moblima.utils.deserializers.BookingCodec;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Append-only journal of bookings<br/>
+ * <p>
+ * Each booking is appended as a single JSON line to the journal segment instead of rewriting the entire bookings file.
+ * Once the segment grows beyond the compaction threshold, the journal is folded into the CSV snapshot and truncated.
+ * On startup, the snapshot is loaded first before the journal tail is replayed on top of it. Bookings already in the
+ * snapshot are skipped, so a journal left behind by a compaction interrupted after writing the snapshot is replayed
+ * safely.
+ */
+public class BookingJournal {
+  /**
+   * Journal segment file name
+   */
+  public static final String JOURNAL_FILE = "bookings.journal";
+  /**
+   * Snapshot file name
+   */
+  public static final String SNAPSHOT_FILE = "bookings.csv";
+  /**
+   * Default no. of journal records before compaction
+   */
+  public static final int DEFAULT_COMPACTION_THRESHOLD = 50;
+  /**
+   * Compact (single-line) record serializer
+   */
+  private static final Gson gson = new GsonBuilder().create();
+
+  /**
+   * No. of records before compaction is due
+   */
+  private final int compactionThreshold;
+  /**
+   * No. of records in the current journal segment
+   */
+  private int journalSize = 0;
+
+  /**
+   * Instantiates a new Booking journal.
+   */
+  public BookingJournal() {
+    this(DEFAULT_COMPACTION_THRESHOLD);
+  }
+
+  /**
+   * Instantiates a new Booking journal.
+   *
+   * @param compactionThreshold the compaction threshold
+   */
+  public BookingJournal(int compactionThreshold) {
+    this.compactionThreshold = Math.max(1, compactionThreshold);
+  }
+
+  /**
+   * Gets journal size.
+   *
+   * @return the journal size
+   */
+  public int getJournalSize() {
+    return this.journalSize;
+  }
+
+  /**
+   * Replays the journal tail written since the last snapshot.
+   *
+   * @return the bookings
+   */
+//+ replay():List<Booking>
+  public List<Booking> replay() {
+    return this.replay(Collections.<Booking>emptyList());
+  }
+
+  /**
+   * Replays the journal tail written since the last snapshot, skipping bookings already in the snapshot.
+   *
+   * @param snapshot the bookings of the snapshot
+   * @return the bookings not yet in the snapshot
+   */
+//+ replay(snapshot:Collection<Booking>):List<Booking>
+  public List<Booking> replay(Collection<Booking> snapshot) {
+    List<Booking> bookings = new ArrayList<Booking>();
+    this.journalSize = 0;
+
+    Set<String> transactionIds = new HashSet<String>();
+    for (Booking booking : snapshot) transactionIds.add(booking.getTransactionId());
+    int skippedCount = 0;
+
+    File file = new File(Datasource.DATA_DIR + JOURNAL_FILE);
+    if (!file.exists()) return bookings;
+
+    Datasource.recordRead();
+    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) continue;
+        try {
+          JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+          Booking booking = gson.fromJson(record, Booking.class);
+          if (booking == null || booking.getType() == null) continue;
+          // Records journaled before prices were kept in cents
+          if (!record.has("totalCents") && record.has("totalPrice")) {
+            booking.setTotalPrice(Money.parse(record.get("totalPrice").getAsString()));
+          }
+          this.journalSize++;
+
+          // Already compacted into the snapshot before the journal was truncated
+          if (!transactionIds.add(booking.getTransactionId())) {
+            skippedCount++;
+            continue;
+          }
+          bookings.add(booking);
+        } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+          // Torn write at the tail of the segment, skip record
+          Helper.logger("BookingJournal.replay", "Skipped malformed record: " + line);
+        }
+      }
+    } catch (IOException e) {
+      Helper.logger("BookingJournal.replay", e.getMessage());
+    }
+
+    if (skippedCount > 0) Helper.logger("BookingJournal.replay", "Skipped " + skippedCount + " booking(s) already in " + SNAPSHOT_FILE);
+    Helper.logger("BookingJournal.replay", "Replayed " + bookings.size() + " booking(s) from " + JOURNAL_FILE);
+    return bookings;
+  }
+
+  /**
+   * Appends a booking to the journal segment.
+   *
+   * @param booking the booking
+   * @return the boolean
+   */
+//+ append(booking:Booking):boolean
+  public boolean append(Booking booking) {
+    File file = new File(Datasource.DATA_DIR + JOURNAL_FILE);
+    file.getParentFile().mkdirs();
+
+    Datasource.recordWrite();
+    try (FileWriter writer = new FileWriter(file, true)) {
+      writer.write(gson.toJson(booking));
+      writer.write(System.lineSeparator());
+    } catch (IOException e) {
+      Helper.logger("BookingJournal.append", e.getMessage());
+      return false;
+    }
+
+    this.journalSize++;
+    return true;
+  }
+
+  /**
+   * Check if compaction is due.
+   *
+   * @return the boolean
+   */
+  public boolean isCompactionDue() {
+    return this.journalSize >= this.compactionThreshold;
+  }
+
+  /**
+   * Folds all bookings into the snapshot and truncates the journal segment.
+   *
+   * @param bookings the complete list of bookings
+   * @return the boolean
+   */
+//+ compact(bookings:List<Booking>):boolean
+  public boolean compact(List<Booking> bookings) {
+    // Journal is only discarded once the snapshot has been written
+    if (!Datasource.serializeData(bookings, SNAPSHOT_FILE, new BookingCodec())) return false;
+
+    boolean isTruncated = Datasource.deleteFile(JOURNAL_FILE);
+    if (isTruncated) this.journalSize = 0;
+
+    Helper.logger("BookingJournal.compact", "Compacted " + bookings.size() + " booking(s) into " + SNAPSHOT_FILE);
+    return isTruncated;
+  }
+}
@@ -0,0 +1,125 @@
+package moblima.utils.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming, record-at-a-time CSV reader<br/>
+ * <p>
+ * Reads through a fixed-size character buffer so only the current record is ever held in memory.
+ * Quoted values may span multiple lines and escape quotes as <code>""</code>, unquoted values are trimmed.
+ */
+public class CsvReader implements Closeable {
+  /**
+   * End of stream marker
+   */
+  private static final int EOF = -1;
+
+  private final Reader reader;
+  private final char[] buffer = new char[8192];
+  private final StringBuilder field = new StringBuilder();
+  private final List<String> row = new ArrayList<String>();
+  private int position = 0;
+  private int limit = 0;
+
+  /**
+   * Column name to position lookup, shared across all records
+   */
+  private Map<String, Integer> header = null;
+
+  /**
+   * Instantiates a new Csv reader.
+   *
+   * @param reader the reader
+   */
+  public CsvReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * Reads the next record, consuming the header row on first call.
+   *
+   * @return the record, null if the end of stream has been reached
+   * @throws IOException the io exception
+   */
+//+ next():CsvRecord
+  public CsvRecord next() throws IOException {
+    if (this.header == null) {
+      String[] columns = this.readRow();
+      if (columns == null) return null;
+
+      this.header = new HashMap<String, Integer>();
+      for (int i = 0; i < columns.length; i++) this.header.put(columns[i], i);
+    }
+
+    String[] values = this.readRow();
+    return (values == null) ? null : new CsvRecord(this.header, values);
+  }
+
+  /**
+   * Reads the next raw row of values.
+   *
+   * @return the values, null if the end of stream has been reached
+   * @throws IOException the io exception
+   */
+//+ readRow():String[]
+  public String[] readRow() throws IOException {
+    this.row.clear();
+
+    // Skip blank lines
+    int c = this.read();
+    while (c == '\r' || c == '\n') c = this.read();
+    if (c == EOF) return null;
+
+    while (true) {
+      this.field.setLength(0);
+
+      if (c == '"') {
+        // Quoted value, may contain delimiters, line breaks and escaped quotes
+        while ((c = this.read()) != EOF) {
+          if (c == '"') {
+            c = this.read();
+            if (c != '"') break;
+          }
+          this.field.append((char) c);
+        }
+        // Discard anything trailing the closing quote
+        while (c != EOF && c != ',' && c != '\n' && c != '\r') c = this.read();
+        this.row.add(this.field.toString());
+      } else {
+        while (c != EOF && c != ',' && c != '\n' && c != '\r') {
+          this.field.append((char) c);
+          c = this.read();
+        }
+        this.row.add(this.field.toString().trim());
+      }
+
+      if (c != ',') break;
+      c = this.read();
+    }
+
+    return this.row.toArray(new String[0]);
+  }
+
+  private int read() throws IOException {
+    if (this.position >= this.limit) {
+      this.limit = this.reader.read(this.buffer, 0, this.buffer.length);
+      this.position = 0;
+      if (this.limit <= 0) {
+        this.limit = 0;
+        return EOF;
+      }
+    }
+    return this.buffer[this.position++];
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.reader.close();
+  }
+}
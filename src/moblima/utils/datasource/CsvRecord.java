@@ -0,0 +1,85 @@
+package moblima.utils.datasource;
+
+import moblima.utils.Money;
+
+import java.util.Map;
+
+/**
+ * Single CSV record, with values addressable by column name
+ */
+public class CsvRecord {
+  private final Map<String, Integer> header;
+  private final String[] values;
+
+  /**
+   * Instantiates a new Csv record.
+   *
+   * @param header the header
+   * @param values the values
+   */
+  public CsvRecord(Map<String, Integer> header, String[] values) {
+    this.header = header;
+    this.values = values;
+  }
+
+  /**
+   * Check if column is present in record.
+   *
+   * @param column the column
+   * @return the boolean
+   */
+  public boolean has(String column) {
+    Integer idx = this.header.get(column);
+    return idx != null && idx < this.values.length;
+  }
+
+  /**
+   * Gets value.
+   *
+   * @param column the column
+   * @return the value, empty if the column is absent
+   */
+  public String get(String column) {
+    return this.has(column) ? this.values[this.header.get(column)] : "";
+  }
+
+  /**
+   * Gets value as int.
+   *
+   * @param column the column
+   * @return the int
+   */
+  public int getInt(String column) {
+    return Integer.parseInt(this.get(column));
+  }
+
+  /**
+   * Gets value as double.
+   *
+   * @param column the column
+   * @return the double
+   */
+  public double getDouble(String column) {
+    return Double.parseDouble(this.get(column));
+  }
+
+  /**
+   * Gets value (dollars) as cents.
+   *
+   * @param column the column
+   * @return the cents
+   */
+  public long getCents(String column) {
+    return Money.parse(this.get(column));
+  }
+
+  /**
+   * Gets value as boolean.
+   *
+   * @param column the column
+   * @return the boolean
+   */
+  public boolean getBoolean(String column) {
+    return Boolean.parseBoolean(this.get(column));
+  }
+}
@@ -0,0 +1,79 @@
+package moblima.utils.datasource;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming, record-at-a-time CSV writer<br/>
+ * <p>
+ * Values are written straight through to the underlying writer, quoting only those that contain delimiters,
+ * quotes, line breaks or surrounding whitespace. Quotes within quoted values are escaped as <code>""</code>.
+ */
+public class CsvWriter implements Closeable, Flushable {
+  private final Writer writer;
+
+  /**
+   * Instantiates a new Csv writer.
+   *
+   * @param writer the writer
+   */
+  public CsvWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  /**
+   * Writes a single row of values.
+   *
+   * @param values the values
+   * @throws IOException the io exception
+   */
+//+ writeRow(values:String[]):void
+  public void writeRow(String[] values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) this.writer.write(',');
+      this.writeValue(values[i]);
+    }
+    this.writer.write('\n');
+  }
+
+  private void writeValue(String value) throws IOException {
+    if (value == null || value.isEmpty()) return;
+
+    if (!this.isQuoteRequired(value)) {
+      this.writer.write(value);
+      return;
+    }
+
+    this.writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') this.writer.write('"');
+      this.writer.write(c);
+    }
+    this.writer.write('"');
+  }
+
+  private boolean isQuoteRequired(String value) {
+    // Unquoted values are trimmed when read back
+    if (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)))
+      return true;
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.writer.close();
+  }
+}
@@ -0,0 +1,427 @@
+package moblima.utils.datasource;
+
+import moblima.entities.*;
+import moblima.utils.Helper;
+import moblima.utils.deserializers.*;
+import moblima.utils.services.booking.SeatAvailability;
+import moblima.utils.services.booking.ShowtimeSchedule;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide data context<br/>
+ * <p>
+ * Owns the canonical, in-memory collection of every dataset. Each dataset is loaded at most once, either by
+ * {@link #preload()} at startup or by whichever handler first requests it, and every handler thereafter shares the
+ * very same list instance. Handlers must therefore mutate these lists in place rather than reassigning them. Every
+ * collection is an {@link IndexedList}, so entities are looked up by the keys registered here in O(1), and filtered by
+ * the groups registered here in proportion to the no. of matches.
+ */
+public class DataContext {
+  /**
+   * The constant MOVIES.
+   */
+  public static final Dataset<Movie> MOVIES = new Dataset<Movie>("movies.csv");
+  /**
+   * The constant REVIEWS.
+   */
+  public static final Dataset<Review> REVIEWS = new Dataset<Review>("reviews.csv");
+  /**
+   * The constant CINEMAS.
+   */
+  public static final Dataset<Cinema> CINEMAS = new Dataset<Cinema>("cinemas.csv");
+  /**
+   * The constant SHOWTIMES.
+   */
+  public static final Dataset<Showtime> SHOWTIMES = new Dataset<Showtime>("showtimes.csv");
+  /**
+   * The constant BOOKINGS.
+   */
+  public static final Dataset<Booking> BOOKINGS = new Dataset<Booking>("bookings.csv");
+  /**
+   * The constant CUSTOMERS.
+   */
+  public static final Dataset<Customer> CUSTOMERS = new Dataset<Customer>("customers.csv");
+  /**
+   * The constant STAFFS.
+   */
+  public static final Dataset<Staff> STAFFS = new Dataset<Staff>("staffs.csv");
+
+  /**
+   * The constant MOVIE_ID.
+   */
+  public static final IndexedList.Key<Movie, Integer> MOVIE_ID = new IndexedList.Key<Movie, Integer>("movie id", Movie::getId);
+  /**
+   * The constant REVIEW_ID.
+   */
+  public static final IndexedList.Key<Review, String> REVIEW_ID = new IndexedList.Key<Review, String>("review id", Review::getId);
+  /**
+   * The constant CINEMA_ID.
+   */
+  public static final IndexedList.Key<Cinema, Integer> CINEMA_ID = new IndexedList.Key<Cinema, Integer>("cinema id", Cinema::getId);
+  /**
+   * The constant SHOWTIME_ID.
+   */
+  public static final IndexedList.Key<Showtime, String> SHOWTIME_ID = new IndexedList.Key<Showtime, String>("showtime id", Showtime::getId);
+  /**
+   * The constant BOOKING_ID.
+   */
+  public static final IndexedList.Key<Booking, String> BOOKING_ID = new IndexedList.Key<Booking, String>("booking transaction id", Booking::getTransactionId);
+  /**
+   * The constant CUSTOMER_ID.
+   */
+  public static final IndexedList.Key<Customer, String> CUSTOMER_ID = new IndexedList.Key<Customer, String>("customer id", Customer::getId);
+  /**
+   * The constant STAFF_ID.
+   */
+  public static final IndexedList.Key<Staff, String> STAFF_ID = new IndexedList.Key<Staff, String>("staff id", Staff::getId);
+  /**
+   * The constant STAFF_USERNAME.
+   */
+  public static final IndexedList.Key<Staff, String> STAFF_USERNAME = new IndexedList.Key<Staff, String>("staff username", Staff::getUsername);
+
+  /**
+   * The constant SHOWTIMES_BY_MOVIE.
+   */
+  public static final IndexedList.SortedGroup<Showtime, Integer, LocalDateTime> SHOWTIMES_BY_MOVIE = new IndexedList.SortedGroup<Showtime, Integer, LocalDateTime>("showtimes by movie", Showtime::getMovieId, Showtime::getDatetime);
+  /**
+   * The constant SHOWTIMES_BY_CINEMA.
+   */
+  public static final IndexedList.SortedGroup<Showtime, Integer, LocalDateTime> SHOWTIMES_BY_CINEMA = new IndexedList.SortedGroup<Showtime, Integer, LocalDateTime>("showtimes by cinema", Showtime::getCinemaId, Showtime::getDatetime);
+  /**
+   * The constant BOOKINGS_BY_CUSTOMER.
+   */
+  public static final IndexedList.Group<Booking, String> BOOKINGS_BY_CUSTOMER = new IndexedList.Group<Booking, String>("bookings by customer", Booking::getCustomerId);
+  /**
+   * The constant BOOKINGS_BY_SHOWTIME.
+   */
+  public static final IndexedList.Group<Booking, String> BOOKINGS_BY_SHOWTIME = new IndexedList.Group<Booking, String>("bookings by showtime", Booking::getShowtimeId);
+  /**
+   * The constant REVIEWS_BY_MOVIE.
+   */
+  public static final IndexedList.Group<Review, Integer> REVIEWS_BY_MOVIE = new IndexedList.Group<Review, Integer>("reviews by movie", Review::getMovieId);
+  /**
+   * The constant REVIEWS_BY_AUTHOR.
+   */
+  public static final IndexedList.Group<Review, String> REVIEWS_BY_AUTHOR = new IndexedList.Group<Review, String>("reviews by author", Review::getAuthorId);
+
+  /**
+   * Singleton instance of DataContext
+   */
+  private static DataContext _instance = null;
+
+  /**
+   * Canonical collections, by dataset
+   */
+  private final Map<Dataset<?>, IndexedList<?>> collections = new HashMap<Dataset<?>, IndexedList<?>>();
+  /**
+   * Current system settings, as a read-only snapshot swapped as a whole
+   */
+  private final AtomicReference<Settings> settings = new AtomicReference<Settings>();
+  private final List<SettingsListener> settingsListeners = new CopyOnWriteArrayList<SettingsListener>();
+  /**
+   * Booking journal, shared by all booking handlers
+   */
+  private final BookingJournal journal = new BookingJournal();
+  /**
+   * Time taken to read and decode each file, whether preloaded or loaded on first request (ms)
+   */
+  private final Map<String, Double> loadTimings = new ConcurrentHashMap<String, Double>();
+
+  /**
+   * Default constructor
+   */
+  private DataContext() {
+  }
+
+  /**
+   * Retrieves instance of DataContext
+   *
+   * @return instance :current DataContext instance
+   */
+  public static synchronized DataContext getInstance() {
+    if (_instance == null) _instance = new DataContext();
+    return _instance;
+  }
+
+  /**
+   * Gets booking journal.
+   *
+   * @return the booking journal
+   */
+  public BookingJournal getJournal() {
+    return this.journal;
+  }
+
+  /**
+   * Gets time taken to read and decode each file loaded so far (ms), by file name.
+   *
+   * @return the load timings
+   */
+  public Map<String, Double> getLoadTimings() {
+    return Collections.unmodifiableMap(new TreeMap<String, Double>(this.loadTimings));
+  }
+
+  /**
+   * Reads and decodes all independent data files concurrently, before resolving cross-references in a final join
+   * phase.<br/>
+   * <p>
+   * Datasets whose file is missing, or which depend on a dataset that could not be preloaded, are left for their
+   * handler to load (and generate) on first request, as before. Datasets already loaded are never replaced.
+   */
+//+ preload():void
+  public void preload() {
+    long start = System.nanoTime();
+
+    ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    try {
+      CompletableFuture<List<Movie>> movies = this.read(pool, MOVIES, new MovieCodec());
+      CompletableFuture<List<Review>> reviews = this.read(pool, REVIEWS, new ReviewCodec());
+      CompletableFuture<List<Cinema>> cinemas = this.read(pool, CINEMAS, new CinemaCodec());
+      CompletableFuture<List<Showtime>> showtimes = CompletableFuture.supplyAsync(() -> this.timed(SHOWTIMES.getFileName(), ShowtimeSnapshot::readShowtimes), pool);
+      CompletableFuture<List<Booking>> bookings = this.read(pool, BOOKINGS, new BookingCodec());
+      CompletableFuture<List<Booking>> journalBookings = CompletableFuture.supplyAsync(() -> this.timed(BookingJournal.JOURNAL_FILE, this.journal::replay), pool);
+      CompletableFuture<List<Customer>> customers = this.read(pool, CUSTOMERS, new CustomerCodec());
+      CompletableFuture<List<Staff>> staffs = this.read(pool, STAFFS, new StaffCodec());
+      CompletableFuture<List<Settings>> settings = CompletableFuture.supplyAsync(() -> this.timed("settings.csv", () -> Datasource.readFromCsv("settings.csv", new SettingsCodec())), pool);
+
+      CompletableFuture.allOf(movies, reviews, cinemas, showtimes, bookings, journalBookings, customers, staffs, settings).join();
+
+      this.join(movies.join(), reviews.join(), cinemas.join(), showtimes.join(), bookings.join(), journalBookings.join(), customers.join(), staffs.join(), settings.join());
+    } finally {
+      pool.shutdown();
+    }
+
+    double elapsed = (System.nanoTime() - start) / 1e6;
+    double total = this.loadTimings.values().stream().mapToDouble(Double::doubleValue).sum();
+    Helper.logger("DataContext.preload", String.format("Preloaded in %.1f ms (%.1f ms across all files)", elapsed, total));
+  }
+
+  /**
+   * Join phase, registers preloaded datasets and resolves showtime-cinema and booking-seat references.
+   */
+  private synchronized void join(List<Movie> movies, List<Review> reviews, List<Cinema> cinemas, List<Showtime> showtimes, List<Booking> bookings, List<Booking> journalBookings, List<Customer> customers, List<Staff> staffs, List<Settings> settings) {
+    this.register(MOVIES, movies);
+    this.register(REVIEWS, reviews);
+    this.register(CUSTOMERS, customers);
+    this.register(STAFFS, staffs);
+    if (settings != null && !settings.isEmpty()) this.settings.compareAndSet(null, settings.get(settings.size() - 1).snapshot(1));
+
+    // Showtimes are only meaningful with the cinemas hosting them
+    if (cinemas == null || showtimes == null || this.isLoaded(CINEMAS) || this.isLoaded(SHOWTIMES)) return;
+    Map<Integer, List<Showtime>> cinemaShowtimes = new HashMap<Integer, List<Showtime>>();
+    Map<String, Showtime> showtimeById = new HashMap<String, Showtime>();
+    for (Showtime showtime : showtimes) {
+      cinemaShowtimes.computeIfAbsent(showtime.getCinemaId(), id -> new ArrayList<Showtime>()).add(showtime);
+      showtimeById.put(showtime.getId(), showtime);
+    }
+    Map<Integer, Integer> runtimes = new HashMap<Integer, Integer>();
+    if (movies != null) for (Movie movie : movies) runtimes.put(movie.getId(), movie.getRuntime());
+    for (Cinema cinema : cinemas) {
+      List<Showtime> linked = cinemaShowtimes.getOrDefault(cinema.getId(), new ArrayList<Showtime>());
+      linked.sort(Comparator.comparing(Showtime::getDatetime));
+      for (Showtime showtime : linked) {
+        showtime.setSeats(showtime.getSeats().overlay(cinema.getLayout()));
+        SeatAvailability.getInstance().track(showtime, cinema);
+        ShowtimeSchedule.getInstance().track(showtime, runtimes.getOrDefault(showtime.getMovieId(), 0));
+      }
+      cinema.setShowtimes(linked);
+    }
+    this.register(CINEMAS, cinemas);
+    this.register(SHOWTIMES, showtimes);
+
+    // Bookings (snapshot and journal tail) are reflected on the seats of their showtime
+    if (this.isLoaded(BOOKINGS)) return;
+    List<Booking> allBookings = new ArrayList<Booking>();
+    if (bookings != null) allBookings.addAll(bookings);
+    allBookings.addAll(journalBookings);
+    for (Booking booking : allBookings) {
+      Showtime showtime = showtimeById.get(booking.getShowtimeId());
+      if (showtime == null) continue;
+
+      SeatMap seats = showtime.getSeats();
+      for (int[] seat : booking.getSeats()) {
+        if (seats.isValid(seat)) seats.assign(seat[0], seat[1], false);
+      }
+    }
+    this.register(BOOKINGS, allBookings);
+  }
+
+  private synchronized <T> void register(Dataset<T> dataset, List<T> entities) {
+    if (entities == null || this.isLoaded(dataset)) return;
+    this.collections.put(dataset, new IndexedList<T>(entities));
+  }
+
+  private <T> CompletableFuture<List<T>> read(ForkJoinPool pool, Dataset<T> dataset, CsvDeserializer<T> deserializer) {
+    return CompletableFuture.supplyAsync(() -> this.timed(dataset.getFileName(), () -> Datasource.readFromCsv(dataset.getFileName(), deserializer)), pool);
+  }
+
+  private <T> T timed(String fileName, Supplier<T> reader) {
+    long start = System.nanoTime();
+    T result = reader.get();
+    double elapsed = (System.nanoTime() - start) / 1e6;
+
+    this.loadTimings.put(fileName, elapsed);
+    Helper.logger("DataContext.timed", String.format("%s read in %.1f ms", fileName, elapsed));
+    return result;
+  }
+
+  /**
+   * Gets the canonical collection of a dataset, loading it on first request.
+   *
+   * @param <T>     the entity type
+   * @param dataset the dataset
+   * @param loader  the loader, invoked only if the dataset has yet to be loaded
+   * @return the collection
+   */
+//+ get(dataset:Dataset<T>, loader:Supplier<List<T>>):IndexedList<T>
+  @SuppressWarnings("unchecked")
+  public synchronized <T> IndexedList<T> get(Dataset<T> dataset, Supplier<List<T>> loader) {
+    IndexedList<T> collection = (IndexedList<T>) this.collections.get(dataset);
+    if (collection != null) return collection;
+
+    // Loaders may request other datasets, do not hold on to any map view across the call
+    List<T> loaded = this.timed(dataset.getFileName(), loader);
+    collection = new IndexedList<T>(loaded == null ? new ArrayList<T>() : loaded);
+    this.collections.put(dataset, collection);
+
+    Helper.logger("DataContext.get", "Loaded " + collection.size() + " record(s) from " + dataset.getFileName());
+    return collection;
+  }
+
+  /**
+   * Check if dataset has been loaded.
+   *
+   * @param dataset the dataset
+   * @return the boolean
+   */
+  public synchronized boolean isLoaded(Dataset<?> dataset) {
+    return this.collections.containsKey(dataset);
+  }
+
+  /**
+   * Replaces the contents of a dataset in place, so every handler observes the change.
+   *
+   * @param <T>      the entity type
+   * @param dataset  the dataset
+   * @param entities the entities
+   * @return the collection
+   */
+//+ replace(dataset:Dataset<T>, entities:List<T>):IndexedList<T>
+  public synchronized <T> IndexedList<T> replace(Dataset<T> dataset, List<T> entities) {
+    IndexedList<T> collection = this.get(dataset, ArrayList::new);
+    if (collection != entities) {
+      collection.clear();
+      collection.addAll(entities);
+    }
+    return collection;
+  }
+
+  /**
+   * Gets settings, loading them on first request. Settings once loaded are read without locking.
+   *
+   * @param loader the loader, invoked only if settings have yet to be loaded
+   * @return the read-only snapshot of settings
+   */
+//+ getSettings(loader:Supplier<Settings>):Settings
+  public Settings getSettings(Supplier<Settings> loader) {
+    Settings settings = this.settings.get();
+    if (settings != null) return settings;
+
+    synchronized (this) {
+      settings = this.settings.get();
+      if (settings == null) {
+        settings = loader.get().snapshot(1);
+        this.settings.set(settings);
+      }
+      return settings;
+    }
+  }
+
+  /**
+   * Sets settings, publishing a snapshot of them as the next version.
+   *
+   * @param settings the settings
+   * @return the read-only snapshot of settings
+   */
+//+ setSettings(settings:Settings):Settings
+  public synchronized Settings setSettings(Settings settings) {
+    Settings previous = this.settings.get();
+    Settings current = settings.snapshot((previous == null) ? 1 : previous.getVersion() + 1);
+    this.settings.set(current);
+
+    for (SettingsListener listener : this.settingsListeners) listener.onSettingsChanged(previous, current);
+    return current;
+  }
+
+  /**
+   * Add settings listener.
+   *
+   * @param listener the listener
+   */
+  public void addSettingsListener(SettingsListener listener) {
+    this.settingsListeners.add(listener);
+  }
+
+  /**
+   * Remove settings listener.
+   *
+   * @param listener the listener
+   */
+  public void removeSettingsListener(SettingsListener listener) {
+    this.settingsListeners.remove(listener);
+  }
+
+  /**
+   * Listener of settings changes, e.g. to invalidate caches derived from the settings
+   */
+  public interface SettingsListener {
+    /**
+     * On settings changed.
+     *
+     * @param previous the previous snapshot, null if none
+     * @param current  the current snapshot
+     */
+    void onSettingsChanged(Settings previous, Settings current);
+  }
+
+  /**
+   * Typed key of a canonical collection
+   *
+   * @param <T> the entity type
+   */
+  public static final class Dataset<T> {
+    private final String fileName;
+
+    private Dataset(String fileName) {
+      this.fileName = fileName;
+    }
+
+    /**
+     * Gets file name.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+      return this.fileName;
+    }
+
+    @Override
+    public String toString() {
+      return this.fileName;
+    }
+  }
+}
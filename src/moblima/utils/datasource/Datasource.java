@@ -4,28 +4,35 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import moblima.entities.*;
 import moblima.utils.Catcher;
 import moblima.utils.Helper;
-import moblima.utils.deserializers.LocalDateDeserializer;
-import moblima.utils.deserializers.LocalDateTimeDeserializer;
+import moblima.utils.deserializers.*;
 import org.apache.commons.io.FileUtils;
 import org.json.CDL;
 import org.json.JSONArray;
-import org.json.JSONTokener;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * All-purpose datasource parser and serializer
@@ -46,6 +53,34 @@ public class Datasource {
       .registerTypeAdapter(LocalDate.class, new LocalDateDeserializer())
       .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeDeserializer())
       .create();
+  /**
+   * Registered serializers, by entity type
+   */
+  private static final Map<Class<?>, Serializer<?>> serializers = new HashMap<Class<?>, Serializer<?>>();
+
+  static {
+    register(Booking.class, new BookingCodec());
+    register(Cinema.class, new CinemaCodec());
+    register(Customer.class, new CustomerCodec());
+    register(Movie.class, new MovieCodec());
+    register(Review.class, new ReviewCodec());
+    register(Settings.class, new SettingsCodec());
+    register(Showtime.class, new ShowtimeCodec());
+    register(Staff.class, new StaffCodec());
+  }
+
+  private static <T> void register(Class<T> type, CsvSerializer<T> serializer) {
+    serializers.put(type, new Serializer<T>(type, serializer));
+  }
+
+  /**
+   * No. of files read since startup
+   */
+  private static final AtomicLong readCount = new AtomicLong();
+  /**
+   * No. of files written or deleted since startup
+   */
+  private static final AtomicLong writeCount = new AtomicLong();
   /**
    * API endpoint
    */
@@ -64,6 +99,38 @@ public class Datasource {
     return gson;
   }
 
+  /**
+   * Gets no. of files read since startup
+   *
+   * @return readCount :long
+   */
+  public static long getReadCount() {
+    return readCount.get();
+  }
+
+  /**
+   * Gets no. of files written or deleted since startup
+   *
+   * @return writeCount :long
+   */
+  public static long getWriteCount() {
+    return writeCount.get();
+  }
+
+  /**
+   * Records a file read
+   */
+  static void recordRead() {
+    readCount.incrementAndGet();
+  }
+
+  /**
+   * Records a file write
+   */
+  static void recordWrite() {
+    writeCount.incrementAndGet();
+  }
+
   /// CONVERTERS
 
   /**
@@ -72,7 +139,7 @@ public class Datasource {
    * @param list :List
    * @return result :JsonArray
    */
-  protected static JsonArray convertToJsonArray(List list) {
+  protected static JsonArray convertToJsonArray(List<?> list) {
     return gson.toJsonTree(list).getAsJsonArray();
   }
 
@@ -85,11 +152,117 @@ public class Datasource {
    * @param outputFileName :String
    * @return isSuccess :boolean
    */
-  public static boolean serializeData(List list, String outputFileName) {
+  public static boolean serializeData(List<?> list, String outputFileName) {
+    // Explicit write supersedes any scheduled write
+    PersistenceScheduler.getInstance().discard(outputFileName);
+
+    // Stream through the registered serializer of the listed entities where available
+    Serializer<?> serializer = (list == null || list.isEmpty()) ? null : Datasource.getSerializer(list.get(0).getClass());
+    if (serializer != null) return serializer.write(list, outputFileName);
+
     Helper.logger("Datasource.serializeData", "Exporting to " + outputFileName + "...");
     return Datasource.serializeDataToCSV(Datasource.convertToJsonArray(list), outputFileName, true);
   }
 
+  /**
+   * Streams list data to CSV, writing each entity field-by-field in the serializer's column order
+   *
+   * @param <T>            the entity type
+   * @param list           :List
+   * @param outputFileName :String
+   * @param serializer     :CsvSerializer
+   * @return isSuccess :boolean
+   */
+  public static <T> boolean serializeData(List<T> list, String outputFileName, CsvSerializer<T> serializer) {
+    // Explicit write supersedes any scheduled write
+    PersistenceScheduler.getInstance().discard(outputFileName);
+    return Datasource.writeData(list, outputFileName, serializer);
+  }
+
+  /**
+   * Schedules list data to be written behind to CSV, coalescing with any pending write of the same file
+   *
+   * @param <T>            the entity type
+   * @param list           :List
+   * @param outputFileName :String
+   * @param serializer     :CsvSerializer
+   * @return isScheduled :boolean
+   */
+  public static <T> boolean scheduleData(List<T> list, String outputFileName, CsvSerializer<T> serializer) {
+    if (list == null) {
+      Helper.logger("ERROR/Datasource.scheduleData", "Unable to serialize null object");
+      return false;
+    }
+    return PersistenceScheduler.getInstance().schedule(outputFileName, list, serializer);
+  }
+
+  /**
+   * Streams list data to CSV
+   *
+   * @param <T>            the entity type
+   * @param list           :List
+   * @param outputFileName :String
+   * @param serializer     :CsvSerializer
+   * @return isSuccess :boolean
+   */
+  static <T> boolean writeData(List<T> list, String outputFileName, CsvSerializer<T> serializer) {
+    if (list == null) {
+      Helper.logger("ERROR/Datasource.serializeData", "Unable to serialize null object");
+      return false;
+    }
+    Helper.logger("Datasource.serializeData", "Streaming " + list.size() + " record(s) to " + outputFileName + "...");
+
+    return Datasource.writeCsv(outputFileName, writer -> {
+      writer.writeRow(serializer.columns());
+      for (T entity : list) writer.writeRow(serializer.serialize(entity));
+    });
+  }
+
+  /**
+   * Save single row of values to header-less CSV
+   *
+   * @param values         :String[]
+   * @param outputFileName :String
+   * @return isSuccess :boolean
+   */
+  public static boolean serializeRow(String[] values, String outputFileName) {
+    Helper.logger("Datasource.serializeRow", "Exporting to " + outputFileName + "...");
+    return Datasource.writeCsv(outputFileName, writer -> writer.writeRow(values));
+  }
+
+  /**
+   * Writes CSV to a temporary file before moving it into place, so readers never observe a partial file
+   *
+   * @param outputFileName :String
+   * @param rows           :CsvRows
+   * @return isSaved :boolean
+   */
+  private static boolean writeCsv(String outputFileName, CsvRows rows) {
+    // Configure output path
+    Path path = Paths.get(DATA_DIR + outputFileName);
+    Path tempPath = Paths.get(DATA_DIR + outputFileName + ".tmp");
+    recordWrite();
+
+    try {
+      Files.createDirectories(path.getParent());
+      try (CsvWriter writer = new CsvWriter(Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8))) {
+        rows.write(writer);
+      }
+
+      try {
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      Helper.logger("Datasource.writeCsv", e.getMessage());
+      return false;
+    }
+
+    Helper.logger("Datasource.writeCsv", "Output CSV to " + path.toAbsolutePath());
+    return true;
+  }
+
   /**
    * Serializes JsonArray into CSV file
    *
@@ -139,10 +312,13 @@ public class Datasource {
    * @return the boolean
    */
   public static boolean deleteFile(String fileName) {
+    PersistenceScheduler.getInstance().discard(fileName);
+
     // Configure output path
     String path = DATA_DIR + fileName;
     File file = new File(path);
 
+    if (file.exists()) recordWrite();
     boolean isDeleted = !file.exists() || file.delete();
     Helper.logger("Datasource.deleteFile", "File " + file.getName() + " deletion " + (isDeleted ? "successful" : "failed"));
     return isDeleted;
@@ -172,6 +348,7 @@ public class Datasource {
       outputFile.createNewFile();
 
       // Save to file
+      recordWrite();
       writer = new FileWriter(outputFile.getAbsolutePath());
       writer.write(jsonObject);
       writer.close();
@@ -209,6 +386,7 @@ public class Datasource {
       outputFile.getParentFile().mkdirs();
       outputFile.createNewFile();
 
+      recordWrite();
       FileUtils.writeStringToFile(outputFile, csvObject, Charset.defaultCharset());
 
       Helper.logger("Datasource.saveCsv", "Output CSV to " + outputFile.getAbsolutePath());
@@ -227,35 +405,78 @@ public class Datasource {
   /// SAVERS
 
   /**
-   * Extract JsonArray from CSV file
+   * Streams records from CSV file, decoding each straight into an entity
    *
-   * @param fileName :String
-   * @return result :JsonArray
+   * @param <T>          the entity type
+   * @param fileName     :String
+   * @param deserializer :CsvDeserializer
+   * @return result :List, null if file does not exist
    */
-  public static JsonArray readArrayFromCsv(String fileName) {
-    JsonArray result = null;
+  public static <T> List<T> readFromCsv(String fileName, CsvDeserializer<T> deserializer) {
+    List<T> result = null;
+
+    // Read back any pending write first
+    PersistenceScheduler.getInstance().flush(fileName);
 
     // Configure target path
     String path = DATA_DIR + fileName;
     File file = new File(path);
 
-    try {
-      if (!file.exists()) throw new FileNotFoundException("File" + path + " does not exist");
-      Helper.logger("Datasource.readArrayFromCsv", "Reading from " + file.getAbsolutePath());
+    if (!file.exists()) {
+      Helper.logger("Datasource.readFromCsv", "File " + path + " does not exist");
+      return result;
+    }
+    Helper.logger("Datasource.readFromCsv", "Reading from " + file.getAbsolutePath());
+
+    result = new ArrayList<T>();
+    recordRead();
+    try (CsvReader reader = new CsvReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+      CsvRecord record;
+      while ((record = reader.next()) != null) {
+        try {
+          T entity = deserializer.deserialize(record);
+          if (entity != null) result.add(entity);
+        } catch (RuntimeException e) {
+          Helper.logger("Datasource.readFromCsv", "Skipped malformed record in " + fileName + ": " + e.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      Helper.logger("Datasource.readFromCsv", e.getMessage());
+      return null;
+    }
+
+    Helper.logger("Datasource.readFromCsv", "Total records: " + result.size());
+    return result;
+  }
 
-      String content = Files.readString(Paths.get(path));
-      JSONArray jsonArray = CDL.toJSONArray(content);
-      if (jsonArray == null) jsonArray = CDL.rowToJSONArray(new JSONTokener(content));
-      String jsonStringified = jsonArray.toString();
-      jsonStringified = jsonStringified.replaceAll("\\[]", "");
+  /**
+   * Extract first row of values from header-less CSV file
+   *
+   * @param fileName :String
+   * @return result :String[], null if file does not exist
+   */
+  public static String[] readRowFromCsv(String fileName) {
+    String[] result = null;
 
-      result = gson.fromJson(jsonStringified, JsonArray.class);
+    // Read back any pending write first
+    PersistenceScheduler.getInstance().flush(fileName);
 
-      Helper.logger("Datasource.readArrayFromCsv", "Stringified " + jsonStringified);
-      Helper.logger("Datasource.readArrayFromCsv", "Result " + result);
+    // Configure target path
+    String path = DATA_DIR + fileName;
+    File file = new File(path);
 
-    } catch (Exception e) {
-      Helper.logger("Datasource.readArrayFromCsv", e.getMessage());
+    if (!file.exists()) {
+      Helper.logger("Datasource.readRowFromCsv", "File " + path + " does not exist");
+      return result;
+    }
+    Helper.logger("Datasource.readRowFromCsv", "Reading from " + file.getAbsolutePath());
+
+    recordRead();
+    try (CsvReader reader = new CsvReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+      result = reader.readRow();
+      if (result == null) result = new String[0];
+    } catch (IOException e) {
+      Helper.logger("Datasource.readRowFromCsv", e.getMessage());
     }
 
     return result;
@@ -331,4 +552,53 @@ public class Datasource {
     return responseJson;
   }
 
+
+  /**
+   * Writes the rows of a CSV file
+   */
+  @FunctionalInterface
+  private interface CsvRows {
+    /**
+     * Write rows.
+     *
+     * @param writer the writer
+     * @throws IOException the io exception
+     */
+    void write(CsvWriter writer) throws IOException;
+  }
+
+  /**
+   * Gets the registered serializer of the entity type, or of its nearest registered supertype
+   *
+   * @param type :Class
+   * @return serializer :Serializer
+   */
+  private static Serializer<?> getSerializer(Class<?> type) {
+    for (Class<?> t = type; t != null; t = t.getSuperclass()) {
+      Serializer<?> serializer = serializers.get(t);
+      if (serializer != null) return serializer;
+    }
+    return null;
+  }
+
+  /**
+   * Serializer registered for an entity type
+   *
+   * @param <T> the entity type
+   */
+  private static final class Serializer<T> {
+    private final Class<T> type;
+    private final CsvSerializer<T> serializer;
+
+    private Serializer(Class<T> type, CsvSerializer<T> serializer) {
+      this.type = type;
+      this.serializer = serializer;
+    }
+
+    private boolean write(List<?> list, String outputFileName) {
+      List<T> entities = new ArrayList<T>(list.size());
+      for (Object entity : list) entities.add(this.type.cast(entity));
+      return Datasource.writeData(entities, outputFileName, this.serializer);
+    }
+  }
 }
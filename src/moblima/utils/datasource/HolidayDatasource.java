@@ -3,15 +3,15 @@ package moblima.utils.datasource;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 import moblima.utils.Helper;
 
-import java.lang.reflect.Type;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
+import static moblima.utils.deserializers.LocalDateDeserializer.dateFormatter;
+
 /**
  * The type Holiday datasource.
  */
@@ -31,7 +31,9 @@ public class HolidayDatasource extends Datasource {
    * @return the boolean
    */
   public static boolean saveHolidays(List<LocalDate> holidays) {
-    return serializeData(holidays, "holidays.csv");
+    String[] values = new String[holidays.size()];
+    for (int i = 0; i < holidays.size(); i++) values[i] = holidays.get(i).format(dateFormatter);
+    return serializeRow(values, "holidays.csv");
   }
 
   /**
@@ -43,18 +45,16 @@ public class HolidayDatasource extends Datasource {
     List<LocalDate> holidays = new ArrayList<LocalDate>();
 
     String fileName = "holidays.csv";
-    JsonArray holidayList = Datasource.readArrayFromCsv(fileName);
-    Helper.logger("HolidayDatasource.getHolidays", "holidayList: " + holidayList);
+    String[] holidayList = Datasource.readRowFromCsv(fileName);
 
     if (holidayList == null) {
       holidays = this.fetchHolidays();
       return holidays;
     }
 
-    String strHolidayList = Datasource.getGson().toJson(holidayList);
-    Type typeHolidayList = new TypeToken<List<LocalDate>>() {
-    }.getType();
-    holidays = Datasource.getGson().fromJson(strHolidayList, typeHolidayList);
+    for (String holiday : holidayList) {
+      if (!holiday.isBlank()) holidays.add(LocalDate.parse(holiday, dateFormatter));
+    }
 
     Helper.logger("HolidayDatasource.getHolidays", "Total holidays: " + holidays.size());
     return holidays;
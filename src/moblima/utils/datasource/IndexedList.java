@@ -0,0 +1,532 @@
+package moblima.utils.datasource;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * List of entities indexed by key<br/>
+ * <p>
+ * Behaves as an ordinary list, while keeping a hash index from each key to the position of the first entity with that
+ * key, so looking up an entity by id is O(1) instead of a scan. Groups index every entity sharing a key instead, either
+ * in list order or ordered by a sort key, so filtering by e.g. movie scales with the no. of matches rather than the
+ * list. Indexes are built on first lookup and kept consistent with every change made through the list. Each entity
+ * remembers the keys it was last indexed by, so adding, replacing or removing an entity only touches the indexes of
+ * its own keys, while the positions of the entities after it simply shift along. An entity whose keys are changed in
+ * place must be set again, which re-indexes just the keys which changed.
+ *
+ * @param <T> the entity type
+ */
+public class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+  private static final Object[] NO_KEYS = new Object[0];
+
+  private final List<Entry<T>> entries;
+  /**
+   * Entries of each key, by position, by index key
+   */
+  private final Map<Key<T, ?>, Index<T>> indexes = new ConcurrentHashMap<Key<T, ?>, Index<T>>();
+  /**
+   * Entries of each key, by sort key then position, by group
+   */
+  private final Map<Group<T, ?>, Grouping<T>> groups = new ConcurrentHashMap<Group<T, ?>, Grouping<T>>();
+  /**
+   * Slots of the keys remembered by each entry, handed out as indexes and groups are built
+   */
+  private int indexSlots = 0;
+  private int groupSlots = 0;
+
+  /**
+   * Instantiates a new Indexed list.
+   */
+  public IndexedList() {
+    this.entries = new ArrayList<Entry<T>>();
+  }
+
+  /**
+   * Instantiates a new Indexed list.
+   *
+   * @param entities the entities
+   */
+  public IndexedList(Collection<? extends T> entities) {
+    this.entries = new ArrayList<Entry<T>>(entities.size());
+    for (T entity : entities) this.entries.add(new Entry<T>(entity, this.entries.size()));
+  }
+
+  /**
+   * Gets position of the first entity with a key, by index if the list is indexed, else by scan.
+   *
+   * @param <T>   the entity type
+   * @param <K>   the key type
+   * @param list  the list
+   * @param key   the index key
+   * @param value the key value
+   * @return the position, -1 if no entity has the key
+   */
+  public static <T, K> int indexOf(List<T> list, Key<T, K> key, K value) {
+    if (list instanceof IndexedList) return ((IndexedList<T>) list).indexOf(key, value);
+
+    for (int i = 0; i < list.size(); i++) {
+      if (Objects.equals(key.of(list.get(i)), value)) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Gets position of the first entity with a key.
+   *
+   * @param <K>   the key type
+   * @param key   the index key
+   * @param value the key value
+   * @return the position, -1 if no entity has the key
+   */
+  public <K> int indexOf(Key<T, K> key, K value) {
+    if (value == null) return -1;
+    List<Entry<T>> entries = this.index(key).positions.get(value);
+    return entries == null ? -1 : entries.get(0).position;
+  }
+
+  /**
+   * Gets the first entity with a key.
+   *
+   * @param <K>   the key type
+   * @param key   the index key
+   * @param value the key value
+   * @return the entity, null if no entity has the key
+   */
+  public <K> T find(Key<T, K> key, K value) {
+    if (value == null) return null;
+    List<Entry<T>> entries = this.index(key).positions.get(value);
+    return entries == null ? null : entries.get(0).entity;
+  }
+
+  /**
+   * Gets every entity with a key, by group if the list is indexed, else by scan.
+   *
+   * @param <T>   the entity type
+   * @param <K>   the key type
+   * @param list  the list
+   * @param group the group
+   * @param value the key value
+   * @return the entities, in list order, or by sort key if the group is sorted
+   */
+  public static <T, K> List<T> group(List<T> list, Group<T, K> group, K value) {
+    if (list instanceof IndexedList) return ((IndexedList<T>) list).group(group, value);
+
+    List<T> entities = new ArrayList<T>();
+    for (T entity : list) {
+      if (Objects.equals(group.of(entity), value)) entities.add(entity);
+    }
+    if (group instanceof SortedGroup) entities.sort(Comparator.comparing(((SortedGroup<T, K, ?>) group)::orderOf, Comparator.nullsFirst(Comparator.naturalOrder())));
+    return entities;
+  }
+
+  /**
+   * Gets every entity with a key.
+   *
+   * @param <K>   the key type
+   * @param group the group
+   * @param value the key value
+   * @return the entities, in list order, or by sort key if the group is sorted
+   */
+  public synchronized <K> List<T> group(Group<T, K> group, K value) {
+    List<T> entities = new ArrayList<T>();
+    NavigableMap<Object, List<Entry<T>>> bucket = value == null ? null : this.grouping(group).buckets.get(value);
+    if (bucket != null) {
+      for (List<Entry<T>> sorted : bucket.values()) {
+        for (Entry<T> entry : sorted) entities.add(entry.entity);
+      }
+    }
+    return entities;
+  }
+
+  /**
+   * Gets every entity with a key, by sort key, e.g. for range queries.
+   *
+   * @param <K>   the key type
+   * @param <C>   the sort key type
+   * @param group the sorted group
+   * @param value the key value
+   * @return the entities by sort key
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <K, C extends Comparable<? super C>> NavigableMap<C, List<T>> groupMap(SortedGroup<T, K, C> group, K value) {
+    NavigableMap<C, List<T>> entities = new TreeMap<C, List<T>>(Comparator.nullsFirst(Comparator.naturalOrder()));
+    NavigableMap<Object, List<Entry<T>>> bucket = value == null ? null : this.grouping(group).buckets.get(value);
+    if (bucket != null) {
+      for (Map.Entry<Object, List<Entry<T>>> sorted : bucket.entrySet()) {
+        List<T> sortedEntities = new ArrayList<T>(sorted.getValue().size());
+        for (Entry<T> entry : sorted.getValue()) sortedEntities.add(entry.entity);
+        entities.put((C) sorted.getKey(), Collections.unmodifiableList(sortedEntities));
+      }
+    }
+    return entities;
+  }
+
+  private Index<T> index(Key<T, ?> key) {
+    Index<T> index = this.indexes.get(key);
+    if (index != null) return index;
+
+    synchronized (this) {
+      return this.indexes.computeIfAbsent(key, k -> {
+        Index<T> built = new Index<T>(k, this.indexSlots++);
+        for (Entry<T> entry : this.entries) this.indexAdd(built, entry);
+        return built;
+      });
+    }
+  }
+
+  private Grouping<T> grouping(Group<T, ?> group) {
+    Grouping<T> grouping = this.groups.get(group);
+    if (grouping != null) return grouping;
+
+    grouping = new Grouping<T>(group, this.groupSlots++);
+    for (Entry<T> entry : this.entries) this.groupAdd(grouping, entry);
+    this.groups.put(group, grouping);
+    return grouping;
+  }
+
+  private void indexAdd(Index<T> index, Entry<T> entry) {
+    Object value = index.key.of(entry.entity);
+    entry.keys = remember(entry.keys, index.slot, value);
+    if (value == null) return;
+
+    // Copied on write, so lookups never see a list being changed
+    index.positions.compute(value, (v, entries) -> {
+      List<Entry<T>> updated = (entries == null) ? new ArrayList<Entry<T>>(1) : new ArrayList<Entry<T>>(entries);
+      insert(updated, entry);
+      return Collections.unmodifiableList(updated);
+    });
+  }
+
+  private void indexRemove(Index<T> index, Entry<T> entry) {
+    Object value = recall(entry.keys, index.slot);
+    if (value == null) return;
+
+    index.positions.computeIfPresent(value, (v, entries) -> {
+      List<Entry<T>> updated = new ArrayList<Entry<T>>(entries);
+      updated.removeIf(e -> e == entry);
+      return updated.isEmpty() ? null : Collections.unmodifiableList(updated);
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void groupAdd(Grouping<T> grouping, Entry<T> entry) {
+    Object value = grouping.group.of(entry.entity);
+    Object order = grouping.group.orderOf(entry.entity);
+    entry.groupKeys = remember(entry.groupKeys, 2 * grouping.slot, value);
+    entry.groupKeys = remember(entry.groupKeys, 2 * grouping.slot + 1, order);
+    if (value == null) return;
+
+    NavigableMap<Object, List<Entry<T>>> bucket = grouping.buckets.computeIfAbsent(value, v -> new TreeMap<Object, List<Entry<T>>>((Comparator<Object>) (Comparator<?>) Comparator.nullsFirst(Comparator.naturalOrder())));
+    insert(bucket.computeIfAbsent(order, o -> new ArrayList<Entry<T>>()), entry);
+  }
+
+  private void groupRemove(Grouping<T> grouping, Entry<T> entry) {
+    Object value = recall(entry.groupKeys, 2 * grouping.slot);
+    NavigableMap<Object, List<Entry<T>>> bucket = value == null ? null : grouping.buckets.get(value);
+    if (bucket == null) return;
+
+    Object order = recall(entry.groupKeys, 2 * grouping.slot + 1);
+    List<Entry<T>> sorted = bucket.get(order);
+    if (sorted == null) return;
+    sorted.removeIf(e -> e == entry);
+    if (sorted.isEmpty()) bucket.remove(order);
+    if (bucket.isEmpty()) grouping.buckets.remove(value);
+  }
+
+  private void reindex(Entry<T> entry) {
+    for (Index<T> index : this.indexes.values()) {
+      if (Objects.equals(recall(entry.keys, index.slot), index.key.of(entry.entity))) continue;
+      this.indexRemove(index, entry);
+      this.indexAdd(index, entry);
+    }
+    for (Grouping<T> grouping : this.groups.values()) {
+      Group<T, ?> group = grouping.group;
+      if (Objects.equals(recall(entry.groupKeys, 2 * grouping.slot), group.of(entry.entity))
+          && Objects.equals(recall(entry.groupKeys, 2 * grouping.slot + 1), group.orderOf(entry.entity))) continue;
+      this.groupRemove(grouping, entry);
+      this.groupAdd(grouping, entry);
+    }
+  }
+
+  private void unindex(Entry<T> entry) {
+    for (Index<T> index : this.indexes.values()) this.indexRemove(index, entry);
+    for (Grouping<T> grouping : this.groups.values()) this.groupRemove(grouping, entry);
+  }
+
+  /**
+   * Shifts the positions of every entry from a position onwards to where they now are.
+   */
+  private void renumber(int from) {
+    for (int i = from; i < this.entries.size(); i++) this.entries.get(i).position = i;
+  }
+
+  /**
+   * Inserts an entry into a list of entries by position.
+   */
+  private static <T> void insert(List<Entry<T>> entries, Entry<T> entry) {
+    int low = 0;
+    int high = entries.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (entries.get(mid).position <= entry.position) low = mid + 1;
+      else high = mid;
+    }
+    entries.add(low, entry);
+  }
+
+  private static Object[] remember(Object[] keys, int slot, Object value) {
+    if (slot >= keys.length) keys = Arrays.copyOf(keys, slot + 1);
+    keys[slot] = value;
+    return keys;
+  }
+
+  private static Object recall(Object[] keys, int slot) {
+    return slot < keys.length ? keys[slot] : null;
+  }
+
+  @Override
+  public T get(int index) {
+    return this.entries.get(index).entity;
+  }
+
+  @Override
+  public int size() {
+    return this.entries.size();
+  }
+
+  @Override
+  public synchronized T set(int index, T element) {
+    Entry<T> entry = this.entries.get(index);
+    T previous = entry.entity;
+    entry.entity = element;
+
+    // Only keys which changed are re-indexed, whether the entity was replaced or changed in place
+    this.reindex(entry);
+    return previous;
+  }
+
+  @Override
+  public synchronized void add(int index, T element) {
+    Entry<T> entry = new Entry<T>(element, index);
+    this.entries.add(index, entry);
+    this.modCount++;
+    this.renumber(index + 1);
+
+    for (Index<T> keyIndex : this.indexes.values()) this.indexAdd(keyIndex, entry);
+    for (Grouping<T> grouping : this.groups.values()) this.groupAdd(grouping, entry);
+  }
+
+  @Override
+  public synchronized T remove(int index) {
+    Entry<T> removed = this.entries.remove(index);
+    this.modCount++;
+
+    this.unindex(removed);
+    this.renumber(index);
+    return removed.entity;
+  }
+
+  @Override
+  public synchronized boolean removeIf(Predicate<? super T> filter) {
+    // Compacted in a single pass, only the keys of removed entities are touched
+    int keptCount = 0;
+    for (int i = 0; i < this.entries.size(); i++) {
+      Entry<T> entry = this.entries.get(i);
+      if (filter.test(entry.entity)) {
+        this.unindex(entry);
+        continue;
+      }
+      entry.position = keptCount;
+      this.entries.set(keptCount++, entry);
+    }
+
+    boolean isRemoved = keptCount < this.entries.size();
+    if (isRemoved) {
+      this.entries.subList(keptCount, this.entries.size()).clear();
+      this.modCount++;
+    }
+    return isRemoved;
+  }
+
+  @Override
+  public synchronized boolean removeAll(Collection<?> collection) {
+    Objects.requireNonNull(collection);
+    return this.removeIf(collection::contains);
+  }
+
+  @Override
+  public synchronized void clear() {
+    this.entries.clear();
+    this.modCount++;
+    for (Index<T> index : this.indexes.values()) index.positions.clear();
+    for (Grouping<T> grouping : this.groups.values()) grouping.buckets.clear();
+  }
+
+  /**
+   * Entity at a position, with the keys it was last indexed by
+   */
+  private static final class Entry<T> {
+    private T entity;
+    private volatile int position;
+    /**
+     * Index key values, by index slot
+     */
+    private Object[] keys = NO_KEYS;
+    /**
+     * Group and sort key values, by group slot
+     */
+    private Object[] groupKeys = NO_KEYS;
+
+    private Entry(T entity, int position) {
+      this.entity = entity;
+      this.position = position;
+    }
+  }
+
+  private static final class Index<T> {
+    private final Key<T, ?> key;
+    private final int slot;
+    private final Map<Object, List<Entry<T>>> positions = new ConcurrentHashMap<Object, List<Entry<T>>>();
+
+    private Index(Key<T, ?> key, int slot) {
+      this.key = key;
+      this.slot = slot;
+    }
+  }
+
+  private static final class Grouping<T> {
+    private final Group<T, ?> group;
+    private final int slot;
+    private final Map<Object, NavigableMap<Object, List<Entry<T>>>> buckets = new ConcurrentHashMap<Object, NavigableMap<Object, List<Entry<T>>>>();
+
+    private Grouping(Group<T, ?> group, int slot) {
+      this.group = group;
+      this.slot = slot;
+    }
+  }
+
+  /**
+   * Key of an index
+   *
+   * @param <T> the entity type
+   * @param <K> the key type
+   */
+  public static final class Key<T, K> {
+    private final String name;
+    private final Function<T, K> extractor;
+
+    /**
+     * Instantiates a new Key.
+     *
+     * @param name      the name
+     * @param extractor the key extractor
+     */
+    public Key(String name, Function<T, K> extractor) {
+      this.name = name;
+      this.extractor = extractor;
+    }
+
+    /**
+     * Gets key of an entity.
+     *
+     * @param entity the entity
+     * @return the key
+     */
+    public K of(T entity) {
+      return entity == null ? null : this.extractor.apply(entity);
+    }
+
+    @Override
+    public String toString() {
+      return this.name;
+    }
+  }
+
+  /**
+   * Key of a group, shared by any no. of entities
+   *
+   * @param <T> the entity type
+   * @param <K> the key type
+   */
+  public static class Group<T, K> {
+    private final String name;
+    private final Function<T, K> extractor;
+
+    /**
+     * Instantiates a new Group, kept in list order.
+     *
+     * @param name      the name
+     * @param extractor the key extractor
+     */
+    public Group(String name, Function<T, K> extractor) {
+      this.name = name;
+      this.extractor = extractor;
+    }
+
+    /**
+     * Gets key of an entity.
+     *
+     * @param entity the entity
+     * @return the key
+     */
+    public K of(T entity) {
+      return entity == null ? null : this.extractor.apply(entity);
+    }
+
+    /**
+     * Gets sort key of an entity, the same for all entities unless sorted.
+     *
+     * @param entity the entity
+     * @return the sort key
+     */
+    protected Comparable<?> orderOf(T entity) {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return this.name;
+    }
+  }
+
+  /**
+   * Key of a group, ordered by a sort key
+   *
+   * @param <T> the entity type
+   * @param <K> the key type
+   * @param <C> the sort key type
+   */
+  public static final class SortedGroup<T, K, C extends Comparable<? super C>> extends Group<T, K> {
+    private final Function<T, C> order;
+
+    /**
+     * Instantiates a new Sorted group.
+     *
+     * @param name      the name
+     * @param extractor the key extractor
+     * @param order     the sort key extractor
+     */
+    public SortedGroup(String name, Function<T, K> extractor, Function<T, C> order) {
+      super(name, extractor);
+      this.order = order;
+    }
+
+    @Override
+    protected C orderOf(T entity) {
+      return this.order.apply(entity);
+    }
+  }
+}
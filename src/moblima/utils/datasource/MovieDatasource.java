@@ -3,17 +3,16 @@ package moblima.utils.datasource;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 import moblima.entities.Movie;
 import moblima.entities.Movie.ContentRating;
 import moblima.entities.Movie.ShowStatus;
 import moblima.entities.Review;
 import moblima.utils.Constants;
 import moblima.utils.Helper;
+import moblima.utils.deserializers.MovieCodec;
+import moblima.utils.deserializers.ReviewCodec;
 import org.apache.commons.lang3.EnumUtils;
-import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Type;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -21,8 +20,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 
-import static moblima.utils.deserializers.LocalDateDeserializer.dateFormatter;
-
 /**
  * The type Movie datasource.
  */
@@ -50,16 +47,13 @@ public class MovieDatasource extends Datasource {
 
     //Source from serialized datasource
     String fileName = "reviews.csv";
-    JsonArray reviewList = Datasource.readArrayFromCsv(fileName);
+    List<Review> reviewList = Datasource.readFromCsv(fileName, new ReviewCodec());
     if (reviewList == null) {
       Helper.logger("MovieDatasource.getReviews", "No serialized data available");
       return reviews;
     }
 
-    String strReviewList = Datasource.getGson().toJson(reviewList);
-    Type typeReviewList = new TypeToken<List<Review>>() {
-    }.getType();
-    reviews = Datasource.getGson().fromJson(strReviewList, typeReviewList);
+    reviews = reviewList;
 
     return reviews;
   }
@@ -73,7 +67,7 @@ public class MovieDatasource extends Datasource {
     List<Movie> movies = new ArrayList<Movie>();
 
     String fileName = "movies.csv";
-    JsonArray movieList = Datasource.readArrayFromCsv(fileName);
+    List<Movie> movieList = Datasource.readFromCsv(fileName, new MovieCodec());
 
     if (movieList == null) {
       if (API_KEY != null) {
@@ -82,52 +76,7 @@ public class MovieDatasource extends Datasource {
       }
       return movies;
     }
-
-    try {
-      for (JsonElement movie : movieList) {
-        JsonObject m = movie.getAsJsonObject();
-
-        int id = m.get("id").getAsInt();
-        String title = m.get("title").getAsString();
-        String synopsis = m.get("synopsis").getAsString();
-        String director = m.get("director").getAsString();
-        List<String> castList = List.of(StringUtils.substringBetween(m.get("castList").getAsString(), "[", "]").split(","));
-        int runtime = m.get("runtime").getAsInt();
-        boolean isBlockbuster = m.get("isBlockbuster").getAsBoolean();
-
-        String releaseDate = m.get("releaseDate").getAsString();
-        LocalDate dateRelease = LocalDate.parse(releaseDate, dateFormatter);
-
-        String status = m.get("showStatus").getAsString();
-        boolean isValidStatus = EnumUtils.isValidEnum(ShowStatus.class, status);
-        if (!isValidStatus) continue;
-        ShowStatus showStatus = ShowStatus.valueOf(status);
-
-        String rating = m.get("contentRating").getAsString();
-        boolean isValidRating = EnumUtils.isValidEnum(ContentRating.class, rating);
-        if (!isValidRating) continue;
-        ContentRating contentRating = ContentRating.valueOf(rating);
-
-        double overallRating = m.get("overallRating").getAsDouble();
-
-        // Initialise and append to list
-        movies.add(new Movie(
-            id,
-            title,
-            synopsis,
-            director,
-            castList,
-            runtime,
-            dateRelease,
-            isBlockbuster,
-            showStatus,
-            contentRating,
-            overallRating
-        ));
-      }
-    } catch (Exception e) {
-      Helper.logger("MovieDatasource.getMovies", "An error has occurred in the deserialization process.");
-    }
+    movies = movieList;
 
     Helper.logger("MovieDatasource.getMovies", "Total movies: " + movies.size());
     return movies;
@@ -292,8 +241,8 @@ public class MovieDatasource extends Datasource {
     Helper.logger("MovieDatasource.fetchMovies", "Total movies: " + movies.size());
 
     // Serialize data to CSV
-    serializeData(movies, "movies.csv");
-    serializeData(reviews, "reviews.csv");
+    serializeData(movies, "movies.csv", new MovieCodec());
+    serializeData(reviews, "reviews.csv", new ReviewCodec());
 
     return movies;
   }
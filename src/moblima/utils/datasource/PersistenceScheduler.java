@@ -0,0 +1,227 @@
+package moblima.utils.datasource;
+
+import moblima.utils.Constants;
+import moblima.utils.Helper;
+import moblima.utils.Helper.Preset;
+import moblima.utils.deserializers.CsvSerializer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static moblima.utils.Helper.colorPrint;
+
+/**
+ * Write-behind persistence scheduler<br/>
+ * <p>
+ * Mutations mark their file dirty instead of rewriting it inline. Repeated mutations of the same file are coalesced
+ * into a single pending write, which snapshots the latest state once flushed on a background thread, after the flush
+ * interval elapses or the no. of pending mutations reaches the flush threshold. Pending writes are always flushed on
+ * shutdown, and before the same file is read back.
+ */
+public class PersistenceScheduler {
+  /**
+   * Default interval between background flushes (ms)
+   */
+  public static final long DEFAULT_FLUSH_INTERVAL = 500;
+  /**
+   * Default no. of coalesced mutations before an early flush
+   */
+  public static final int DEFAULT_FLUSH_THRESHOLD = 32;
+  /**
+   * Singleton instance of PersistenceScheduler
+   */
+  private static PersistenceScheduler _instance = null;
+
+  /**
+   * Pending writes, by file name
+   */
+  private final Map<String, BooleanSupplier> pending = new LinkedHashMap<String, BooleanSupplier>();
+  private final ScheduledExecutorService executor;
+  private final long flushInterval;
+  private final int flushThreshold;
+  /**
+   * No. of mutations coalesced since the last flush
+   */
+  private int mutationCount = 0;
+
+  /**
+   * Default constructor
+   */
+  private PersistenceScheduler() {
+    this.flushInterval = parseEnv("PERSISTENCE_FLUSH_INTERVAL", DEFAULT_FLUSH_INTERVAL);
+    this.flushThreshold = (int) parseEnv("PERSISTENCE_FLUSH_THRESHOLD", DEFAULT_FLUSH_THRESHOLD);
+
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "persistence-scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.scheduleWithFixedDelay(this::flush, this.flushInterval, this.flushInterval, TimeUnit.MILLISECONDS);
+
+    // Daemon thread is abandoned on exit, flush whatever is still pending
+    Runtime.getRuntime().addShutdownHook(new Thread(this::flushOnShutdown, "persistence-shutdown"));
+  }
+
+  /**
+   * Retrieves instance of PersistenceScheduler
+   *
+   * @return instance :current PersistenceScheduler instance
+   */
+  public static synchronized PersistenceScheduler getInstance() {
+    if (_instance == null) _instance = new PersistenceScheduler();
+    return _instance;
+  }
+
+  private static long parseEnv(String envKey, long defaultValue) {
+    try {
+      String value = Constants.getEnv(envKey);
+      if (value != null) return Math.max(1, Long.parseLong(value.trim()));
+    } catch (RuntimeException e) {
+      Helper.logger("PersistenceScheduler.parseEnv", "Invalid " + envKey + ", defaulting to " + defaultValue);
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Marks file dirty, replacing any pending write of the same file with a write of the list, snapshotted once flushed
+   *
+   * @param <T>        the entity type
+   * @param fileName   the file name
+   * @param list       the list
+   * @param serializer the serializer
+   * @return the boolean
+   */
+//+ schedule(fileName:String, list:List<T>, serializer:CsvSerializer<T>):boolean
+  public <T> boolean schedule(String fileName, List<T> list, CsvSerializer<T> serializer) {
+    return this.schedule(fileName, () -> Datasource.writeData(snapshot(list), fileName, serializer));
+  }
+
+  /**
+   * Snapshots a list to be written, holding its monitor, which indexed lists are mutated under, so the list is never
+   * iterated concurrently with a mutation.
+   *
+   * @param <T>  the entity type
+   * @param list the list
+   * @return the snapshot
+   */
+//+ snapshot(list:List<T>):List<T>
+  public static <T> List<T> snapshot(List<T> list) {
+    synchronized (list) {
+      return new ArrayList<T>(list);
+    }
+  }
+
+  /**
+   * Marks file dirty, replacing any pending write of the same file with the given writer
+   *
+   * @param fileName the file name
+   * @param writer   the writer, which snapshots the state to write once flushed
+   * @return the boolean
+   */
+//+ schedule(fileName:String, writer:BooleanSupplier):boolean
+  public boolean schedule(String fileName, BooleanSupplier writer) {
+    boolean isThresholdReached;
+    synchronized (this.pending) {
+      this.pending.put(fileName, writer);
+      isThresholdReached = ++this.mutationCount >= this.flushThreshold;
+    }
+
+    if (isThresholdReached) this.executor.execute(this::flush);
+    return true;
+  }
+
+  /**
+   * Check if file has a pending write.
+   *
+   * @param fileName the file name
+   * @return the boolean
+   */
+  public boolean isPending(String fileName) {
+    synchronized (this.pending) {
+      return this.pending.containsKey(fileName);
+    }
+  }
+
+  /**
+   * Flushes all pending writes. Failed writes stay pending, to be retried on the next flush.
+   *
+   * @return the boolean
+   */
+//+ flush():boolean
+  public synchronized boolean flush() {
+    List<Map.Entry<String, BooleanSupplier>> writes;
+    synchronized (this.pending) {
+      if (this.pending.isEmpty()) return true;
+      writes = new ArrayList<Map.Entry<String, BooleanSupplier>>(this.pending.entrySet());
+      this.pending.clear();
+      this.mutationCount = 0;
+    }
+
+    boolean isFlushed = true;
+    for (Map.Entry<String, BooleanSupplier> write : writes) {
+      isFlushed &= this.write(write.getKey(), write.getValue());
+    }
+    return isFlushed;
+  }
+
+  /**
+   * Flushes the pending write of a single file, if any.
+   *
+   * @param fileName the file name
+   * @return the boolean
+   */
+//+ flush(fileName:String):boolean
+  public synchronized boolean flush(String fileName) {
+    BooleanSupplier writer;
+    synchronized (this.pending) {
+      writer = this.pending.remove(fileName);
+    }
+    return writer == null || this.write(fileName, writer);
+  }
+
+  /**
+   * Discards the pending write of a single file, if any, waiting for any in-flight flush to complete.
+   *
+   * @param fileName the file name
+   */
+//+ discard(fileName:String):void
+  public synchronized void discard(String fileName) {
+    synchronized (this.pending) {
+      this.pending.remove(fileName);
+    }
+  }
+
+  private void flushOnShutdown() {
+    if (this.flush()) return;
+
+    // Last chance to persist, report regardless of debug mode
+    synchronized (this.pending) {
+      colorPrint("Failed to persist " + this.pending.keySet() + " on shutdown, changes to these files are lost", Preset.ERROR);
+    }
+  }
+
+  private boolean write(String fileName, BooleanSupplier writer) {
+    boolean isWritten;
+    try {
+      isWritten = writer.getAsBoolean();
+      if (!isWritten) Helper.logger("PersistenceScheduler.flush", "Failed to flush " + fileName + ", retrying on next flush");
+    } catch (RuntimeException e) {
+      isWritten = false;
+      Helper.logger("PersistenceScheduler.flush", "Failed to flush " + fileName + ", retrying on next flush: " + e.getMessage());
+    }
+
+    // Keep failed write pending, unless a later mutation has already replaced it
+    if (!isWritten) {
+      synchronized (this.pending) {
+        this.pending.putIfAbsent(fileName, writer);
+      }
+    }
+    return isWritten;
+  }
+}
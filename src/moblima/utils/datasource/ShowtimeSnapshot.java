@@ -0,0 +1,393 @@
+package moblima.utils.datasource;
+
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.entities.Showtime.ShowType;
+import moblima.utils.Helper;
+import moblima.utils.deserializers.ShowtimeCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary snapshot of showtimes, an accelerated alternative to <code>showtimes.csv</code><br/>
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header   : magic:int | version:short | reserved:short | count:int | reserved:int
+ * offsets  : offset:long * count
+ * record   : id:byte[36] | cinemaId:int | movieId:int | datetime:long (epoch seconds, UTC)
+ *            | type:byte | reserved:byte | rows:short | cols:short | reserved:byte[6]
+ *            | seats:long * ceil(rows * cols / 64)
+ * </pre>
+ * Seat bits are indexed by <code>row * cols + col</code>, a set bit marks an occupied seat. The file is read through
+ * a {@link MappedByteBuffer}, so a single showtime (or its occupancy alone) can be read without decoding the rest.
+ */
+public class ShowtimeSnapshot implements Closeable {
+  /**
+   * Snapshot file name
+   */
+  public static final String SNAPSHOT_FILE = "showtimes.bin";
+  /**
+   * CSV file name
+   */
+  public static final String CSV_FILE = "showtimes.csv";
+  /**
+   * File signature, "MBST"
+   */
+  private static final int MAGIC = 0x4D425354;
+  private static final short VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int ID_SIZE = 36;
+  private static final int RECORD_HEADER_SIZE = 64;
+  private static final int CINEMA_ID_OFFSET = ID_SIZE;
+  private static final int MOVIE_ID_OFFSET = ID_SIZE + 4;
+  private static final int DATETIME_OFFSET = ID_SIZE + 8;
+  private static final int TYPE_OFFSET = ID_SIZE + 16;
+  private static final int ROWS_OFFSET = ID_SIZE + 18;
+  private static final int COLS_OFFSET = ID_SIZE + 20;
+
+  private final MappedByteBuffer buffer;
+  private final int count;
+
+  private ShowtimeSnapshot(MappedByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) throw new IOException("Not a showtime snapshot");
+    if (buffer.getShort(4) != VERSION) throw new IOException("Unsupported snapshot version " + buffer.getShort(4));
+
+    this.buffer = buffer;
+    this.count = buffer.getInt(8);
+  }
+
+  /**
+   * Maps snapshot file into memory.
+   *
+   * @param fileName the file name
+   * @return the showtime snapshot, null if file does not exist or is not a valid snapshot
+   */
+//+ open(fileName:String):ShowtimeSnapshot
+  public static ShowtimeSnapshot open(String fileName) {
+    Path path = Paths.get(Datasource.DATA_DIR + fileName);
+    if (!Files.exists(path)) return null;
+
+    // Mapping outlives the channel
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      Datasource.recordRead();
+      return new ShowtimeSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException e) {
+      Helper.logger("ShowtimeSnapshot.open", e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Check if snapshot exists and is at least as recent as the CSV.
+   *
+   * @return the boolean
+   */
+  public static boolean isFresh() {
+    File snapshot = new File(Datasource.DATA_DIR + SNAPSHOT_FILE);
+    File csv = new File(Datasource.DATA_DIR + CSV_FILE);
+    return snapshot.exists() && (!csv.exists() || snapshot.lastModified() >= csv.lastModified());
+  }
+
+  /**
+   * Reads showtimes from the snapshot if it is fresh, from the CSV otherwise.
+   *
+   * @return the showtimes, null if neither exists
+   */
+//+ readShowtimes():List<Showtime>
+  public static List<Showtime> readShowtimes() {
+    // Read back any pending write first
+    PersistenceScheduler.getInstance().flush(CSV_FILE);
+    PersistenceScheduler.getInstance().flush(SNAPSHOT_FILE);
+
+    if (isFresh()) {
+      try (ShowtimeSnapshot snapshot = open(SNAPSHOT_FILE)) {
+        if (snapshot != null) {
+          Helper.logger("ShowtimeSnapshot.readShowtimes", "Reading from " + SNAPSHOT_FILE);
+          return snapshot.readAll();
+        }
+      } catch (RuntimeException e) {
+        Helper.logger("ShowtimeSnapshot.readShowtimes", "Corrupted snapshot, falling back to CSV: " + e.getMessage());
+      }
+    }
+    return Datasource.readFromCsv(CSV_FILE, new ShowtimeCodec());
+  }
+
+  /**
+   * Writes showtimes to a snapshot file.
+   *
+   * @param showtimes the showtimes
+   * @param fileName  the file name
+   * @return the boolean
+   */
+//+ write(showtimes:List<Showtime>, fileName:String):boolean
+  public static boolean write(List<Showtime> showtimes, String fileName) {
+    Path path = Paths.get(Datasource.DATA_DIR + fileName);
+    Path tempPath = Paths.get(Datasource.DATA_DIR + fileName + ".tmp");
+    Datasource.recordWrite();
+
+    try {
+      Files.createDirectories(path.getParent());
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+        writeTo(showtimes, out);
+      }
+
+      try {
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      Helper.logger("ShowtimeSnapshot.write", e.getMessage());
+      try {
+        Files.deleteIfExists(tempPath);
+      } catch (IOException ignored) {
+      }
+      return false;
+    }
+
+    Helper.logger("ShowtimeSnapshot.write", "Output snapshot of " + showtimes.size() + " showtime(s) to " + path.toAbsolutePath());
+    return true;
+  }
+
+  /**
+   * Writes showtimes to <code>showtimes.csv</code>, then to the snapshot, so the snapshot stays the fresher of the two.
+   *
+   * @param showtimes the showtimes
+   * @return the boolean, false if the CSV could not be written
+   */
+//+ writeAll(showtimes:List<Showtime>):boolean
+  public static boolean writeAll(List<Showtime> showtimes) {
+    if (!Datasource.writeData(showtimes, CSV_FILE, new ShowtimeCodec())) return false;
+
+    // Snapshot left older than the CSV is not read back, CSV is read instead
+    if (!write(showtimes, SNAPSHOT_FILE)) Helper.logger("ShowtimeSnapshot.writeAll", "Failed to write " + SNAPSHOT_FILE + ", falling back to " + CSV_FILE);
+    return true;
+  }
+
+  private static void writeTo(List<Showtime> showtimes, DataOutputStream out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeShort(VERSION);
+    out.writeShort(0);
+    out.writeInt(showtimes.size());
+    out.writeInt(0);
+
+    // Offsets table
+    long offset = HEADER_SIZE + 8L * showtimes.size();
+    for (Showtime showtime : showtimes) {
+      out.writeLong(offset);
+      offset += recordSize(showtime.getSeats());
+    }
+
+    for (Showtime showtime : showtimes) {
+      byte[] id = showtime.getId().getBytes(StandardCharsets.US_ASCII);
+      if (id.length > ID_SIZE) throw new IllegalArgumentException("Showtime ID exceeds " + ID_SIZE + " bytes: " + showtime.getId());
+      out.write(id);
+      for (int i = id.length; i < ID_SIZE; i++) out.writeByte(' ');
+
+      SeatMap seats = showtime.getSeats();
+      int rows = seats.getRowCount();
+      int cols = seats.getColCount();
+
+      out.writeInt(showtime.getCinemaId());
+      out.writeInt(showtime.getMovieId());
+      out.writeLong(showtime.getDatetime().toEpochSecond(ZoneOffset.UTC));
+      out.writeByte(showtime.getType().ordinal());
+      out.writeByte(0);
+      out.writeShort(rows);
+      out.writeShort(cols);
+      out.write(new byte[RECORD_HEADER_SIZE - COLS_OFFSET - 2]);
+
+      // Same bit layout as the seat map, words are copied as is
+      for (long word : seats.getWords()) out.writeLong(word);
+    }
+  }
+
+  private static int wordCount(int rows, int cols) {
+    return (rows * cols + 63) >>> 6;
+  }
+
+  private static long recordSize(SeatMap seats) {
+    return RECORD_HEADER_SIZE + 8L * wordCount(seats.getRowCount(), seats.getColCount());
+  }
+
+  /**
+   * Converts <code>showtimes.csv</code> into a snapshot.
+   *
+   * @return the boolean
+   */
+//+ convertFromCsv():boolean
+  public static boolean convertFromCsv() {
+    List<Showtime> showtimes = Datasource.readFromCsv(CSV_FILE, new ShowtimeCodec());
+    return showtimes != null && write(showtimes, SNAPSHOT_FILE);
+  }
+
+  /**
+   * Converts the snapshot back into <code>showtimes.csv</code>.
+   *
+   * @return the boolean
+   */
+//+ convertToCsv():boolean
+  public static boolean convertToCsv() {
+    try (ShowtimeSnapshot snapshot = open(SNAPSHOT_FILE)) {
+      return snapshot != null && Datasource.serializeData(snapshot.readAll(), CSV_FILE, new ShowtimeCodec());
+    }
+  }
+
+  /**
+   * Gets no. of showtimes in snapshot.
+   *
+   * @return the count
+   */
+  public int size() {
+    return this.count;
+  }
+
+  private int offset(int idx) {
+    if (idx < 0 || idx >= this.count) throw new IndexOutOfBoundsException("Showtime " + idx + " out of " + this.count);
+    return (int) this.buffer.getLong(HEADER_SIZE + 8 * idx);
+  }
+
+  /**
+   * Gets showtime id.
+   *
+   * @param idx the idx
+   * @return the id
+   */
+  public String getId(int idx) {
+    byte[] id = new byte[ID_SIZE];
+    this.buffer.get(this.offset(idx), id);
+    return new String(id, StandardCharsets.US_ASCII).trim();
+  }
+
+  /**
+   * Gets cinema id.
+   *
+   * @param idx the idx
+   * @return the cinema id
+   */
+  public int getCinemaId(int idx) {
+    return this.buffer.getInt(this.offset(idx) + CINEMA_ID_OFFSET);
+  }
+
+  /**
+   * Gets movie id.
+   *
+   * @param idx the idx
+   * @return the movie id
+   */
+  public int getMovieId(int idx) {
+    return this.buffer.getInt(this.offset(idx) + MOVIE_ID_OFFSET);
+  }
+
+  /**
+   * Gets datetime.
+   *
+   * @param idx the idx
+   * @return the datetime
+   */
+  public LocalDateTime getDatetime(int idx) {
+    return LocalDateTime.ofEpochSecond(this.buffer.getLong(this.offset(idx) + DATETIME_OFFSET), 0, ZoneOffset.UTC);
+  }
+
+  /**
+   * Gets show type.
+   *
+   * @param idx the idx
+   * @return the type
+   */
+  public ShowType getType(int idx) {
+    return ShowType.values()[this.buffer.get(this.offset(idx) + TYPE_OFFSET)];
+  }
+
+  /**
+   * Check if seat is available, without decoding the rest of the seat map.
+   *
+   * @param idx the idx
+   * @param row the row
+   * @param col the col
+   * @return the boolean
+   */
+  public boolean isAvailable(int idx, int row, int col) {
+    int offset = this.offset(idx);
+    int rows = this.buffer.getShort(offset + ROWS_OFFSET);
+    int cols = this.buffer.getShort(offset + COLS_OFFSET);
+    if (row < 0 || row >= rows || col < 0 || col >= cols) return false;
+
+    int bit = row * cols + col;
+    long word = this.buffer.getLong(offset + RECORD_HEADER_SIZE + 8 * (bit >>> 6));
+    return (word & (1L << (bit & 63))) == 0;
+  }
+
+  /**
+   * Gets no. of unoccupied seats, counted directly off the packed seat map. Blocked seats belong to the cinema hall
+   * layout and are not known to the snapshot.
+   *
+   * @param idx the idx
+   * @return the available seat count
+   */
+  public int getAvailableSeatCount(int idx) {
+    int offset = this.offset(idx);
+    int rows = this.buffer.getShort(offset + ROWS_OFFSET);
+    int cols = this.buffer.getShort(offset + COLS_OFFSET);
+
+    int occupied = 0;
+    for (int w = 0; w < wordCount(rows, cols); w++) {
+      occupied += Long.bitCount(this.buffer.getLong(offset + RECORD_HEADER_SIZE + 8 * w));
+    }
+    return rows * cols - occupied;
+  }
+
+  /**
+   * Decodes a single showtime.
+   *
+   * @param idx the idx
+   * @return the showtime
+   */
+//+ get(idx:int):Showtime
+  public Showtime get(int idx) {
+    int offset = this.offset(idx);
+    int rows = this.buffer.getShort(offset + ROWS_OFFSET);
+    int cols = this.buffer.getShort(offset + COLS_OFFSET);
+
+    long[] words = new long[wordCount(rows, cols)];
+    for (int w = 0; w < words.length; w++) words[w] = this.buffer.getLong(offset + RECORD_HEADER_SIZE + 8 * w);
+    SeatMap seats = SeatMap.fromWords(rows, cols, words);
+
+    return new Showtime(this.getId(idx), this.getCinemaId(idx), this.getMovieId(idx), this.getDatetime(idx), this.getType(idx), seats);
+  }
+
+  /**
+   * Decodes all showtimes.
+   *
+   * @return the showtimes
+   */
+//+ readAll():List<Showtime>
+  public List<Showtime> readAll() {
+    List<Showtime> showtimes = new ArrayList<Showtime>(this.count);
+    for (int i = 0; i < this.count; i++) showtimes.add(this.get(i));
+    return showtimes;
+  }
+
+  @Override
+  public void close() {
+    // Mapping is released once the buffer is no longer reachable
+  }
+}
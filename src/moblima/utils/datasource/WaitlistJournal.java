@@ -0,0 +1,218 @@
+package moblima.utils.datasource;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import moblima.entities.WaitlistEntry;
+import moblima.utils.Helper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of waitlists<br/>
+ * <p>
+ * Joining and leaving a waitlist are each appended as a single JSON line, so the queues survive restarts without
+ * rewriting them on every change. Replaying the journal in order restores every queue in the order it was joined.
+ * Once enough entries have left, the journal is rewritten with only the entries still waiting.
+ */
+public class WaitlistJournal {
+  /**
+   * Journal file name
+   */
+  public static final String JOURNAL_FILE = "waitlist.journal";
+  /**
+   * Default no. of left entries before compaction
+   */
+  public static final int DEFAULT_COMPACTION_THRESHOLD = 50;
+  /**
+   * Compact (single-line) record serializer
+   */
+  private static final Gson gson = new GsonBuilder().create();
+
+  /**
+   * No. of left entries before compaction is due
+   */
+  private final int compactionThreshold;
+  /**
+   * No. of left entries in the journal
+   */
+  private int leftCount = 0;
+
+  /**
+   * Instantiates a new Waitlist journal.
+   */
+  public WaitlistJournal() {
+    this(DEFAULT_COMPACTION_THRESHOLD);
+  }
+
+  /**
+   * Instantiates a new Waitlist journal.
+   *
+   * @param compactionThreshold the compaction threshold
+   */
+  public WaitlistJournal(int compactionThreshold) {
+    this.compactionThreshold = Math.max(1, compactionThreshold);
+  }
+
+  /**
+   * Replays the journal.
+   *
+   * @return the entries still waiting, in the order they joined
+   */
+//+ replay():List<WaitlistEntry>
+  public synchronized List<WaitlistEntry> replay() {
+    Map<String, WaitlistEntry> entries = new LinkedHashMap<String, WaitlistEntry>();
+    this.leftCount = 0;
+
+    File file = new File(Datasource.DATA_DIR + JOURNAL_FILE);
+    if (!file.exists()) return new ArrayList<WaitlistEntry>();
+
+    Datasource.recordRead();
+    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) continue;
+        try {
+          Record record = gson.fromJson(line, Record.class);
+          if (record == null || record.op == null || record.entry == null) continue;
+          if (record.op == Op.JOIN) {
+            entries.put(record.entry.getId(), record.entry);
+          } else {
+            entries.remove(record.entry.getId());
+            this.leftCount++;
+          }
+        } catch (JsonParseException e) {
+          // Torn write at the tail of the journal, skip record
+          Helper.logger("WaitlistJournal.replay", "Skipped malformed record: " + line);
+        }
+      }
+    } catch (IOException e) {
+      Helper.logger("WaitlistJournal.replay", e.getMessage());
+    }
+
+    Helper.logger("WaitlistJournal.replay", "Replayed " + entries.size() + " waitlist entries from " + JOURNAL_FILE);
+    return new ArrayList<WaitlistEntry>(entries.values());
+  }
+
+  /**
+   * Appends a joined entry to the journal.
+   *
+   * @param entry the entry
+   * @return the boolean
+   */
+//+ join(entry:WaitlistEntry):boolean
+  public synchronized boolean join(WaitlistEntry entry) {
+    return this.append(new Record(Op.JOIN, entry));
+  }
+
+  /**
+   * Appends a left entry to the journal.
+   *
+   * @param entry the entry
+   * @return the boolean
+   */
+//+ leave(entry:WaitlistEntry):boolean
+  public synchronized boolean leave(WaitlistEntry entry) {
+    boolean isAppended = this.append(new Record(Op.LEAVE, entry));
+    if (isAppended) this.leftCount++;
+    return isAppended;
+  }
+
+  private boolean append(Record record) {
+    File file = new File(Datasource.DATA_DIR + JOURNAL_FILE);
+    file.getParentFile().mkdirs();
+
+    Datasource.recordWrite();
+    try (FileWriter writer = new FileWriter(file, true)) {
+      writer.write(gson.toJson(record));
+      writer.write(System.lineSeparator());
+    } catch (IOException e) {
+      Helper.logger("WaitlistJournal.append", e.getMessage());
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Check if compaction is due.
+   *
+   * @return the boolean
+   */
+  public synchronized boolean isCompactionDue() {
+    return this.leftCount >= this.compactionThreshold;
+  }
+
+  /**
+   * Rewrites the journal with only the entries still waiting.
+   *
+   * @param entries the entries still waiting, in the order they joined
+   * @return the boolean
+   */
+//+ compact(entries:Collection<WaitlistEntry>):boolean
+  public synchronized boolean compact(Collection<WaitlistEntry> entries) {
+    Path path = Paths.get(Datasource.DATA_DIR + JOURNAL_FILE);
+    Path tempPath = Paths.get(Datasource.DATA_DIR + JOURNAL_FILE + ".tmp");
+    Datasource.recordWrite();
+
+    // Journal is only replaced once the rewrite is complete
+    try {
+      Files.createDirectories(path.getParent());
+      try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+        for (WaitlistEntry entry : entries) {
+          writer.write(gson.toJson(new Record(Op.JOIN, entry)));
+          writer.newLine();
+        }
+      }
+
+      try {
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      Helper.logger("WaitlistJournal.compact", e.getMessage());
+      return false;
+    }
+
+    this.leftCount = 0;
+    Helper.logger("WaitlistJournal.compact", "Compacted " + JOURNAL_FILE + " to " + entries.size() + " waitlist entries");
+    return true;
+  }
+
+  /**
+   * Journal operation
+   */
+  private enum Op {
+    JOIN,
+    LEAVE
+  }
+
+  /**
+   * Journal record
+   */
+  private static class Record {
+    private final Op op;
+    private final WaitlistEntry entry;
+
+    private Record(Op op, WaitlistEntry entry) {
+      this.op = op;
+      this.entry = entry;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package moblima.utils.deserializers;
+
+import moblima.entities.Booking;
+import moblima.entities.Booking.TicketType;
+import moblima.utils.Money;
+import moblima.utils.datasource.CsvRecord;
+import org.apache.commons.lang3.EnumUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Booking codec.
+ */
+public class BookingCodec implements CsvDeserializer<Booking>, CsvSerializer<Booking> {
+  private static final String[] columns = {"transactionId", "customerId", "cinemaId", "movieId", "showtimeId", "seats", "totalPrice", "type"};
+
+  /**
+   * Parses seat codes of the format <code>[[row,col],...]</code>
+   *
+   * @param value the value
+   * @return the seat codes
+   */
+  public static List<int[]> parseSeats(String value) {
+    List<int[]> seats = new ArrayList<int[]>();
+    int[] seat = new int[2];
+    int valueIdx = 0;
+    int depth = 0;
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '[') {
+        depth++;
+        valueIdx = 0;
+        seat = new int[2];
+      } else if (c == ']') {
+        if (depth == 2 && valueIdx == 2) seats.add(seat);
+        depth--;
+      } else if (Character.isDigit(c)) {
+        int number = 0;
+        while (i < value.length() && Character.isDigit(value.charAt(i))) number = number * 10 + (value.charAt(i++) - '0');
+        i--;
+        if (valueIdx < 2) seat[valueIdx] = number;
+        valueIdx++;
+      }
+    }
+
+    return seats;
+  }
+
+  @Override
+  public Booking deserialize(CsvRecord record) {
+    String transactionId = record.get("transactionId");
+    String customerId = record.get("customerId");
+    int cinemaId = record.getInt("cinemaId");
+    int movieId = record.getInt("movieId");
+    String showtimeId = record.get("showtimeId");
+    long totalPrice = record.getCents("totalPrice");
+
+    /// Seats
+    List<int[]> seats = parseSeats(record.get("seats"));
+
+    String type = record.get("type");
+    boolean isValidType = EnumUtils.isValidEnum(TicketType.class, type);
+    if (!isValidType) return null;
+    TicketType ticketType = TicketType.valueOf(type);
+
+    return new Booking(transactionId, customerId, cinemaId, movieId, showtimeId, seats, totalPrice, ticketType);
+  }
+
+  /**
+   * Formats seat codes as <code>[[row,col],...]</code>
+   *
+   * @param seats the seats
+   * @return the value
+   */
+  public static String formatSeats(List<int[]> seats) {
+    StringBuilder value = new StringBuilder("[");
+    for (int i = 0; i < seats.size(); i++) {
+      if (i > 0) value.append(',');
+      value.append('[').append(seats.get(i)[0]).append(',').append(seats.get(i)[1]).append(']');
+    }
+    return value.append(']').toString();
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Booking booking) {
+    return new String[]{
+        booking.getTransactionId(),
+        booking.getCustomerId(),
+        String.valueOf(booking.getCinemaId()),
+        String.valueOf(booking.getMovieId()),
+        booking.getShowtimeId(),
+        formatSeats(booking.getSeats()),
+        Money.toPlainString(booking.getTotalPrice()),
+        booking.getType().name()
+    };
+  }
+}
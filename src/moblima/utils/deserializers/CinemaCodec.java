@@ -0,0 +1,50 @@
+package moblima.utils.deserializers;
+
+import moblima.entities.Cinema;
+import moblima.entities.Cinema.ClassType;
+import moblima.entities.HallLayout;
+import moblima.entities.Showtime;
+import moblima.utils.datasource.CsvRecord;
+import org.apache.commons.lang3.EnumUtils;
+
+import java.util.ArrayList;
+
+/**
+ * The type Cinema codec.
+ */
+public class CinemaCodec implements CsvDeserializer<Cinema>, CsvSerializer<Cinema> {
+  private static final String[] columns = {"id", "classType", "cineplexCode", "layout"};
+  @Override
+  public Cinema deserialize(CsvRecord record) {
+    int id = record.getInt("id");
+    String cineplexCode = record.get("cineplexCode");
+
+    /// ClassType
+    String classTypeStr = record.get("classType");
+    boolean isValidType = EnumUtils.isValidEnum(ClassType.class, classTypeStr);
+    if (!isValidType) return null;
+    ClassType classType = ClassType.valueOf(classTypeStr);
+
+    /// Layout (default layout if absent)
+    HallLayout layout = record.has("layout") ? HallLayout.parse(record.get("layout")) : null;
+    if (layout == null) layout = HallLayout.DEFAULT;
+
+    /// Showtimes (empty by default)
+    return new Cinema(id, classType, new ArrayList<Showtime>(), cineplexCode, layout);
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Cinema cinema) {
+    return new String[]{
+        String.valueOf(cinema.getId()),
+        cinema.getClassType().name(),
+        cinema.getCineplexCode(),
+        cinema.getLayout().format()
+    };
+  }
+}
@@ -0,0 +1,18 @@
+package moblima.utils.deserializers;
+
+import moblima.utils.datasource.CsvRecord;
+
+/**
+ * Decodes a single CSV record straight into an entity
+ *
+ * @param <T> the entity type
+ */
+public interface CsvDeserializer<T> {
+  /**
+   * Deserialize record.
+   *
+   * @param record the record
+   * @return the entity, null if the record should be skipped
+   */
+  T deserialize(CsvRecord record);
+}
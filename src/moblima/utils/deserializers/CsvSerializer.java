@@ -0,0 +1,23 @@
+package moblima.utils.deserializers;
+
+/**
+ * Encodes an entity into a single CSV record with a fixed column order
+ *
+ * @param <T> the entity type
+ */
+public interface CsvSerializer<T> {
+  /**
+   * Gets columns, in the order values are serialized.
+   *
+   * @return the columns
+   */
+  String[] columns();
+
+  /**
+   * Serialize entity.
+   *
+   * @param entity the entity
+   * @return the values, aligned with {@link #columns()}
+   */
+  String[] serialize(T entity);
+}
@@ -0,0 +1,27 @@
+package moblima.utils.deserializers;
+
+import moblima.entities.Customer;
+import moblima.utils.datasource.CsvRecord;
+
+/**
+ * The type Customer codec.
+ */
+public class CustomerCodec implements CsvDeserializer<Customer>, CsvSerializer<Customer> {
+  private static final String[] columns = {"id", "name", "contactNumber", "emailAddress"};
+  @Override
+  public Customer deserialize(CsvRecord record) {
+    Customer customer = new Customer(record.get("name"), record.get("contactNumber"), record.get("emailAddress"));
+    customer.setId(record.get("id"));
+    return customer;
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Customer customer) {
+    return new String[]{customer.getId(), customer.getName(), customer.getContactNumber(), customer.getEmailAddress()};
+  }
+}
@@ -0,0 +1,71 @@
+package moblima.utils.deserializers;
+
+import moblima.entities.Movie;
+import moblima.entities.Movie.ContentRating;
+import moblima.entities.Movie.ShowStatus;
+import moblima.utils.datasource.CsvRecord;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static moblima.utils.deserializers.LocalDateDeserializer.dateFormatter;
+
+/**
+ * The type Movie codec.
+ */
+public class MovieCodec implements CsvDeserializer<Movie>, CsvSerializer<Movie> {
+  private static final String[] columns = {"id", "title", "synopsis", "director", "castList", "runtime", "releaseDate", "isBlockbuster", "showStatus", "contentRating", "overallRating"};
+  @Override
+  public Movie deserialize(CsvRecord record) {
+    int id = record.getInt("id");
+    String title = record.get("title");
+    String synopsis = record.get("synopsis");
+    String director = record.get("director");
+    int runtime = record.getInt("runtime");
+    boolean isBlockbuster = record.getBoolean("isBlockbuster");
+
+    String strCastList = StringUtils.substringBetween(record.get("castList"), "[", "]");
+    List<String> castList = (strCastList == null || strCastList.isBlank()) ? new ArrayList<String>() : List.of(strCastList.split(","));
+
+    LocalDate dateRelease = LocalDate.parse(record.get("releaseDate"), dateFormatter);
+
+    String status = record.get("showStatus");
+    boolean isValidStatus = EnumUtils.isValidEnum(ShowStatus.class, status);
+    if (!isValidStatus) return null;
+    ShowStatus showStatus = ShowStatus.valueOf(status);
+
+    String rating = record.get("contentRating");
+    boolean isValidRating = EnumUtils.isValidEnum(ContentRating.class, rating);
+    if (!isValidRating) return null;
+    ContentRating contentRating = ContentRating.valueOf(rating);
+
+    double overallRating = record.getDouble("overallRating");
+
+    return new Movie(id, title, synopsis, director, castList, runtime, dateRelease, isBlockbuster, showStatus, contentRating, overallRating);
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Movie movie) {
+    return new String[]{
+        String.valueOf(movie.getId()),
+        movie.getTitle(),
+        movie.getSynopsis(),
+        movie.getDirector(),
+        "[" + String.join(",", movie.getCastList()) + "]",
+        String.valueOf(movie.getRuntime()),
+        movie.getReleaseDate().format(dateFormatter),
+        String.valueOf(movie.isBlockbuster()),
+        movie.getShowStatus().name(),
+        movie.getContentRating().name(),
+        String.valueOf(movie.getOverallRating())
+    };
+  }
+}
@@ -0,0 +1,39 @@
+package moblima.utils.deserializers;
+
+import moblima.entities.Review;
+import moblima.utils.datasource.CsvRecord;
+
+/**
+ * The type Review codec.
+ */
+public class ReviewCodec implements CsvDeserializer<Review>, CsvSerializer<Review> {
+  private static final String[] columns = {"id", "movieId", "review", "rating", "authorName", "authorId"};
+  @Override
+  public Review deserialize(CsvRecord record) {
+    String id = record.get("id");
+    int movieId = record.getInt("movieId");
+    String review = record.get("review");
+    int rating = record.getInt("rating");
+    String authorName = record.get("authorName");
+    String authorId = record.get("authorId");
+
+    return new Review(id, movieId, review, rating, authorName, authorId);
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Review review) {
+    return new String[]{
+        review.getId(),
+        String.valueOf(review.getMovieId()),
+        review.getReview(),
+        String.valueOf(review.getRating()),
+        review.getAuthorName(),
+        review.getAuthorId()
+    };
+  }
+}
@@ -0,0 +1,125 @@
+package moblima.utils.deserializers;
+
+import com.google.gson.reflect.TypeToken;
+import moblima.entities.Booking.TicketType;
+import moblima.entities.Cinema.ClassType;
+import moblima.entities.Settings;
+import moblima.entities.Settings.RankedType;
+import moblima.entities.Showtime.ShowType;
+import moblima.utils.Money;
+import moblima.utils.datasource.CsvRecord;
+import moblima.utils.datasource.Datasource;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static moblima.utils.deserializers.LocalDateDeserializer.dateFormatter;
+
+/**
+ * The type Settings codec.
+ */
+public class SettingsCodec implements CsvDeserializer<Settings>, CsvSerializer<Settings> {
+  private static final String[] columns = {"adultTicket", "blockbusterSurcharge", "showSurcharges", "ticketSurcharges", "cinemaSurcharges", "rankedTypes", "publicHolidays"};
+  // Surcharges are persisted in dollars, read exactly as BigDecimal
+  private static final Type typeShowSurcharges = new TypeToken<EnumMap<ShowType, BigDecimal>>() {
+  }.getType();
+  private static final Type typeTicketSurcharges = new TypeToken<EnumMap<TicketType, BigDecimal>>() {
+  }.getType();
+  private static final Type typeCinemaSurcharges = new TypeToken<EnumMap<ClassType, BigDecimal>>() {
+  }.getType();
+  private static final Type typeRankedTypes = new TypeToken<EnumMap<RankedType, Boolean>>() {
+  }.getType();
+  private static final Type typePublicHolidays = new TypeToken<ArrayList<LocalDate>>() {
+  }.getType();
+
+  @Override
+  public Settings deserialize(CsvRecord record) {
+    long adultTicket = record.getCents("adultTicket");
+    long blockbusterSurcharge = record.getCents("blockbusterSurcharge");
+
+    EnumMap<ShowType, Long> showSurcharges = toCents(ShowType.class, Datasource.getGson().fromJson(record.get("showSurcharges"), typeShowSurcharges));
+    EnumMap<TicketType, Long> ticketSurcharges = toCents(TicketType.class, Datasource.getGson().fromJson(record.get("ticketSurcharges"), typeTicketSurcharges));
+    EnumMap<ClassType, Long> cinemaSurcharges = toCents(ClassType.class, Datasource.getGson().fromJson(record.get("cinemaSurcharges"), typeCinemaSurcharges));
+    EnumMap<RankedType, Boolean> rankedTypes = Datasource.getGson().fromJson(record.get("rankedTypes"), typeRankedTypes);
+
+    // Public Holidays
+    ArrayList<LocalDate> publicHolidays = Datasource.getGson().fromJson(record.get("publicHolidays"), typePublicHolidays);
+    if (publicHolidays == null) publicHolidays = new ArrayList<LocalDate>();
+
+    return new Settings(adultTicket, blockbusterSurcharge, showSurcharges, ticketSurcharges, cinemaSurcharges, rankedTypes, publicHolidays);
+  }
+
+  private static <K extends Enum<K>> EnumMap<K, Long> toCents(Class<K> keyType, EnumMap<K, BigDecimal> dollars) {
+    EnumMap<K, Long> cents = new EnumMap<K, Long>(keyType);
+    for (Map.Entry<K, BigDecimal> entry : dollars.entrySet()) cents.put(entry.getKey(), Money.parse(entry.getValue().toPlainString()));
+    return cents;
+  }
+
+  /**
+   * Formats an enum map of prices (cents) as <code>{KEY:dollars,...}</code>
+   *
+   * @param map the map
+   * @return the value
+   */
+  public static String formatPrices(Map<? extends Enum<?>, Long> map) {
+    StringBuilder value = new StringBuilder("{");
+    for (Map.Entry<? extends Enum<?>, Long> entry : map.entrySet()) {
+      if (value.length() > 1) value.append(',');
+      Money.appendTo(value.append(entry.getKey().name()).append(':'), entry.getValue());
+    }
+    return value.append('}').toString();
+  }
+
+  /**
+   * Formats an enum map as <code>{KEY:value,...}</code>
+   *
+   * @param map the map
+   * @return the value
+   */
+  public static String formatMap(Map<? extends Enum<?>, ?> map) {
+    StringBuilder value = new StringBuilder("{");
+    for (Map.Entry<? extends Enum<?>, ?> entry : map.entrySet()) {
+      if (value.length() > 1) value.append(',');
+      value.append(entry.getKey().name()).append(':').append(entry.getValue());
+    }
+    return value.append('}').toString();
+  }
+
+  /**
+   * Formats a list of dates as <code>[dd-MM-yyyy,...]</code>
+   *
+   * @param dates the dates
+   * @return the value
+   */
+  public static String formatDates(List<LocalDate> dates) {
+    StringBuilder value = new StringBuilder("[");
+    for (int i = 0; i < dates.size(); i++) {
+      if (i > 0) value.append(',');
+      value.append(dates.get(i).format(dateFormatter));
+    }
+    return value.append(']').toString();
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Settings settings) {
+    return new String[]{
+        Money.toPlainString(settings.getAdultTicket()),
+        Money.toPlainString(settings.getBlockbusterSurcharge()),
+        formatPrices(settings.getShowSurcharges()),
+        formatPrices(settings.getTicketSurcharges()),
+        formatPrices(settings.getCinemaSurcharges()),
+        formatMap(settings.getRankedTypes()),
+        formatDates(settings.getPublicHolidays())
+    };
+  }
+}
@@ -0,0 +1,116 @@
+package moblima.utils.deserializers;
+
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.entities.Showtime.ShowType;
+import moblima.utils.datasource.CsvRecord;
+import org.apache.commons.lang3.EnumUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static moblima.utils.deserializers.LocalDateTimeDeserializer.dateTimeFormatter;
+
+/**
+ * The type Showtime codec.
+ */
+public class ShowtimeCodec implements CsvDeserializer<Showtime>, CsvSerializer<Showtime> {
+  private static final String[] columns = {"id", "cinemaId", "movieId", "datetime", "type", "seats"};
+
+  /**
+   * Parses a seat grid of the format <code>[[true,false,...],...]</code>
+   *
+   * @param value the value
+   * @return the seat map, empty if value holds no rows
+   */
+  public static SeatMap parseSeats(String value) {
+    List<boolean[]> rows = new ArrayList<boolean[]>();
+    boolean[] row = new boolean[16];
+    int colCount = 0;
+    int depth = 0;
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '[' -> {
+          depth++;
+          colCount = 0;
+        }
+        case ']' -> {
+          if (depth == 2) rows.add(Arrays.copyOf(row, colCount));
+          depth--;
+        }
+        case 't', 'f' -> {
+          if (colCount == row.length) row = Arrays.copyOf(row, row.length * 2);
+          row[colCount++] = (c == 't');
+          // Skip remainder of literal
+          while (i + 1 < value.length() && Character.isLetter(value.charAt(i + 1))) i++;
+        }
+        default -> {
+        }
+      }
+    }
+
+    return SeatMap.fromArray(rows.toArray(new boolean[0][]));
+  }
+
+  @Override
+  public Showtime deserialize(CsvRecord record) {
+    String id = record.get("id");
+    int cinemaId = record.getInt("cinemaId");
+    int movieId = record.getInt("movieId");
+    LocalDateTime dateTime = LocalDateTime.parse(record.get("datetime"), dateTimeFormatter);
+
+    /// ShowType
+    String showType = record.get("type");
+    boolean isValidStatus = EnumUtils.isValidEnum(ShowType.class, showType);
+    if (!isValidStatus) return null;
+    ShowType type = ShowType.valueOf(showType);
+
+    /// Seats (default layout if absent)
+    SeatMap seats = parseSeats(record.get("seats"));
+    if (seats.getSeatCount() < 1) return new Showtime(id, cinemaId, movieId, dateTime, type);
+
+    return new Showtime(id, cinemaId, movieId, dateTime, type, seats);
+  }
+
+  /**
+   * Formats a seat grid as <code>[[true,false,...],...]</code>
+   *
+   * @param seats the seats
+   * @return the value
+   */
+  public static String formatSeats(SeatMap seats) {
+    StringBuilder value = new StringBuilder("[");
+    for (int row = 0; row < seats.getRowCount(); row++) {
+      if (row > 0) value.append(',');
+      value.append('[');
+      for (int col = 0; col < seats.getColCount(); col++) {
+        if (col > 0) value.append(',');
+        // Holds are never persisted
+        value.append(seats.isValid(row, col) && !seats.isBooked(row, col));
+      }
+      value.append(']');
+    }
+    return value.append(']').toString();
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Showtime showtime) {
+    return new String[]{
+        showtime.getId(),
+        String.valueOf(showtime.getCinemaId()),
+        String.valueOf(showtime.getMovieId()),
+        showtime.getDatetime().format(dateTimeFormatter),
+        showtime.getType().name(),
+        formatSeats(showtime.getSeats())
+    };
+  }
+}
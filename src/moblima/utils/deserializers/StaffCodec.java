@@ -0,0 +1,27 @@
+package moblima.utils.deserializers;
+
+import moblima.entities.Staff;
+import moblima.utils.datasource.CsvRecord;
+
+/**
+ * The type Staff codec.
+ */
+public class StaffCodec implements CsvDeserializer<Staff>, CsvSerializer<Staff> {
+  private static final String[] columns = {"id", "name", "username", "password"};
+  @Override
+  public Staff deserialize(CsvRecord record) {
+    Staff staff = new Staff(record.get("name"), record.get("username"), record.get("password"));
+    staff.setId(record.get("id"));
+    return staff;
+  }
+
+  @Override
+  public String[] columns() {
+    return columns;
+  }
+
+  @Override
+  public String[] serialize(Staff staff) {
+    return new String[]{staff.getId(), staff.getName(), staff.getUsername(), staff.getPassword()};
+  }
+}
@@ -0,0 +1,125 @@
+package moblima.utils.services.booking;
+
+import moblima.entities.SeatMap;
+import moblima.utils.Helper;
+import moblima.utils.services.holds.SeatHoldService;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Booking engine<br/>
+ * <p>
+ * Books seats of showtimes safely from any no. of threads. Seats are claimed by compare-and-set on the seat map, so a
+ * conflicting claim fails immediately rather than queueing behind the winner. Once claimed, the booking is committed
+ * under a lock striped by showtime id, so commits on different showtimes proceed in parallel while commits on the
+ * same showtime are applied one at a time.
+ */
+public class BookingEngine {
+  /**
+   * Default no. of lock stripes
+   */
+  public static final int DEFAULT_STRIPES = 64;
+  /**
+   * Singleton instance of BookingEngine
+   */
+  private static BookingEngine _instance = null;
+
+  private final ReentrantLock[] stripes;
+
+  /**
+   * Instantiates a new Booking engine.
+   *
+   * @param stripeCount the no. of lock stripes
+   */
+  public BookingEngine(int stripeCount) {
+    this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+    for (int i = 0; i < this.stripes.length; i++) this.stripes[i] = new ReentrantLock();
+  }
+
+  /**
+   * Retrieves instance of BookingEngine
+   *
+   * @return instance :current BookingEngine instance
+   */
+  public static synchronized BookingEngine getInstance() {
+    if (_instance == null) _instance = new BookingEngine(DEFAULT_STRIPES);
+    return _instance;
+  }
+
+  /**
+   * Gets the lock guarding commits of a showtime.
+   *
+   * @param showtimeId the showtime id
+   * @return the lock
+   */
+  public ReentrantLock getLock(String showtimeId) {
+    // Spread the hash, so ids differing only in their high bits land on different stripes
+    int hash = showtimeId.hashCode();
+    hash ^= (hash >>> 16);
+    return this.stripes[(hash & 0x7fffffff) % this.stripes.length];
+  }
+
+  /**
+   * Books seats of a showtime. Seats held by the owner are taken over, any other seat is claimed afresh.
+   *
+   * @param ownerId    the hold owner id
+   * @param showtimeId the showtime id
+   * @param seats      the seats of the showtime, null if showtime does not exist
+   * @param seatCodes  the seat codes to book
+   * @param commit     records the booking once the seats are claimed, false to undo the claim
+   * @return the result
+   */
+//+ book(ownerId:String, showtimeId:String, seats:SeatMap, seatCodes:List<int[]>, commit:BooleanSupplier):Result
+  public Result book(String ownerId, String showtimeId, SeatMap seats, List<int[]> seatCodes, BooleanSupplier commit) {
+    if (seats == null) return Result.SHOWTIME_NOT_FOUND;
+
+    long[] mask = seats.mask(seatCodes);
+    if (mask == null || seatCodes.isEmpty()) return Result.INVALID_SEATS;
+
+    // Claimed without locking, a seat already claimed by another booking fails fast
+    if (!SeatHoldService.getInstance().confirm(ownerId, showtimeId, seats, seatCodes)) return Result.SEATS_TAKEN;
+
+    ReentrantLock lock = this.getLock(showtimeId);
+    lock.lock();
+    try {
+      if (commit.getAsBoolean()) return Result.BOOKED;
+    } catch (RuntimeException e) {
+      Helper.logger("BookingEngine.book", "Commit failed: " + e.getMessage());
+    } finally {
+      lock.unlock();
+    }
+
+    // Return the claimed seats, nobody else can have claimed them meanwhile
+    seats.bulkAssign(mask, true);
+    SeatHoldService.getInstance().notifyRelease(showtimeId, seats);
+    return Result.FAILED;
+  }
+
+  /**
+   * The enum Result.
+   */
+  public enum Result {
+    /**
+     * Seats were booked.
+     */
+    BOOKED,
+    /**
+     * Showtime does not exist.
+     */
+    SHOWTIME_NOT_FOUND,
+    /**
+     * Some seat does not exist.
+     */
+    INVALID_SEATS,
+    /**
+     * Some seat was booked or held by someone else.
+     */
+    SEATS_TAKEN,
+    /**
+     * Booking could not be recorded.
+     */
+    FAILED
+  }
+}
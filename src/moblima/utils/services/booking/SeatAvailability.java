@@ -0,0 +1,235 @@
+package moblima.utils.services.booking;
+
+import moblima.entities.Cinema;
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seat availability rollups<br/>
+ * <p>
+ * Running seat counts per movie, cinema and cineplex, summed over the showtimes tracked. Each tracked showtime reports
+ * every change of its seat counts as it happens, so reading a rollup is O(1) rather than a rescan of every seat of
+ * every showtime.
+ */
+public class SeatAvailability {
+  /**
+   * Singleton instance of SeatAvailability
+   */
+  private static SeatAvailability _instance = null;
+
+  private final Map<String, TrackedShowtime> showtimes = new ConcurrentHashMap<String, TrackedShowtime>();
+  private final Map<Integer, Counts> movies = new ConcurrentHashMap<Integer, Counts>();
+  private final Map<Integer, Counts> cinemas = new ConcurrentHashMap<Integer, Counts>();
+  private final Map<String, Counts> cineplexes = new ConcurrentHashMap<String, Counts>();
+
+  private SeatAvailability() {
+  }
+
+  /**
+   * Retrieves instance of SeatAvailability
+   *
+   * @return instance :current SeatAvailability instance
+   */
+  public static synchronized SeatAvailability getInstance() {
+    if (_instance == null) _instance = new SeatAvailability();
+    return _instance;
+  }
+
+  /**
+   * Tracks the seats of a showtime under its movie, cinema and cineplex. Tracking a showtime again moves it to its
+   * current seats, movie and cinema.
+   *
+   * @param showtime the showtime
+   * @param cinema   the cinema hosting the showtime, null if not linked
+   */
+//+ track(showtime:Showtime, cinema:Cinema):void
+  public void track(Showtime showtime, Cinema cinema) {
+    this.track(showtime, (cinema == null) ? null : cinema.getCineplexCode());
+  }
+
+  /**
+   * Tracks the current seats and movie of a showtime, keeping the cineplex it is tracked under.
+   *
+   * @param showtime the showtime
+   */
+//+ track(showtime:Showtime):void
+  public synchronized void track(Showtime showtime) {
+    TrackedShowtime tracked = this.showtimes.get(showtime.getId());
+    this.track(showtime, (tracked == null) ? null : tracked.cineplexCode);
+  }
+
+  private synchronized void track(Showtime showtime, String cineplexCode) {
+    TrackedShowtime tracked = this.showtimes.get(showtime.getId());
+    if (tracked != null && tracked.isTracking(showtime, cineplexCode)) return;
+    if (tracked != null) tracked.detach();
+
+    tracked = new TrackedShowtime(showtime.getSeats(), showtime.getMovieId(), showtime.getCinemaId(), cineplexCode);
+    tracked.attach();
+    this.showtimes.put(showtime.getId(), tracked);
+  }
+
+  /**
+   * Stops tracking a showtime.
+   *
+   * @param showtimeId the showtime id
+   */
+//+ untrack(showtimeId:String):void
+  public synchronized void untrack(String showtimeId) {
+    TrackedShowtime tracked = this.showtimes.remove(showtimeId);
+    if (tracked != null) tracked.detach();
+  }
+
+  /**
+   * Gets seat counts of every showtime of a movie.
+   *
+   * @param movieId the movie id
+   * @return the counts
+   */
+  public Counts getMovieCounts(int movieId) {
+    return this.movies.getOrDefault(movieId, Counts.EMPTY);
+  }
+
+  /**
+   * Gets seat counts of every showtime of a cinema.
+   *
+   * @param cinemaId the cinema id
+   * @return the counts
+   */
+  public Counts getCinemaCounts(int cinemaId) {
+    return this.cinemas.getOrDefault(cinemaId, Counts.EMPTY);
+  }
+
+  /**
+   * Gets seat counts of every showtime of a cineplex.
+   *
+   * @param cineplexCode the cineplex code
+   * @return the counts
+   */
+  public Counts getCineplexCounts(String cineplexCode) {
+    return this.cineplexes.getOrDefault(cineplexCode, Counts.EMPTY);
+  }
+
+  /**
+   * Running seat counts
+   */
+  public static class Counts {
+    private static final Counts EMPTY = new Counts();
+
+    private final AtomicInteger showtimeCount = new AtomicInteger();
+    private final AtomicInteger seatCount = new AtomicInteger();
+    private final AtomicInteger bookedCount = new AtomicInteger();
+    private final AtomicInteger heldCount = new AtomicInteger();
+
+    /**
+     * Gets no. of showtimes.
+     *
+     * @return the showtime count
+     */
+    public int getShowtimeCount() {
+      return showtimeCount.get();
+    }
+
+    /**
+     * Gets seat count, excluding blocked seats.
+     *
+     * @return the seat count
+     */
+    public int getSeatCount() {
+      return seatCount.get();
+    }
+
+    /**
+     * Gets sold seat count.
+     *
+     * @return the booked count
+     */
+    public int getBookedCount() {
+      return bookedCount.get();
+    }
+
+    /**
+     * Gets held seat count.
+     *
+     * @return the held count
+     */
+    public int getHeldCount() {
+      return heldCount.get();
+    }
+
+    /**
+     * Gets available seat count, neither booked nor held.
+     *
+     * @return the available count
+     */
+    public int getAvailableCount() {
+      return this.getSeatCount() - this.getBookedCount() - this.getHeldCount();
+    }
+
+    /**
+     * Check if every seat is booked or held.
+     *
+     * @return the boolean
+     */
+    public boolean isSoldOut() {
+      return this.getAvailableCount() <= 0;
+    }
+
+    private void add(int showtimeDelta, int seatDelta, int bookedDelta, int heldDelta) {
+      this.showtimeCount.addAndGet(showtimeDelta);
+      this.seatCount.addAndGet(seatDelta);
+      this.bookedCount.addAndGet(bookedDelta);
+      this.heldCount.addAndGet(heldDelta);
+    }
+
+    @Override
+    public String toString() {
+      return this.getAvailableCount() + "/" + this.getSeatCount() + " available";
+    }
+  }
+
+  /**
+   * Seats of a showtime, reporting count changes to the rollups it is tracked under
+   */
+  private class TrackedShowtime implements SeatMap.Listener {
+    private final SeatMap seats;
+    private final int movieId;
+    private final int cinemaId;
+    private final String cineplexCode;
+
+    private TrackedShowtime(SeatMap seats, int movieId, int cinemaId, String cineplexCode) {
+      this.seats = seats;
+      this.movieId = movieId;
+      this.cinemaId = cinemaId;
+      this.cineplexCode = cineplexCode;
+    }
+
+    private boolean isTracking(Showtime showtime, String cineplexCode) {
+      return this.seats == showtime.getSeats() && this.movieId == showtime.getMovieId() && this.cinemaId == showtime.getCinemaId() && (this.cineplexCode == null ? cineplexCode == null : this.cineplexCode.equals(cineplexCode));
+    }
+
+    private void attach() {
+      this.add(1, this.seats.getSeatCount(), 0, 0);
+      this.seats.attach(this);
+    }
+
+    private void detach() {
+      this.seats.detach(this);
+      this.add(-1, -this.seats.getSeatCount(), 0, 0);
+    }
+
+    @Override
+    public void onSeatCountChange(int bookedDelta, int heldDelta) {
+      this.add(0, 0, bookedDelta, heldDelta);
+    }
+
+    private void add(int showtimeDelta, int seatDelta, int bookedDelta, int heldDelta) {
+      movies.computeIfAbsent(this.movieId, id -> new Counts()).add(showtimeDelta, seatDelta, bookedDelta, heldDelta);
+      cinemas.computeIfAbsent(this.cinemaId, id -> new Counts()).add(showtimeDelta, seatDelta, bookedDelta, heldDelta);
+      if (this.cineplexCode != null) cineplexes.computeIfAbsent(this.cineplexCode, code -> new Counts()).add(showtimeDelta, seatDelta, bookedDelta, heldDelta);
+    }
+  }
+}
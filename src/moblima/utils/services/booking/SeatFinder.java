@@ -0,0 +1,185 @@
+package moblima.utils.services.booking;
+
+import moblima.entities.HallLayout;
+import moblima.entities.SeatMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Best available seat finder<br/>
+ * <p>
+ * Finds the best available block of seats of a showtime, side by side in a single row without crossing an aisle,
+ * closest to the centre of the hall. Each row is scanned as packed 64-seat words: the starts of every run of
+ * <code>N</code> free, adjacent seats are found with <code>O(log N)</code> shift-and-mask steps per word, rather than
+ * by walking the seats. Groups which no single run can seat are split into the fewest blocks, largest first.
+ */
+public class SeatFinder {
+  private SeatFinder() {
+  }
+
+  /**
+   * Finds the best available seats, side by side if possible, split across blocks otherwise.
+   *
+   * @param seats the seats of the showtime
+   * @param count the no. of seats
+   * @return the seat codes, null if fewer seats are available
+   */
+//+ findBest(seats:SeatMap, count:int):List<int[]>
+  public static List<int[]> findBest(SeatMap seats, int count) {
+    if (count < 1 || seats.getAvailableCount() < count) return null;
+
+    int cols = seats.getColCount();
+    long[][] free = rows(seats);
+    long[] adjacent = adjacency(seats.getLayout());
+
+    List<int[]> seatCodes = new ArrayList<int[]>();
+    int remaining = count;
+    while (remaining > 0) {
+      // Largest block still fitting the group, so it is split as little as possible
+      int[] run = null;
+      int size = Math.min(remaining, cols);
+      while (size > 0 && (run = findRun(free, adjacent, size, cols)) == null) size--;
+      if (run == null) return null;
+
+      for (int col = run[1]; col < run[1] + size; col++) {
+        seatCodes.add(new int[]{run[0], col});
+        free[run[0]][col >>> 6] &= ~(1L << col);
+      }
+      remaining -= size;
+    }
+    return seatCodes;
+  }
+
+  /**
+   * Finds the best available seats, side by side in a single row.
+   *
+   * @param seats the seats of the showtime
+   * @param count the no. of seats
+   * @return the seat codes, null if no row has as many free seats side by side
+   */
+//+ findContiguous(seats:SeatMap, count:int):List<int[]>
+  public static List<int[]> findContiguous(SeatMap seats, int count) {
+    if (count < 1 || count > seats.getColCount()) return null;
+
+    int[] run = findRun(rows(seats), adjacency(seats.getLayout()), count, seats.getColCount());
+    if (run == null) return null;
+
+    List<int[]> seatCodes = new ArrayList<int[]>();
+    for (int col = run[1]; col < run[1] + count; col++) seatCodes.add(new int[]{run[0], col});
+    return seatCodes;
+  }
+
+  /**
+   * Finds the run of free, adjacent seats closest to the centre of the hall.
+   *
+   * @return the row and first col of the run, null if none
+   */
+  private static int[] findRun(long[][] free, long[] adjacent, int count, int cols) {
+    int rows = free.length;
+    int[] best = null;
+    long bestScore = Long.MAX_VALUE;
+
+    for (int row = 0; row < rows; row++) {
+      long[] starts = runStarts(free[row], adjacent, count);
+
+      // Distances are doubled, so the centre of an even no. of seats stays integral
+      long rowOffset = 2L * row - (rows - 1);
+      for (int w = 0; w < starts.length; w++) {
+        long word = starts[w];
+        while (word != 0) {
+          int col = (w << 6) + Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+
+          long colOffset = 2L * col + count - 1 - (cols - 1);
+          long score = colOffset * colOffset + rowOffset * rowOffset;
+          if (score < bestScore) {
+            bestScore = score;
+            best = new int[]{row, col};
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Gets the starts of every run of free, adjacent seats in a row, by binary exponentiation of the run length: a run
+   * of <code>a + b</code> seats is a run of <code>a</code> seats linked to a run of <code>b</code> seats after it.
+   */
+  private static long[] runStarts(long[] free, long[] adjacent, int count) {
+    long[] starts = null;
+    int startsLength = 0;
+    long[] power = free;
+    int powerLength = 1;
+
+    for (int n = count; n > 0; n >>>= 1) {
+      if ((n & 1) != 0) {
+        starts = (starts == null) ? power : join(starts, startsLength, power, adjacent);
+        startsLength += powerLength;
+      }
+      if (n > 1) {
+        power = join(power, powerLength, power, adjacent);
+        powerLength <<= 1;
+      }
+    }
+    return starts;
+  }
+
+  private static long[] join(long[] head, int headLength, long[] tail, long[] adjacent) {
+    long[] linked = shiftRight(adjacent, headLength - 1);
+    long[] following = shiftRight(tail, headLength);
+
+    long[] joined = new long[head.length];
+    for (int w = 0; w < head.length; w++) joined[w] = head[w] & linked[w] & following[w];
+    return joined;
+  }
+
+  private static long[] shiftRight(long[] words, int shift) {
+    long[] shifted = new long[words.length];
+    int wordShift = shift >>> 6;
+    int bitShift = shift & 63;
+    for (int w = 0; w + wordShift < words.length; w++) {
+      shifted[w] = words[w + wordShift] >>> bitShift;
+      if (bitShift > 0 && w + wordShift + 1 < words.length) shifted[w] |= words[w + wordShift + 1] << (64 - bitShift);
+    }
+    return shifted;
+  }
+
+  /**
+   * Gets the free seats of each row, a set bit per column.
+   */
+  private static long[][] rows(SeatMap seats) {
+    long[] words = seats.getAvailableWords();
+    int cols = seats.getColCount();
+    int rowWords = (cols + 63) >>> 6;
+
+    long[][] rows = new long[seats.getRowCount()][rowWords];
+    for (int row = 0; row < rows.length; row++) {
+      for (int w = 0; w < rowWords; w++) {
+        int bit = row * cols + (w << 6);
+        int word = bit >>> 6;
+        int offset = bit & 63;
+
+        long value = words[word] >>> offset;
+        if (offset > 0 && word + 1 < words.length) value |= words[word + 1] << (64 - offset);
+
+        int tail = cols - (w << 6);
+        rows[row][w] = (tail >= 64) ? value : value & ((1L << tail) - 1);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Gets the columns seated next to the following column, a set bit per column. Aisles break adjacency.
+   */
+  private static long[] adjacency(HallLayout layout) {
+    int cols = layout.getColCount();
+    long[] adjacent = new long[(cols + 63) >>> 6];
+    for (int col = 0; col + 1 < cols; col++) {
+      if (!layout.isAisle(col + 1)) adjacent[col >>> 6] |= 1L << col;
+    }
+    return adjacent;
+  }
+}
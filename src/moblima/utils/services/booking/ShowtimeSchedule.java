@@ -0,0 +1,289 @@
+package moblima.utils.services.booking;
+
+import moblima.entities.Showtime;
+import moblima.utils.Constants;
+import moblima.utils.Helper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Showtime schedule<br/>
+ * <p>
+ * Keeps the screenings of every cinema as intervals, from the start of a showtime to the end of its movie plus the
+ * cleaning buffer before the hall can be let in again. Each cinema has its own interval tree, so checking a new or
+ * moved showtime against its cinema takes O(log n) rather than a scan of every showtime. Intervals are half-open, a
+ * showtime may start as soon as the previous one is cleaned.
+ */
+public class ShowtimeSchedule {
+  /**
+   * Default cleaning buffer between showtimes (min)
+   */
+  public static final long DEFAULT_CLEANING_BUFFER = 15;
+  /**
+   * Singleton instance of ShowtimeSchedule
+   */
+  private static ShowtimeSchedule _instance = null;
+
+  /**
+   * Screenings, per cinema id
+   */
+  private final Map<Integer, IntervalTree> cinemas = new HashMap<Integer, IntervalTree>();
+  /**
+   * Screenings tracked, by showtime id
+   */
+  private final Map<String, Interval> showtimes = new HashMap<String, Interval>();
+  private final long cleaningBuffer;
+
+  /**
+   * Default constructor
+   */
+  private ShowtimeSchedule() {
+    long cleaningBuffer = DEFAULT_CLEANING_BUFFER;
+    try {
+      String value = Constants.getEnv("CLEANING_BUFFER");
+      if (value != null) cleaningBuffer = Math.max(0, Long.parseLong(value.trim()));
+    } catch (RuntimeException e) {
+      Helper.logger("ShowtimeSchedule", "Invalid CLEANING_BUFFER, defaulting to " + DEFAULT_CLEANING_BUFFER);
+    }
+    this.cleaningBuffer = cleaningBuffer;
+  }
+
+  /**
+   * Retrieves instance of ShowtimeSchedule
+   *
+   * @return instance :current ShowtimeSchedule instance
+   */
+  public static synchronized ShowtimeSchedule getInstance() {
+    if (_instance == null) _instance = new ShowtimeSchedule();
+    return _instance;
+  }
+
+  /**
+   * Gets cleaning buffer between showtimes (min).
+   *
+   * @return the cleaning buffer
+   */
+  public long getCleaningBuffer() {
+    return cleaningBuffer;
+  }
+
+  /**
+   * Tracks the screening of a showtime under its cinema. Tracking a showtime again moves it to its current cinema and
+   * datetime.
+   *
+   * @param showtime the showtime
+   * @param runtime  the runtime of its movie (min)
+   */
+//+ track(showtime:Showtime, runtime:int):void
+  public synchronized void track(Showtime showtime, int runtime) {
+    this.untrack(showtime.getId());
+
+    Interval interval = this.toInterval(showtime.getId(), showtime.getCinemaId(), showtime.getDatetime(), runtime);
+    this.cinemas.computeIfAbsent(interval.cinemaId, id -> new IntervalTree()).insert(interval);
+    this.showtimes.put(interval.showtimeId, interval);
+  }
+
+  /**
+   * Stops tracking a showtime.
+   *
+   * @param showtimeId the showtime id
+   */
+//+ untrack(showtimeId:String):void
+  public synchronized void untrack(String showtimeId) {
+    Interval interval = this.showtimes.remove(showtimeId);
+    if (interval == null) return;
+
+    IntervalTree tree = this.cinemas.get(interval.cinemaId);
+    if (tree != null) tree.delete(interval);
+  }
+
+  /**
+   * Gets showtimes of a cinema which overlap a screening.
+   *
+   * @param cinemaId          the cinema id
+   * @param datetime          the datetime of the screening
+   * @param runtime           the runtime of its movie (min)
+   * @param excludeShowtimeId the showtime id to leave out, e.g. the showtime being moved, null if none
+   * @return the clashing showtime ids, by datetime ASC
+   */
+//+ getClashes(cinemaId:int, datetime:LocalDateTime, runtime:int, excludeShowtimeId:String):List<String>
+  public synchronized List<String> getClashes(int cinemaId, LocalDateTime datetime, int runtime, String excludeShowtimeId) {
+    List<String> showtimeIds = new ArrayList<String>();
+    IntervalTree tree = this.cinemas.get(cinemaId);
+    if (tree == null) return showtimeIds;
+
+    Interval interval = this.toInterval(null, cinemaId, datetime, runtime);
+    tree.collect(tree.root, interval.start, interval.end, excludeShowtimeId, showtimeIds);
+    return showtimeIds;
+  }
+
+  /**
+   * Validates a whole schedule against itself, independent of the showtimes tracked.
+   *
+   * @param schedule the showtimes of the schedule
+   * @param runtimes the runtime (min), by movie id
+   * @return the showtime ids clashing with an earlier showtime of the same cinema, each to the earlier ids
+   */
+//+ validate(schedule:Collection<Showtime>, runtimes:IntUnaryOperator):Map<String, List<String>>
+  public Map<String, List<String>> validate(Collection<Showtime> schedule, IntUnaryOperator runtimes) {
+    Map<String, List<String>> clashes = new LinkedHashMap<String, List<String>>();
+    Map<Integer, IntervalTree> cinemas = new HashMap<Integer, IntervalTree>();
+
+    List<Showtime> showtimes = new ArrayList<Showtime>(schedule);
+    showtimes.sort(Comparator.comparing(Showtime::getDatetime));
+    for (Showtime showtime : showtimes) {
+      Interval interval = this.toInterval(showtime.getId(), showtime.getCinemaId(), showtime.getDatetime(), runtimes.applyAsInt(showtime.getMovieId()));
+      IntervalTree tree = cinemas.computeIfAbsent(interval.cinemaId, id -> new IntervalTree());
+
+      List<String> showtimeIds = new ArrayList<String>();
+      tree.collect(tree.root, interval.start, interval.end, interval.showtimeId, showtimeIds);
+      if (!showtimeIds.isEmpty()) clashes.put(interval.showtimeId, showtimeIds);
+      tree.insert(interval);
+    }
+
+    Helper.logger("ShowtimeSchedule.validate", "Validated " + showtimes.size() + " showtimes, " + clashes.size() + " clashing");
+    return clashes;
+  }
+
+  private Interval toInterval(String showtimeId, int cinemaId, LocalDateTime datetime, int runtime) {
+    long start = datetime.toEpochSecond(ZoneOffset.UTC);
+    long end = start + (Math.max(0, runtime) + this.cleaningBuffer) * 60;
+    // Screening always takes up the hall for at least a moment
+    return new Interval(showtimeId, cinemaId, start, Math.max(end, start + 1));
+  }
+
+  /**
+   * Screening of a showtime, [start, end) in epoch seconds
+   */
+  private static class Interval {
+    private final String showtimeId;
+    private final int cinemaId;
+    private final long start;
+    private final long end;
+
+    private Interval(String showtimeId, int cinemaId, long start, long end) {
+      this.showtimeId = showtimeId;
+      this.cinemaId = cinemaId;
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  /**
+   * Interval tree, as a treap ordered by start and augmented with the latest end of each subtree
+   */
+  private static class IntervalTree {
+    private Node root;
+
+    private void insert(Interval interval) {
+      this.root = this.insert(this.root, new Node(interval));
+    }
+
+    private Node insert(Node node, Node added) {
+      if (node == null) return added;
+
+      if (compare(added.interval, node.interval) < 0) {
+        node.left = this.insert(node.left, added);
+        if (node.left.priority > node.priority) node = rotateRight(node);
+      } else {
+        node.right = this.insert(node.right, added);
+        if (node.right.priority > node.priority) node = rotateLeft(node);
+      }
+      node.update();
+      return node;
+    }
+
+    private void delete(Interval interval) {
+      this.root = this.delete(this.root, interval);
+    }
+
+    private Node delete(Node node, Interval interval) {
+      if (node == null) return null;
+
+      int order = compare(interval, node.interval);
+      if (order == 0) return merge(node.left, node.right);
+      if (order < 0) node.left = this.delete(node.left, interval);
+      else node.right = this.delete(node.right, interval);
+      node.update();
+      return node;
+    }
+
+    /**
+     * Collects intervals overlapping [start, end), skipping subtrees which end before it or start after it.
+     */
+    private void collect(Node node, long start, long end, String excludeShowtimeId, List<String> showtimeIds) {
+      if (node == null || node.maxEnd <= start) return;
+
+      this.collect(node.left, start, end, excludeShowtimeId, showtimeIds);
+      if (node.interval.start >= end) return;
+      if (node.interval.end > start && !node.interval.showtimeId.equals(excludeShowtimeId)) showtimeIds.add(node.interval.showtimeId);
+      this.collect(node.right, start, end, excludeShowtimeId, showtimeIds);
+    }
+
+    private static int compare(Interval a, Interval b) {
+      int order = Long.compare(a.start, b.start);
+      return (order != 0) ? order : a.showtimeId.compareTo(b.showtimeId);
+    }
+
+    private static Node merge(Node left, Node right) {
+      if (left == null) return right;
+      if (right == null) return left;
+
+      if (left.priority > right.priority) {
+        left.right = merge(left.right, right);
+        left.update();
+        return left;
+      }
+      right.left = merge(left, right.left);
+      right.update();
+      return right;
+    }
+
+    private static Node rotateRight(Node node) {
+      Node pivot = node.left;
+      node.left = pivot.right;
+      pivot.right = node;
+      node.update();
+      pivot.update();
+      return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+      Node pivot = node.right;
+      node.right = pivot.left;
+      pivot.left = node;
+      node.update();
+      pivot.update();
+      return pivot;
+    }
+  }
+
+  private static class Node {
+    private final Interval interval;
+    private final int priority = ThreadLocalRandom.current().nextInt();
+    private long maxEnd;
+    private Node left;
+    private Node right;
+
+    private Node(Interval interval) {
+      this.interval = interval;
+      this.maxEnd = interval.end;
+    }
+
+    private void update() {
+      this.maxEnd = this.interval.end;
+      if (this.left != null) this.maxEnd = Math.max(this.maxEnd, this.left.maxEnd);
+      if (this.right != null) this.maxEnd = Math.max(this.maxEnd, this.right.maxEnd);
+    }
+  }
+}
@@ -0,0 +1,332 @@
+package moblima.utils.services.booking;
+
+import moblima.entities.SeatHold;
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.entities.WaitlistEntry;
+import moblima.utils.Helper;
+import moblima.utils.datasource.WaitlistJournal;
+import moblima.utils.services.holds.SeatHoldService;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Waitlist service<br/>
+ * <p>
+ * Customers may queue on a sold out showtime for a no. of seats instead of retrying. Whenever seats of the showtime
+ * become available again, the customer at the head of the queue is offered the best seats as a hold under the
+ * waitlist, which the customer then claims and books like any other hold. The head of the queue is never skipped
+ * for a smaller request behind it, and an offer which is not claimed before its hold expires is forfeited, passing the
+ * seats on to the next customer. Queues are kept per showtime and journalled, so neither offering seats nor restarting
+ * requires a scan of all customers.
+ */
+public class WaitlistService implements SeatHoldService.ReleaseListener {
+  /**
+   * Owner id prefix of holds offered to the waitlist
+   */
+  public static final String OFFER_OWNER_PREFIX = "waitlist:";
+  /**
+   * Singleton instance of WaitlistService
+   */
+  private static WaitlistService _instance = null;
+
+  private final WaitlistJournal journal;
+  private final SeatHoldService holdService;
+  /**
+   * Entries waiting, per showtime id, in the order they joined
+   */
+  private final Map<String, Deque<WaitlistEntry>> queues = new ConcurrentHashMap<String, Deque<WaitlistEntry>>();
+  /**
+   * Entries offered seats, by entry id
+   */
+  private final Map<String, Offer> offers = new ConcurrentHashMap<String, Offer>();
+
+  /**
+   * Instantiates a new Waitlist service, restoring the queues from the journal.
+   *
+   * @param journal     the journal
+   * @param holdService the seat hold service
+   */
+  public WaitlistService(WaitlistJournal journal, SeatHoldService holdService) {
+    this.journal = journal;
+    this.holdService = holdService;
+
+    // Offers are not persisted, entries offered seats before a restart wait at the head again
+    for (WaitlistEntry entry : journal.replay()) this.getQueue(entry.getShowtimeId()).addLast(entry);
+    holdService.addReleaseListener(this);
+  }
+
+  /**
+   * Retrieves instance of WaitlistService
+   *
+   * @return instance :current WaitlistService instance
+   */
+  public static synchronized WaitlistService getInstance() {
+    if (_instance == null) _instance = new WaitlistService(new WaitlistJournal(), SeatHoldService.getInstance());
+    return _instance;
+  }
+
+  private Deque<WaitlistEntry> getQueue(String showtimeId) {
+    return this.queues.computeIfAbsent(showtimeId, id -> new ConcurrentLinkedDeque<WaitlistEntry>());
+  }
+
+  /**
+   * Joins the waitlist of a showtime. Seats are offered at once if the showtime has enough of them.
+   *
+   * @param customerId the customer id
+   * @param showtime   the showtime
+   * @param seatCount  the no. of seats
+   * @return the waitlist entry, null if customer is already on the waitlist or seat count is invalid
+   */
+//+ join(customerId:String, showtime:Showtime, seatCount:int):WaitlistEntry
+  public WaitlistEntry join(String customerId, Showtime showtime, int seatCount) {
+    if (seatCount < 1 || seatCount > showtime.getSeats().getSeatCount()) return null;
+
+    String showtimeId = showtime.getId();
+    Deque<WaitlistEntry> queue = this.getQueue(showtimeId);
+    WaitlistEntry entry;
+    synchronized (queue) {
+      if (this.getEntry(customerId, showtimeId) != null) return null;
+
+      entry = new WaitlistEntry(UUID.randomUUID().toString(), showtimeId, customerId, seatCount, System.currentTimeMillis());
+      // Queued under the journal lock, so compaction cannot drop a journalled entry not yet queued
+      synchronized (this.journal) {
+        if (!this.journal.join(entry)) return null;
+        queue.addLast(entry);
+      }
+    }
+    Helper.logger("WaitlistService.join", "Waitlisted " + seatCount + " seat(s) of " + showtimeId + " at position " + queue.size());
+
+    this.offer(showtimeId, showtime.getSeats());
+    return entry;
+  }
+
+  /**
+   * Leaves the waitlist of a showtime, releasing any seats offered.
+   *
+   * @param customerId the customer id
+   * @param showtimeId the showtime id
+   * @return the boolean, false if customer is not on the waitlist
+   */
+//+ leave(customerId:String, showtimeId:String):boolean
+  public boolean leave(String customerId, String showtimeId) {
+    Deque<WaitlistEntry> queue = this.getQueue(showtimeId);
+    synchronized (queue) {
+      WaitlistEntry entry = this.getEntry(customerId, showtimeId);
+      if (entry == null) return false;
+
+      if (!queue.remove(entry)) {
+        Offer offer = this.offers.remove(entry.getId());
+        if (offer != null) this.holdService.release(offer.holdId);
+      }
+      this.recordLeave(entry);
+      return true;
+    }
+  }
+
+  /**
+   * Drops the waitlist of a showtime, e.g. once it is removed.
+   *
+   * @param showtimeId the showtime id
+   * @return the no. of entries dropped
+   */
+//+ clear(showtimeId:String):int
+  public int clear(String showtimeId) {
+    Deque<WaitlistEntry> queue = this.queues.remove(showtimeId);
+    if (queue == null) return 0;
+
+    int droppedCount = 0;
+    synchronized (queue) {
+      for (WaitlistEntry entry : queue) {
+        this.recordLeave(entry);
+        droppedCount++;
+      }
+      queue.clear();
+    }
+    return droppedCount;
+  }
+
+  /**
+   * Gets waitlist position of a customer.
+   *
+   * @param customerId the customer id
+   * @param showtimeId the showtime id
+   * @return the position, 1 for the head of the queue, 0 if seats were offered, -1 if customer is not on the waitlist
+   */
+  public int getPosition(String customerId, String showtimeId) {
+    int position = 1;
+    for (WaitlistEntry entry : this.getQueue(showtimeId)) {
+      if (entry.getCustomerId().equals(customerId)) return position;
+      position++;
+    }
+
+    for (Offer offer : this.offers.values()) {
+      if (offer.entry.getCustomerId().equals(customerId) && offer.entry.getShowtimeId().equals(showtimeId)) return 0;
+    }
+    return -1;
+  }
+
+  /**
+   * Gets waitlist length of a showtime.
+   *
+   * @param showtimeId the showtime id
+   * @return the no. of entries waiting
+   */
+  public int getLength(String showtimeId) {
+    Deque<WaitlistEntry> queue = this.queues.get(showtimeId);
+    return queue == null ? 0 : queue.size();
+  }
+
+  /**
+   * Gets seats offered to a customer, yet to be claimed.
+   *
+   * @param customerId the customer id
+   * @return the seat holds offered
+   */
+  public List<SeatHold> getOffers(String customerId) {
+    List<SeatHold> holds = new ArrayList<SeatHold>();
+    for (Offer offer : this.offers.values()) {
+      if (!offer.entry.getCustomerId().equals(customerId)) continue;
+      holds.addAll(this.holdService.getHolds(OFFER_OWNER_PREFIX + offer.entry.getId(), offer.entry.getShowtimeId()));
+    }
+    return holds;
+  }
+
+  /**
+   * Claims seats offered to a customer, handing the hold over to the booking owner, which leaves the waitlist.
+   *
+   * @param customerId the customer id
+   * @param showtimeId the showtime id
+   * @param ownerId    the owner id to book the seats as
+   * @return the seat hold, null if no seats were offered or the offer has expired
+   */
+//+ claim(customerId:String, showtimeId:String, ownerId:String):SeatHold
+  public SeatHold claim(String customerId, String showtimeId, String ownerId) {
+    for (Offer offer : this.offers.values()) {
+      WaitlistEntry entry = offer.entry;
+      if (!entry.getCustomerId().equals(customerId) || !entry.getShowtimeId().equals(showtimeId)) continue;
+
+      // Offer is taken before its hold, so seats are never handed over for an offer already expired or left
+      if (!this.offers.remove(entry.getId(), offer)) return null;
+      this.recordLeave(entry);
+
+      // Expired meanwhile, the offer forfeits its place as the seats are passed on
+      SeatHold hold = this.holdService.transfer(offer.holdId, ownerId);
+      if (hold == null) return null;
+
+      Helper.logger("WaitlistService.claim", "Claimed " + hold.getSeats().size() + " seat(s) of " + showtimeId);
+      return hold;
+    }
+    return null;
+  }
+
+  /**
+   * Offers available seats of a showtime to its waitlist, first come first served. The head of the queue holds up
+   * everyone behind it until enough seats are available for it.
+   *
+   * @param showtimeId the showtime id
+   * @param seats      the seats of the showtime
+   * @return the no. of entries offered seats
+   */
+//+ offer(showtimeId:String, seats:SeatMap):int
+  public int offer(String showtimeId, SeatMap seats) {
+    Deque<WaitlistEntry> queue = this.queues.get(showtimeId);
+    if (queue == null || queue.isEmpty()) return 0;
+
+    int offeredCount = 0;
+    synchronized (queue) {
+      WaitlistEntry entry;
+      while ((entry = queue.peekFirst()) != null && seats.getAvailableCount() >= entry.getSeatCount()) {
+        // Retry if another session takes the seats between finding and holding them
+        SeatHold hold = null;
+        for (int attempt = 0; attempt < 3 && hold == null; attempt++) {
+          List<int[]> bestSeats = SeatFinder.findBest(seats, entry.getSeatCount());
+          if (bestSeats == null) break;
+          hold = this.holdService.hold(OFFER_OWNER_PREFIX + entry.getId(), showtimeId, seats, bestSeats);
+        }
+        if (hold == null) break;
+
+        // Moved under the journal lock, so compaction sees the entry either waiting or offered
+        synchronized (this.journal) {
+          queue.pollFirst();
+          this.offers.put(entry.getId(), new Offer(entry, hold.getId()));
+        }
+        offeredCount++;
+        Helper.logger("WaitlistService.offer", "Offered " + entry.getSeatCount() + " seat(s) of " + showtimeId + " until " + hold.getExpiresAt());
+      }
+    }
+    return offeredCount;
+  }
+
+  @Override
+  public void onHoldReleased(SeatHold hold, SeatMap seats) {
+    // Unclaimed offer forfeits its place
+    String ownerId = hold.getOwnerId();
+    if (ownerId.startsWith(OFFER_OWNER_PREFIX)) {
+      Offer offer = this.offers.remove(ownerId.substring(OFFER_OWNER_PREFIX.length()));
+      if (offer != null) {
+        this.recordLeave(offer.entry);
+        Helper.logger("WaitlistService.onHoldReleased", "Offer of " + hold.getShowtimeId() + " was not claimed in time");
+      }
+    }
+
+    this.offer(hold.getShowtimeId(), seats);
+  }
+
+  @Override
+  public void onSeatsReleased(String showtimeId, SeatMap seats) {
+    this.offer(showtimeId, seats);
+  }
+
+  private WaitlistEntry getEntry(String customerId, String showtimeId) {
+    for (WaitlistEntry entry : this.getQueue(showtimeId)) {
+      if (entry.getCustomerId().equals(customerId)) return entry;
+    }
+    for (Offer offer : this.offers.values()) {
+      if (offer.entry.getCustomerId().equals(customerId) && offer.entry.getShowtimeId().equals(showtimeId)) return offer.entry;
+    }
+    return null;
+  }
+
+  /**
+   * Journals an entry leaving, compacting the journal if due. Entries are only journalled and queued, or moved between
+   * queue and offers, under the journal lock, so compaction never misses an entry still on a waitlist.
+   */
+  private void recordLeave(WaitlistEntry entry) {
+    synchronized (this.journal) {
+      this.journal.leave(entry);
+      if (this.journal.isCompactionDue()) this.journal.compact(this.getEntries());
+    }
+  }
+
+  /**
+   * Gets every entry still on a waitlist, offered entries ahead of those waiting on the same showtime.
+   *
+   * @return the entries
+   */
+  private List<WaitlistEntry> getEntries() {
+    List<WaitlistEntry> entries = new ArrayList<WaitlistEntry>();
+    for (Offer offer : this.offers.values()) entries.add(offer.entry);
+    for (Deque<WaitlistEntry> queue : this.queues.values()) entries.addAll(queue);
+    return entries;
+  }
+
+  /**
+   * Seats offered to a waitlist entry
+   */
+  private static class Offer {
+    private final WaitlistEntry entry;
+    private final String holdId;
+
+    private Offer(WaitlistEntry entry, String holdId) {
+      this.entry = entry;
+      this.holdId = holdId;
+    }
+  }
+}
@@ -0,0 +1,331 @@
+package moblima.utils.services.holds;
+
+import moblima.entities.SeatHold;
+import moblima.entities.SeatMap;
+import moblima.utils.Constants;
+import moblima.utils.Helper;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Seat hold service<br/>
+ * <p>
+ * Claims seats of a showtime for a limited time, pending booking, by compare-and-set on the seat map rather than by
+ * writing into it, so two sessions can never claim the same seat. Holds expire on a timing wheel unless confirmed or
+ * released before then, so abandoned sessions cannot leak seats. Holds are never persisted. Listeners are told of every
+ * hold which expires or is released, and of any other seats freed, so the seats can be offered to whoever waits on them.
+ */
+public class SeatHoldService {
+  /**
+   * Default hold duration (s)
+   */
+  public static final long DEFAULT_HOLD_TTL = 300;
+  /**
+   * Singleton instance of SeatHoldService
+   */
+  private static SeatHoldService _instance = null;
+
+  /**
+   * Active holds, by hold id
+   */
+  private final Map<String, ActiveHold> holds = new ConcurrentHashMap<String, ActiveHold>();
+  private final List<ReleaseListener> releaseListeners = new CopyOnWriteArrayList<ReleaseListener>();
+  private final TimingWheel wheel;
+  private final long holdTtlMillis;
+
+  /**
+   * Default constructor
+   */
+  private SeatHoldService() {
+    this(new TimingWheel("seat-hold-sweeper", 1000, 64), getEnvHoldTtl() * 1000);
+  }
+
+  /**
+   * Instantiates a new Seat hold service.
+   *
+   * @param wheel         the timing wheel expiring holds
+   * @param holdTtlMillis the hold duration (ms)
+   */
+  public SeatHoldService(TimingWheel wheel, long holdTtlMillis) {
+    this.wheel = wheel;
+    this.holdTtlMillis = Math.max(1, holdTtlMillis);
+  }
+
+  /**
+   * Retrieves instance of SeatHoldService
+   *
+   * @return instance :current SeatHoldService instance
+   */
+  public static synchronized SeatHoldService getInstance() {
+    if (_instance == null) _instance = new SeatHoldService();
+    return _instance;
+  }
+
+  private static long getEnvHoldTtl() {
+    try {
+      String value = Constants.getEnv("SEAT_HOLD_TTL");
+      if (value != null) return Math.max(1, Long.parseLong(value.trim()));
+    } catch (RuntimeException e) {
+      Helper.logger("SeatHoldService", "Invalid SEAT_HOLD_TTL, defaulting to " + DEFAULT_HOLD_TTL);
+    }
+    return DEFAULT_HOLD_TTL;
+  }
+
+  /**
+   * Gets hold duration (s).
+   *
+   * @return the hold ttl
+   */
+  public long getHoldTtl() {
+    return holdTtlMillis / 1000;
+  }
+
+  /**
+   * Holds seats of a showtime, all or none.
+   *
+   * @param ownerId    the owner id
+   * @param showtimeId the showtime id
+   * @param seats      the seats of the showtime
+   * @param seatCodes  the seat codes
+   * @return the seat hold, null if any seat does not exist, or is already booked or held
+   */
+//+ hold(ownerId:String, showtimeId:String, seats:SeatMap, seatCodes:List<int[]>):SeatHold
+  public SeatHold hold(String ownerId, String showtimeId, SeatMap seats, List<int[]> seatCodes) {
+    long[] mask = seats.mask(seatCodes);
+    if (mask == null || seatCodes.isEmpty() || !seats.tryHold(mask)) return null;
+
+    SeatHold hold = new SeatHold(UUID.randomUUID().toString(), ownerId, showtimeId, seatCodes, mask, LocalDateTime.now().plus(this.holdTtlMillis, ChronoUnit.MILLIS));
+    ActiveHold activeHold = new ActiveHold(hold, seats);
+    // Hold is listed before its expiry is scheduled, so the expiry always finds it
+    this.holds.put(hold.getId(), activeHold);
+    activeHold.timeout = this.wheel.schedule(this.holdTtlMillis, () -> this.expire(activeHold));
+
+    Helper.logger("SeatHoldService.hold", "Held " + seatCodes.size() + " seat(s) of " + showtimeId + " until " + hold.getExpiresAt());
+    return hold;
+  }
+
+  private void expire(ActiveHold activeHold) {
+    if (!this.holds.remove(activeHold.hold.getId(), activeHold)) return;
+    int releasedCount = activeHold.seats.releaseHold(activeHold.hold.getMask());
+    Helper.logger("SeatHoldService.expire", "Released " + releasedCount + " seat(s) of expired hold on " + activeHold.hold.getShowtimeId());
+    this.notifyRelease(activeHold);
+  }
+
+  private void notifyRelease(ActiveHold activeHold) {
+    for (ReleaseListener listener : this.releaseListeners) {
+      try {
+        listener.onHoldReleased(activeHold.hold, activeHold.seats);
+      } catch (RuntimeException e) {
+        Helper.logger("SeatHoldService.notifyRelease", "Release listener failed: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Tells listeners that seats of a showtime are available again, other than by a hold expiring or being released,
+   * e.g. once a booking fails to commit.
+   *
+   * @param showtimeId the showtime id
+   * @param seats      the seats of the showtime
+   */
+//+ notifyRelease(showtimeId:String, seats:SeatMap):void
+  public void notifyRelease(String showtimeId, SeatMap seats) {
+    for (ReleaseListener listener : this.releaseListeners) {
+      try {
+        listener.onSeatsReleased(showtimeId, seats);
+      } catch (RuntimeException e) {
+        Helper.logger("SeatHoldService.notifyRelease", "Release listener failed: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Adds a listener told of every hold which expires or is released.
+   *
+   * @param listener the listener
+   */
+  public void addReleaseListener(ReleaseListener listener) {
+    if (!this.releaseListeners.contains(listener)) this.releaseListeners.add(listener);
+  }
+
+  /**
+   * Removes a release listener.
+   *
+   * @param listener the listener
+   */
+  public void removeReleaseListener(ReleaseListener listener) {
+    this.releaseListeners.remove(listener);
+  }
+
+  /**
+   * Releases a hold.
+   *
+   * @param holdId the hold id
+   * @return the boolean, false if hold has already expired
+   */
+//+ release(holdId:String):boolean
+  public boolean release(String holdId) {
+    ActiveHold activeHold = this.holds.remove(holdId);
+    if (activeHold == null) return false;
+
+    activeHold.cancel();
+    activeHold.seats.releaseHold(activeHold.hold.getMask());
+    this.notifyRelease(activeHold);
+    return true;
+  }
+
+  /**
+   * Hands a hold over to another owner, which then has the full hold duration to book the seats.
+   *
+   * @param holdId  the hold id
+   * @param ownerId the new owner id
+   * @return the seat hold of the new owner, null if hold has already expired or was released
+   */
+//+ transfer(holdId:String, ownerId:String):SeatHold
+  public SeatHold transfer(String holdId, String ownerId) {
+    ActiveHold activeHold = this.holds.get(holdId);
+    if (activeHold == null || !activeHold.cancel()) return null;
+
+    SeatHold hold = activeHold.hold;
+    SeatHold transferredHold = new SeatHold(hold.getId(), ownerId, hold.getShowtimeId(), hold.getSeats(), hold.getMask(), LocalDateTime.now().plus(this.holdTtlMillis, ChronoUnit.MILLIS));
+    ActiveHold transferredActiveHold = new ActiveHold(transferredHold, activeHold.seats);
+
+    // Released meanwhile, seats are no longer held
+    if (!this.holds.replace(holdId, activeHold, transferredActiveHold)) return null;
+    transferredActiveHold.timeout = this.wheel.schedule(this.holdTtlMillis, () -> this.expire(transferredActiveHold));
+
+    Helper.logger("SeatHoldService.transfer", "Transferred " + hold.getSeats().size() + " seat(s) of " + hold.getShowtimeId() + " until " + transferredHold.getExpiresAt());
+    return transferredHold;
+  }
+
+  /**
+   * Releases every hold of an owner.
+   *
+   * @param ownerId the owner id
+   * @return the no. of holds released
+   */
+//+ releaseAll(ownerId:String):int
+  public int releaseAll(String ownerId) {
+    int releasedCount = 0;
+    for (SeatHold hold : this.getHolds(ownerId, null)) {
+      if (this.release(hold.getId())) releasedCount++;
+    }
+    return releasedCount;
+  }
+
+  /**
+   * Gets active holds of an owner.
+   *
+   * @param ownerId    the owner id
+   * @param showtimeId the showtime id, null for all showtimes
+   * @return the holds
+   */
+  public List<SeatHold> getHolds(String ownerId, String showtimeId) {
+    List<SeatHold> holds = new ArrayList<SeatHold>();
+    for (ActiveHold activeHold : this.holds.values()) {
+      SeatHold hold = activeHold.hold;
+      if (hold.getOwnerId().equals(ownerId) && (showtimeId == null || hold.getShowtimeId().equals(showtimeId))) holds.add(hold);
+    }
+    return holds;
+  }
+
+  /**
+   * Converts the holds of an owner into booked seats. Seats the owner no longer holds (e.g. after expiry) are claimed
+   * afresh, and seats held but not requested are released.
+   *
+   * @param ownerId    the owner id
+   * @param showtimeId the showtime id
+   * @param seats      the seats of the showtime
+   * @param seatCodes  the seat codes to book
+   * @return the boolean, false (and every hold of the owner on the showtime released) if any seat was taken meanwhile
+   */
+//+ confirm(ownerId:String, showtimeId:String, seats:SeatMap, seatCodes:List<int[]>):boolean
+  public boolean confirm(String ownerId, String showtimeId, SeatMap seats, List<int[]> seatCodes) {
+    long[] mask = seats.mask(seatCodes);
+    if (mask == null || seatCodes.isEmpty()) return false;
+
+    // Take over own holds, unless they expire first
+    long[] heldMask = new long[mask.length];
+    for (SeatHold hold : this.getHolds(ownerId, showtimeId)) {
+      ActiveHold activeHold = this.holds.get(hold.getId());
+      if (activeHold == null || activeHold.seats != seats || !this.holds.remove(hold.getId(), activeHold)) continue;
+
+      activeHold.cancel();
+      long[] holdMask = hold.getMask();
+      for (int w = 0; w < mask.length; w++) heldMask[w] |= holdMask[w];
+    }
+
+    long[] unheldMask = new long[mask.length];
+    long[] surplusMask = new long[mask.length];
+    for (int w = 0; w < mask.length; w++) {
+      unheldMask[w] = mask[w] & ~heldMask[w];
+      surplusMask[w] = heldMask[w] & ~mask[w];
+    }
+    int releasedCount = seats.releaseHold(surplusMask);
+
+    if (!seats.tryHold(unheldMask)) {
+      releasedCount += seats.releaseHold(heldMask);
+      Helper.logger("SeatHoldService.confirm", "Seats of " + showtimeId + " were taken before booking");
+      if (releasedCount > 0) this.notifyRelease(showtimeId, seats);
+      return false;
+    }
+    boolean isConfirmed = seats.confirmHold(mask);
+    if (releasedCount > 0) this.notifyRelease(showtimeId, seats);
+    return isConfirmed;
+  }
+
+  /**
+   * Listener of holds which expire or are released
+   */
+  public interface ReleaseListener {
+    /**
+     * Called once the seats of a hold are available again.
+     *
+     * @param hold  the hold
+     * @param seats the seats of the showtime
+     */
+    void onHoldReleased(SeatHold hold, SeatMap seats);
+
+    /**
+     * Called once seats of a showtime are available again, other than by a hold expiring or being released.
+     *
+     * @param showtimeId the showtime id
+     * @param seats      the seats of the showtime
+     */
+    void onSeatsReleased(String showtimeId, SeatMap seats);
+  }
+
+  /**
+   * Hold on the seat map it was claimed from
+   */
+  private static class ActiveHold {
+    private final SeatHold hold;
+    private final SeatMap seats;
+    /**
+     * Expiry, null until scheduled once the hold is listed
+     */
+    private volatile TimingWheel.Timeout timeout;
+
+    private ActiveHold(SeatHold hold, SeatMap seats) {
+      this.hold = hold;
+      this.seats = seats;
+    }
+
+    /**
+     * Cancels the expiry, if scheduled.
+     *
+     * @return the boolean, false if the hold has already expired or its expiry is yet to be scheduled
+     */
+    private boolean cancel() {
+      TimingWheel.Timeout timeout = this.timeout;
+      return timeout != null && timeout.cancel();
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package moblima.utils.services.holds;
+
+import moblima.utils.Helper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hashed timing wheel<br/>
+ * <p>
+ * Timeouts are hashed into one of a fixed no. of buckets by their deadline tick. A single daemon thread advances the
+ * wheel once per tick and only visits the bucket of that tick, so scheduling and cancelling are O(1) however many
+ * timeouts are pending. Timeouts further out than one revolution simply stay in their bucket for more rounds.
+ */
+public class TimingWheel {
+  private final long tickMillis;
+  private final List<Queue<Timeout>> buckets;
+  private final ScheduledExecutorService executor;
+  /**
+   * Current tick, only advanced by the wheel thread
+   */
+  private volatile long tick = 0;
+
+  /**
+   * Instantiates a new Timing wheel.
+   *
+   * @param name       the name of the wheel thread
+   * @param tickMillis the tick duration (ms)
+   * @param wheelSize  the no. of buckets
+   */
+  public TimingWheel(String name, long tickMillis, int wheelSize) {
+    this.tickMillis = Math.max(1, tickMillis);
+    this.buckets = new ArrayList<Queue<Timeout>>(Math.max(1, wheelSize));
+    for (int i = 0; i < Math.max(1, wheelSize); i++) this.buckets.add(new ConcurrentLinkedQueue<Timeout>());
+
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.scheduleAtFixedRate(this::advance, this.tickMillis, this.tickMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Schedules a task to run once the delay elapses.
+   *
+   * @param delayMillis the delay (ms)
+   * @param task        the task
+   * @return the timeout
+   */
+//+ schedule(delayMillis:long, task:Runnable):Timeout
+  public Timeout schedule(long delayMillis, Runnable task) {
+    long ticks = Math.max(1, (delayMillis + this.tickMillis - 1) / this.tickMillis);
+    Timeout timeout = new Timeout(this.tick + ticks, task);
+    this.buckets.get((int) (timeout.deadline % this.buckets.size())).add(timeout);
+    return timeout;
+  }
+
+  private void advance() {
+    long current = ++this.tick;
+    Iterator<Timeout> iterator = this.buckets.get((int) (current % this.buckets.size())).iterator();
+    while (iterator.hasNext()) {
+      Timeout timeout = iterator.next();
+      if (timeout.isCancelled()) {
+        iterator.remove();
+      } else if (timeout.deadline <= current) {
+        iterator.remove();
+        if (timeout.isExpired.compareAndSet(false, true)) this.run(timeout);
+      }
+    }
+  }
+
+  private void run(Timeout timeout) {
+    try {
+      timeout.task.run();
+    } catch (RuntimeException e) {
+      Helper.logger("TimingWheel.advance", "Timeout task failed: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Stops the wheel, pending timeouts never run.
+   */
+  public void stop() {
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * Handle of a scheduled task
+   */
+  public static class Timeout {
+    private final long deadline;
+    private final Runnable task;
+    private final AtomicBoolean isExpired = new AtomicBoolean(false);
+    private volatile boolean isCancelled = false;
+
+    private Timeout(long deadline, Runnable task) {
+      this.deadline = deadline;
+      this.task = task;
+    }
+
+    /**
+     * Cancels the task.
+     *
+     * @return the boolean, false if task has already run
+     */
+    public boolean cancel() {
+      this.isCancelled = true;
+      return this.isExpired.compareAndSet(false, true);
+    }
+
+    /**
+     * Check if task was cancelled.
+     *
+     * @return the boolean
+     */
+    public boolean isCancelled() {
+      return isCancelled;
+    }
+  }
+}
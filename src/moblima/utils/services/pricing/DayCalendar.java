@@ -0,0 +1,170 @@
+package moblima.utils.services.pricing;
+
+import moblima.entities.Showtime;
+import moblima.utils.Constants;
+import moblima.utils.Helper;
+import moblima.utils.services.pricing.PriceMatrix.DayClass;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Day classification calendar<br/>
+ * <p>
+ * Classifies every day of a span of years up front, a byte per day, from the public holidays of a version of settings.
+ * Peak windows are kept per day of week, by minute of day. Classifying a show datetime then takes an array lookup,
+ * rather than a search of the holidays. Days outside the span cannot be holidays, as the span covers them all.
+ */
+public class DayCalendar {
+  /**
+   * Default no. of years classified ahead of the current year
+   */
+  public static final int DEFAULT_YEARS_AHEAD = 5;
+  /**
+   * Default peak windows, Thursday and Friday evenings
+   */
+  public static final String DEFAULT_PEAK_WINDOWS = "THURSDAY@18:00-24:00,FRIDAY@18:00-24:00";
+
+  private static final DayClass[] dayClasses = DayClass.values();
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  /**
+   * Day class ordinal outside peak windows, by epoch day from the first day
+   */
+  private final byte[] days;
+  private final long firstEpochDay;
+  /**
+   * Peak windows [from, to) in minutes of day, by day of week
+   */
+  private final int[] peakFrom = new int[7];
+  private final int[] peakTo = new int[7];
+
+  /**
+   * Instantiates a new Day calendar, with the peak windows and no. of years configured.
+   *
+   * @param holidays the public holidays
+   */
+  public DayCalendar(Collection<LocalDate> holidays) {
+    this(holidays, getEnvPeakWindows(), getEnvYearsAhead());
+  }
+
+  /**
+   * Instantiates a new Day calendar.
+   *
+   * @param holidays    the public holidays
+   * @param peakWindows the peak windows, as <code>DAY@HH:mm-HH:mm,...</code>
+   * @param yearsAhead  the no. of years classified ahead of the current year
+   */
+  public DayCalendar(Collection<LocalDate> holidays, String peakWindows, int yearsAhead) {
+    this.setPeakWindows(peakWindows);
+
+    // Span from last year, stretched over every holiday
+    int year = LocalDate.now().getYear();
+    LocalDate firstDay = LocalDate.of(year - 1, 1, 1);
+    LocalDate lastDay = LocalDate.of(year + Math.max(0, yearsAhead), 12, 31);
+    for (LocalDate holiday : holidays) {
+      if (holiday.isBefore(firstDay)) firstDay = holiday;
+      if (holiday.isAfter(lastDay)) lastDay = holiday;
+    }
+
+    this.firstEpochDay = firstDay.toEpochDay();
+    this.days = new byte[(int) (lastDay.toEpochDay() - this.firstEpochDay + 1)];
+    for (int idx = 0; idx < this.days.length; idx++) {
+      this.days[idx] = (byte) classifyWeekday(firstDay.plusDays(idx).getDayOfWeek()).ordinal();
+    }
+    for (LocalDate holiday : holidays) {
+      this.days[(int) (holiday.toEpochDay() - this.firstEpochDay)] = (byte) DayClass.HOLIDAY.ordinal();
+    }
+    Helper.logger("DayCalendar", "Classified " + this.days.length + " days from " + firstDay + " to " + lastDay);
+  }
+
+  private static String getEnvPeakWindows() {
+    String value = Constants.getEnv("PEAK_WINDOWS");
+    return (value == null || value.isBlank()) ? DEFAULT_PEAK_WINDOWS : value;
+  }
+
+  private static int getEnvYearsAhead() {
+    try {
+      String value = Constants.getEnv("CALENDAR_YEARS");
+      if (value != null) return Math.max(0, Integer.parseInt(value.trim()));
+    } catch (RuntimeException e) {
+      Helper.logger("DayCalendar", "Invalid CALENDAR_YEARS, defaulting to " + DEFAULT_YEARS_AHEAD);
+    }
+    return DEFAULT_YEARS_AHEAD;
+  }
+
+  private static DayClass classifyWeekday(DayOfWeek day) {
+    return (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) ? DayClass.SUPER_PEAK : DayClass.NORMAL;
+  }
+
+  private void setPeakWindows(String peakWindows) {
+    try {
+      this.parsePeakWindows(peakWindows);
+    } catch (RuntimeException e) {
+      Helper.logger("DayCalendar", "Invalid PEAK_WINDOWS, defaulting to " + DEFAULT_PEAK_WINDOWS);
+      this.parsePeakWindows(DEFAULT_PEAK_WINDOWS);
+    }
+  }
+
+  private void parsePeakWindows(String peakWindows) {
+    Arrays.fill(this.peakFrom, 0);
+    Arrays.fill(this.peakTo, 0);
+
+    for (String window : peakWindows.split(",")) {
+      if (window.isBlank()) continue;
+      String[] dayAndTimes = window.trim().split("@");
+      String[] times = dayAndTimes[1].split("-");
+
+      int day = DayOfWeek.valueOf(dayAndTimes[0].trim().toUpperCase()).ordinal();
+      this.peakFrom[day] = toMinuteOfDay(times[0]);
+      this.peakTo[day] = toMinuteOfDay(times[1]);
+      if (this.peakFrom[day] >= this.peakTo[day]) throw new IllegalArgumentException("Empty peak window: " + window);
+    }
+  }
+
+  private static int toMinuteOfDay(String time) {
+    time = time.trim();
+    if (time.equals("24:00")) return MINUTES_PER_DAY;
+    LocalTime localTime = LocalTime.parse(time);
+    return localTime.getHour() * 60 + localTime.getMinute();
+  }
+
+  /**
+   * Classifies the day of a show datetime. Peak windows take precedence over holidays.
+   *
+   * @param showDateTime the show date time
+   * @return the day class
+   */
+//+ classify(showDateTime:LocalDateTime):DayClass
+  public DayClass classify(LocalDateTime showDateTime) {
+    int day = showDateTime.getDayOfWeek().ordinal();
+    int minute = showDateTime.getHour() * 60 + showDateTime.getMinute();
+    if (minute >= this.peakFrom[day] && minute < this.peakTo[day]) return DayClass.PEAK;
+
+    long idx = showDateTime.toLocalDate().toEpochDay() - this.firstEpochDay;
+    if (idx < 0 || idx >= this.days.length) return classifyWeekday(showDateTime.getDayOfWeek());
+    return dayClasses[this.days[(int) idx]];
+  }
+
+  /**
+   * Classifies every showtime of a schedule, e.g. for reporting.
+   *
+   * @param showtimes the showtimes
+   * @return the showtimes, by day class
+   */
+//+ classify(showtimes:Collection<Showtime>):EnumMap<DayClass, List<Showtime>>
+  public EnumMap<DayClass, List<Showtime>> classify(Collection<Showtime> showtimes) {
+    EnumMap<DayClass, List<Showtime>> schedule = new EnumMap<DayClass, List<Showtime>>(DayClass.class);
+    for (DayClass dayClass : dayClasses) schedule.put(dayClass, new ArrayList<Showtime>());
+
+    for (Showtime showtime : showtimes) schedule.get(this.classify(showtime.getDatetime())).add(showtime);
+    return schedule;
+  }
+}
@@ -0,0 +1,158 @@
+package moblima.utils.services.pricing;
+
+import moblima.entities.Booking.TicketType;
+import moblima.entities.Cinema.ClassType;
+import moblima.entities.Settings;
+import moblima.entities.Showtime.ShowType;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+
+/**
+ * Price matrix<br/>
+ * <p>
+ * Every ticket price under a version of settings, compiled once for each blockbuster status, show type, cinema class,
+ * ticket type and day class. Prices are looked up by array index, with no allocation nor settings lookup per ticket.
+ * Peak and super peak days override the ticket type asked for, so their prices are compiled in as well. Days are
+ * classified by a calendar compiled alongside.
+ */
+public class PriceMatrix {
+  private static final ShowType[] showTypes = ShowType.values();
+  private static final ClassType[] classTypes = ClassType.values();
+  private static final TicketType[] ticketTypes = TicketType.values();
+  private static final DayClass[] dayClasses = DayClass.values();
+
+  /**
+   * Prices (cents), by blockbuster x show type x class type x ticket type x day class
+   */
+  private final long[] prices = new long[2 * showTypes.length * classTypes.length * ticketTypes.length * dayClasses.length];
+  private final DayCalendar calendar;
+  private final long version;
+
+  private PriceMatrix(Settings settings) {
+    this.calendar = new DayCalendar(settings.getHolidays());
+    this.version = settings.getVersion();
+
+    EnumMap<ShowType, Long> showSurcharges = settings.getShowSurcharges();
+    EnumMap<ClassType, Long> cinemaSurcharges = settings.getCinemaSurcharges();
+    EnumMap<TicketType, Long> ticketSurcharges = settings.getTicketSurcharges();
+    for (int blockbuster = 0; blockbuster < 2; blockbuster++) {
+      for (ShowType showType : showTypes) {
+        for (ClassType classType : classTypes) {
+          for (TicketType ticketType : ticketTypes) {
+            for (DayClass dayClass : dayClasses) {
+              long price = settings.getAdultTicket();
+              if (blockbuster == 1) price += settings.getBlockbusterSurcharge();
+              price += showSurcharges.getOrDefault(showType, 0L);
+              price += cinemaSurcharges.getOrDefault(classType, 0L);
+              price += ticketSurcharges.getOrDefault(dayClass.getTicketType(ticketType), 0L);
+
+              this.prices[indexOf(blockbuster == 1, showType, classType, ticketType, dayClass)] = price;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Compiles the prices of a version of settings.
+   *
+   * @param settings the settings
+   * @return the price matrix
+   */
+//+ compile(settings:Settings):PriceMatrix
+  public static PriceMatrix compile(Settings settings) {
+    return new PriceMatrix(settings);
+  }
+
+  private static int indexOf(boolean isBlockbuster, ShowType showType, ClassType classType, TicketType ticketType, DayClass dayClass) {
+    int idx = isBlockbuster ? 1 : 0;
+    idx = idx * showTypes.length + showType.ordinal();
+    idx = idx * classTypes.length + classType.ordinal();
+    idx = idx * ticketTypes.length + ticketType.ordinal();
+    return idx * dayClasses.length + dayClass.ordinal();
+  }
+
+  /**
+   * Gets version of settings compiled.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets day calendar of settings compiled.
+   *
+   * @return the calendar
+   */
+  public DayCalendar getCalendar() {
+    return calendar;
+  }
+
+  /**
+   * Classifies the day of a show datetime.
+   *
+   * @param showDateTime the show date time
+   * @return the day class
+   */
+//+ classify(showDateTime:LocalDateTime):DayClass
+  public DayClass classify(LocalDateTime showDateTime) {
+    return this.calendar.classify(showDateTime);
+  }
+
+  /**
+   * Gets ticket price.
+   *
+   * @param isBlockbuster the is blockbuster
+   * @param showType      the show type
+   * @param classType     the class type
+   * @param ticketType    the ticket type asked for
+   * @param dayClass      the day class
+   * @return the price (cents)
+   */
+//+ getPrice(isBlockbuster:boolean, showType:ShowType, classType:ClassType, ticketType:TicketType, dayClass:DayClass):long
+  public long getPrice(boolean isBlockbuster, ShowType showType, ClassType classType, TicketType ticketType, DayClass dayClass) {
+    return this.prices[indexOf(isBlockbuster, showType, classType, ticketType, dayClass)];
+  }
+
+  /**
+   * The enum Day class.
+   */
+  public enum DayClass {
+    /**
+     * Normal day class, tickets are priced as asked for.
+     */
+    NORMAL(null),
+    /**
+     * Peak day class, every ticket is a peak ticket.
+     */
+    PEAK(TicketType.PEAK),
+    /**
+     * Super peak day class (weekends), every ticket is a super peak ticket.
+     */
+    SUPER_PEAK(TicketType.SUPER_PEAK),
+    /**
+     * Holiday day class, every ticket is a super peak ticket.
+     */
+    HOLIDAY(TicketType.SUPER_PEAK);
+
+    private final TicketType ticketType;
+
+    DayClass(TicketType ticketType) {
+      this.ticketType = ticketType;
+    }
+
+    /**
+     * Gets ticket type in effect.
+     *
+     * @param ticketType the ticket type asked for
+     * @return the ticket type
+     */
+    public TicketType getTicketType(TicketType ticketType) {
+      return (this.ticketType == null) ? ticketType : this.ticketType;
+    }
+  }
+}
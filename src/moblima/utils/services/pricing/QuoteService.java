@@ -0,0 +1,124 @@
+package moblima.utils.services.pricing;
+
+import moblima.entities.Booking.TicketType;
+import moblima.entities.Cinema.ClassType;
+import moblima.entities.Quote;
+import moblima.entities.Settings;
+import moblima.entities.Showtime;
+import moblima.entities.Showtime.ShowType;
+import moblima.utils.Helper;
+import moblima.utils.datasource.DataContext;
+import moblima.utils.services.pricing.PriceMatrix.DayClass;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quote service<br/>
+ * <p>
+ * Prices every ticket type eligible for a showtime in one pass over the price matrix. Quotes are memoized per showtime
+ * and version of settings, and dropped as a whole once settings change. A memoized quote is only reused while the
+ * showtime is still shown as it was quoted, i.e. same show type, datetime, movie and cinema class.
+ */
+public class QuoteService implements DataContext.SettingsListener {
+  private static final TicketType[] ticketTypes = TicketType.values();
+  /**
+   * Singleton instance of QuoteService
+   */
+  private static QuoteService _instance = null;
+
+  /**
+   * Quotes, by showtime id
+   */
+  private final Map<String, MemoizedQuote> quotes = new ConcurrentHashMap<String, MemoizedQuote>();
+
+  private QuoteService() {
+  }
+
+  /**
+   * Retrieves instance of QuoteService
+   *
+   * @return instance :current QuoteService instance
+   */
+  public static synchronized QuoteService getInstance() {
+    if (_instance == null) {
+      _instance = new QuoteService();
+      DataContext.getInstance().addSettingsListener(_instance);
+    }
+    return _instance;
+  }
+
+  /**
+   * Quotes a showtime.
+   *
+   * @param showtime      the showtime
+   * @param isBlockbuster the is blockbuster
+   * @param classType     the class type of its cinema
+   * @param matrix        the price matrix of the current settings
+   * @return the quote
+   */
+//+ quote(showtime:Showtime, isBlockbuster:boolean, classType:ClassType, matrix:PriceMatrix):Quote
+  public Quote quote(Showtime showtime, boolean isBlockbuster, ClassType classType, PriceMatrix matrix) {
+    MemoizedQuote memoized = this.quotes.get(showtime.getId());
+    if (memoized != null && memoized.isQuoting(showtime, isBlockbuster, classType, matrix.getVersion())) return memoized.quote;
+
+    // Tickets on peak & super peak days are all of the overriding type
+    DayClass dayClass = matrix.classify(showtime.getDatetime());
+    EnumMap<TicketType, Long> unitPrices = new EnumMap<TicketType, Long>(TicketType.class);
+    for (TicketType ticketType : ticketTypes) {
+      if (dayClass.getTicketType(ticketType) != ticketType) continue;
+      if (dayClass == DayClass.NORMAL && (ticketType == TicketType.PEAK || ticketType == TicketType.SUPER_PEAK)) continue;
+      unitPrices.put(ticketType, matrix.getPrice(isBlockbuster, showtime.getType(), classType, ticketType, dayClass));
+    }
+
+    Quote quote = new Quote(showtime.getId(), matrix.getVersion(), unitPrices);
+    this.quotes.put(showtime.getId(), new MemoizedQuote(quote, showtime, isBlockbuster, classType));
+    Helper.logger("QuoteService.quote", "Quoted " + quote);
+    return quote;
+  }
+
+  /**
+   * Drops the quote of a showtime, e.g. once it is removed.
+   *
+   * @param showtimeId the showtime id
+   */
+//+ forget(showtimeId:String):void
+  public void forget(String showtimeId) {
+    this.quotes.remove(showtimeId);
+  }
+
+  @Override
+  public void onSettingsChanged(Settings previous, Settings current) {
+    this.quotes.clear();
+    Helper.logger("QuoteService.onSettingsChanged", "Dropped quotes of settings v" + ((previous == null) ? 0 : previous.getVersion()));
+  }
+
+  /**
+   * Quote, with the showtime details it was priced on
+   */
+  private static class MemoizedQuote {
+    private final Quote quote;
+    private final ShowType showType;
+    private final LocalDateTime datetime;
+    private final boolean isBlockbuster;
+    private final ClassType classType;
+
+    private MemoizedQuote(Quote quote, Showtime showtime, boolean isBlockbuster, ClassType classType) {
+      this.quote = quote;
+      this.showType = showtime.getType();
+      this.datetime = showtime.getDatetime();
+      this.isBlockbuster = isBlockbuster;
+      this.classType = classType;
+    }
+
+    private boolean isQuoting(Showtime showtime, boolean isBlockbuster, ClassType classType, long settingsVersion) {
+      return this.quote.getSettingsVersion() == settingsVersion
+          && this.showType == showtime.getType()
+          && this.datetime.equals(showtime.getDatetime())
+          && this.isBlockbuster == isBlockbuster
+          && this.classType == classType;
+    }
+  }
+}
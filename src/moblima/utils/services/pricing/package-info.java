@@ -0,0 +1,7 @@
+/**
+ * Package that serves as a ticket pricing provider
+ *
+ * @version 1.0
+ * @author SC2002 /SS11 Group 1
+ */
+package moblima.utils.services.pricing;
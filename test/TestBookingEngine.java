@@ -0,0 +1,113 @@
+import moblima.entities.SeatMap;
+import moblima.utils.services.booking.BookingEngine;
+import moblima.utils.services.booking.BookingEngine.Result;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test booking engine.
+ */
+@Tag("TestBookingEngine")
+public class TestBookingEngine {
+  private static final int THREAD_COUNT = 16;
+  private static final int ATTEMPT_COUNT = 500;
+  private static final int SHOWTIME_COUNT = 4;
+
+  /**
+   * Test no double sells under contention.
+   */
+  @Test
+  public void testNoDoubleSells() throws InterruptedException {
+    BookingEngine engine = new BookingEngine(8);
+
+    List<String> showtimeIds = new ArrayList<String>();
+    Map<String, SeatMap> seatMaps = new ConcurrentHashMap<String, SeatMap>();
+    Map<String, List<int[]>> sold = new ConcurrentHashMap<String, List<int[]>>();
+    for (int i = 0; i < SHOWTIME_COUNT; i++) {
+      String showtimeId = UUID.randomUUID().toString();
+      showtimeIds.add(showtimeId);
+      seatMaps.put(showtimeId, new SeatMap(5, 8));
+      sold.put(showtimeId, new ArrayList<int[]>());
+    }
+
+    AtomicInteger bookedCount = new AtomicInteger();
+    AtomicInteger takenCount = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    for (int t = 0; t < THREAD_COUNT; t++) {
+      String ownerId = UUID.randomUUID().toString();
+      executor.submit(() -> {
+        start.await();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int a = 0; a < ATTEMPT_COUNT; a++) {
+          String showtimeId = showtimeIds.get(random.nextInt(SHOWTIME_COUNT));
+          int row = random.nextInt(5);
+          int col = random.nextInt(7);
+          List<int[]> seats = List.of(new int[]{row, col}, new int[]{row, col + 1});
+
+          Result result = engine.book(ownerId, showtimeId, seatMaps.get(showtimeId), seats, () -> {
+            // Commits of a showtime are serialized, so this unguarded list must never be written concurrently
+            sold.get(showtimeId).addAll(seats);
+            return true;
+          });
+          if (result == Result.BOOKED) bookedCount.incrementAndGet();
+          if (result == Result.SEATS_TAKEN) takenCount.incrementAndGet();
+        }
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "Check if bookings completed");
+
+    int soldCount = 0;
+    for (String showtimeId : showtimeIds) {
+      SeatMap seats = seatMaps.get(showtimeId);
+      boolean[][] isSold = new boolean[5][8];
+      for (int[] seat : sold.get(showtimeId)) {
+        assertFalse(isSold[seat[0]][seat[1]], "Check if seat was sold only once");
+        isSold[seat[0]][seat[1]] = true;
+        assertTrue(seats.isBooked(seat[0], seat[1]), "Check if sold seat is booked");
+      }
+      assertEquals(sold.get(showtimeId).size(), seats.getBookedCount(), "Check if only sold seats are booked");
+      assertEquals(0, seats.getHeldCount(), "Check if no seat is left held");
+      soldCount += sold.get(showtimeId).size();
+    }
+    assertEquals(bookedCount.get() * 2, soldCount, "Check if every booking sold its seats");
+    assertTrue(takenCount.get() > 0, "Check if conflicting bookings were rejected");
+  }
+
+  /**
+   * Test failed bookings release seats.
+   */
+  @Test
+  public void testFailedBookings() {
+    BookingEngine engine = new BookingEngine(8);
+    String showtimeId = UUID.randomUUID().toString();
+    SeatMap seats = new SeatMap(5, 8);
+    List<int[]> seatCodes = List.of(new int[]{0, 0}, new int[]{0, 1});
+
+    assertEquals(Result.SHOWTIME_NOT_FOUND, engine.book("owner", showtimeId, null, seatCodes, () -> true));
+    assertEquals(Result.INVALID_SEATS, engine.book("owner", showtimeId, seats, List.of(new int[]{9, 9}), () -> true));
+
+    assertEquals(Result.FAILED, engine.book("owner", showtimeId, seats, seatCodes, () -> false), "Check if failed commit is reported");
+    assertEquals(seats.getSeatCount(), seats.getAvailableCount(), "Check if failed commit released seats");
+
+    assertEquals(Result.BOOKED, engine.book("owner", showtimeId, seats, seatCodes, () -> true));
+    assertEquals(Result.SEATS_TAKEN, engine.book("other", showtimeId, seats, List.of(new int[]{0, 1}), () -> true));
+  }
+}
@@ -0,0 +1,131 @@
+import moblima.entities.Booking;
+import moblima.utils.datasource.BookingJournal;
+import moblima.utils.datasource.Datasource;
+import moblima.utils.deserializers.BookingCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test booking journal.
+ */
+@Tag("TestBookingJournal")
+public class TestBookingJournal {
+  private static final Path JOURNAL_PATH = Paths.get("data", BookingJournal.JOURNAL_FILE);
+  private static final Path SNAPSHOT_PATH = Paths.get("data", BookingJournal.SNAPSHOT_FILE);
+
+  private byte[] storedJournal = null;
+  private byte[] storedSnapshot = null;
+
+  /**
+   * Sets up without a booking journal.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    if (Files.exists(JOURNAL_PATH)) this.storedJournal = Files.readAllBytes(JOURNAL_PATH);
+    if (Files.exists(SNAPSHOT_PATH)) this.storedSnapshot = Files.readAllBytes(SNAPSHOT_PATH);
+    Files.deleteIfExists(JOURNAL_PATH);
+  }
+
+  /**
+   * Restores the booking journal and snapshot.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(JOURNAL_PATH);
+    if (this.storedJournal != null) Files.write(JOURNAL_PATH, this.storedJournal);
+    if (this.storedSnapshot != null) Files.write(SNAPSHOT_PATH, this.storedSnapshot);
+    else Files.deleteIfExists(SNAPSHOT_PATH);
+  }
+
+  private static Booking newBooking() {
+    List<int[]> seats = new ArrayList<int[]>(List.of(new int[]{1, 2}));
+    return new Booking(UUID.randomUUID().toString(), "customer", 1, 1, "showtime", seats, 1250, Booking.TicketType.STUDENT);
+  }
+
+  private static List<String> getTransactionIds(List<Booking> bookings) {
+    List<String> transactionIds = new ArrayList<String>();
+    for (Booking booking : bookings) transactionIds.add(booking.getTransactionId());
+    return transactionIds;
+  }
+
+  /**
+   * Test journaled bookings are replayed in order.
+   */
+  @Test
+  public void testReplay() throws IOException {
+    BookingJournal journal = new BookingJournal();
+    List<Booking> bookings = new ArrayList<Booking>();
+    for (int i = 0; i < 3; i++) {
+      Booking booking = newBooking();
+      assertTrue(journal.append(booking), "Check if booking is journaled");
+      bookings.add(booking);
+    }
+    assertEquals(3, journal.getJournalSize(), "Check if journaled bookings are counted");
+
+    // Torn write at the tail of the journal
+    Files.write(JOURNAL_PATH, List.of("", "{\"transactionId\":"), StandardOpenOption.APPEND);
+
+    BookingJournal replayedJournal = new BookingJournal();
+    List<Booking> replayed = replayedJournal.replay();
+    assertEquals(getTransactionIds(bookings), getTransactionIds(replayed), "Check if bookings are replayed in order");
+    assertArrayEquals(new int[]{1, 2}, replayed.get(0).getSeats().get(0), "Check if seats are replayed");
+    assertEquals(1250, replayed.get(0).getTotalPrice(), "Check if total price is replayed");
+    assertEquals(3, replayedJournal.getJournalSize(), "Check if only records replayed are counted");
+  }
+
+  /**
+   * Test compaction folds the journal into the snapshot.
+   */
+  @Test
+  public void testCompaction() {
+    BookingJournal journal = new BookingJournal(2);
+    List<Booking> bookings = new ArrayList<Booking>(List.of(newBooking(), newBooking()));
+
+    assertTrue(journal.append(bookings.get(0)), "Check if booking is journaled");
+    assertFalse(journal.isCompactionDue(), "Check if compaction is not due below the threshold");
+    assertTrue(journal.append(bookings.get(1)), "Check if booking is journaled");
+    assertTrue(journal.isCompactionDue(), "Check if compaction is due at the threshold");
+
+    assertTrue(journal.compact(bookings), "Check if journal is compacted");
+    assertFalse(Files.exists(JOURNAL_PATH), "Check if journal is truncated");
+    assertEquals(0, journal.getJournalSize(), "Check if journal size is reset");
+    assertTrue(journal.replay().isEmpty(), "Check if nothing is left to replay");
+
+    List<Booking> snapshot = Datasource.readFromCsv(BookingJournal.SNAPSHOT_FILE, new BookingCodec());
+    assertEquals(getTransactionIds(bookings), getTransactionIds(snapshot), "Check if bookings are folded into the snapshot");
+  }
+
+  /**
+   * Test journal left behind by an interrupted compaction is not replayed twice.
+   */
+  @Test
+  public void testReplayAfterInterruptedCompaction() {
+    BookingJournal journal = new BookingJournal();
+    List<Booking> bookings = new ArrayList<Booking>(List.of(newBooking(), newBooking()));
+    for (Booking booking : bookings) assertTrue(journal.append(booking), "Check if booking is journaled");
+
+    // Snapshot written, but journal not yet truncated
+    assertTrue(Datasource.serializeData(bookings, BookingJournal.SNAPSHOT_FILE, new BookingCodec()), "Check if snapshot is written");
+    Booking laterBooking = newBooking();
+    assertTrue(journal.append(laterBooking), "Check if booking is journaled");
+
+    List<Booking> snapshot = Datasource.readFromCsv(BookingJournal.SNAPSHOT_FILE, new BookingCodec());
+    BookingJournal replayedJournal = new BookingJournal();
+    List<Booking> replayed = replayedJournal.replay(snapshot);
+    assertEquals(List.of(laterBooking.getTransactionId()), getTransactionIds(replayed), "Check if only bookings missing from the snapshot are replayed");
+    assertEquals(3, replayedJournal.getJournalSize(), "Check if every journaled booking counts towards compaction");
+  }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,10 +27,13 @@ public class TestCustomerHandler {
   private static List<Customer> storedCustomers;
 
   private static boolean reset() {
+    // Customers are shared in memory, wipe them along with the file
+    handler.getCustomers().clear();
     return Datasource.deleteFile("customers.csv");
   }
 
   private static boolean restore() {
+    handler.getCustomers().addAll(storedCustomers);
     return Datasource.serializeData(storedCustomers, "customers.csv");
   }
 
@@ -55,7 +59,7 @@ public class TestCustomerHandler {
     assertNotNull(handler, "Handler instance was null");
 
     // Retrieve and store existing customers (if any)
-    storedCustomers = handler.getCustomers();
+    storedCustomers = new ArrayList<Customer>(handler.getCustomers());
     int expected = handler.getCustomers().size();
     int actual = storedCustomers.size();
     assertEquals(expected, actual, "Verifying customer count");
@@ -0,0 +1,131 @@
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.utils.services.pricing.DayCalendar;
+import moblima.utils.services.pricing.PriceMatrix.DayClass;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test day calendar.
+ */
+@Tag("TestDayCalendar")
+public class TestDayCalendar {
+  /**
+   * Thursday of a week within the span classified
+   */
+  private static final LocalDate THURSDAY = LocalDate.now().plusYears(1).with(TemporalAdjusters.next(DayOfWeek.THURSDAY));
+
+  private static DayCalendar newCalendar(List<LocalDate> holidays) {
+    return new DayCalendar(holidays, DayCalendar.DEFAULT_PEAK_WINDOWS, 2);
+  }
+
+  /**
+   * Test Thursday and Friday evenings are peak.
+   */
+  @Test
+  public void testPeakBoundary() {
+    DayCalendar calendar = newCalendar(new ArrayList<LocalDate>());
+    LocalDate friday = THURSDAY.plusDays(1);
+
+    assertEquals(DayClass.NORMAL, calendar.classify(THURSDAY.atTime(17, 59)), "Check if Thursday before 18:00 is normal");
+    assertEquals(DayClass.PEAK, calendar.classify(THURSDAY.atTime(18, 0)), "Check if Thursday from 18:00 is peak");
+    assertEquals(DayClass.PEAK, calendar.classify(THURSDAY.atTime(23, 59)), "Check if Thursday night is peak");
+    assertEquals(DayClass.NORMAL, calendar.classify(friday.atTime(17, 59)), "Check if Friday before 18:00 is normal");
+    assertEquals(DayClass.PEAK, calendar.classify(friday.atTime(18, 0)), "Check if Friday from 18:00 is peak");
+    assertEquals(DayClass.NORMAL, calendar.classify(THURSDAY.minusDays(1).atTime(18, 0)), "Check if Wednesday evening is normal");
+  }
+
+  /**
+   * Test weekends are super peak.
+   */
+  @Test
+  public void testWeekend() {
+    DayCalendar calendar = newCalendar(new ArrayList<LocalDate>());
+    LocalDate saturday = THURSDAY.plusDays(2);
+
+    assertEquals(DayClass.SUPER_PEAK, calendar.classify(saturday.atTime(0, 0)), "Check if Saturday is super peak");
+    assertEquals(DayClass.SUPER_PEAK, calendar.classify(saturday.plusDays(1).atTime(20, 0)), "Check if Sunday is super peak");
+    assertEquals(DayClass.NORMAL, calendar.classify(saturday.plusDays(2).atTime(0, 0)), "Check if Monday is normal");
+  }
+
+  /**
+   * Test holidays.
+   */
+  @Test
+  public void testHoliday() {
+    LocalDate monday = THURSDAY.plusDays(4);
+    DayCalendar calendar = newCalendar(List.of(monday, THURSDAY));
+
+    assertEquals(DayClass.HOLIDAY, calendar.classify(monday.atTime(12, 0)), "Check if holiday is classified");
+    assertEquals(DayClass.NORMAL, calendar.classify(monday.plusDays(1).atTime(12, 0)), "Check if day after holiday is normal");
+    assertEquals(DayClass.HOLIDAY, calendar.classify(THURSDAY.atTime(12, 0)), "Check if holiday outside peak window is classified");
+    assertEquals(DayClass.PEAK, calendar.classify(THURSDAY.atTime(19, 0)), "Check if peak window takes precedence over holiday");
+  }
+
+  /**
+   * Test custom peak windows.
+   */
+  @Test
+  public void testCustomPeakWindows() {
+    DayCalendar calendar = new DayCalendar(new ArrayList<LocalDate>(), "MONDAY@09:30-11:00, thursday@20:00-24:00", 2);
+    LocalDate monday = THURSDAY.plusDays(4);
+
+    assertEquals(DayClass.NORMAL, calendar.classify(monday.atTime(9, 29)), "Check if time before window is normal");
+    assertEquals(DayClass.PEAK, calendar.classify(monday.atTime(9, 30)), "Check if window start is peak");
+    assertEquals(DayClass.PEAK, calendar.classify(monday.atTime(10, 59)), "Check if time within window is peak");
+    assertEquals(DayClass.NORMAL, calendar.classify(monday.atTime(11, 0)), "Check if window end is normal");
+    assertEquals(DayClass.NORMAL, calendar.classify(THURSDAY.atTime(19, 0)), "Check if default window is replaced");
+    assertEquals(DayClass.PEAK, calendar.classify(THURSDAY.atTime(23, 0)), "Check if custom window is peak");
+    assertEquals(DayClass.NORMAL, calendar.classify(THURSDAY.plusDays(1).atTime(19, 0)), "Check if day without window is normal");
+
+    DayCalendar invalidCalendar = new DayCalendar(new ArrayList<LocalDate>(), "MONDAY@11:00-09:00", 2);
+    assertEquals(DayClass.PEAK, invalidCalendar.classify(THURSDAY.atTime(18, 0)), "Check if invalid windows default");
+    assertEquals(DayClass.NORMAL, invalidCalendar.classify(monday.atTime(10, 0)), "Check if invalid windows default");
+  }
+
+  /**
+   * Test dates outside the span.
+   */
+  @Test
+  public void testOutsideSpan() {
+    LocalDate farHoliday = LocalDate.of(2100, 3, 3);
+    DayCalendar calendar = newCalendar(List.of(farHoliday));
+
+    assertEquals(DayClass.HOLIDAY, calendar.classify(farHoliday.atTime(12, 0)), "Check if span stretches over every holiday");
+    // Wed 1 Jan 1800, Sat 4 Jan 1800, Fri 3 Jan 1800
+    assertEquals(DayClass.NORMAL, calendar.classify(LocalDateTime.of(1800, 1, 1, 12, 0)), "Check if weekday before span is normal");
+    assertEquals(DayClass.SUPER_PEAK, calendar.classify(LocalDateTime.of(1800, 1, 4, 12, 0)), "Check if weekend before span is super peak");
+    assertEquals(DayClass.PEAK, calendar.classify(LocalDateTime.of(1800, 1, 3, 18, 0)), "Check if peak window before span is peak");
+    // Sat 1 Jan 2101
+    assertEquals(DayClass.SUPER_PEAK, calendar.classify(LocalDateTime.of(2101, 1, 1, 12, 0)), "Check if weekend after span is super peak");
+  }
+
+  /**
+   * Test showtimes are classified by day class.
+   */
+  @Test
+  public void testClassifyShowtimes() {
+    DayCalendar calendar = newCalendar(new ArrayList<LocalDate>());
+    List<Showtime> showtimes = new ArrayList<Showtime>();
+    for (LocalDateTime datetime : List.of(THURSDAY.atTime(12, 0), THURSDAY.atTime(19, 0), THURSDAY.plusDays(2).atTime(12, 0))) {
+      showtimes.add(new Showtime(UUID.randomUUID().toString(), 1, 1, datetime, Showtime.ShowType.Digital, new SeatMap(1, 1)));
+    }
+
+    EnumMap<DayClass, List<Showtime>> schedule = calendar.classify(showtimes);
+    assertEquals(List.of(showtimes.get(0)), schedule.get(DayClass.NORMAL), "Check if normal showtime is classified");
+    assertEquals(List.of(showtimes.get(1)), schedule.get(DayClass.PEAK), "Check if peak showtime is classified");
+    assertEquals(List.of(showtimes.get(2)), schedule.get(DayClass.SUPER_PEAK), "Check if super peak showtime is classified");
+    assertTrue(schedule.get(DayClass.HOLIDAY).isEmpty(), "Check if every day class is listed");
+  }
+}
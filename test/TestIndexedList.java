@@ -0,0 +1,141 @@
+import moblima.utils.datasource.IndexedList;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NavigableMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test indexed list.
+ */
+@Tag("TestIndexedList")
+public class TestIndexedList {
+  private static final IndexedList.Key<Item, String> ITEM_ID = new IndexedList.Key<Item, String>("item id", Item::getId);
+  private static final IndexedList.Group<Item, String> ITEMS_BY_OWNER = new IndexedList.Group<Item, String>("items by owner", Item::getOwner);
+  private static final IndexedList.SortedGroup<Item, String, Integer> ITEMS_BY_OWNER_RANK = new IndexedList.SortedGroup<Item, String, Integer>("items by owner, by rank", Item::getOwner, Item::getRank);
+
+  /**
+   * Entity whose keys may be changed in place
+   */
+  private static final class Item {
+    private final String id;
+    private String owner;
+    private int rank;
+
+    private Item(String id, String owner, int rank) {
+      this.id = id;
+      this.owner = owner;
+      this.rank = rank;
+    }
+
+    private String getId() {
+      return this.id;
+    }
+
+    private String getOwner() {
+      return this.owner;
+    }
+
+    private int getRank() {
+      return this.rank;
+    }
+  }
+
+  private static IndexedList<Item> newItems() {
+    return new IndexedList<Item>(List.of(new Item("a", "x", 3), new Item("b", "y", 1), new Item("c", "x", 2), new Item("d", "x", 1)));
+  }
+
+  /**
+   * Test positions follow inserts and removals.
+   */
+  @Test
+  public void testIndexOf() {
+    IndexedList<Item> items = newItems();
+    assertEquals(2, items.indexOf(ITEM_ID, "c"), "Check if entity is indexed");
+    assertEquals(-1, items.indexOf(ITEM_ID, "e"), "Check if missing key is not found");
+    assertEquals(-1, items.indexOf(ITEM_ID, null), "Check if null key is not found");
+
+    items.add(0, new Item("e", "y", 5));
+    assertEquals(0, items.indexOf(ITEM_ID, "e"), "Check if inserted entity is indexed");
+    assertEquals(3, items.indexOf(ITEM_ID, "c"), "Check if entities after the insert shift along");
+
+    items.remove(1);
+    assertEquals(-1, items.indexOf(ITEM_ID, "a"), "Check if removed entity is unindexed");
+    assertEquals(2, items.indexOf(ITEM_ID, "c"), "Check if entities after the removal shift back");
+
+    // Duplicate key, the first position wins until it is removed
+    items.add(new Item("c", "z", 0));
+    assertEquals(2, items.indexOf(ITEM_ID, "c"), "Check if first entity of a duplicate key is found");
+    items.remove(2);
+    assertEquals(items.size() - 1, items.indexOf(ITEM_ID, "c"), "Check if remaining entity of a duplicate key is found");
+
+    items.removeIf(item -> item.getOwner().equals("y"));
+    for (int i = 0; i < items.size(); i++) {
+      assertEquals(i, items.indexOf(ITEM_ID, items.get(i).getId()), "Check if positions are compacted after removal");
+    }
+    assertEquals(-1, items.indexOf(ITEM_ID, "e"), "Check if every removed entity is unindexed");
+
+    items.clear();
+    assertEquals(-1, items.indexOf(ITEM_ID, "d"), "Check if cleared entities are unindexed");
+    items.add(new Item("d", "x", 0));
+    assertEquals(0, items.indexOf(ITEM_ID, "d"), "Check if entity added after clear is indexed");
+  }
+
+  /**
+   * Test groups follow changes made through the list.
+   */
+  @Test
+  public void testGroup() {
+    IndexedList<Item> items = newItems();
+    assertEquals(List.of("a", "c", "d"), getIds(items.group(ITEMS_BY_OWNER, "x")), "Check if group is in list order");
+
+    items.add(1, new Item("e", "x", 0));
+    assertEquals(List.of("a", "e", "c", "d"), getIds(items.group(ITEMS_BY_OWNER, "x")), "Check if inserted entity is grouped in list order");
+
+    // Key changed in place, re-indexed once set again
+    Item item = items.get(3);
+    item.owner = "y";
+    items.set(3, item);
+    assertEquals(List.of("a", "e", "d"), getIds(items.group(ITEMS_BY_OWNER, "x")), "Check if entity is dropped from its former group");
+    assertEquals(List.of("b", "c"), getIds(items.group(ITEMS_BY_OWNER, "y")), "Check if entity joins its new group");
+
+    items.remove(0);
+    assertEquals(List.of("e", "d"), getIds(items.group(ITEMS_BY_OWNER, "x")), "Check if removed entity is ungrouped");
+    assertTrue(items.group(ITEMS_BY_OWNER, "z").isEmpty(), "Check if missing group is empty");
+
+    // Groups are copies, unaffected by later changes
+    List<Item> group = items.group(ITEMS_BY_OWNER, "x");
+    items.add(new Item("f", "x", 0));
+    assertEquals(2, group.size(), "Check if group is not a live view");
+  }
+
+  /**
+   * Test sorted groups follow changes made through the list.
+   */
+  @Test
+  public void testSortedGroup() {
+    IndexedList<Item> items = newItems();
+    assertEquals(List.of("d", "c", "a"), getIds(items.group(ITEMS_BY_OWNER_RANK, "x")), "Check if group is by sort key");
+
+    Item item = items.get(0);
+    item.rank = 0;
+    items.set(0, item);
+    assertEquals(List.of("a", "d", "c"), getIds(items.group(ITEMS_BY_OWNER_RANK, "x")), "Check if entity is re-sorted once set again");
+
+    items.add(new Item("e", "x", 2));
+    NavigableMap<Integer, List<Item>> ranks = items.groupMap(ITEMS_BY_OWNER_RANK, "x");
+    assertEquals(List.of(0, 1, 2), List.copyOf(ranks.keySet()), "Check if group is mapped by sort key");
+    assertEquals(List.of("c", "e"), getIds(ranks.get(2)), "Check if ties are in list order");
+    assertEquals(List.of("d", "c", "e"), getIds(items.group(ITEMS_BY_OWNER_RANK, "x").subList(1, 4)), "Check if group matches its map");
+
+    items.removeAll(List.of(items.get(2)));
+    assertEquals(List.of("e"), getIds(items.groupMap(ITEMS_BY_OWNER_RANK, "x").get(2)), "Check if removed entity is unsorted");
+    assertEquals(List.of("b"), getIds(IndexedList.group(List.copyOf(items), ITEMS_BY_OWNER_RANK, "y")), "Check if plain list is grouped by scan");
+  }
+
+  private static List<String> getIds(List<Item> items) {
+    return items.stream().map(Item::getId).toList();
+  }
+}
@@ -0,0 +1,135 @@
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import moblima.entities.Booking;
+import moblima.utils.Money;
+import moblima.utils.datasource.BookingJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test money.
+ */
+@Tag("TestMoney")
+public class TestMoney {
+  private static final Path JOURNAL_PATH = Paths.get("data", BookingJournal.JOURNAL_FILE);
+
+  private byte[] storedJournal = null;
+
+  /**
+   * Sets up without a booking journal.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    if (Files.exists(JOURNAL_PATH)) this.storedJournal = Files.readAllBytes(JOURNAL_PATH);
+    Files.deleteIfExists(JOURNAL_PATH);
+  }
+
+  /**
+   * Restores the booking journal.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(JOURNAL_PATH);
+    if (this.storedJournal != null) Files.write(JOURNAL_PATH, this.storedJournal);
+  }
+
+  /**
+   * Test parse.
+   */
+  @Test
+  public void testParse() {
+    assertEquals(850, Money.parse("8.5"), "Check if dollars are parsed to cents");
+    assertEquals(850, Money.parse(" 8.50 "), "Check if padded dollars are parsed");
+    assertEquals(1200, Money.parse("12"), "Check if whole dollars are parsed");
+    assertEquals(1330, Money.parse("13.3"), "Check if inexact binary fractions are parsed exactly");
+    assertEquals(-500, Money.parse("-5"), "Check if negative dollars are parsed");
+    assertEquals(0, Money.parse("-0"), "Check if negative zero is parsed");
+
+    assertEquals(1, Money.parse("0.005"), "Check if half a cent is rounded up");
+    assertEquals(0, Money.parse("0.0049"), "Check if less than half a cent is rounded down");
+    assertEquals(1000, Money.parse("9.999"), "Check if rounding carries into dollars");
+    assertEquals(-1, Money.parse("-0.005"), "Check if negative half a cent is rounded away from zero");
+    assertEquals(-250, Money.parse("-2.504"), "Check if negative dollars are rounded");
+
+    assertThrows(NumberFormatException.class, () -> Money.parse("abc"), "Check if invalid dollars are rejected");
+    assertThrows(NumberFormatException.class, () -> Money.parse(""), "Check if empty dollars are rejected");
+    assertThrows(ArithmeticException.class, () -> Money.parse("1e20"), "Check if dollars beyond range are rejected");
+  }
+
+  /**
+   * Test format.
+   */
+  @Test
+  public void testFormat() {
+    assertEquals("SGD 8.50", Money.format(850), "Check if cents are formatted as dollars");
+    assertEquals("SGD 0.00", Money.format(0), "Check if zero is formatted");
+    assertEquals("SGD 0.05", Money.format(5), "Check if cents below a dollar are formatted");
+    assertEquals("SGD -5.00", Money.format(-500), "Check if negative dollars are formatted");
+    assertEquals("SGD -0.05", Money.format(-5), "Check if negative cents below a dollar are formatted");
+    assertEquals("SGD 123456.78", Money.format(12345678), "Check if prices beyond the cache are formatted");
+    assertEquals("SGD -123456.78", Money.format(-12345678), "Check if negative prices beyond the cache are formatted");
+    assertSame(Money.format(1299), Money.format(1299), "Check if formatted price is cached");
+
+    assertEquals("12.34", Money.toPlainString(1234), "Check if cents are written as plain dollars");
+    assertEquals("-0.01", Money.toPlainString(-1), "Check if negative cents are written as plain dollars");
+    assertEquals("-92233720368547758.08", Money.toPlainString(Long.MIN_VALUE), "Check if smallest cents are written");
+  }
+
+  /**
+   * Test plain dollars parse back to the same cents.
+   */
+  @Test
+  public void testRoundTrip() {
+    Random random = new Random(11);
+    for (int i = 0; i < 10000; i++) {
+      long cents = (i < 5000) ? random.nextInt(200000) - 100000 : random.nextLong() / 1000;
+      assertEquals(cents, Money.parse(Money.toPlainString(cents)), "Check if written cents parse back");
+    }
+  }
+
+  /**
+   * Test bookings journaled before prices were kept in cents are replayed.
+   */
+  @Test
+  public void testReplayLegacyJournal() throws IOException {
+    BookingJournal journal = new BookingJournal();
+    List<int[]> seats = new ArrayList<int[]>(List.of(new int[]{0, 0}));
+    Booking current = new Booking(UUID.randomUUID().toString(), "customer", 1, 1, "showtime", seats, 1250, Booking.TicketType.STUDENT);
+    assertTrue(journal.append(current), "Check if booking is journaled");
+
+    // Same record, as journaled with a dollar total
+    JsonObject record = JsonParser.parseString(Files.readAllLines(JOURNAL_PATH).get(0)).getAsJsonObject();
+    assertTrue(record.has("totalCents"), "Check if booking is journaled in cents");
+    List<String> lines = new ArrayList<String>();
+    for (String totalPrice : new String[]{"13.3", "9.999", "8"}) {
+      JsonObject legacyRecord = record.deepCopy();
+      legacyRecord.remove("totalCents");
+      legacyRecord.addProperty("transactionId", UUID.randomUUID().toString());
+      legacyRecord.addProperty("totalPrice", Double.parseDouble(totalPrice));
+      lines.add(legacyRecord.toString());
+    }
+    Files.write(JOURNAL_PATH, lines, StandardOpenOption.APPEND);
+
+    List<Booking> bookings = new BookingJournal().replay();
+    assertEquals(4, bookings.size(), "Check if every booking is replayed");
+    assertEquals(1250, bookings.get(0).getTotalPrice(), "Check if booking in cents is replayed");
+    assertEquals(1330, bookings.get(1).getTotalPrice(), "Check if legacy dollar total is replayed as cents");
+    assertEquals(1000, bookings.get(2).getTotalPrice(), "Check if legacy dollar total is rounded to the cent");
+    assertEquals(800, bookings.get(3).getTotalPrice(), "Check if legacy whole dollar total is replayed as cents");
+    assertEquals(Booking.TicketType.STUDENT, bookings.get(1).getType(), "Check if legacy booking is replayed");
+  }
+}
@@ -0,0 +1,153 @@
+import moblima.control.handlers.SettingsHandler;
+import moblima.entities.Booking.TicketType;
+import moblima.entities.Cinema.ClassType;
+import moblima.entities.Settings;
+import moblima.entities.Showtime.ShowType;
+import moblima.utils.datasource.DataContext;
+import moblima.utils.services.pricing.PriceMatrix;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test price matrix.
+ */
+@Tag("TestPriceMatrix")
+public class TestPriceMatrix {
+  /**
+   * Wednesday and Thursday holidays
+   */
+  private static final LocalDate WEDNESDAY_HOLIDAY = LocalDate.of(2030, 1, 2);
+  private static final LocalDate THURSDAY_HOLIDAY = LocalDate.of(2030, 1, 3);
+
+  /**
+   * Show datetimes of every day class, either side of the peak boundaries.
+   */
+  private static List<LocalDateTime> getShowDateTimes() {
+    List<LocalDateTime> showDateTimes = new ArrayList<LocalDateTime>();
+    // Mon 7 Jan 2030 to Sun 13 Jan 2030
+    for (int day = 7; day <= 13; day++) {
+      for (int[] time : new int[][]{{0, 0}, {12, 0}, {17, 59}, {18, 0}, {23, 59}}) {
+        showDateTimes.add(LocalDateTime.of(2030, 1, day, time[0], time[1]));
+      }
+    }
+    showDateTimes.add(WEDNESDAY_HOLIDAY.atTime(12, 0));
+    showDateTimes.add(THURSDAY_HOLIDAY.atTime(12, 0));
+    showDateTimes.add(THURSDAY_HOLIDAY.atTime(19, 0));
+    return showDateTimes;
+  }
+
+  /**
+   * Ticket price as computed before prices were compiled.
+   */
+  private static long computeBaselinePrice(Settings settings, boolean isBlockbuster, ShowType showType, ClassType classType, TicketType ticketType, LocalDateTime showDateTime) {
+    long price = settings.getAdultTicket();
+    if (isBlockbuster) price += settings.getBlockbusterSurcharge();
+    if (settings.getShowSurcharges().containsKey(showType)) price += settings.getShowSurcharges().get(showType);
+    if (settings.getCinemaSurcharges().containsKey(classType)) price += settings.getCinemaSurcharges().get(classType);
+
+    DayOfWeek day = showDateTime.getDayOfWeek();
+    boolean isPeak = (day == DayOfWeek.THURSDAY || day == DayOfWeek.FRIDAY) && showDateTime.getHour() >= 18;
+    boolean isWeekend = day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    boolean isHoliday = settings.getHolidays().stream().anyMatch(h -> h.isEqual(showDateTime.toLocalDate()));
+    if (isPeak) ticketType = TicketType.PEAK;
+    else if (isWeekend || isHoliday) ticketType = TicketType.SUPER_PEAK;
+
+    if (settings.getTicketSurcharges().containsKey(ticketType)) price += settings.getTicketSurcharges().get(ticketType);
+    return price;
+  }
+
+  private static void assertMatchesBaseline(Settings settings, PriceMatrix matrix) {
+    for (boolean isBlockbuster : new boolean[]{false, true}) {
+      for (ShowType showType : ShowType.values()) {
+        for (ClassType classType : ClassType.values()) {
+          for (TicketType ticketType : TicketType.values()) {
+            for (LocalDateTime showDateTime : getShowDateTimes()) {
+              long expected = computeBaselinePrice(settings, isBlockbuster, showType, classType, ticketType, showDateTime);
+              long price = matrix.getPrice(isBlockbuster, showType, classType, ticketType, matrix.classify(showDateTime));
+              assertEquals(expected, price, "Check if price matches baseline for " + isBlockbuster + " " + showType + " " + classType + " " + ticketType + " " + showDateTime);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Test compiled prices match the baseline formula.
+   */
+  @Test
+  public void testMatchesBaseline() {
+    Settings settings = new SettingsHandler().getCurrentSettings();
+
+    // Distinct surcharges, so every dimension shows in the price
+    long surcharge = 1;
+    settings.setAdultTicket(1000);
+    settings.setBlockbusterSurcharge(10000);
+    EnumMap<ShowType, Long> showSurcharges = new EnumMap<ShowType, Long>(ShowType.class);
+    for (ShowType showType : ShowType.values()) showSurcharges.put(showType, (surcharge *= 2));
+    EnumMap<ClassType, Long> cinemaSurcharges = new EnumMap<ClassType, Long>(ClassType.class);
+    for (ClassType classType : ClassType.values()) cinemaSurcharges.put(classType, (surcharge *= 2));
+    EnumMap<TicketType, Long> ticketSurcharges = new EnumMap<TicketType, Long>(TicketType.class);
+    for (TicketType ticketType : TicketType.values()) ticketSurcharges.put(ticketType, -(surcharge *= 2));
+    settings.setShowSurcharges(showSurcharges);
+    settings.setCinemaSurcharges(cinemaSurcharges);
+    settings.setTicketSurcharges(ticketSurcharges);
+    settings.setHolidays(new ArrayList<LocalDate>(List.of(WEDNESDAY_HOLIDAY, THURSDAY_HOLIDAY)));
+
+    assertMatchesBaseline(settings, PriceMatrix.compile(settings));
+  }
+
+  /**
+   * Test ticket price of the current settings matches the baseline formula.
+   */
+  @Test
+  public void testComputeTicketPrice() {
+    SettingsHandler handler = new SettingsHandler();
+    Settings settings = handler.getSettingsSnapshot();
+
+    for (TicketType ticketType : TicketType.values()) {
+      for (LocalDateTime showDateTime : getShowDateTimes()) {
+        long expected = computeBaselinePrice(settings, true, ShowType.ThreeDimensional, ClassType.Premium, ticketType, showDateTime);
+        assertEquals(expected, handler.computeTicketPrice(true, ShowType.ThreeDimensional, ClassType.Premium, ticketType, showDateTime), "Check if ticket price matches baseline");
+        assertEquals(expected * 3, handler.computeTotalCost(true, ShowType.ThreeDimensional, ClassType.Premium, ticketType, showDateTime, 3), "Check if total cost matches baseline");
+      }
+    }
+    assertMatchesBaseline(settings, handler.getPriceMatrix());
+  }
+
+  /**
+   * Test prices are compiled again once settings change.
+   */
+  @Test
+  public void testRebuildOnSettingsVersion() {
+    SettingsHandler handler = new SettingsHandler();
+    Settings original = handler.getCurrentSettings();
+    LocalDateTime showDateTime = LocalDateTime.of(2030, 1, 7, 12, 0);
+
+    try {
+      PriceMatrix matrix = handler.getPriceMatrix();
+      assertSame(matrix, handler.getPriceMatrix(), "Check if prices are compiled once per version");
+      long price = handler.computeTicketPrice(false, ShowType.Digital, ClassType.Normal, TicketType.STUDENT, showDateTime);
+
+      Settings settings = handler.getCurrentSettings();
+      settings.setAdultTicket(settings.getAdultTicket() + 150);
+      DataContext.getInstance().setSettings(settings);
+
+      PriceMatrix rebuiltMatrix = handler.getPriceMatrix();
+      assertNotSame(matrix, rebuiltMatrix, "Check if prices are compiled again once settings change");
+      assertTrue(rebuiltMatrix.getVersion() > matrix.getVersion(), "Check if prices of the newer version are compiled");
+      assertEquals(price + 150, handler.computeTicketPrice(false, ShowType.Digital, ClassType.Normal, TicketType.STUDENT, showDateTime), "Check if price of the newer version is computed");
+    } finally {
+      DataContext.getInstance().setSettings(original);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+import moblima.control.handlers.SettingsHandler;
+import moblima.entities.Booking.TicketType;
+import moblima.entities.Cinema.ClassType;
+import moblima.entities.Quote;
+import moblima.entities.SeatMap;
+import moblima.entities.Settings;
+import moblima.entities.Showtime;
+import moblima.utils.datasource.DataContext;
+import moblima.utils.services.pricing.PriceMatrix;
+import moblima.utils.services.pricing.PriceMatrix.DayClass;
+import moblima.utils.services.pricing.QuoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test quote service.
+ */
+@Tag("TestQuoteService")
+public class TestQuoteService {
+  /**
+   * Mon 7 Jan 2030, with Wed 9 Jan 2030 a holiday
+   */
+  private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 12, 0);
+  private static final LocalDate HOLIDAY = LocalDate.of(2030, 1, 9);
+
+  private final QuoteService quoteService = QuoteService.getInstance();
+  private Settings settings;
+  private PriceMatrix matrix;
+
+  /**
+   * Sets up prices of the current settings, with a holiday.
+   */
+  @BeforeEach
+  public void setUp() {
+    this.settings = new SettingsHandler().getCurrentSettings();
+    this.settings.setHolidays(new ArrayList<LocalDate>(List.of(HOLIDAY)));
+    this.matrix = PriceMatrix.compile(this.settings.snapshot(1000));
+  }
+
+  private static Showtime newShowtime(LocalDateTime datetime) {
+    return new Showtime(UUID.randomUUID().toString(), 1, 1, datetime, Showtime.ShowType.Digital, new SeatMap(1, 1));
+  }
+
+  /**
+   * Test eligible ticket types of each day class.
+   */
+  @Test
+  public void testEligibleTicketTypes() {
+    assertEligible(MONDAY, DayClass.NORMAL, List.of(TicketType.SENIOR, TicketType.STUDENT, TicketType.NON_PEAK));
+    assertEligible(MONDAY.plusDays(3).withHour(18), DayClass.PEAK, List.of(TicketType.PEAK));
+    assertEligible(MONDAY.plusDays(5), DayClass.SUPER_PEAK, List.of(TicketType.SUPER_PEAK));
+    assertEligible(HOLIDAY.atTime(12, 0), DayClass.HOLIDAY, List.of(TicketType.SUPER_PEAK));
+  }
+
+  private void assertEligible(LocalDateTime datetime, DayClass dayClass, List<TicketType> ticketTypes) {
+    assertEquals(dayClass, this.matrix.classify(datetime), "Check if day is classified");
+
+    Showtime showtime = newShowtime(datetime);
+    Quote quote = this.quoteService.quote(showtime, true, ClassType.Premium, this.matrix);
+    assertEquals(showtime.getId(), quote.getShowtimeId(), "Check if showtime is quoted");
+    assertEquals(ticketTypes, quote.getTicketTypes(), "Check if only eligible ticket types are quoted on a " + dayClass + " day");
+    for (TicketType ticketType : TicketType.values()) {
+      assertEquals(ticketTypes.contains(ticketType), quote.isEligible(ticketType), "Check if eligibility of " + ticketType + " is reported");
+    }
+    for (TicketType ticketType : ticketTypes) {
+      long unitPrice = this.matrix.getPrice(true, showtime.getType(), ClassType.Premium, ticketType, dayClass);
+      assertEquals(unitPrice, quote.getUnitPrice(ticketType), "Check if unit price is quoted");
+      assertEquals(unitPrice * 4, quote.getTotalPrice(ticketType, 4), "Check if total price is quoted");
+    }
+    this.quoteService.forget(showtime.getId());
+  }
+
+  /**
+   * Test memoized quote is reused.
+   */
+  @Test
+  public void testMemoized() {
+    Showtime showtime = newShowtime(MONDAY);
+    Quote quote = this.quoteService.quote(showtime, false, ClassType.Normal, this.matrix);
+
+    assertSame(quote, this.quoteService.quote(showtime, false, ClassType.Normal, this.matrix), "Check if memoized quote is reused");
+    assertNotSame(quote, this.quoteService.quote(showtime, true, ClassType.Normal, this.matrix), "Check if blockbuster change is quoted again");
+    assertNotSame(quote, this.quoteService.quote(showtime, true, ClassType.Premium, this.matrix), "Check if cinema class change is quoted again");
+
+    quote = this.quoteService.quote(showtime, true, ClassType.Premium, this.matrix);
+    this.quoteService.forget(showtime.getId());
+    assertNotSame(quote, this.quoteService.quote(showtime, true, ClassType.Premium, this.matrix), "Check if forgotten quote is quoted again");
+    this.quoteService.forget(showtime.getId());
+  }
+
+  /**
+   * Test memoized quote is dropped once the showtime moves.
+   */
+  @Test
+  public void testInvalidatedOnShowtimeChange() {
+    Showtime showtime = newShowtime(MONDAY);
+    Quote quote = this.quoteService.quote(showtime, false, ClassType.Normal, this.matrix);
+
+    showtime.setDatetime(MONDAY.plusDays(5));
+    Quote movedQuote = this.quoteService.quote(showtime, false, ClassType.Normal, this.matrix);
+    assertNotSame(quote, movedQuote, "Check if moved showtime is quoted again");
+    assertEquals(List.of(TicketType.SUPER_PEAK), movedQuote.getTicketTypes(), "Check if moved showtime is quoted on its new day");
+
+    showtime.setType(Showtime.ShowType.ThreeDimensional);
+    assertNotSame(movedQuote, this.quoteService.quote(showtime, false, ClassType.Normal, this.matrix), "Check if show type change is quoted again");
+    this.quoteService.forget(showtime.getId());
+  }
+
+  /**
+   * Test memoized quote is dropped once settings change.
+   */
+  @Test
+  public void testInvalidatedOnSettingsChange() {
+    Showtime showtime = newShowtime(MONDAY);
+    Quote quote = this.quoteService.quote(showtime, false, ClassType.Normal, this.matrix);
+
+    // Newer version of settings
+    this.settings.setAdultTicket(this.settings.getAdultTicket() + 100);
+    PriceMatrix matrix = PriceMatrix.compile(this.settings.snapshot(1001));
+    Quote repricedQuote = this.quoteService.quote(showtime, false, ClassType.Normal, matrix);
+    assertNotSame(quote, repricedQuote, "Check if showtime is quoted again under newer settings");
+    assertEquals(1001, repricedQuote.getSettingsVersion(), "Check if quote is of the newer settings");
+    assertEquals(quote.getUnitPrice(TicketType.STUDENT) + 100, repricedQuote.getUnitPrice(TicketType.STUDENT), "Check if quote has the newer prices");
+
+    // Settings published again, unchanged
+    DataContext.getInstance().setSettings(new SettingsHandler().getCurrentSettings());
+    assertNotSame(repricedQuote, this.quoteService.quote(showtime, false, ClassType.Normal, matrix), "Check if quotes are dropped once settings change");
+    this.quoteService.forget(showtime.getId());
+  }
+}
@@ -0,0 +1,136 @@
+import moblima.control.handlers.ShowtimeHandler;
+import moblima.entities.SeatAssignment;
+import moblima.entities.SeatAssignment.Conflict;
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test seat assignment.
+ */
+@Tag("TestSeatAssignment")
+public class TestSeatAssignment {
+
+  /**
+   * Test every conflicting seat is reported when booking.
+   */
+  @Test
+  public void testBookConflicts() {
+    SeatMap seats = new SeatMap(3, 8);
+    seats.bulkAssign(List.of(new int[]{0, 1}), false);
+    assertTrue(seats.tryHold(seats.mask(List.of(new int[]{0, 2}))), "Check if seat is held");
+
+    SeatAssignment assignment = seats.tryAssign(List.of(new int[]{0, 0}, new int[]{0, 1}, new int[]{0, 2}, new int[]{9, 0}), false);
+    assertFalse(assignment.isApplied(), "Check if booking with conflicts is not applied");
+
+    List<SeatAssignment.SeatConflict> conflicts = assignment.getConflicts();
+    assertEquals(3, conflicts.size(), "Check if every conflicting seat is reported");
+    assertConflict(conflicts.get(0), 0, 1, Conflict.BOOKED);
+    assertConflict(conflicts.get(1), 0, 2, Conflict.HELD);
+    assertConflict(conflicts.get(2), 9, 0, Conflict.INVALID);
+
+    assertTrue(seats.isAvailable(0, 0), "Check if free seat is not booked on conflict");
+    assertEquals(1, seats.getBookedCount(), "Check if nothing is booked on conflict");
+    assertEquals(1, seats.getHeldCount(), "Check if hold is kept on conflict");
+  }
+
+  /**
+   * Test every conflicting seat is reported when releasing.
+   */
+  @Test
+  public void testReleaseConflicts() {
+    SeatMap seats = new SeatMap(3, 8);
+    seats.bulkAssign(List.of(new int[]{1, 0}, new int[]{1, 1}), false);
+
+    SeatAssignment assignment = seats.tryAssign(List.of(new int[]{1, 0}, new int[]{1, 1}, new int[]{1, 2}), true);
+    assertFalse(assignment.isApplied(), "Check if release with conflicts is not applied");
+    assertEquals(1, assignment.getConflicts().size(), "Check if only the unbooked seat is reported");
+    assertConflict(assignment.getConflicts().get(0), 1, 2, Conflict.NOT_BOOKED);
+    assertTrue(seats.isBooked(1, 0), "Check if booked seat is not released on conflict");
+    assertTrue(seats.isBooked(1, 1), "Check if booked seat is not released on conflict");
+    assertEquals(0, seats.getHeldCount(), "Check if no seat is left held on conflict");
+
+    assignment = seats.tryAssign(List.of(new int[]{1, 0}, new int[]{1, 1}), true);
+    assertTrue(assignment.isApplied(), "Check if release of booked seats is applied");
+    assertEquals(0, seats.getBookedCount(), "Check if seats are released");
+  }
+
+  /**
+   * Test booking without conflicts is applied.
+   */
+  @Test
+  public void testBookApplied() {
+    SeatMap seats = new SeatMap(3, 8);
+
+    SeatAssignment assignment = seats.tryAssign(List.of(new int[]{2, 3}, new int[]{2, 4}), false);
+    assertTrue(assignment.isApplied(), "Check if booking is applied");
+    assertTrue(assignment.getConflicts().isEmpty(), "Check if no conflict is reported");
+    assertTrue(seats.isBooked(2, 3), "Check if seat is booked");
+    assertTrue(seats.isBooked(2, 4), "Check if seat is booked");
+    assertEquals(0, seats.getHeldCount(), "Check if no seat is left held");
+  }
+
+  /**
+   * Test bulk assignment persists the showtime once.
+   */
+  @Test
+  public void testBulkAssignSeatPersistsOnce() {
+    CountingShowtimeHandler handler = new CountingShowtimeHandler();
+    Showtime showtime = new Showtime(UUID.randomUUID().toString(), 1, 1, LocalDateTime.now().plusDays(1), Showtime.ShowType.Digital, new SeatMap(3, 8));
+    int showtimeIdx = handler.addShowtime(showtime);
+
+    List<int[]> seatCodes = new ArrayList<int[]>();
+    for (int col = 0; col < 8; col++) seatCodes.add(new int[]{0, col});
+
+    SeatAssignment assignment = handler.bulkAssignSeat(showtimeIdx, seatCodes, true);
+    assertTrue(assignment.isApplied(), "Check if seats are booked");
+    assertEquals(8, showtime.getSeats().getBookedCount(), "Check if every seat is booked");
+    assertEquals(1, handler.saveCount, "Check if showtime is persisted once for all seats");
+
+    // Conflicting assignment persists nothing
+    seatCodes.add(new int[]{1, 0});
+    assignment = handler.bulkAssignSeat(showtimeIdx, seatCodes, true);
+    assertFalse(assignment.isApplied(), "Check if booking with conflicts is not applied");
+    assertEquals(8, assignment.getConflicts().size(), "Check if every booked seat is reported");
+    assertTrue(showtime.getSeats().isAvailable(1, 0), "Check if free seat is not booked on conflict");
+    assertEquals(1, handler.saveCount, "Check if showtime is not persisted on conflict");
+
+    assignment = handler.bulkAssignSeat(showtimeIdx, seatCodes.subList(0, 8), false);
+    assertTrue(assignment.isApplied(), "Check if seats are released");
+    assertEquals(0, showtime.getSeats().getBookedCount(), "Check if every seat is released");
+    assertEquals(2, handler.saveCount, "Check if showtime is persisted once for all seats");
+
+    assertNull(handler.bulkAssignSeat(-1, seatCodes, true), "Check if missing showtime is not assigned");
+  }
+
+  private static void assertConflict(SeatAssignment.SeatConflict conflict, int row, int col, Conflict expected) {
+    assertArrayEquals(new int[]{row, col}, conflict.getSeatCode(), "Check if conflicting seat is reported");
+    assertEquals(expected, conflict.getConflict(), "Check if conflict is reported");
+  }
+
+  /**
+   * Showtime handler counting persists, without writing to the datasource
+   */
+  private static class CountingShowtimeHandler extends ShowtimeHandler {
+    private int saveCount = 0;
+
+    private int addShowtime(Showtime showtime) {
+      this.showtimes.add(showtime);
+      return this.showtimes.size() - 1;
+    }
+
+    @Override
+    protected boolean saveShowtimes() {
+      this.saveCount++;
+      return true;
+    }
+  }
+}
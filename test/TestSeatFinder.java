@@ -0,0 +1,171 @@
+import moblima.entities.HallLayout;
+import moblima.entities.SeatMap;
+import moblima.utils.services.booking.SeatFinder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test seat finder.
+ */
+@Tag("TestSeatFinder")
+public class TestSeatFinder {
+
+  /**
+   * Test centre run is picked.
+   */
+  @Test
+  public void testCentreRun() {
+    // Aisles before cols 2 and 6
+    SeatMap seats = new SeatMap(5, 8);
+
+    List<int[]> seatCodes = SeatFinder.findContiguous(seats, 4);
+    assertNotNull(seatCodes, "Check if run is found");
+    assertEquals(4, seatCodes.size(), "Check if run has as many seats");
+    for (int i = 0; i < seatCodes.size(); i++) {
+      assertEquals(2, seatCodes.get(i)[0], "Check if centre row is picked");
+      assertEquals(2 + i, seatCodes.get(i)[1], "Check if centre block is picked");
+    }
+
+    // Centre row taken, next closest rows are either side
+    seats.bulkAssign(List.of(new int[]{2, 3}), false);
+    seatCodes = SeatFinder.findContiguous(seats, 4);
+    assertNotNull(seatCodes, "Check if run is found");
+    assertEquals(1, Math.abs(seatCodes.get(0)[0] - 2), "Check if row next to centre is picked");
+    assertEquals(2, seatCodes.get(0)[1], "Check if centre block is picked");
+  }
+
+  /**
+   * Test runs never cross an aisle.
+   */
+  @Test
+  public void testRunsNeverCrossAisle() {
+    SeatMap seats = new SeatMap(1, 8);
+    seats.bulkAssign(List.of(new int[]{0, 3}, new int[]{0, 4}, new int[]{0, 5}), false);
+
+    // Free: 0, 1 | 2 | 6, 7
+    assertNull(SeatFinder.findContiguous(seats, 3), "Check if run across an aisle is not found");
+    assertNotNull(SeatFinder.findContiguous(seats, 2), "Check if run within a block is found");
+
+    List<int[]> seatCodes = SeatFinder.findBest(seats, 3);
+    assertNotNull(seatCodes, "Check if seats are split across blocks");
+    assertEquals(3, seatCodes.size(), "Check if as many seats are found");
+    assertDistinctAndAvailable(seats, seatCodes);
+  }
+
+  /**
+   * Test large groups fall back to split rows.
+   */
+  @Test
+  public void testSplitFallback() {
+    SeatMap seats = new SeatMap(2, 8);
+
+    assertNull(SeatFinder.findContiguous(seats, 10), "Check if run longer than a row is not found");
+    List<int[]> seatCodes = SeatFinder.findBest(seats, 10);
+    assertNotNull(seatCodes, "Check if seats are split");
+    assertEquals(10, seatCodes.size(), "Check if as many seats are found");
+    assertDistinctAndAvailable(seats, seatCodes);
+
+    // Largest blocks first: both centre blocks, then a side block
+    List<Integer> blockSizes = blockSizes(seats.getLayout(), seatCodes);
+    assertEquals(List.of(4, 4, 2), blockSizes, "Check if group is split into the fewest blocks");
+  }
+
+  /**
+   * Test null when too few seats are free.
+   */
+  @Test
+  public void testTooFewSeats() {
+    SeatMap seats = new SeatMap(1, 8);
+    List<int[]> bookedSeats = new ArrayList<int[]>();
+    for (int col = 0; col < 6; col++) bookedSeats.add(new int[]{0, col});
+    seats.bulkAssign(bookedSeats, false);
+
+    assertNull(SeatFinder.findBest(seats, 3), "Check if no seats are found when too few are free");
+    assertNull(SeatFinder.findContiguous(seats, 3), "Check if no run is found when too few are free");
+    assertNotNull(SeatFinder.findBest(seats, 2), "Check if remaining seats are found");
+    assertNull(SeatFinder.findBest(seats, 0), "Check if no seats are found for an empty group");
+  }
+
+  /**
+   * Test runs match a seat by seat scan on wide halls.
+   */
+  @Test
+  public void testWideHall() {
+    Random random = new Random(42);
+    for (int round = 0; round < 200; round++) {
+      int cols = 60 + random.nextInt(80);
+      HallLayout layout = HallLayout.of(4, cols, new int[]{random.nextInt(cols), random.nextInt(cols)}, new ArrayList<int[]>());
+      SeatMap seats = new SeatMap(layout);
+
+      List<int[]> bookedSeats = new ArrayList<int[]>();
+      for (int row = 0; row < 4; row++) {
+        for (int col = 0; col < cols; col++) if (random.nextInt(4) == 0) bookedSeats.add(new int[]{row, col});
+      }
+      seats.bulkAssign(bookedSeats, false);
+
+      int count = 1 + random.nextInt(12);
+      List<int[]> seatCodes = SeatFinder.findContiguous(seats, count);
+      long expectedScore = bestScore(seats, count);
+      if (expectedScore == Long.MAX_VALUE) {
+        assertNull(seatCodes, "Check if no run is found when none exists");
+        continue;
+      }
+      assertNotNull(seatCodes, "Check if existing run is found");
+      assertDistinctAndAvailable(seats, seatCodes);
+      assertEquals(List.of(count), blockSizes(layout, seatCodes), "Check if run is a single block");
+      assertEquals(expectedScore, score(seats, seatCodes.get(0)[0], seatCodes.get(0)[1], count), "Check if run closest to the centre is found");
+    }
+  }
+
+  private static void assertDistinctAndAvailable(SeatMap seats, List<int[]> seatCodes) {
+    Set<Integer> seen = new HashSet<Integer>();
+    for (int[] seatCode : seatCodes) {
+      assertTrue(seats.isAvailable(seatCode[0], seatCode[1]), "Check if found seat is available");
+      assertTrue(seen.add(seatCode[0] * seats.getColCount() + seatCode[1]), "Check if found seat is distinct");
+    }
+  }
+
+  /**
+   * Gets the sizes of the blocks of seats, side by side in a row without an aisle between them.
+   */
+  private static List<Integer> blockSizes(HallLayout layout, List<int[]> seatCodes) {
+    List<Integer> sizes = new ArrayList<Integer>();
+    int[] previous = null;
+    for (int[] seatCode : seatCodes) {
+      boolean isLinked = previous != null && previous[0] == seatCode[0] && previous[1] + 1 == seatCode[1] && !layout.isAisle(seatCode[1]);
+      if (isLinked) sizes.set(sizes.size() - 1, sizes.get(sizes.size() - 1) + 1);
+      else sizes.add(1);
+      previous = seatCode;
+    }
+    return sizes;
+  }
+
+  private static long bestScore(SeatMap seats, int count) {
+    long best = Long.MAX_VALUE;
+    HallLayout layout = seats.getLayout();
+    for (int row = 0; row < seats.getRowCount(); row++) {
+      for (int col = 0; col + count <= seats.getColCount(); col++) {
+        boolean isRun = true;
+        for (int c = col; c < col + count && isRun; c++) {
+          isRun = seats.isAvailable(row, c) && (c == col || !layout.isAisle(c));
+        }
+        if (isRun) best = Math.min(best, score(seats, row, col, count));
+      }
+    }
+    return best;
+  }
+
+  private static long score(SeatMap seats, int row, int col, int count) {
+    long rowOffset = 2L * row - (seats.getRowCount() - 1);
+    long colOffset = 2L * col + count - 1 - (seats.getColCount() - 1);
+    return colOffset * colOffset + rowOffset * rowOffset;
+  }
+}
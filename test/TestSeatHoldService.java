@@ -0,0 +1,242 @@
+import moblima.entities.SeatHold;
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.utils.services.holds.SeatHoldService;
+import moblima.utils.services.holds.TimingWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test seat hold service.
+ */
+@Tag("TestSeatHoldService")
+public class TestSeatHoldService {
+  private static final long HOLD_TTL = 50;
+  private static final long EXPIRY_WAIT = 2000;
+
+  private TimingWheel wheel;
+  private SeatHoldService holdService;
+  private String showtimeId;
+  private SeatMap seats;
+
+  /**
+   * Sets up a hold service on a short tick wheel.
+   */
+  @BeforeEach
+  public void setUp() {
+    this.wheel = new TimingWheel("test-seat-hold-sweeper", 10, 8);
+    this.holdService = new SeatHoldService(this.wheel, HOLD_TTL);
+    this.showtimeId = UUID.randomUUID().toString();
+    this.seats = new SeatMap(5, 8);
+  }
+
+  /**
+   * Tear down.
+   */
+  @AfterEach
+  public void tearDown() {
+    this.wheel.stop();
+  }
+
+  /**
+   * Test hold is all or none.
+   */
+  @Test
+  public void testHoldAllOrNone() {
+    SeatHoldService holdService = new SeatHoldService(this.wheel, TimeUnit.MINUTES.toMillis(5));
+    assertNotNull(holdService.hold("a", this.showtimeId, this.seats, List.of(new int[]{0, 1})), "Check if free seat is held");
+    this.seats.bulkAssign(List.<int[]>of(new int[]{0, 3}), false);
+
+    assertNull(holdService.hold("b", this.showtimeId, this.seats, List.of(new int[]{0, 0}, new int[]{0, 1})), "Check if hold including a held seat fails");
+    assertNull(holdService.hold("b", this.showtimeId, this.seats, List.of(new int[]{0, 2}, new int[]{0, 3})), "Check if hold including a booked seat fails");
+    assertNull(holdService.hold("b", this.showtimeId, this.seats, List.of(new int[]{0, 4}, new int[]{9, 9})), "Check if hold including an invalid seat fails");
+
+    assertFalse(this.seats.isHeld(0, 0), "Check if no seat of failed hold is left held");
+    assertFalse(this.seats.isHeld(0, 2), "Check if no seat of failed hold is left held");
+    assertFalse(this.seats.isHeld(0, 4), "Check if no seat of failed hold is left held");
+    assertEquals(1, this.seats.getHeldCount(), "Check if only the first hold is held");
+    assertTrue(holdService.getHolds("b", this.showtimeId).isEmpty(), "Check if failed holds are not tracked");
+  }
+
+  /**
+   * Test release.
+   */
+  @Test
+  public void testRelease() {
+    SeatHoldService holdService = new SeatHoldService(this.wheel, TimeUnit.MINUTES.toMillis(5));
+    CountDownLatch released = new CountDownLatch(1);
+    holdService.addReleaseListener(new SeatHoldService.ReleaseListener() {
+      @Override
+      public void onHoldReleased(SeatHold hold, SeatMap seats) {
+        released.countDown();
+      }
+
+      @Override
+      public void onSeatsReleased(String showtimeId, SeatMap seats) {
+      }
+    });
+
+    SeatHold hold = holdService.hold("a", this.showtimeId, this.seats, List.of(new int[]{1, 0}, new int[]{1, 1}));
+    assertNotNull(hold, "Check if free seats are held");
+    assertEquals(2, this.seats.getHeldCount(), "Check if seats are held");
+
+    assertTrue(holdService.release(hold.getId()), "Check if hold is released");
+    assertEquals(0, this.seats.getHeldCount(), "Check if seats are no longer held");
+    assertEquals(0, released.getCount(), "Check if listener is told of release");
+    assertFalse(holdService.release(hold.getId()), "Check if hold is released only once");
+    assertTrue(holdService.getHolds("a", null).isEmpty(), "Check if released hold is not tracked");
+  }
+
+  /**
+   * Test hold expiry.
+   */
+  @Test
+  public void testExpiry() throws InterruptedException {
+    CountDownLatch expired = new CountDownLatch(1);
+    this.holdService.addReleaseListener(new SeatHoldService.ReleaseListener() {
+      @Override
+      public void onHoldReleased(SeatHold hold, SeatMap seats) {
+        expired.countDown();
+      }
+
+      @Override
+      public void onSeatsReleased(String showtimeId, SeatMap seats) {
+      }
+    });
+
+    SeatHold hold = this.holdService.hold("a", this.showtimeId, this.seats, List.of(new int[]{2, 3}, new int[]{2, 4}));
+    assertNotNull(hold, "Check if free seats are held");
+    assertTrue(expired.await(EXPIRY_WAIT, TimeUnit.MILLISECONDS), "Check if hold expires");
+
+    assertEquals(0, this.seats.getHeldCount(), "Check if expired seats are no longer held");
+    assertTrue(this.seats.isAvailable(2, 3), "Check if expired seats are available");
+    assertTrue(this.holdService.getHolds("a", this.showtimeId).isEmpty(), "Check if expired hold is not tracked");
+    assertFalse(this.holdService.release(hold.getId()), "Check if expired hold cannot be released");
+  }
+
+  /**
+   * Test transfer after expiry.
+   */
+  @Test
+  public void testTransferAfterExpiry() throws InterruptedException {
+    SeatHold hold = this.holdService.hold("a", this.showtimeId, this.seats, List.of(new int[]{3, 0}));
+    assertNotNull(hold, "Check if free seat is held");
+
+    long deadline = System.currentTimeMillis() + EXPIRY_WAIT;
+    while (this.seats.getHeldCount() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+    assertEquals(0, this.seats.getHeldCount(), "Check if hold expires");
+
+    assertNull(this.holdService.transfer(hold.getId(), "b"), "Check if expired hold cannot be transferred");
+    assertTrue(this.holdService.getHolds("b", null).isEmpty(), "Check if new owner holds nothing");
+  }
+
+  /**
+   * Test transfer before expiry.
+   */
+  @Test
+  public void testTransfer() {
+    SeatHoldService holdService = new SeatHoldService(this.wheel, TimeUnit.MINUTES.toMillis(5));
+    SeatHold hold = holdService.hold("a", this.showtimeId, this.seats, List.of(new int[]{3, 0}));
+    assertNotNull(hold, "Check if free seat is held");
+
+    SeatHold transferredHold = holdService.transfer(hold.getId(), "b");
+    assertNotNull(transferredHold, "Check if hold is transferred");
+    assertEquals("b", transferredHold.getOwnerId(), "Check if hold belongs to new owner");
+    assertTrue(holdService.getHolds("a", null).isEmpty(), "Check if old owner holds nothing");
+    assertTrue(this.seats.isHeld(3, 0), "Check if seat stays held");
+  }
+
+  /**
+   * Test confirm takes over a partial hold.
+   */
+  @Test
+  public void testConfirmPartialHold() {
+    SeatHoldService holdService = new SeatHoldService(this.wheel, TimeUnit.MINUTES.toMillis(5));
+    AtomicBoolean isNotified = new AtomicBoolean(false);
+    holdService.addReleaseListener(new SeatHoldService.ReleaseListener() {
+      @Override
+      public void onHoldReleased(SeatHold hold, SeatMap seats) {
+      }
+
+      @Override
+      public void onSeatsReleased(String showtimeId, SeatMap seats) {
+        isNotified.set(true);
+      }
+    });
+
+    assertNotNull(holdService.hold("a", this.showtimeId, this.seats, List.of(new int[]{4, 0}, new int[]{4, 1})), "Check if free seats are held");
+
+    // Keep (4, 1), drop (4, 0) and add (4, 2)
+    assertTrue(holdService.confirm("a", this.showtimeId, this.seats, List.of(new int[]{4, 1}, new int[]{4, 2})), "Check if booking is confirmed");
+    assertTrue(this.seats.isBooked(4, 1), "Check if held seat is booked");
+    assertTrue(this.seats.isBooked(4, 2), "Check if unheld seat is booked");
+    assertTrue(this.seats.isAvailable(4, 0), "Check if surplus held seat is released");
+    assertEquals(0, this.seats.getHeldCount(), "Check if no seat is left held");
+    assertTrue(holdService.getHolds("a", this.showtimeId).isEmpty(), "Check if hold is taken over");
+    assertTrue(isNotified.get(), "Check if listener is told of surplus release");
+  }
+
+  /**
+   * Test confirm fails once a seat is taken.
+   */
+  @Test
+  public void testConfirmTaken() {
+    SeatHoldService holdService = new SeatHoldService(this.wheel, TimeUnit.MINUTES.toMillis(5));
+    assertNotNull(holdService.hold("a", this.showtimeId, this.seats, List.of(new int[]{4, 3})), "Check if free seat is held");
+    this.seats.bulkAssign(List.<int[]>of(new int[]{4, 4}), false);
+
+    assertFalse(holdService.confirm("a", this.showtimeId, this.seats, List.of(new int[]{4, 3}, new int[]{4, 4})), "Check if booking of taken seat fails");
+    assertFalse(this.seats.isBooked(4, 3), "Check if held seat is not booked");
+    assertEquals(0, this.seats.getHeldCount(), "Check if held seat is released");
+  }
+
+  /**
+   * Test showtime copies only carry a snapshot of the seats held.
+   */
+  @Test
+  public void testShowtimeCopy() {
+    Showtime showtime = new Showtime(this.showtimeId, 1, 1, LocalDateTime.now(), Showtime.ShowType.Digital, this.seats);
+    SeatHoldService holdService = new SeatHoldService(this.wheel, TimeUnit.MINUTES.toMillis(5));
+    assertNotNull(holdService.hold("a", this.showtimeId, showtime.getSeats(), List.of(new int[]{1, 1})), "Check if free seat is held");
+
+    Showtime copy = new Showtime(showtime);
+    assertTrue(copy.getSeats().isImmutable(), "Check if copy carries a snapshot");
+    assertFalse(copy.getSeats().isAvailable(1, 1), "Check if held seat is unavailable in the snapshot");
+
+    holdService.releaseAll("a");
+    assertTrue(this.seats.isAvailable(1, 1), "Check if released seat is available");
+    assertFalse(copy.getSeats().isAvailable(1, 1), "Check if snapshot is unchanged by the live seats");
+    assertThrows(UnsupportedOperationException.class, () -> holdService.hold("b", this.showtimeId, copy.getSeats(), List.of(new int[]{2, 2})), "Check if seats cannot be held from a snapshot");
+    assertEquals(0, this.seats.getHeldCount(), "Check if live seats are not held from a snapshot");
+  }
+
+  /**
+   * Test timing wheel runs and cancels timeouts.
+   */
+  @Test
+  public void testTimingWheel() throws InterruptedException {
+    CountDownLatch ran = new CountDownLatch(1);
+    AtomicBoolean isCancelledRun = new AtomicBoolean(false);
+
+    // Longer than a full turn of the wheel
+    TimingWheel.Timeout timeout = this.wheel.schedule(150, ran::countDown);
+    TimingWheel.Timeout cancelledTimeout = this.wheel.schedule(50, () -> isCancelledRun.set(true));
+    assertTrue(cancelledTimeout.cancel(), "Check if pending timeout is cancelled");
+    assertTrue(cancelledTimeout.isCancelled(), "Check if timeout is marked cancelled");
+
+    assertTrue(ran.await(EXPIRY_WAIT, TimeUnit.MILLISECONDS), "Check if timeout runs");
+    assertFalse(timeout.cancel(), "Check if run timeout cannot be cancelled");
+    assertFalse(isCancelledRun.get(), "Check if cancelled timeout does not run");
+  }
+}
@@ -0,0 +1,143 @@
+import moblima.entities.HallLayout;
+import moblima.entities.SeatMap;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test seat map.
+ */
+@Tag("TestSeatMap")
+public class TestSeatMap {
+  /**
+   * Seats either side of the lane boundary of a 5x10 seat map, at seats 31 and 32
+   */
+  private static final int[] LAST_OF_LANE = new int[]{3, 1};
+  private static final int[] FIRST_OF_LANE = new int[]{3, 2};
+
+  /**
+   * Test holds spanning both lanes are claimed, confirmed and released together.
+   */
+  @Test
+  public void testHoldAcrossLanes() {
+    SeatMap seatMap = new SeatMap(5, 10);
+    long[] mask = seatMap.mask(List.of(LAST_OF_LANE, FIRST_OF_LANE));
+
+    assertTrue(seatMap.tryHold(mask), "Check if seats across lanes are held");
+    assertTrue(seatMap.isHeld(3, 1) && seatMap.isHeld(3, 2), "Check if both lanes are held");
+    assertFalse(seatMap.isBooked(3, 1), "Check if held seat is not booked");
+    assertEquals(2, seatMap.getHeldCount(), "Check if held seats are counted");
+    assertEquals(48, seatMap.getAvailableCount(), "Check if held seats are unavailable");
+    assertFalse(seatMap.tryHold(seatMap.mask(List.<int[]>of(FIRST_OF_LANE))), "Check if held seat is not held twice");
+
+    assertTrue(seatMap.confirmHold(mask), "Check if held seats are confirmed");
+    assertTrue(seatMap.isBooked(3, 1) && seatMap.isBooked(3, 2), "Check if confirmed seats are booked");
+    assertEquals(0, seatMap.getHeldCount(), "Check if confirmed seats are no longer held");
+    assertEquals(2, seatMap.getBookedCount(), "Check if confirmed seats are counted");
+    assertFalse(seatMap.confirmHold(mask), "Check if booked seats are not confirmed twice");
+    assertEquals(0, seatMap.releaseHold(mask), "Check if booked seats are not released as holds");
+    assertEquals(2, seatMap.getBookedCount(), "Check if booked seats are kept");
+  }
+
+  /**
+   * Test a hold is all or none, rolling back lanes claimed before a conflict.
+   */
+  @Test
+  public void testHoldRollback() {
+    SeatMap seatMap = new SeatMap(5, 10);
+    assertTrue(seatMap.assign(4, 9, false), "Check if seat of the second lane is booked");
+
+    long[] mask = seatMap.mask(List.of(new int[]{0, 0}, LAST_OF_LANE, new int[]{4, 9}));
+    assertFalse(seatMap.tryHold(mask), "Check if hold over a booked seat fails");
+    assertTrue(seatMap.isAvailable(0, 0) && seatMap.isAvailable(3, 1), "Check if seats of the first lane are rolled back");
+    assertEquals(0, seatMap.getHeldCount(), "Check if rolled back seats are not counted");
+    assertEquals(1, seatMap.getBookedCount(), "Check if booked seat is kept");
+
+    long[] heldMask = seatMap.mask(List.of(new int[]{0, 0}, FIRST_OF_LANE));
+    assertTrue(seatMap.tryHold(heldMask), "Check if free seats are held");
+    assertEquals(1, seatMap.releaseHold(seatMap.mask(List.of(FIRST_OF_LANE, new int[]{4, 9}))), "Check if only held seats are released");
+    assertTrue(seatMap.isAvailable(3, 2), "Check if released seat is available");
+    assertTrue(seatMap.isBooked(4, 9), "Check if booked seat is not released");
+    assertFalse(seatMap.confirmHold(heldMask), "Check if hold with a released seat is not confirmed");
+    assertTrue(seatMap.isHeld(0, 0), "Check if rest of the hold is left untouched");
+
+    assertFalse(seatMap.tryHold(new long[2]), "Check if mask of another seat map is rejected");
+  }
+
+  /**
+   * Test blocked seats are never occupied.
+   */
+  @Test
+  public void testBlockedSeats() {
+    List<int[]> blockedSeats = new ArrayList<int[]>(List.of(FIRST_OF_LANE));
+    SeatMap seatMap = new SeatMap(HallLayout.of(5, 10, new int[]{}, blockedSeats));
+    assertEquals(49, seatMap.getSeatCount(), "Check if blocked seat is not counted");
+    assertNull(seatMap.mask(List.<int[]>of(FIRST_OF_LANE)), "Check if blocked seat is not masked");
+
+    seatMap.assignAll(false);
+    assertEquals(49, seatMap.getBookedCount(), "Check if blocked seat is not booked");
+    assertFalse(seatMap.isBooked(3, 2), "Check if blocked seat is not booked");
+
+    assertEquals(50, SeatMap.fromWords(5, 10, new long[]{-1L}).getBookedCount(), "Check if seats beyond the grid are dropped");
+  }
+
+  /**
+   * Test seat counts are reported to the listener.
+   */
+  @Test
+  public void testListener() {
+    SeatMap seatMap = new SeatMap(5, 10);
+    seatMap.assign(0, 0, false);
+
+    int[] counts = new int[2];
+    SeatMap.Listener listener = (bookedDelta, heldDelta) -> {
+      counts[0] += bookedDelta;
+      counts[1] += heldDelta;
+    };
+    seatMap.attach(listener);
+    assertArrayEquals(new int[]{1, 0}, counts, "Check if current counts are reported on attach");
+
+    long[] mask = seatMap.mask(List.of(LAST_OF_LANE, FIRST_OF_LANE));
+    seatMap.tryHold(mask);
+    assertArrayEquals(new int[]{1, 2}, counts, "Check if held seats are reported");
+    seatMap.confirmHold(mask);
+    assertArrayEquals(new int[]{3, 0}, counts, "Check if confirmed seats are reported");
+
+    seatMap.detach(listener);
+    assertArrayEquals(new int[]{0, 0}, counts, "Check if counts are removed on detach");
+    seatMap.assign(0, 1, false);
+    assertArrayEquals(new int[]{0, 0}, counts, "Check if detached listener is not reported to");
+  }
+
+  /**
+   * Test snapshots and overlays.
+   */
+  @Test
+  public void testSnapshotAndOverlay() {
+    SeatMap seatMap = new SeatMap(5, 10);
+    seatMap.assign(3, 1, false);
+    seatMap.tryHold(seatMap.mask(List.<int[]>of(FIRST_OF_LANE)));
+
+    SeatMap snapshot = seatMap.snapshot();
+    assertTrue(snapshot.isImmutable(), "Check if snapshot is read-only");
+    assertSame(snapshot, snapshot.snapshot(), "Check if snapshot of a snapshot is itself");
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.assign(0, 0, false), "Check if snapshot rejects changes");
+    seatMap.assign(0, 0, false);
+    assertTrue(snapshot.isAvailable(0, 0), "Check if snapshot is unaffected by later changes");
+    assertTrue(snapshot.isHeld(3, 2), "Check if snapshot keeps holds");
+
+    SeatMap overlay = seatMap.overlay(HallLayout.of(4, 10));
+    assertSame(seatMap, seatMap.overlay(seatMap.getLayout()), "Check if overlay of the same layout is itself");
+    assertTrue(overlay.isBooked(0, 0) && overlay.isBooked(3, 1), "Check if booked seats are carried over");
+    assertFalse(overlay.isHeld(3, 2) || overlay.isBooked(3, 2), "Check if held seats are not carried over");
+    assertEquals(2, overlay.getBookedCount(), "Check if carried over seats are counted");
+
+    SeatMap narrowOverlay = seatMap.overlay(HallLayout.of(5, 8));
+    assertTrue(narrowOverlay.isBooked(3, 1), "Check if booked seat is carried over to a narrower layout");
+    assertEquals(2, narrowOverlay.getBookedCount(), "Check if carried over seats are counted");
+  }
+}
@@ -0,0 +1,85 @@
+import moblima.control.handlers.SettingsHandler;
+import moblima.entities.Settings;
+import moblima.entities.Showtime.ShowType;
+import moblima.utils.datasource.DataContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test settings.
+ */
+@Tag("TestSettings")
+public class TestSettings {
+
+  /**
+   * Test snapshots are read-only and unaffected by edits of their source.
+   */
+  @Test
+  public void testSnapshot() {
+    Settings settings = new SettingsHandler().getCurrentSettings();
+    assertFalse(settings.isSnapshot(), "Check if current settings are editable");
+
+    Settings snapshot = settings.snapshot(7);
+    assertTrue(snapshot.isSnapshot(), "Check if snapshot is read-only");
+    assertEquals(7, snapshot.getVersion(), "Check if snapshot is published as the given version");
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.setAdultTicket(1), "Check if snapshot rejects changes");
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getHolidays().add(LocalDate.now()), "Check if holidays of snapshot reject changes");
+
+    long adultTicket = snapshot.getAdultTicket();
+    settings.setAdultTicket(adultTicket + 100);
+    settings.setHolidays(new ArrayList<LocalDate>(List.of(LocalDate.of(2030, 1, 1))));
+    assertEquals(adultTicket, snapshot.getAdultTicket(), "Check if snapshot is unaffected by edits of its source");
+    assertFalse(snapshot.getHolidays().contains(LocalDate.of(2030, 1, 1)), "Check if holidays of snapshot are unaffected");
+
+    snapshot.getShowSurcharges().put(ShowType.Digital, -1L);
+    assertNotEquals(-1L, snapshot.getShowSurcharges().get(ShowType.Digital), "Check if surcharges of snapshot are copied out");
+
+    Settings copy = new Settings(snapshot);
+    assertFalse(copy.isSnapshot(), "Check if copy of a snapshot is editable");
+    copy.setAdultTicket(adultTicket + 200);
+    assertEquals(adultTicket, snapshot.getAdultTicket(), "Check if snapshot is unaffected by edits of its copy");
+  }
+
+  /**
+   * Test settings are published as successive versions, and listeners are told of each.
+   */
+  @Test
+  public void testPublish() {
+    SettingsHandler handler = new SettingsHandler();
+    DataContext context = DataContext.getInstance();
+    Settings original = handler.getCurrentSettings();
+
+    List<Settings[]> changes = new ArrayList<Settings[]>();
+    DataContext.SettingsListener listener = (previous, current) -> changes.add(new Settings[]{previous, current});
+    context.addSettingsListener(listener);
+    try {
+      Settings previous = handler.getSettingsSnapshot();
+      assertSame(previous, handler.getSettingsSnapshot(), "Check if readers share the snapshot");
+
+      Settings settings = handler.getCurrentSettings();
+      settings.setAdultTicket(settings.getAdultTicket() + 100);
+      Settings current = context.setSettings(settings);
+      assertTrue(current.isSnapshot(), "Check if published settings are read-only");
+      assertEquals(previous.getVersion() + 1, current.getVersion(), "Check if settings are published as the next version");
+      assertSame(current, handler.getSettingsSnapshot(), "Check if readers get the published snapshot");
+      assertEquals(previous.getAdultTicket() + 100, current.getAdultTicket(), "Check if published settings are in effect");
+
+      assertEquals(1, changes.size(), "Check if listener is told of the change");
+      assertSame(previous, changes.get(0)[0], "Check if listener is told of the previous snapshot");
+      assertSame(current, changes.get(0)[1], "Check if listener is told of the current snapshot");
+
+      context.removeSettingsListener(listener);
+      context.setSettings(settings);
+      assertEquals(1, changes.size(), "Check if removed listener is not told of changes");
+    } finally {
+      context.removeSettingsListener(listener);
+      context.setSettings(original);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.utils.services.booking.ShowtimeSchedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test showtime schedule.
+ */
+@Tag("TestShowtimeSchedule")
+public class TestShowtimeSchedule {
+  private static final int RUNTIME = 120;
+  private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+  private final ShowtimeSchedule schedule = ShowtimeSchedule.getInstance();
+  private final List<String> trackedIds = new ArrayList<String>();
+
+  /**
+   * Stops tracking the showtimes of the test.
+   */
+  @AfterEach
+  public void tearDown() {
+    for (String showtimeId : this.trackedIds) this.schedule.untrack(showtimeId);
+    this.trackedIds.clear();
+  }
+
+  private Showtime track(int cinemaId, LocalDateTime datetime) {
+    Showtime showtime = newShowtime(cinemaId, datetime);
+    this.schedule.track(showtime, RUNTIME);
+    this.trackedIds.add(showtime.getId());
+    return showtime;
+  }
+
+  private static Showtime newShowtime(int cinemaId, LocalDateTime datetime) {
+    return new Showtime(UUID.randomUUID().toString(), cinemaId, 1, datetime, Showtime.ShowType.Digital, new SeatMap(1, 1));
+  }
+
+  /**
+   * Test overlapping showtimes clash, back to back showtimes do not.
+   */
+  @Test
+  public void testOverlap() {
+    int cinemaId = -101;
+    long buffer = this.schedule.getCleaningBuffer();
+    Showtime showtime = this.track(cinemaId, START);
+    LocalDateTime cleanedAt = START.plusMinutes(RUNTIME + buffer);
+
+    assertEquals(List.of(showtime.getId()), this.schedule.getClashes(cinemaId, START.plusMinutes(30), RUNTIME, null), "Check if overlapping showtime clashes");
+    assertEquals(List.of(showtime.getId()), this.schedule.getClashes(cinemaId, START.minusMinutes(30), RUNTIME, null), "Check if showtime running into another clashes");
+    assertEquals(List.of(showtime.getId()), this.schedule.getClashes(cinemaId, cleanedAt.minusMinutes(1), RUNTIME, null), "Check if showtime within cleaning buffer clashes");
+    assertTrue(this.schedule.getClashes(cinemaId, cleanedAt, RUNTIME, null).isEmpty(), "Check if back to back showtime does not clash");
+    assertTrue(this.schedule.getClashes(cinemaId, START.minusMinutes(RUNTIME + buffer), RUNTIME, null).isEmpty(), "Check if back to back showtime does not clash");
+    assertTrue(this.schedule.getClashes(cinemaId - 1, START, RUNTIME, null).isEmpty(), "Check if showtime of another cinema does not clash");
+  }
+
+  /**
+   * Test showtime being updated is left out.
+   */
+  @Test
+  public void testExcludeOnUpdate() {
+    int cinemaId = -102;
+    Showtime showtime = this.track(cinemaId, START);
+    Showtime laterShowtime = this.track(cinemaId, START.plusHours(4));
+
+    assertTrue(this.schedule.getClashes(cinemaId, START.plusMinutes(10), RUNTIME, showtime.getId()).isEmpty(), "Check if moved showtime does not clash with itself");
+    assertEquals(List.of(laterShowtime.getId()), this.schedule.getClashes(cinemaId, START.plusHours(3), RUNTIME, showtime.getId()), "Check if moved showtime clashes with others");
+
+    // Tracking again moves the showtime
+    showtime.setDatetime(START.plusHours(8));
+    this.schedule.track(showtime, RUNTIME);
+    assertTrue(this.schedule.getClashes(cinemaId, START, RUNTIME, null).isEmpty(), "Check if moved showtime frees its previous slot");
+    assertEquals(List.of(showtime.getId()), this.schedule.getClashes(cinemaId, START.plusHours(8), RUNTIME, null), "Check if moved showtime takes its new slot");
+
+    this.schedule.untrack(laterShowtime.getId());
+    assertTrue(this.schedule.getClashes(cinemaId, START.plusHours(4), RUNTIME, null).isEmpty(), "Check if untracked showtime does not clash");
+  }
+
+  /**
+   * Test clashes match a scan of every showtime.
+   */
+  @Test
+  public void testClashesMatchScan() {
+    int cinemaId = -103;
+    long buffer = this.schedule.getCleaningBuffer();
+    Random random = new Random(7);
+
+    List<Showtime> showtimes = new ArrayList<Showtime>();
+    for (int i = 0; i < 300; i++) showtimes.add(this.track(cinemaId, START.plusMinutes(random.nextInt(60 * 24 * 30))));
+
+    for (int i = 0; i < 300; i++) {
+      LocalDateTime datetime = START.plusMinutes(random.nextInt(60 * 24 * 30));
+      List<String> expected = new ArrayList<String>();
+      for (Showtime showtime : showtimes) {
+        boolean isOverlap = showtime.getDatetime().isBefore(datetime.plusMinutes(RUNTIME + buffer)) && datetime.isBefore(showtime.getDatetime().plusMinutes(RUNTIME + buffer));
+        if (isOverlap) expected.add(showtime.getId());
+      }
+
+      List<String> clashes = this.schedule.getClashes(cinemaId, datetime, RUNTIME, null);
+      assertEquals(expected.size(), clashes.size(), "Check if every clash is found");
+      assertTrue(clashes.containsAll(expected), "Check if every clash is found");
+    }
+  }
+
+  /**
+   * Test whole schedule is validated.
+   */
+  @Test
+  public void testValidate() {
+    long buffer = this.schedule.getCleaningBuffer();
+    Showtime first = newShowtime(-104, START);
+    Showtime backToBack = newShowtime(-104, START.plusMinutes(RUNTIME + buffer));
+    Showtime overlapping = newShowtime(-104, START.plusMinutes(RUNTIME));
+    Showtime otherCinema = newShowtime(-105, START);
+
+    Map<String, List<String>> clashes = this.schedule.validate(List.of(overlapping, otherCinema, backToBack, first), movieId -> RUNTIME);
+    assertEquals(2, clashes.size(), "Check if only the showtimes of the same cinema clash");
+    assertEquals(List.of(first.getId()), clashes.get(overlapping.getId()), "Check if showtime clashes with the earlier showtime");
+    // Back to back with the first showtime, but within the overlapping one
+    assertEquals(List.of(overlapping.getId()), clashes.get(backToBack.getId()), "Check if back to back showtime clashes only with the overlapping showtime");
+    assertFalse(clashes.containsKey(otherCinema.getId()), "Check if showtime of another cinema does not clash");
+
+    assertTrue(this.schedule.getClashes(-104, START, RUNTIME, null).isEmpty(), "Check if validated showtimes are not tracked");
+  }
+}
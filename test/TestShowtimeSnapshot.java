@@ -0,0 +1,125 @@
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.utils.datasource.ShowtimeSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test showtime snapshot.
+ */
+@Tag("TestShowtimeSnapshot")
+public class TestShowtimeSnapshot {
+  private static final Path CSV_PATH = Paths.get("data", ShowtimeSnapshot.CSV_FILE);
+  private static final Path SNAPSHOT_PATH = Paths.get("data", ShowtimeSnapshot.SNAPSHOT_FILE);
+
+  private byte[] storedCsv = null;
+  private byte[] storedSnapshot = null;
+
+  /**
+   * Sets up with the showtimes stored aside.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    if (Files.exists(CSV_PATH)) this.storedCsv = Files.readAllBytes(CSV_PATH);
+    if (Files.exists(SNAPSHOT_PATH)) this.storedSnapshot = Files.readAllBytes(SNAPSHOT_PATH);
+  }
+
+  /**
+   * Restores the showtimes.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    if (this.storedCsv != null) Files.write(CSV_PATH, this.storedCsv);
+    else Files.deleteIfExists(CSV_PATH);
+    if (this.storedSnapshot != null) Files.write(SNAPSHOT_PATH, this.storedSnapshot);
+    else Files.deleteIfExists(SNAPSHOT_PATH);
+  }
+
+  private static List<Showtime> newShowtimes(int movieId) {
+    List<Showtime> showtimes = new ArrayList<Showtime>();
+    LocalDateTime datetime = LocalDateTime.of(2030, 1, 7, 18, 30);
+    for (int i = 0; i < 3; i++) {
+      // Seat maps either side of a word, 40 and 70 seats
+      SeatMap seats = new SeatMap(5 + 2 * i, 8 + i);
+      seats.assign(0, 0, false);
+      seats.assign(4 + 2 * i, 7 + i, false);
+      showtimes.add(new Showtime(UUID.randomUUID().toString(), i, movieId, datetime.plusDays(i), Showtime.ShowType.values()[i % Showtime.ShowType.values().length], seats));
+    }
+    return showtimes;
+  }
+
+  private static void assertShowtimesEqual(List<Showtime> expected, List<Showtime> showtimes) {
+    assertEquals(expected.size(), showtimes.size(), "Check if every showtime is read back");
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getId(), showtimes.get(i).getId(), "Check if id is read back");
+      assertEquals(expected.get(i).getCinemaId(), showtimes.get(i).getCinemaId(), "Check if cinema id is read back");
+      assertEquals(expected.get(i).getMovieId(), showtimes.get(i).getMovieId(), "Check if movie id is read back");
+      assertEquals(expected.get(i).getDatetime(), showtimes.get(i).getDatetime(), "Check if datetime is read back");
+      assertEquals(expected.get(i).getType(), showtimes.get(i).getType(), "Check if show type is read back");
+      assertArrayEquals(expected.get(i).getSeats().getWords(), showtimes.get(i).getSeats().getWords(), "Check if seats are read back");
+    }
+  }
+
+  /**
+   * Test showtimes written to a snapshot are read back.
+   */
+  @Test
+  public void testRoundTrip() {
+    List<Showtime> showtimes = newShowtimes(1);
+    assertTrue(ShowtimeSnapshot.write(showtimes, ShowtimeSnapshot.SNAPSHOT_FILE), "Check if snapshot is written");
+
+    try (ShowtimeSnapshot snapshot = ShowtimeSnapshot.open(ShowtimeSnapshot.SNAPSHOT_FILE)) {
+      assertNotNull(snapshot, "Check if snapshot is opened");
+      assertEquals(3, snapshot.size(), "Check if showtimes are counted");
+      assertShowtimesEqual(showtimes, snapshot.readAll());
+
+      // Single showtime, without decoding the rest
+      Showtime showtime = showtimes.get(2);
+      assertEquals(showtime.getId(), snapshot.getId(2), "Check if id is read in place");
+      assertEquals(showtime.getDatetime(), snapshot.getDatetime(2), "Check if datetime is read in place");
+      assertFalse(snapshot.isAvailable(2, 8, 9), "Check if booked seat is read in place");
+      assertTrue(snapshot.isAvailable(2, 8, 8), "Check if available seat is read in place");
+      assertEquals(showtime.getSeats().getAvailableCount(), snapshot.getAvailableSeatCount(2), "Check if available seats are counted in place");
+    }
+  }
+
+  /**
+   * Test snapshot is only read while at least as recent as the CSV.
+   */
+  @Test
+  public void testStaleness() throws IOException {
+    List<Showtime> showtimes = newShowtimes(1);
+    assertTrue(ShowtimeSnapshot.writeAll(showtimes), "Check if showtimes are written");
+    assertTrue(ShowtimeSnapshot.isFresh(), "Check if snapshot written after the CSV is fresh");
+    assertShowtimesEqual(showtimes, ShowtimeSnapshot.readShowtimes());
+
+    // Snapshot of other showtimes, left older than the CSV
+    assertTrue(ShowtimeSnapshot.write(newShowtimes(2), ShowtimeSnapshot.SNAPSHOT_FILE), "Check if snapshot is written");
+    Files.setLastModifiedTime(SNAPSHOT_PATH, FileTime.fromMillis(Files.getLastModifiedTime(CSV_PATH).toMillis() - 60000));
+    assertFalse(ShowtimeSnapshot.isFresh(), "Check if snapshot older than the CSV is stale");
+    assertShowtimesEqual(showtimes, ShowtimeSnapshot.readShowtimes());
+
+    // Corrupted snapshot
+    Files.write(SNAPSHOT_PATH, new byte[]{1, 2, 3});
+    assertTrue(ShowtimeSnapshot.isFresh(), "Check if rewritten snapshot is fresh");
+    assertNull(ShowtimeSnapshot.open(ShowtimeSnapshot.SNAPSHOT_FILE), "Check if corrupted snapshot is not opened");
+    assertShowtimesEqual(showtimes, ShowtimeSnapshot.readShowtimes());
+
+    Files.delete(SNAPSHOT_PATH);
+    assertFalse(ShowtimeSnapshot.isFresh(), "Check if missing snapshot is stale");
+  }
+}
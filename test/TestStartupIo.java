@@ -0,0 +1,60 @@
+import moblima.control.handlers.BookingHandler;
+import moblima.control.handlers.CustomerHandler;
+import moblima.control.handlers.SettingsHandler;
+import moblima.control.handlers.StaffHandler;
+import moblima.entities.Cinema;
+import moblima.entities.Showtime;
+import moblima.utils.datasource.DataContext;
+import moblima.utils.datasource.Datasource;
+import moblima.utils.datasource.PersistenceScheduler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test startup io.
+ */
+@Tag("TestStartupIo")
+public class TestStartupIo {
+
+  /**
+   * Test load is read only.
+   */
+  @Test
+  public void testLoadIsReadOnly() {
+    long reads = Datasource.getReadCount();
+    long writes = Datasource.getWriteCount();
+
+    BookingHandler bookingHandler = new BookingHandler();
+    new CustomerHandler();
+    new StaffHandler();
+    new SettingsHandler();
+
+    // Deferred writes count as well
+    PersistenceScheduler.getInstance().flush();
+
+    assertTrue(Datasource.getReadCount() > reads, "Check if datasources were read");
+    assertEquals(writes, Datasource.getWriteCount(), "Check if no files were written during load");
+
+    // Every file read is timed
+    Map<String, Double> loadTimings = DataContext.getInstance().getLoadTimings();
+    for (DataContext.Dataset<?> dataset : List.of(DataContext.BOOKINGS, DataContext.CINEMAS, DataContext.SHOWTIMES, DataContext.CUSTOMERS, DataContext.STAFFS)) {
+      String fileName = dataset.getFileName();
+      assertTrue(loadTimings.containsKey(fileName), "Check if load of " + fileName + " is timed");
+      assertTrue(loadTimings.get(fileName) >= 0, "Check if load timing of " + fileName + " is recorded");
+    }
+
+    // Cinema-showtime links are built in memory
+    for (Cinema cinema : bookingHandler.getCinemas()) {
+      int expected = bookingHandler.getCinemaShowtimes(cinema.getId()).size();
+      assertEquals(expected, cinema.getShowtimes().size(), "Check if cinema showtimes are linked");
+      for (Showtime showtime : cinema.getShowtimes()) {
+        assertEquals(cinema.getId(), showtime.getCinemaId(), "Check if showtime belongs to cinema");
+      }
+    }
+  }
+}
@@ -0,0 +1,234 @@
+import moblima.entities.SeatHold;
+import moblima.entities.SeatMap;
+import moblima.entities.Showtime;
+import moblima.entities.WaitlistEntry;
+import moblima.utils.datasource.WaitlistJournal;
+import moblima.utils.services.booking.WaitlistService;
+import moblima.utils.services.holds.SeatHoldService;
+import moblima.utils.services.holds.TimingWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The type Test waitlist.
+ */
+@Tag("TestWaitlist")
+public class TestWaitlist {
+  private static final Path JOURNAL_PATH = Paths.get("data", WaitlistJournal.JOURNAL_FILE);
+  private static final long HOLD_TTL = TimeUnit.MINUTES.toMillis(5);
+  private static final long FORFEIT_TTL = 200;
+  private static final long EXPIRY_WAIT = 3000;
+
+  private byte[] storedJournal = null;
+  private TimingWheel wheel;
+  private Showtime showtime;
+
+  /**
+   * Sets up a sold out showtime, without a journal.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    if (Files.exists(JOURNAL_PATH)) this.storedJournal = Files.readAllBytes(JOURNAL_PATH);
+    Files.deleteIfExists(JOURNAL_PATH);
+
+    this.wheel = new TimingWheel("test-waitlist-sweeper", 10, 8);
+    this.showtime = new Showtime(UUID.randomUUID().toString(), 1, 1, LocalDateTime.now().plusDays(1), Showtime.ShowType.Digital, new SeatMap(2, 8));
+    this.showtime.getSeats().assignAll(false);
+  }
+
+  /**
+   * Restores the journal.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    this.wheel.stop();
+    Files.deleteIfExists(JOURNAL_PATH);
+    if (this.storedJournal != null) Files.write(JOURNAL_PATH, this.storedJournal);
+  }
+
+  private WaitlistService newWaitlist(long holdTtl, int compactionThreshold) {
+    return new WaitlistService(new WaitlistJournal(compactionThreshold), new SeatHoldService(this.wheel, holdTtl));
+  }
+
+  /**
+   * Frees seats of the showtime and offers them to its waitlist.
+   */
+  private int freeSeats(WaitlistService waitlist, int count) {
+    SeatMap seats = this.showtime.getSeats();
+    List<int[]> seatCodes = new ArrayList<int[]>();
+    for (int row = 0; row < seats.getRowCount() && seatCodes.size() < count; row++) {
+      for (int col = 0; col < seats.getColCount() && seatCodes.size() < count; col++) {
+        if (seats.isBooked(row, col)) seatCodes.add(new int[]{row, col});
+      }
+    }
+    seats.bulkAssign(seatCodes, true);
+    return waitlist.offer(this.showtime.getId(), seats);
+  }
+
+  /**
+   * Test seats are offered first come first served.
+   */
+  @Test
+  public void testFirstComeFirstServed() {
+    WaitlistService waitlist = this.newWaitlist(HOLD_TTL, WaitlistJournal.DEFAULT_COMPACTION_THRESHOLD);
+    String showtimeId = this.showtime.getId();
+
+    assertNotNull(waitlist.join("a", this.showtime, 2), "Check if customer joins waitlist");
+    assertNotNull(waitlist.join("b", this.showtime, 2), "Check if customer joins waitlist");
+    assertNull(waitlist.join("a", this.showtime, 1), "Check if customer joins waitlist only once");
+    assertNull(waitlist.join("c", this.showtime, 0), "Check if empty request is rejected");
+    assertEquals(1, waitlist.getPosition("a", showtimeId), "Check if first customer is at the head");
+    assertEquals(2, waitlist.getPosition("b", showtimeId), "Check if second customer is behind");
+
+    assertEquals(1, this.freeSeats(waitlist, 2), "Check if only the head is offered seats");
+    assertEquals(0, waitlist.getPosition("a", showtimeId), "Check if first customer is offered seats");
+    assertEquals(1, waitlist.getPosition("b", showtimeId), "Check if second customer moves to the head");
+    assertEquals(1, waitlist.getOffers("a").size(), "Check if offer is held for first customer");
+    assertEquals(0, this.showtime.getSeats().getAvailableCount(), "Check if offered seats are held");
+
+    assertEquals(1, this.freeSeats(waitlist, 2), "Check if next customer is offered seats");
+    assertEquals(0, waitlist.getPosition("b", showtimeId), "Check if second customer is offered seats");
+    assertEquals(0, waitlist.getLength(showtimeId), "Check if waitlist is empty");
+  }
+
+  /**
+   * Test a large head blocks smaller entries behind it.
+   */
+  @Test
+  public void testHeadBlocks() {
+    WaitlistService waitlist = this.newWaitlist(HOLD_TTL, WaitlistJournal.DEFAULT_COMPACTION_THRESHOLD);
+    String showtimeId = this.showtime.getId();
+
+    waitlist.join("a", this.showtime, 4);
+    waitlist.join("b", this.showtime, 1);
+
+    assertEquals(0, this.freeSeats(waitlist, 2), "Check if smaller entry is not offered ahead of the head");
+    assertEquals(1, waitlist.getPosition("a", showtimeId), "Check if head keeps its place");
+    assertEquals(2, waitlist.getPosition("b", showtimeId), "Check if smaller entry keeps waiting");
+    assertEquals(2, this.showtime.getSeats().getAvailableCount(), "Check if seats are not held");
+
+    assertEquals(1, this.freeSeats(waitlist, 2), "Check if head is offered seats once enough are free");
+    assertEquals(0, waitlist.getPosition("a", showtimeId), "Check if head is offered seats");
+    assertEquals(1, waitlist.getPosition("b", showtimeId), "Check if smaller entry is still waiting");
+    assertEquals(4, waitlist.getOffers("a").get(0).getSeats().size(), "Check if head is offered every seat");
+  }
+
+  /**
+   * Test a forfeited offer passes to the next entry.
+   */
+  @Test
+  public void testForfeit() throws InterruptedException {
+    WaitlistService waitlist = this.newWaitlist(FORFEIT_TTL, WaitlistJournal.DEFAULT_COMPACTION_THRESHOLD);
+    String showtimeId = this.showtime.getId();
+
+    waitlist.join("a", this.showtime, 2);
+    waitlist.join("b", this.showtime, 2);
+    assertEquals(1, this.freeSeats(waitlist, 2), "Check if head is offered seats");
+
+    long deadline = System.currentTimeMillis() + EXPIRY_WAIT;
+    while (waitlist.getPosition("b", showtimeId) != 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+    assertEquals(0, waitlist.getPosition("b", showtimeId), "Check if forfeited seats are offered to the next customer");
+    assertEquals(-1, waitlist.getPosition("a", showtimeId), "Check if customer forfeiting seats leaves the waitlist");
+    assertNull(waitlist.claim("a", showtimeId, "a-session"), "Check if forfeited offer cannot be claimed");
+  }
+
+  /**
+   * Test offered seats are claimed.
+   */
+  @Test
+  public void testClaim() {
+    WaitlistService waitlist = this.newWaitlist(HOLD_TTL, WaitlistJournal.DEFAULT_COMPACTION_THRESHOLD);
+    String showtimeId = this.showtime.getId();
+
+    waitlist.join("a", this.showtime, 2);
+    assertNull(waitlist.claim("a", showtimeId, "a-session"), "Check if seats cannot be claimed before offered");
+    this.freeSeats(waitlist, 2);
+
+    SeatHold hold = waitlist.claim("a", showtimeId, "a-session");
+    assertNotNull(hold, "Check if offered seats are claimed");
+    assertEquals("a-session", hold.getOwnerId(), "Check if hold is handed to the booking owner");
+    assertEquals(2, hold.getSeats().size(), "Check if every offered seat is claimed");
+    assertEquals(-1, waitlist.getPosition("a", showtimeId), "Check if claiming customer leaves the waitlist");
+    assertTrue(waitlist.getOffers("a").isEmpty(), "Check if claimed offer is not offered again");
+  }
+
+  /**
+   * Test claiming an offer whose hold has lapsed forfeits it.
+   */
+  @Test
+  public void testClaimLapsedOffer() {
+    SeatHoldService holdService = new SeatHoldService(this.wheel, HOLD_TTL);
+    WaitlistService waitlist = new WaitlistService(new WaitlistJournal(), holdService);
+    String showtimeId = this.showtime.getId();
+
+    waitlist.join("a", this.showtime, 2);
+    this.freeSeats(waitlist, 2);
+    SeatHold offer = waitlist.getOffers("a").get(0);
+
+    // Hold lapses before the waitlist is told
+    holdService.removeReleaseListener(waitlist);
+    assertTrue(holdService.release(offer.getId()), "Check if offered hold is released");
+
+    assertNull(waitlist.claim("a", showtimeId, "a-session"), "Check if lapsed offer cannot be claimed");
+    assertTrue(holdService.getHolds("a-session", showtimeId).isEmpty(), "Check if no seats are held for the booking owner");
+    assertEquals(-1, waitlist.getPosition("a", showtimeId), "Check if customer forfeiting seats leaves the waitlist");
+    assertEquals(0, this.newWaitlist(HOLD_TTL, WaitlistJournal.DEFAULT_COMPACTION_THRESHOLD).getLength(showtimeId), "Check if forfeited entry is not restored");
+  }
+
+  /**
+   * Test waitlists are restored from the journal.
+   */
+  @Test
+  public void testReplay() {
+    WaitlistService waitlist = this.newWaitlist(HOLD_TTL, WaitlistJournal.DEFAULT_COMPACTION_THRESHOLD);
+    String showtimeId = this.showtime.getId();
+
+    waitlist.join("a", this.showtime, 1);
+    waitlist.join("b", this.showtime, 2);
+    waitlist.join("c", this.showtime, 3);
+    assertTrue(waitlist.leave("b", showtimeId), "Check if customer leaves waitlist");
+    assertFalse(waitlist.leave("b", showtimeId), "Check if customer leaves waitlist only once");
+
+    WaitlistService restoredWaitlist = this.newWaitlist(HOLD_TTL, WaitlistJournal.DEFAULT_COMPACTION_THRESHOLD);
+    assertEquals(2, restoredWaitlist.getLength(showtimeId), "Check if waiting entries are restored");
+    assertEquals(1, restoredWaitlist.getPosition("a", showtimeId), "Check if order is restored");
+    assertEquals(2, restoredWaitlist.getPosition("c", showtimeId), "Check if order is restored");
+    assertEquals(-1, restoredWaitlist.getPosition("b", showtimeId), "Check if left entry is not restored");
+  }
+
+  /**
+   * Test journal is compacted once enough entries have left.
+   */
+  @Test
+  public void testCompaction() throws IOException {
+    WaitlistService waitlist = this.newWaitlist(HOLD_TTL, 2);
+    String showtimeId = this.showtime.getId();
+
+    waitlist.join("a", this.showtime, 1);
+    waitlist.join("b", this.showtime, 1);
+    waitlist.join("c", this.showtime, 1);
+    waitlist.leave("a", showtimeId);
+    assertEquals(4, Files.readAllLines(JOURNAL_PATH).size(), "Check if leaving is appended");
+
+    waitlist.leave("b", showtimeId);
+    assertEquals(1, Files.readAllLines(JOURNAL_PATH).size(), "Check if journal is compacted to the waiting entries");
+
+    List<WaitlistEntry> entries = new WaitlistJournal().replay();
+    assertEquals(1, entries.size(), "Check if compacted journal replays the waiting entries");
+    assertEquals("c", entries.get(0).getCustomerId(), "Check if compacted journal keeps the waiting entry");
+  }
+}